@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.docker.core;
+
+import java.util.List;
+
+/**
+ * A {@link IDockerContainerListener} that is told which containers were
+ * added, removed or changed when the list of containers is refreshed.
+ * 
+ * @since 3.2
+ */
+public interface IDockerContainerListener2 extends IDockerContainerListener {
+
+	/**
+	 * Called instead of
+	 * {@link IDockerContainerListener#listChanged(IDockerConnection, List)}
+	 * when the list of {@link IDockerContainer} of the given
+	 * {@link IDockerConnection} was refreshed and some containers changed.
+	 * {@link IDockerContainerListener#listChanged(IDockerConnection, List)} is
+	 * still called when the list is loaded for the first time or cleared.
+	 * 
+	 * @param connection
+	 *            the Docker connection
+	 * @param containers
+	 *            the new list of containers
+	 * @param delta
+	 *            the containers that were added, removed or changed
+	 */
+	void containersChanged(IDockerConnection connection,
+			List<IDockerContainer> containers,
+			IDockerModelDelta<IDockerContainer> delta);
+
+}
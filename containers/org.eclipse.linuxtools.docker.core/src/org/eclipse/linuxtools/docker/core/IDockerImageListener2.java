@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.docker.core;
+
+import java.util.List;
+
+/**
+ * A {@link IDockerImageListener} that is told which images were added,
+ * removed or changed when the list of images is refreshed.
+ * 
+ * @since 3.2
+ */
+public interface IDockerImageListener2 extends IDockerImageListener {
+
+	/**
+	 * Called instead of
+	 * {@link IDockerImageListener#listChanged(IDockerConnection, List)} when
+	 * the list of {@link IDockerImage} of the given {@link IDockerConnection}
+	 * was refreshed and some images changed.
+	 * {@link IDockerImageListener#listChanged(IDockerConnection, List)} is
+	 * still called when the list is loaded for the first time or cleared.
+	 * 
+	 * @param connection
+	 *            the {@link IDockerConnection} in which the list of
+	 *            {@link IDockerImage} changed
+	 * @param images
+	 *            the new list of {@link IDockerImage}
+	 * @param delta
+	 *            the images that were added, removed or changed
+	 */
+	void imagesChanged(IDockerConnection connection, List<IDockerImage> images,
+			IDockerModelDelta<IDockerImage> delta);
+
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.docker.core;
+
+import java.util.List;
+
+/**
+ * The differences between two successive lists of containers or images of a
+ * {@link IDockerConnection}.
+ * 
+ * Elements are compared with {@link Object#equals(Object)}: an element that is
+ * no longer equal to its previous version (for example an image whose
+ * repository changed) is reported as removed and added again, while an element
+ * that is still equal to its previous version but whose other properties
+ * changed is reported as changed.
+ * 
+ * @param <T>
+ *            the type of elements
+ * @since 3.2
+ */
+public interface IDockerModelDelta<T> {
+
+	/**
+	 * @return the elements that were added
+	 */
+	List<T> getAdded();
+
+	/**
+	 * @return the previous versions of the elements that were removed
+	 */
+	List<T> getRemoved();
+
+	/**
+	 * @return the new versions of the elements that changed
+	 */
+	List<T> getChanged();
+
+	/**
+	 * @return <code>true</code> if nothing was added, removed or changed
+	 */
+	boolean isEmpty();
+
+}
@@ -13,8 +13,8 @@ package org.eclipse.linuxtools.internal.docker.core;
 import java.io.IOException;
 
 public abstract class AbstractKillableThread extends Thread {
-	protected boolean kill;
-	protected boolean stop;
+	protected volatile boolean kill;
+	protected volatile boolean stop;
 	protected boolean mayInterrupt;
 
 	/**
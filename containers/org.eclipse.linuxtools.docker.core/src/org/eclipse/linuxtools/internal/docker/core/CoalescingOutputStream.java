@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.linuxtools.docker.core.Activator;
+
+/**
+ * An {@link OutputStream} that gathers small writes into a buffer and passes
+ * them to the underlying stream in larger chunks: when the buffer is full, or
+ * at most a given delay after the first byte was buffered. The buffers are
+ * taken from a shared pool and returned to it when the stream is closed.
+ */
+public class CoalescingOutputStream extends OutputStream {
+
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	private static final BlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<>(
+			16);
+
+	private static final ScheduledExecutorService flusher = Executors
+			.newSingleThreadScheduledExecutor(runnable -> {
+				final Thread thread = new Thread(runnable,
+						"Docker Log Flusher"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private final OutputStream out;
+	private final long flushDelay;
+	private byte[] buffer;
+	private int count;
+	private ScheduledFuture<?> scheduledFlush;
+
+	/**
+	 * Constructor
+	 *
+	 * @param out
+	 *            the underlying stream
+	 * @param flushDelay
+	 *            the maximum time in milliseconds that written bytes are kept
+	 *            in the buffer
+	 */
+	public CoalescingOutputStream(final OutputStream out,
+			final long flushDelay) {
+		this.out = out;
+		this.flushDelay = flushDelay;
+		final byte[] pooledBuffer = bufferPool.poll();
+		this.buffer = pooledBuffer != null ? pooledBuffer
+				: new byte[BUFFER_SIZE];
+	}
+
+	@Override
+	public synchronized void write(final int b) throws IOException {
+		ensureOpen();
+		if (count == buffer.length) {
+			flushBuffer();
+		}
+		buffer[count++] = (byte) b;
+		scheduleFlush();
+	}
+
+	@Override
+	public synchronized void write(final byte[] b, final int off,
+			final int len) throws IOException {
+		ensureOpen();
+		if (len >= buffer.length) {
+			// no need to copy large chunks
+			flushBuffer();
+			out.write(b, off, len);
+			return;
+		}
+		if (len > buffer.length - count) {
+			flushBuffer();
+		}
+		System.arraycopy(b, off, buffer, count, len);
+		count += len;
+		scheduleFlush();
+	}
+
+	/**
+	 * Writes the remaining bytes of the given buffer, without copying them to
+	 * an intermediate array.
+	 *
+	 * @param b
+	 *            the bytes to write
+	 * @throws IOException
+	 *             if the underlying stream could not be written
+	 */
+	public synchronized void write(final ByteBuffer b) throws IOException {
+		ensureOpen();
+		if (b.hasArray() && b.remaining() >= buffer.length) {
+			flushBuffer();
+			out.write(b.array(), b.arrayOffset() + b.position(),
+					b.remaining());
+			b.position(b.limit());
+			return;
+		}
+		while (b.hasRemaining()) {
+			if (count == buffer.length) {
+				flushBuffer();
+			}
+			final int length = Math.min(b.remaining(), buffer.length - count);
+			b.get(buffer, count, length);
+			count += length;
+		}
+		scheduleFlush();
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		ensureOpen();
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (buffer == null) {
+			return;
+		}
+		try {
+			flushBuffer();
+		} finally {
+			bufferPool.offer(buffer);
+			buffer = null;
+			out.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (buffer == null) {
+			throw new IOException("Stream closed"); //$NON-NLS-1$
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+		if (count > 0) {
+			out.write(buffer, 0, count);
+			count = 0;
+		}
+	}
+
+	private void scheduleFlush() {
+		if (scheduledFlush == null && count > 0) {
+			scheduledFlush = flusher.schedule(this::flushScheduled,
+					flushDelay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private synchronized void flushScheduled() {
+		scheduledFlush = null;
+		if (buffer != null) {
+			try {
+				flushBuffer();
+				out.flush();
+			} catch (IOException e) {
+				Activator.log(e);
+			}
+		}
+	}
+}
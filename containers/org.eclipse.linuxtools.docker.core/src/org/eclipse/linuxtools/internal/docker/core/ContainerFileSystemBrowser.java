@@ -0,0 +1,561 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.linuxtools.docker.core.DockerException;
+
+/**
+ * Lists the directories of containers from the headers of the archives of the
+ * Docker archive API, without keeping the content of the files.
+ * <p>
+ * The archive of a directory contains its whole tree, so a single request
+ * gives the listings of all its sub-directories, which are cached per
+ * container and path until the container changes. The transfer of the archive
+ * is aborted when the tree is too large, in which case the directory is
+ * listed by the fallback {@link DirectoryLister}, and is only read completely
+ * if the fallback cannot list it (for example because the image has no
+ * <code>ls</code> command). The root directory, whose tree is always too
+ * large, is listed by the fallback first.
+ * </p>
+ * <p>
+ * A link whose target is outside of the archive it was read from is resolved
+ * when its directory is listed, from the cached listing of its target if any,
+ * and with the fallback {@link DirectoryLister} otherwise.
+ * </p>
+ * <p>
+ * Listing a directory also lists its sub-directories in the background, so
+ * that expanding them does not wait for the daemon. A sub-directory is only
+ * listed this way if its whole archive is small enough, and the pseudo file
+ * systems such as <code>/proc</code> are never listed in the background.
+ * </p>
+ */
+public class ContainerFileSystemBrowser {
+
+	/**
+	 * The archive of a path of a container, whose transfer can be stopped
+	 * before its end.
+	 */
+	public static class Archive extends FilterInputStream {
+
+		/**
+		 * Constructor
+		 *
+		 * @param in
+		 *            the tar archive, closed along with this stream
+		 */
+		public Archive(final InputStream in) {
+			super(in);
+		}
+
+		/**
+		 * Stops the transfer of the rest of the archive and closes it.
+		 * Closing the archive is not enough when it is read from a
+		 * connection, which reads the rest of the archive first. This
+		 * implementation only closes the archive.
+		 *
+		 * @throws IOException
+		 *             if the archive could not be closed
+		 */
+		public void abort() throws IOException {
+			close();
+		}
+	}
+
+	/**
+	 * Reads the archive of a path of a container.
+	 */
+	@FunctionalInterface
+	public interface ArchiveReader {
+
+		/**
+		 * @param containerId
+		 *            the id of the container
+		 * @param path
+		 *            the path in the container
+		 * @return the tar archive of the path
+		 * @throws DockerException
+		 *             if the archive could not be retrieved
+		 * @throws InterruptedException
+		 *             if the thread was interrupted
+		 */
+		Archive read(String containerId, String path)
+				throws DockerException, InterruptedException;
+	}
+
+	/**
+	 * Lists a directory of a container when its archive is too large.
+	 */
+	@FunctionalInterface
+	public interface DirectoryLister {
+
+		/**
+		 * @param containerId
+		 *            the id of the container
+		 * @param path
+		 *            the path of the directory in the container
+		 * @return the files of the directory, or <code>null</code> if it could
+		 *         not be listed this way
+		 * @throws DockerException
+		 *             if the directory could not be listed
+		 */
+		List<ContainerFileProxy> list(String containerId, String path)
+				throws DockerException;
+	}
+
+	/**
+	 * Number of entries after which an archive is abandoned.
+	 */
+	public static final int MAX_ARCHIVE_ENTRIES = 10000;
+
+	/**
+	 * Total size of the files after which an archive is abandoned.
+	 */
+	public static final long MAX_ARCHIVE_SIZE = 32 * 1024 * 1024;
+
+	private static final int MAX_PREFETCHED_DIRECTORIES = 32;
+
+	private static final int PREFETCH_THREADS = 2;
+
+	private static final String ROOT = "/"; //$NON-NLS-1$
+
+	// their archives are large and change all the time
+	private static final String[] PSEUDO_FILE_SYSTEMS = { "/proc", "/sys", //$NON-NLS-1$ //$NON-NLS-2$
+			"/dev" }; //$NON-NLS-1$
+
+	private static final ThreadPoolExecutor prefetcher = new ThreadPoolExecutor(
+			PREFETCH_THREADS, PREFETCH_THREADS, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), runnable -> {
+				final Thread thread = new Thread(runnable,
+						"Docker Container Files Prefetcher"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		prefetcher.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * The files of a directory, with the names of the links whose target was
+	 * outside of the archive they were read from, and is not known to be a
+	 * directory or not yet.
+	 */
+	private static class Listing {
+
+		private final List<ContainerFileProxy> files;
+		private final Set<String> unresolvedLinks;
+
+		private Listing(final List<ContainerFileProxy> files) {
+			this(files, new HashSet<>());
+		}
+
+		private Listing(final List<ContainerFileProxy> files,
+				final Set<String> unresolvedLinks) {
+			this.files = files;
+			this.unresolvedLinks = unresolvedLinks;
+		}
+	}
+
+	private final ArchiveReader archiveReader;
+	private final DirectoryLister directoryLister;
+	private final int maxArchiveEntries;
+	private final long maxArchiveSize;
+	// listings indexed by container id, then by directory path
+	private final Map<String, Map<String, CompletableFuture<Listing>>> listings = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param archiveReader
+	 *            reads the archives of the containers
+	 * @param directoryLister
+	 *            lists the directories whose archive is too large
+	 */
+	public ContainerFileSystemBrowser(final ArchiveReader archiveReader,
+			final DirectoryLister directoryLister) {
+		this(archiveReader, directoryLister, MAX_ARCHIVE_ENTRIES,
+				MAX_ARCHIVE_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param archiveReader
+	 *            reads the archives of the containers
+	 * @param directoryLister
+	 *            lists the directories whose archive is too large
+	 * @param maxArchiveEntries
+	 *            the number of entries after which an archive is abandoned
+	 * @param maxArchiveSize
+	 *            the total size of the files after which an archive is
+	 *            abandoned
+	 */
+	public ContainerFileSystemBrowser(final ArchiveReader archiveReader,
+			final DirectoryLister directoryLister, final int maxArchiveEntries,
+			final long maxArchiveSize) {
+		this.archiveReader = archiveReader;
+		this.directoryLister = directoryLister;
+		this.maxArchiveEntries = maxArchiveEntries;
+		this.maxArchiveSize = maxArchiveSize;
+	}
+
+	/**
+	 * Lists a directory of a container, and its sub-directories in the
+	 * background.
+	 *
+	 * @param containerId
+	 *            the id of the container
+	 * @param path
+	 *            the path of the directory in the container
+	 * @return the files of the directory, empty if it could not be listed
+	 */
+	public List<ContainerFileProxy> list(final String containerId,
+			final String path) {
+		final String directory = normalize(path);
+		final Map<String, CompletableFuture<Listing>> containerListings = this.listings
+				.computeIfAbsent(containerId,
+						id -> new ConcurrentHashMap<>());
+		while (true) {
+			CompletableFuture<Listing> listing = containerListings
+					.get(directory);
+			if (listing == null) {
+				final CompletableFuture<Listing> newListing = new CompletableFuture<>();
+				listing = containerListings.putIfAbsent(directory, newListing);
+				if (listing == null) {
+					load(containerId, directory, containerListings, newListing,
+							false);
+					listing = newListing;
+				}
+			}
+			Listing files;
+			try {
+				files = listing.join();
+			} catch (CancellationException e) {
+				// the archive was too large to be listed in the background
+				continue;
+			} catch (CompletionException e) {
+				return new ArrayList<>();
+			}
+			if (!files.unresolvedLinks.isEmpty()) {
+				files = resolveLinks(containerId, directory, files,
+						containerListings);
+				containerListings.replace(directory, listing,
+						CompletableFuture.completedFuture(files));
+			}
+			prefetch(containerId, files.files, containerListings);
+			return new ArrayList<>(files.files);
+		}
+	}
+
+	/**
+	 * Resolves the links of the given listing whose target was outside of the
+	 * archive they were read from.
+	 */
+	private Listing resolveLinks(final String containerId,
+			final String directory, final Listing listing,
+			final Map<String, CompletableFuture<Listing>> containerListings) {
+		final List<ContainerFileProxy> files = new ArrayList<>();
+		List<ContainerFileProxy> listedFiles = null;
+		boolean listed = false;
+		for (ContainerFileProxy file : listing.files) {
+			if (!listing.unresolvedLinks.contains(file.getName())) {
+				files.add(file);
+				continue;
+			}
+			ContainerFileProxy target = lookup(file.getLink(),
+					containerListings);
+			if (target == null) {
+				if (!listed) {
+					try {
+						// 'ls -L' describes the targets of the links
+						listedFiles = this.directoryLister.list(containerId,
+								directory);
+					} catch (DockerException e) {
+						// keep the links as files
+					}
+					listed = true;
+				}
+				target = find(listedFiles, file.getName());
+			}
+			files.add(new ContainerFileProxy(directory, file.getName(),
+					target != null && target.isFolder(), true,
+					file.getLink()));
+		}
+		return new Listing(files);
+	}
+
+	/**
+	 * @return the file at the given path from the cached listing of its
+	 *         directory, or <code>null</code> if it is not known or is a link
+	 *         whose target is not known
+	 */
+	private static ContainerFileProxy lookup(final String path,
+			final Map<String, CompletableFuture<Listing>> containerListings) {
+		final IPath filePath = new Path(path);
+		if (filePath.segmentCount() == 0) {
+			return new ContainerFileProxy("", "", true); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		final CompletableFuture<Listing> listing = containerListings
+				.get(filePath.removeLastSegments(1).toString());
+		if (listing == null || !listing.isDone()
+				|| listing.isCompletedExceptionally()) {
+			return null;
+		}
+		final Listing files = listing.join();
+		if (files.unresolvedLinks.contains(filePath.lastSegment())) {
+			return null;
+		}
+		return find(files.files, filePath.lastSegment());
+	}
+
+	private static ContainerFileProxy find(
+			final List<ContainerFileProxy> files, final String name) {
+		if (files != null) {
+			for (ContainerFileProxy file : files) {
+				if (file.getName().equals(name)) {
+					return file;
+				}
+			}
+		}
+		return null;
+	}
+
+	private void prefetch(final String containerId,
+			final List<ContainerFileProxy> files,
+			final Map<String, CompletableFuture<Listing>> containerListings) {
+		int prefetched = 0;
+		for (ContainerFileProxy file : files) {
+			if (prefetched >= MAX_PREFETCHED_DIRECTORIES) {
+				return;
+			}
+			if (!file.isFolder() || file.isLink()) {
+				continue;
+			}
+			final String directory = normalize(file.getFullPath());
+			if (isPseudoFileSystem(directory)) {
+				continue;
+			}
+			final CompletableFuture<Listing> newListing = new CompletableFuture<>();
+			if (containerListings.putIfAbsent(directory,
+					newListing) == null) {
+				prefetcher.execute(() -> load(containerId, directory,
+						containerListings, newListing, true));
+				prefetched++;
+			}
+		}
+	}
+
+	private static boolean isPseudoFileSystem(final String directory) {
+		for (String root : PSEUDO_FILE_SYSTEMS) {
+			if (directory.equals(root) || directory.startsWith(root + '/')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Loads the listing of the given directory. When prefetching, the listing
+	 * is cancelled if the archive is too large, so that the directory is
+	 * loaded again if it is listed.
+	 */
+	private void load(final String containerId, final String directory,
+			final Map<String, CompletableFuture<Listing>> containerListings,
+			final CompletableFuture<Listing> listing,
+			final boolean prefetching) {
+		try {
+			Map<String, Listing> tree = directory.equals(ROOT) ? null
+					: readArchive(containerId, directory, true);
+			if (tree == null && prefetching) {
+				containerListings.remove(directory, listing);
+				listing.cancel(false);
+				return;
+			}
+			if (tree == null) {
+				final List<ContainerFileProxy> files = this.directoryLister
+						.list(containerId, directory);
+				if (files != null) {
+					listing.complete(new Listing(files));
+					return;
+				}
+				tree = readArchive(containerId, directory, false);
+			}
+			// keep the listings of the sub-directories, and complete those
+			// that are being prefetched
+			for (Map.Entry<String, Listing> entry : tree.entrySet()) {
+				if (!entry.getKey().equals(directory)) {
+					final CompletableFuture<Listing> subListing = containerListings
+							.putIfAbsent(entry.getKey(), CompletableFuture
+									.completedFuture(entry.getValue()));
+					if (subListing != null) {
+						subListing.complete(entry.getValue());
+					}
+				}
+			}
+			listing.complete(tree.get(directory));
+		} catch (Throwable e) {
+			// let the next call retry
+			containerListings.remove(directory, listing);
+			listing.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Reads the headers of the archive of the given directory.
+	 *
+	 * @return the listings of the directory and of all its sub-directories,
+	 *         or <code>null</code> if the archive is too large and
+	 *         <code>bounded</code> is <code>true</code>
+	 */
+	private Map<String, Listing> readArchive(
+			final String containerId, final String directory,
+			final boolean bounded)
+			throws DockerException, InterruptedException, IOException {
+		final IPath directoryPath = new Path(directory);
+		// the entries are named after the last segment of the directory
+		final String prefix = directoryPath.segmentCount() == 0 ? "" //$NON-NLS-1$
+				: directoryPath.lastSegment();
+		final Set<String> directories = new HashSet<>();
+		directories.add(directory);
+		final List<TarArchiveEntry> entries = new ArrayList<>();
+		final List<IPath> entryPaths = new ArrayList<>();
+		try (Archive stream = this.archiveReader.read(containerId,
+				directory)) {
+			final TarArchiveInputStream archive = new TarArchiveInputStream(
+					stream);
+			long size = 0;
+			TarArchiveEntry entry = null;
+			// the content of each file is skipped when the next entry is read
+			while ((entry = archive.getNextTarEntry()) != null) {
+				size += entry.getSize();
+				if (bounded && (entries.size() >= this.maxArchiveEntries
+						|| size > this.maxArchiveSize)) {
+					stream.abort();
+					return null;
+				}
+				final String relativePath = relativize(entry.getName(),
+						prefix);
+				if (relativePath == null || relativePath.isEmpty()) {
+					continue;
+				}
+				final IPath entryPath = directoryPath.append(relativePath);
+				if (entry.isDirectory()) {
+					directories.add(entryPath.toString());
+				}
+				entries.add(entry);
+				entryPaths.add(entryPath);
+			}
+		}
+		final Map<String, Listing> tree = new HashMap<>();
+		for (String path : directories) {
+			tree.put(path, new Listing(new ArrayList<>()));
+		}
+		for (int i = 0; i < entries.size(); i++) {
+			final TarArchiveEntry entry = entries.get(i);
+			final IPath entryPath = entryPaths.get(i);
+			final String parent = entryPath.removeLastSegments(1).toString();
+			final Listing listing = tree.computeIfAbsent(parent,
+					path -> new Listing(new ArrayList<>()));
+			if (entry.isSymbolicLink()) {
+				final IPath target = entry.getLinkName().startsWith("/") //$NON-NLS-1$
+						? new Path(entry.getLinkName())
+						: entryPath.removeLastSegments(1)
+								.append(entry.getLinkName());
+				final String link = target.removeTrailingSeparator()
+						.toString();
+				if (!directoryPath.isPrefixOf(target)) {
+					listing.unresolvedLinks.add(entryPath.lastSegment());
+				}
+				listing.files.add(new ContainerFileProxy(parent,
+						entryPath.lastSegment(), directories.contains(link),
+						true, link));
+			} else {
+				listing.files.add(new ContainerFileProxy(parent,
+						entryPath.lastSegment(), entry.isDirectory()));
+			}
+		}
+		for (Listing listing : tree.values()) {
+			Collections.sort(listing.files,
+					Comparator.comparing(ContainerFileProxy::getName));
+		}
+		return tree;
+	}
+
+	/**
+	 * @return the path of the given archive entry relative to the archived
+	 *         directory, or <code>null</code> if it is not in this directory
+	 */
+	private static String relativize(final String entryName,
+			final String prefix) {
+		String name = entryName;
+		while (name.startsWith("./") || name.startsWith("/")) { //$NON-NLS-1$ //$NON-NLS-2$
+			name = name.substring(name.indexOf('/') + 1);
+		}
+		if (name.endsWith("/")) { //$NON-NLS-1$
+			name = name.substring(0, name.length() - 1);
+		}
+		if (prefix.isEmpty() || name.equals(".")) { //$NON-NLS-1$
+			return name.equals(".") ? "" : name; //$NON-NLS-1$ //$NON-NLS-2$
+		} else if (name.equals(prefix)) {
+			return ""; //$NON-NLS-1$
+		} else if (name.startsWith(prefix + '/')) {
+			return name.substring(prefix.length() + 1);
+		}
+		return null;
+	}
+
+	private static String normalize(final String path) {
+		final IPath directoryPath = new Path(path).makeAbsolute()
+				.removeTrailingSeparator();
+		return directoryPath.toString();
+	}
+
+	/**
+	 * Discards the listings of the given container.
+	 *
+	 * @param containerId
+	 *            the id of the container that changed
+	 */
+	public void invalidate(final String containerId) {
+		this.listings.remove(containerId);
+	}
+
+	/**
+	 * Discards the listings of all containers.
+	 */
+	public void invalidateAll() {
+		this.listings.clear();
+	}
+
+}
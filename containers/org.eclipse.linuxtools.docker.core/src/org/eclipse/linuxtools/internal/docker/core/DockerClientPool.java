@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.linuxtools.docker.core.DockerException;
+
+import com.spotify.docker.client.DockerClient;
+
+/**
+ * The {@link DockerClient}s used by a {@link DockerConnection} for the
+ * requests that do not go through its main client.
+ * <p>
+ * Short requests share a single long-lived client, whose HTTP connections are
+ * pooled and reused. Requests that hold a connection for a long time or until
+ * they are cancelled, such as following logs or events, attaching to a
+ * container or waiting for it to exit, get a dedicated client. Dedicated
+ * clients are kept for reuse once released, unless they were aborted.
+ * </p>
+ * <p>
+ * The number of concurrent requests of each kind is bounded: acquiring a
+ * client blocks until a running request of the same kind releases its
+ * client.
+ * </p>
+ */
+public class DockerClientPool {
+
+	/**
+	 * Creates the clients of the pool.
+	 */
+	@FunctionalInterface
+	public interface ClientFactory {
+
+		/**
+		 * @return a new {@link DockerClient}, never <code>null</code>
+		 * @throws DockerException
+		 *             if the client could not be created
+		 */
+		DockerClient create() throws DockerException;
+	}
+
+	/**
+	 * A client acquired from the pool, to be closed once the request is done.
+	 */
+	public class Lease implements AutoCloseable {
+
+		private final DockerClient client;
+		private final boolean dedicated;
+		private final int generation;
+		private boolean released;
+
+		private Lease(final DockerClient client, final boolean dedicated,
+				final int generation) {
+			this.client = client;
+			this.dedicated = dedicated;
+			this.generation = generation;
+		}
+
+		/**
+		 * @return the client to send the request with
+		 */
+		public DockerClient client() {
+			return this.client;
+		}
+
+		/**
+		 * Releases the client. A dedicated client is kept for another request.
+		 */
+		@Override
+		public void close() {
+			release(false);
+		}
+
+		/**
+		 * Releases the client and closes it if it is dedicated, which aborts
+		 * any request that it is still running.
+		 */
+		public void abort() {
+			release(true);
+		}
+
+		private void release(final boolean abort) {
+			synchronized (this) {
+				if (this.released) {
+					return;
+				}
+				this.released = true;
+			}
+			if (this.dedicated) {
+				releaseDedicated(this.client, this.generation, abort);
+			} else {
+				releaseShared();
+			}
+		}
+	}
+
+	private final ClientFactory clientFactory;
+	private final int maxIdleDedicatedClients;
+	private final Semaphore sharedPermits;
+	private final Semaphore dedicatedPermits;
+	private final Deque<DockerClient> idleDedicatedClients = new ArrayDeque<>();
+	private final AtomicInteger createdClients = new AtomicInteger();
+	private final AtomicInteger activeSharedRequests = new AtomicInteger();
+	private final AtomicInteger activeDedicatedRequests = new AtomicInteger();
+	private final AtomicLong requests = new AtomicLong();
+	private DockerClient sharedClient;
+	// incremented when the pool is closed, so that the clients that were in
+	// use at that time are closed instead of being kept
+	private int generation;
+
+	/**
+	 * Constructor
+	 *
+	 * @param clientFactory
+	 *            creates the clients
+	 * @param maxSharedRequests
+	 *            the maximum number of concurrent short requests
+	 * @param maxDedicatedRequests
+	 *            the maximum number of concurrent requests on dedicated
+	 *            clients
+	 * @param maxIdleDedicatedClients
+	 *            the maximum number of dedicated clients kept for reuse
+	 */
+	public DockerClientPool(final ClientFactory clientFactory,
+			final int maxSharedRequests, final int maxDedicatedRequests,
+			final int maxIdleDedicatedClients) {
+		this.clientFactory = clientFactory;
+		this.sharedPermits = new Semaphore(maxSharedRequests, true);
+		this.dedicatedPermits = new Semaphore(maxDedicatedRequests, true);
+		this.maxIdleDedicatedClients = maxIdleDedicatedClients;
+	}
+
+	/**
+	 * Acquires the shared client, for a request that completes on its own.
+	 *
+	 * @return the lease of the shared client
+	 * @throws DockerException
+	 *             if the client could not be created
+	 * @throws InterruptedException
+	 *             if the thread was interrupted while waiting for a running
+	 *             request to complete
+	 */
+	public Lease acquire() throws DockerException, InterruptedException {
+		this.sharedPermits.acquire();
+		try {
+			final Lease lease;
+			synchronized (this) {
+				if (this.sharedClient == null) {
+					this.sharedClient = createClient();
+				}
+				lease = new Lease(this.sharedClient, false, this.generation);
+			}
+			this.activeSharedRequests.incrementAndGet();
+			this.requests.incrementAndGet();
+			return lease;
+		} catch (DockerException | RuntimeException e) {
+			this.sharedPermits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Acquires a dedicated client, for a streaming request or a request that
+	 * is only stopped by aborting it.
+	 *
+	 * @return the lease of the dedicated client
+	 * @throws DockerException
+	 *             if the client could not be created
+	 * @throws InterruptedException
+	 *             if the thread was interrupted while waiting for a running
+	 *             request to complete
+	 */
+	public Lease acquireDedicated()
+			throws DockerException, InterruptedException {
+		this.dedicatedPermits.acquire();
+		try {
+			DockerClient client;
+			final int currentGeneration;
+			synchronized (this) {
+				client = this.idleDedicatedClients.poll();
+				currentGeneration = this.generation;
+			}
+			if (client == null) {
+				client = createClient();
+			}
+			this.activeDedicatedRequests.incrementAndGet();
+			this.requests.incrementAndGet();
+			return new Lease(client, true, currentGeneration);
+		} catch (DockerException | RuntimeException e) {
+			this.dedicatedPermits.release();
+			throw e;
+		}
+	}
+
+	private DockerClient createClient() throws DockerException {
+		final DockerClient client = this.clientFactory.create();
+		this.createdClients.incrementAndGet();
+		return client;
+	}
+
+	private void releaseShared() {
+		this.activeSharedRequests.decrementAndGet();
+		this.sharedPermits.release();
+	}
+
+	private void releaseDedicated(final DockerClient client,
+			final int leaseGeneration, final boolean abort) {
+		boolean keep = false;
+		if (!abort) {
+			synchronized (this) {
+				if (leaseGeneration == this.generation
+						&& this.idleDedicatedClients
+								.size() < this.maxIdleDedicatedClients) {
+					this.idleDedicatedClients.push(client);
+					keep = true;
+				}
+			}
+		}
+		if (!keep) {
+			client.close();
+		}
+		this.activeDedicatedRequests.decrementAndGet();
+		this.dedicatedPermits.release();
+	}
+
+	/**
+	 * Closes the shared client and the idle dedicated clients. The clients
+	 * that are in use are closed when they are released. Clients are created
+	 * again if the pool is used afterwards.
+	 */
+	public void close() {
+		final DockerClient client;
+		final DockerClient[] idleClients;
+		synchronized (this) {
+			this.generation++;
+			client = this.sharedClient;
+			this.sharedClient = null;
+			idleClients = this.idleDedicatedClients
+					.toArray(new DockerClient[this.idleDedicatedClients.size()]);
+			this.idleDedicatedClients.clear();
+		}
+		// requests running on the shared client keep it busy until they
+		// complete, which can be long for a build: closing it aborts them as
+		// it used to when the connection was closed
+		if (client != null) {
+			client.close();
+		}
+		for (DockerClient idleClient : idleClients) {
+			idleClient.close();
+		}
+	}
+
+	/**
+	 * @return the number of clients created since the pool was created
+	 */
+	public int getCreatedClientCount() {
+		return this.createdClients.get();
+	}
+
+	/**
+	 * @return the number of short requests running on the shared client
+	 */
+	public int getActiveRequestCount() {
+		return this.activeSharedRequests.get();
+	}
+
+	/**
+	 * @return the number of requests running on dedicated clients
+	 */
+	public int getActiveDedicatedRequestCount() {
+		return this.activeDedicatedRequests.get();
+	}
+
+	/**
+	 * @return the number of dedicated clients kept for reuse
+	 */
+	public synchronized int getIdleDedicatedClientCount() {
+		return this.idleDedicatedClients.size();
+	}
+
+	/**
+	 * @return the number of clients acquired since the pool was created
+	 */
+	public long getRequestCount() {
+		return this.requests.get();
+	}
+
+	@Override
+	public String toString() {
+		return "DockerClientPool [createdClients=" + getCreatedClientCount() //$NON-NLS-1$
+				+ ", activeRequests=" + getActiveRequestCount() //$NON-NLS-1$
+				+ ", activeDedicatedRequests=" //$NON-NLS-1$
+				+ getActiveDedicatedRequestCount() + ", idleDedicatedClients=" //$NON-NLS-1$
+				+ getIdleDedicatedClientCount() + ", requests=" //$NON-NLS-1$
+				+ getRequestCount() + "]"; //$NON-NLS-1$
+	}
+}
@@ -11,6 +11,7 @@
 package org.eclipse.linuxtools.internal.docker.core;
 
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -31,7 +32,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import javax.ws.rs.ProcessingException;
 
@@ -68,13 +72,16 @@ import org.eclipse.linuxtools.docker.core.IDockerContainerConfig;
 import org.eclipse.linuxtools.docker.core.IDockerContainerExit;
 import org.eclipse.linuxtools.docker.core.IDockerContainerInfo;
 import org.eclipse.linuxtools.docker.core.IDockerContainerListener;
+import org.eclipse.linuxtools.docker.core.IDockerContainerListener2;
 import org.eclipse.linuxtools.docker.core.IDockerHostConfig;
 import org.eclipse.linuxtools.docker.core.IDockerImage;
 import org.eclipse.linuxtools.docker.core.IDockerImageBuildOptions;
 import org.eclipse.linuxtools.docker.core.IDockerImageHierarchyNode;
 import org.eclipse.linuxtools.docker.core.IDockerImageInfo;
 import org.eclipse.linuxtools.docker.core.IDockerImageListener;
+import org.eclipse.linuxtools.docker.core.IDockerImageListener2;
 import org.eclipse.linuxtools.docker.core.IDockerImageSearchResult;
+import org.eclipse.linuxtools.docker.core.IDockerModelDelta;
 import org.eclipse.linuxtools.docker.core.IDockerIpamConfig;
 import org.eclipse.linuxtools.docker.core.IDockerNetwork;
 import org.eclipse.linuxtools.docker.core.IDockerNetworkConfig;
@@ -109,11 +116,11 @@ import com.spotify.docker.client.messages.ContainerConfig;
 import com.spotify.docker.client.messages.ContainerCreation;
 import com.spotify.docker.client.messages.ContainerExit;
 import com.spotify.docker.client.messages.ContainerInfo;
+import com.spotify.docker.client.messages.Event;
 import com.spotify.docker.client.messages.ExecCreation;
 import com.spotify.docker.client.messages.HostConfig;
 import com.spotify.docker.client.messages.HostConfig.LxcConfParameter;
 import com.spotify.docker.client.messages.Image;
-import com.spotify.docker.client.messages.ImageInfo;
 import com.spotify.docker.client.messages.ImageSearchResult;
 import com.spotify.docker.client.messages.Info;
 import com.spotify.docker.client.messages.Ipam;
@@ -170,6 +177,35 @@ public class DockerConnection
 
 	}
 
+	/**
+	 * Statuses of the events that change the state of a container.
+	 */
+	private static final Set<String> CONTAINER_EVENTS = new HashSet<>(
+			Arrays.asList("create", "start", "restart", "die", "stop", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+					"kill", "oom", "pause", "unpause", "rename", "update", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+					"destroy")); //$NON-NLS-1$
+	private static final String HEALTH_STATUS_EVENT = "health_status"; //$NON-NLS-1$
+	/**
+	 * Statuses of the events that add, remove or rename images.
+	 */
+	private static final Set<String> IMAGE_EVENTS = new HashSet<>(
+			Arrays.asList("pull", "import", "load", "tag", "untag", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+					"delete", "commit")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Maximum number of concurrent short requests on the pooled client.
+	 */
+	private static final int MAX_SHARED_REQUESTS = 32;
+	/**
+	 * Maximum number of concurrent streaming requests, such as followed logs.
+	 */
+	private static final int MAX_DEDICATED_REQUESTS = 64;
+	private static final int MAX_IDLE_DEDICATED_CLIENTS = 4;
+	/**
+	 * Time in milliseconds during which the result of an inspect request is
+	 * reused.
+	 */
+	private static final long INSPECT_CACHE_TIME_TO_LIVE = 2000;
+
 	private String name;
 	private IDockerConnectionSettings connectionSettings;
 	@SuppressWarnings("unused")
@@ -181,6 +217,10 @@ public class DockerConnection
 	private final Object clientLock = new Object();
 	private DockerClientFactory dockerClientFactory = new DockerClientFactory();
 	private DockerClient client;
+	// clients for the requests that do not go through the main client
+	private final DockerClientPool clientPool = new DockerClientPool(
+			this::newClient, MAX_SHARED_REQUESTS, MAX_DEDICATED_REQUESTS,
+			MAX_IDLE_DEDICATED_CLIENTS);
 
 	private Map<String, Job> actionJobs;
 
@@ -189,10 +229,24 @@ public class DockerConnection
 	// containers sorted by name
 	private List<IDockerContainer> containers;
 	// containers indexed by id
-	private Map<String, IDockerContainer> containersById = new HashMap<>();
+	private final Map<String, IDockerContainer> containersById = new ConcurrentHashMap<>();
 	// flag to indicate if the state of the connection to the Docker daemon
 	private EnumDockerConnectionState state = EnumDockerConnectionState.UNKNOWN;
 	private List<IDockerImage> images;
+	// images indexed by id
+	private final Map<String, IDockerImage> imagesById = new ConcurrentHashMap<>();
+	// images and containers indexed to resolve image hierarchies
+	private final DockerImageHierarchyIndex imageHierarchyIndex = new DockerImageHierarchyIndex();
+	// recent results of inspect requests
+	private final DockerInspectCache<IDockerContainerInfo> containerInfoCache = new DockerInspectCache<>(
+			id -> new DockerContainerInfo(this.client.inspectContainer(id)),
+			INSPECT_CACHE_TIME_TO_LIVE);
+	private final DockerInspectCache<IDockerImageInfo> imageInfoCache = new DockerInspectCache<>(
+			id -> new DockerImageInfo(this.client.inspectImage(id)),
+			INSPECT_CACHE_TIME_TO_LIVE);
+	// recent listings of the directories of the containers
+	private final ContainerFileSystemBrowser fileSystemBrowser = new ContainerFileSystemBrowser(
+			this::readContainerArchive, this::listContainerDirectory);
 	private Boolean isLocalConnection;
 
 	ListenerList<IDockerContainerListener> containerListeners;
@@ -319,8 +373,16 @@ public class DockerConnection
 		case UNKNOWN:
 		case CLOSED:
 			this.images = Collections.emptyList();
+			this.imagesById.clear();
 			this.containers = Collections.emptyList();
-			this.containersById = new HashMap<>();
+			this.containersById.clear();
+			this.imageHierarchyIndex
+					.setImages(Collections.<IDockerImage> emptyList());
+			this.imageHierarchyIndex.setContainers(
+					Collections.<IDockerContainer> emptyList());
+			this.containerInfoCache.invalidateAll();
+			this.imageInfoCache.invalidateAll();
+			this.fileSystemBrowser.invalidateAll();
 			notifyContainerListeners(this.containers);
 			notifyImageListeners(this.images);
 			break;
@@ -372,6 +434,7 @@ public class DockerConnection
 				this.client.close();
 				this.client = null;
 			}
+			this.clientPool.close();
 			setState(EnumDockerConnectionState.CLOSED);
 		}
 	}
@@ -496,27 +559,38 @@ public class DockerConnection
 	}
 
 	/**
-	 * Get a copy of the client to use in parallel threads for long-standing
-	 * operations such as logging or waiting until finished. The user of the
-	 * copy should close it when the operation is complete.
+	 * Creates a new client for the {@link DockerClientPool} of this
+	 * connection.
 	 * 
-	 * @return copy of client
+	 * @return a new client
 	 * @throws DockerException
-	 * @throws DockerCertificateException
+	 *             if the client could not be created
 	 * @see DockerConnection#open(boolean)
 	 */
-	private DockerClient getClientCopy() throws DockerException {
+	private DockerClient newClient() throws DockerException {
+		final DockerClient newClient;
 		try {
-			return dockerClientFactory.getClient(this.connectionSettings);
+			newClient = dockerClientFactory.getClient(this.connectionSettings);
 		} catch (DockerCertificateException e) {
 			throw new DockerException(NLS.bind(Messages.Open_Connection_Failure,
 					this.name, this.getUri()));
 		}
+		if (newClient == null) {
+			// no Unix socket path or TCP host to connect to
+			throw new DockerException(NLS.bind(Messages.Open_Connection_Failure,
+					this.name, this.getUri()));
+		}
+		return newClient;
+	}
+
+	/**
+	 * @return the pool of clients to use in parallel threads, for the
+	 *         requests that do not go through the main client
+	 */
+	public DockerClientPool getClientPool() {
+		return this.clientPool;
 	}
 
-	// TODO: we might need something more fine grained, to indicate which
-	// container changed, was added or was removed, so we can refresh the UI
-	// accordingly.
 	public void notifyContainerListeners(List<IDockerContainer> list) {
 		if (containerListeners != null) {
 			for (IDockerContainerListener listener : containerListeners) {
@@ -525,6 +599,33 @@ public class DockerConnection
 		}
 	}
 
+	/**
+	 * Notifies the container listeners that the given containers changed.
+	 * {@link IDockerContainerListener2} are only given the changes. Nothing is
+	 * notified if no container changed.
+	 * 
+	 * @param list
+	 *            the new list of containers
+	 * @param delta
+	 *            the changes, or <code>null</code> to notify all listeners of
+	 *            the whole list
+	 */
+	private void notifyContainerListeners(final List<IDockerContainer> list,
+			final IDockerModelDelta<IDockerContainer> delta) {
+		if (delta == null) {
+			notifyContainerListeners(list);
+		} else if (!delta.isEmpty() && containerListeners != null) {
+			for (IDockerContainerListener listener : containerListeners) {
+				if (listener instanceof IDockerContainerListener2) {
+					((IDockerContainerListener2) listener)
+							.containersChanged(this, list, delta);
+				} else {
+					listener.listChanged(this, list);
+				}
+			}
+		}
+	}
+
 	/**
 	 * @return an fixed-size list of all {@link IDockerContainerListener}
 	 */
@@ -606,20 +707,27 @@ public class DockerConnection
 	 *
 	 */
 	private class LogThread extends AbstractKillableThread implements ILogger {
+		/**
+		 * Maximum time in milliseconds that log output is kept before being
+		 * written to the console.
+		 */
+		private static final long FLUSH_DELAY = 50;
+
 		private String id;
-		private DockerClient copyClient;
+		// the dedicated client of the current run, acquired by the thread
+		// itself so that starting it never waits for a client
+		private DockerClientPool.Lease lease;
 		private OutputStream outputStream;
 		private boolean follow;
 
-		public LogThread(String id, DockerClient copyClient, boolean follow) {
+		public LogThread(String id, boolean follow) {
 			this.id = id;
-			this.copyClient = copyClient;
 			this.follow = follow;
 		}
 
 		@Override
 		public LogThread clone() {
-			return new LogThread(id, copyClient, follow);
+			return new LogThread(id, follow);
 		}
 
 		@Override
@@ -627,9 +735,49 @@ public class DockerConnection
 			outputStream = stream;
 		}
 
+		@Override
+		public void requestStop() {
+			super.requestStop();
+			abortLease();
+		}
+
+		@Override
+		public void kill() {
+			super.kill();
+			abortLease();
+		}
+
+		/**
+		 * Closes the client of the current run, which aborts the blocking
+		 * read of the log stream.
+		 */
+		private synchronized void abortLease() {
+			if (lease != null) {
+				lease.abort();
+			}
+		}
+
 		@Override
 		public void execute() throws InterruptedException, IOException {
+			final DockerClientPool.Lease lease;
+			try {
+				lease = clientPool.acquireDedicated();
+			} catch (DockerException e) {
+				Activator.logErrorMessage(
+						ProcessMessages.getString("Monitor_Logs_Exception"), e); //$NON-NLS-1$
+				return;
+			}
+			synchronized (this) {
+				if (stop || kill) {
+					lease.close();
+					return;
+				}
+				this.lease = lease;
+			}
 			LogStream stream = null;
+			final CoalescingOutputStream out = outputStream != null
+					? new CoalescingOutputStream(outputStream, FLUSH_DELAY)
+					: null;
 			try {
 				// Add timestamps to log based on user preference
 				IEclipsePreferences preferences = InstanceScope.INSTANCE
@@ -638,32 +786,25 @@ public class DockerConnection
 				boolean timestamps = preferences.getBoolean(
 						"logTimestamp", true); //$NON-NLS-1$
 
-
 				if (timestamps)
-					stream = copyClient.logs(id, LogsParam.follow(),
+					stream = lease.client().logs(id, LogsParam.follow(),
 							LogsParam.stdout(), LogsParam.stderr(),
 							LogsParam.timestamps());
 				else
-					stream = copyClient.logs(id, LogsParam.follow(),
+					stream = lease.client().logs(id, LogsParam.follow(),
 							LogsParam.stdout(), LogsParam.stderr());
 
-				// First time through, don't sleep before showing log data
-				int delayTime = 100;
-
-				do {
-					Thread.sleep(delayTime);
-					// Second time in loop and following, pause a second to
-					// allow other threads to do meaningful work
-					delayTime = 500;
-					while (stream.hasNext()) {
-						ByteBuffer b = stream.next().content();
-						byte[] bytes = new byte[b.remaining()];
-						b.get(bytes);
-						if (outputStream != null)
-							outputStream.write(bytes);
+				// the stream blocks until the next frame is received, and
+				// ends when the container stops or when the client is closed
+				while (!stop && stream.hasNext()) {
+					final ByteBuffer b = stream.next().content();
+					if (out != null) {
+						out.write(b);
 					}
-				} while (follow && !stop);
-				listContainers();
+				}
+				if (!stop) {
+					listContainers();
+				}
 			} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 				Activator.logErrorMessage(
 						ProcessMessages.getString("Monitor_Logs_Exception"), e); //$NON-NLS-1$
@@ -673,19 +814,26 @@ public class DockerConnection
 				Activator.logErrorMessage(
 						ProcessMessages.getString("Monitor_Logs_Exception"), e); //$NON-NLS-1$
 				throw new InterruptedException();
-			} catch (InterruptedException e) {
-				kill = true;
-				Thread.currentThread().interrupt();
 			} catch (Exception e) {
-				Activator.logErrorMessage(
-						ProcessMessages.getString("Monitor_Logs_Exception"), e); //$NON-NLS-1$
+				if (e instanceof InterruptedException) {
+					// keep the interrupt for the code running this thread
+					Thread.currentThread().interrupt();
+				}
+				// reading the stream fails once the client is closed
+				if (!stop && !kill) {
+					Activator.logErrorMessage(
+							ProcessMessages.getString("Monitor_Logs_Exception"), //$NON-NLS-1$
+							e);
+				}
 			} finally {
 				follow = false;
-				copyClient.close(); // we are done with copyClient..dispose
-				if (stream != null)
+				// closing the stream reads it to its end, which would block if
+				// it was aborted
+				if (stream != null && !stop && !kill)
 					stream.close();
-				if (outputStream != null)
-					outputStream.close();
+				lease.close(); // we are done with the client..release it
+				if (out != null)
+					out.close();
 			}
 		}
 	}
@@ -694,7 +842,10 @@ public class DockerConnection
 			throws DockerException {
 		final Map<String, IDockerContainer> updatedContainersById = new HashMap<>();
 		List<IDockerContainer> sortedContainers;
+		DockerModelDelta<IDockerContainer> delta;
+		boolean wasLoaded;
 		synchronized (containerLock) {
+			wasLoaded = isContainersLoaded();
 			try {
 				final List<Container> nativeContainers = new ArrayList<>();
 				synchronized (clientLock) {
@@ -714,38 +865,7 @@ public class DockerConnection
 				// core format in case we decide to change the underlying engine
 				// in the future.
 				for (Container nativeContainer : nativeContainers) {
-					// For containers that have exited, make sure we aren't
-					// tracking
-					// them with a logging thread.
-					if (nativeContainer.status() != null && nativeContainer
-							.status().startsWith(Messages.Exited_specifier)) {
-						synchronized (loggingThreads) {
-							if (loggingThreads
-									.containsKey(nativeContainer.id())) {
-								loggingThreads.get(nativeContainer.id())
-										.requestStop();
-								loggingThreads.remove(nativeContainer.id());
-							}
-						}
-					}
-					// skip containers that are being removed
-					if (nativeContainer.status() != null
-							&& nativeContainer.status().equals(
-									Messages.Removal_In_Progress_specifier)) {
-						continue;
-					}
-					// re-use info from existing container with same id
-					if (this.containers != null && this.containersById
-							.containsKey(nativeContainer.id())) {
-						final IDockerContainer container = this.containersById
-								.get(nativeContainer.id());
-						updatedContainersById.put(nativeContainer.id(),
-								new DockerContainer(this, nativeContainer,
-										container.info()));
-					} else {
-						updatedContainersById.put(nativeContainer.id(),
-								new DockerContainer(this, nativeContainer));
-					}
+					putContainer(nativeContainer, updatedContainersById);
 				}
 			} catch (DockerTimeoutException e) {
 				if (isOpen()) {
@@ -764,22 +884,195 @@ public class DockerConnection
 					throw new DockerException(e.getMessage());
 				}
 			} finally {
-				this.containersById = updatedContainersById;
-				sortedContainers = sort(
-						updatedContainersById.values(),
-						(container, otherContainer) -> container.name()
-								.compareTo(otherContainer.name()));
-				this.containers = sortedContainers;
+				delta = updateContainers(updatedContainersById);
+				sortedContainers = this.containers;
 			}
 		}
 		// perform notification outside of containerLock so we don't have a View
 		// causing a deadlock
-		// TODO: we should probably notify the listeners only if the containers
-		// list changed.
-		notifyContainerListeners(sortedContainers);
+		notifyContainerListeners(sortedContainers, wasLoaded ? delta : null);
 		return sortedContainers;
 	}
 
+	/**
+	 * Replaces the containers with the given ones. Must be called while
+	 * holding the containerLock.
+	 * 
+	 * @param updatedContainersById
+	 *            the new containers, indexed by id
+	 * @return the differences with the previous containers
+	 */
+	private DockerModelDelta<IDockerContainer> updateContainers(
+			final Map<String, IDockerContainer> updatedContainersById) {
+		final DockerModelDelta<IDockerContainer> delta = DockerModelDelta
+				.compute(this.containersById, updatedContainersById,
+						DockerConnection::sameContainerState);
+		delta.applyTo(this.containersById, IDockerContainer::id);
+		this.imageHierarchyIndex.updateContainers(delta);
+		invalidate(this.containerInfoCache, delta, IDockerContainer::id);
+		for (IDockerContainer container : delta.getRemoved()) {
+			this.fileSystemBrowser.invalidate(container.id());
+		}
+		for (IDockerContainer container : delta.getChanged()) {
+			this.fileSystemBrowser.invalidate(container.id());
+		}
+		this.containers = sort(this.containersById.values(),
+				(container, otherContainer) -> container.name()
+						.compareTo(otherContainer.name()));
+		return delta;
+	}
+
+	/**
+	 * Discards the inspect results of the removed and changed elements of the
+	 * given delta.
+	 */
+	private static <T> void invalidate(final DockerInspectCache<?> cache,
+			final IDockerModelDelta<T> delta, final Function<T, String> id) {
+		for (T element : delta.getRemoved()) {
+			cache.invalidate(id.apply(element));
+		}
+		for (T element : delta.getChanged()) {
+			cache.invalidate(id.apply(element));
+		}
+	}
+
+	private static boolean sameContainerState(final IDockerContainer container,
+			final IDockerContainer otherContainer) {
+		return Objects.equals(container.status(), otherContainer.status())
+				&& Objects.equals(container.names(), otherContainer.names())
+				&& Objects.equals(container.image(), otherContainer.image())
+				&& Objects.equals(container.command(),
+						otherContainer.command())
+				&& Objects.equals(container.created(),
+						otherContainer.created())
+				&& Objects.equals(container.ports(), otherContainer.ports())
+				&& Objects.equals(container.sizeRw(), otherContainer.sizeRw())
+				&& Objects.equals(container.sizeRootFs(),
+						otherContainer.sizeRootFs());
+	}
+
+	/**
+	 * Translates the given native container in our own core format and puts
+	 * it in the given map, unless it is being removed.
+	 * 
+	 * @param nativeContainer
+	 *            the container returned by the Docker daemon
+	 * @param updatedContainersById
+	 *            the containers to update, indexed by id
+	 */
+	private void putContainer(final Container nativeContainer,
+			final Map<String, IDockerContainer> updatedContainersById) {
+		// For containers that have exited, make sure we aren't tracking
+		// them with a logging thread.
+		if (nativeContainer.status() != null && nativeContainer.status()
+				.startsWith(Messages.Exited_specifier)) {
+			synchronized (loggingThreads) {
+				if (loggingThreads.containsKey(nativeContainer.id())) {
+					loggingThreads.get(nativeContainer.id()).requestStop();
+					loggingThreads.remove(nativeContainer.id());
+				}
+			}
+		}
+		// skip containers that are being removed
+		if (nativeContainer.status() != null && nativeContainer.status()
+				.equals(Messages.Removal_In_Progress_specifier)) {
+			updatedContainersById.remove(nativeContainer.id());
+			return;
+		}
+		// re-use info from existing container with same id
+		final IDockerContainer container = this.containers != null
+				? this.containersById.get(nativeContainer.id()) : null;
+		if (container != null) {
+			updatedContainersById.put(nativeContainer.id(),
+					new DockerContainer(this, nativeContainer,
+							container.info()));
+		} else {
+			updatedContainersById.put(nativeContainer.id(),
+					new DockerContainer(this, nativeContainer));
+		}
+	}
+
+	/**
+	 * Updates the list of containers and images after an event was received
+	 * from the Docker daemon. Container events only cause the container they
+	 * are about to be fetched again, and image events cause the list of images
+	 * to be reloaded. Other events are ignored.
+	 * 
+	 * @param event
+	 *            the event received on the stream of events of the daemon
+	 * @see DockerContainerRefreshManager
+	 */
+	public void handleEvent(final Event event) {
+		final String status = event.status();
+		final String id = event.id();
+		if (status == null || id == null) {
+			return;
+		}
+		if (CONTAINER_EVENTS.contains(status)
+				|| status.startsWith(HEALTH_STATUS_EVENT)) {
+			refreshContainer(id);
+		}
+		if (IMAGE_EVENTS.contains(status) && isImagesLoaded()) {
+			getImages(true);
+		}
+	}
+
+	/**
+	 * Fetches a single container again from the Docker daemon and updates it
+	 * in the list of containers, or removes it from the list if it does not
+	 * exist anymore. Nothing is done if the list of containers was not loaded
+	 * yet.
+	 * 
+	 * @param id
+	 *            the id of the container to refresh
+	 */
+	private void refreshContainer(final String id) {
+		if (!isContainersLoaded()) {
+			return;
+		}
+		synchronized (clientLock) {
+			if (client == null) {
+				return;
+			}
+		}
+		// fetch the container before taking the containerLock, so that the
+		// list of containers is not blocked while the daemon responds
+		Container nativeContainer = null;
+		try (DockerClientPool.Lease lease = clientPool.acquire()) {
+			for (Container candidate : lease.client().listContainers(
+					DockerClient.ListContainersParam.allContainers(),
+					DockerClient.ListContainersParam.filter("id", id))) { //$NON-NLS-1$
+				if (id.equals(candidate.id())) {
+					nativeContainer = candidate;
+				}
+			}
+		} catch (DockerException
+				| com.spotify.docker.client.exceptions.DockerException e) {
+			Activator.log(e);
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		final List<IDockerContainer> sortedContainers;
+		final DockerModelDelta<IDockerContainer> delta;
+		synchronized (containerLock) {
+			if (!isContainersLoaded()) {
+				return;
+			}
+			final Map<String, IDockerContainer> updatedContainersById = new HashMap<>(
+					this.containersById);
+			if (nativeContainer != null) {
+				putContainer(nativeContainer, updatedContainersById);
+			} else {
+				updatedContainersById.remove(id);
+			}
+			delta = updateContainers(updatedContainersById);
+			sortedContainers = this.containers;
+		}
+		notifyContainerListeners(sortedContainers, delta);
+	}
+
 	public Set<String> getContainerIdsWithLabels(Map<String, String> labels)
 			throws DockerException {
 		Set<String> labelSet = new HashSet<>();
@@ -794,7 +1087,6 @@ public class DockerConnection
 					// there's no client.
 					return Collections.emptySet();
 				}
-				DockerClient clientCopy = getClientCopy();
 				DockerClient.ListContainersParam[] parms = new DockerClient.ListContainersParam[2];
 				parms[0] = DockerClient.ListContainersParam.allContainers();
 				// DockerClient doesn't support multiple labels with its
@@ -815,7 +1107,10 @@ public class DockerConnection
 				}
 				parms[1] = DockerClient.ListContainersParam
 						.withLabel(labelString.toString());
-				nativeContainers.addAll(clientCopy.listContainers(parms));
+				try (DockerClientPool.Lease lease = clientPool.acquire()) {
+					nativeContainers
+							.addAll(lease.client().listContainers(parms));
+				}
 			}
 			// We have a list of containers with labels. Now, we create a Set of
 			// ids which contain those labels to use in filtering a list of
@@ -861,20 +1156,15 @@ public class DockerConnection
 
 	@Override
 	public IDockerContainer getContainer(String id) {
-		List<IDockerContainer> containers = getContainers();
-		for (IDockerContainer container : containers) {
-			if (container.id().equals(id)) {
-				return container;
-			}
-		}
-		return null;
+		// make sure the containers are loaded
+		getContainers();
+		return this.containersById.get(id);
 	}
 
 	@Override
 	public IDockerContainerInfo getContainerInfo(final String id) {
 		try {
-			final ContainerInfo info = client.inspectContainer(id);
-			return new DockerContainerInfo(info);
+			return this.containerInfoCache.get(id);
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			Activator.logErrorMessage(
 					ProcessMessages.getString("Container_Info_Exception"), e); //$NON-NLS-1$
@@ -895,8 +1185,7 @@ public class DockerConnection
 			return null;
 		}
 		try {
-			final ImageInfo info = this.client.inspectImage(id);
-			return new DockerImageInfo(info);
+			return this.imageInfoCache.get(id);
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			Activator.logErrorMessage(
 					ProcessMessages.getString("Image_Info_Exception"), e); //$NON-NLS-1$
@@ -911,6 +1200,36 @@ public class DockerConnection
 		}
 	}
 
+	/**
+	 * Retrieves the info of the given containers in the background, so that
+	 * the next calls to {@link #getContainerInfo(String)} for these
+	 * containers are served without waiting for the Docker daemon.
+	 * 
+	 * @param ids
+	 *            the ids of the containers, for example the ones that are
+	 *            visible or selected in a view
+	 */
+	public void prefetchContainerInfo(final Collection<String> ids) {
+		if (this.client != null) {
+			this.containerInfoCache.prefetch(ids);
+		}
+	}
+
+	/**
+	 * Retrieves the info of the given images in the background, so that the
+	 * next calls to {@link #getImageInfo(String)} for these images are served
+	 * without waiting for the Docker daemon.
+	 * 
+	 * @param ids
+	 *            the ids of the images, for example the ones that are visible
+	 *            or selected in a view
+	 */
+	public void prefetchImageInfo(final Collection<String> ids) {
+		if (this.client != null) {
+			this.imageInfoCache.prefetch(ids);
+		}
+	}
+
 	@Override
 	public void addImageListener(IDockerImageListener listener) {
 		if (imageListeners == null)
@@ -933,6 +1252,33 @@ public class DockerConnection
 		}
 	}
 
+	/**
+	 * Notifies the image listeners that the given images changed.
+	 * {@link IDockerImageListener2} are only given the changes. Nothing is
+	 * notified if no image changed.
+	 * 
+	 * @param list
+	 *            the new list of images
+	 * @param delta
+	 *            the changes, or <code>null</code> to notify all listeners of
+	 *            the whole list
+	 */
+	private void notifyImageListeners(final List<IDockerImage> list,
+			final IDockerModelDelta<IDockerImage> delta) {
+		if (delta == null) {
+			notifyImageListeners(list);
+		} else if (!delta.isEmpty() && imageListeners != null) {
+			for (IDockerImageListener listener : imageListeners) {
+				if (listener instanceof IDockerImageListener2) {
+					((IDockerImageListener2) listener).imagesChanged(this,
+							list, delta);
+				} else {
+					listener.listChanged(this, list);
+				}
+			}
+		}
+	}
+
 	/**
 	 * @return an fixed-size list of all {@link IDockerImageListener}
 	 */
@@ -963,13 +1309,9 @@ public class DockerConnection
 	 */
 	// TODO: declare the method in the interface to make it part of the API.
 	public IDockerImage getImage(String id) {
-		List<IDockerImage> images = getImages();
-		for (IDockerImage image : images) {
-			if (image.id().equals(id)) {
-				return image;
-			}
-		}
-		return null;
+		// make sure the images are loaded
+		getImages();
+		return this.imagesById.get(id);
 	}
 
 	@Override
@@ -994,6 +1336,9 @@ public class DockerConnection
 			} catch (DockerException e) {
 				synchronized (imageLock) {
 					this.images = Collections.emptyList();
+					this.imagesById.clear();
+					this.imageHierarchyIndex.setImages(
+							Collections.<IDockerImage> emptyList());
 				}
 				Activator.log(e);
 			}
@@ -1010,7 +1355,11 @@ public class DockerConnection
 	@Override
 	public List<IDockerImage> listImages() throws DockerException {
 		final List<IDockerImage> tempImages = new ArrayList<>();
+		final List<IDockerImage> latestImages = new ArrayList<>();
+		DockerModelDelta<IDockerImage> delta;
+		boolean wasLoaded;
 		synchronized (imageLock) {
+			wasLoaded = isImagesLoaded();
 			try {
 				final List<Image> nativeImages = new ArrayList<>();
 				synchronized (clientLock) {
@@ -1072,13 +1421,40 @@ public class DockerConnection
 							e);
 				}
 			} finally {
-				this.images = tempImages;
+				final Map<String, IDockerImage> updatedImagesById = new HashMap<>();
+				for (IDockerImage image : tempImages) {
+					updatedImagesById.put(image.id(), image);
+				}
+				delta = DockerModelDelta.compute(this.imagesById,
+						updatedImagesById, DockerConnection::sameImageState);
+				delta.applyTo(this.imagesById, IDockerImage::id);
+				this.imageHierarchyIndex.updateImages(delta);
+				invalidate(this.imageInfoCache, delta, IDockerImage::id);
+				// unchanged images keep their previous instances, so take
+				// them from the index rather than from the fetched images
+				for (IDockerImage image : tempImages) {
+					latestImages.add(this.imagesById.get(image.id()));
+				}
+				this.images = latestImages;
 			}
 		}
 		// Perform notification outside of lock so that listener doesn't cause a
 		// deadlock to occur
-		notifyImageListeners(tempImages);
-		return tempImages;
+		notifyImageListeners(latestImages, wasLoaded ? delta : null);
+		return latestImages;
+	}
+
+	private static boolean sameImageState(final IDockerImage image,
+			final IDockerImage otherImage) {
+		return Objects.equals(image.repoTags(), otherImage.repoTags())
+				&& Objects.equals(image.tags(), otherImage.tags())
+				&& Objects.equals(image.parentId(), otherImage.parentId())
+				&& Objects.equals(image.created(), otherImage.created())
+				&& Objects.equals(image.size(), otherImage.size())
+				&& Objects.equals(image.virtualSize(), otherImage.virtualSize())
+				&& image.isDangling() == otherImage.isDangling()
+				&& image.isIntermediateImage() == otherImage
+						.isIntermediateImage();
 	}
 
 	/**
@@ -1239,6 +1615,8 @@ public class DockerConnection
 			InterruptedException {
 		try {
 			client.removeImage(name, true, false);
+			// the given name may not be an id
+			this.imageInfoCache.invalidateAll();
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			throw new DockerException(e.message());
 		} catch (com.spotify.docker.client.exceptions.DockerException e) {
@@ -1252,6 +1630,7 @@ public class DockerConnection
 			InterruptedException {
 		try {
 			client.removeImage(tag, false, false);
+			this.imageInfoCache.invalidateAll();
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			throw new DockerException(e.message());
 		} catch (com.spotify.docker.client.exceptions.DockerException e) {
@@ -1287,6 +1666,7 @@ public class DockerConnection
 			final boolean force) throws DockerException, InterruptedException {
 		try {
 			client.tag(name, newTag, force);
+			this.imageInfoCache.invalidateAll();
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			throw new DockerException(e.message());
 		} catch (com.spotify.docker.client.exceptions.DockerException e) {
@@ -1303,9 +1683,10 @@ public class DockerConnection
 			final DockerProgressHandler d = new DockerProgressHandler(handler);
 			final java.nio.file.Path p = FileSystems.getDefault()
 					.getPath(path.makeAbsolute().toOSString());
-			String res = getClientCopy().build(p, d,
-					BuildParam.create("forcerm", "true")); //$NON-NLS-1$ //$NON-NLS-2$
-			return res;
+			try (DockerClientPool.Lease lease = clientPool.acquire()) {
+				return lease.client().build(p, d,
+						BuildParam.create("forcerm", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			throw new DockerException(e.message());
 		} catch (com.spotify.docker.client.exceptions.DockerException
@@ -1323,9 +1704,10 @@ public class DockerConnection
 			DockerProgressHandler d = new DockerProgressHandler(handler);
 			java.nio.file.Path p = FileSystems.getDefault().getPath(
 					path.makeAbsolute().toOSString());
-			String res = getClientCopy().build(p, name, d,
-					BuildParam.create("forcerm", "true")); //$NON-NLS-1$ $NON-NLS-2$
-			return res;
+			try (DockerClientPool.Lease lease = clientPool.acquire()) {
+				return lease.client().build(p, name, d,
+						BuildParam.create("forcerm", "true")); //$NON-NLS-1$ $NON-NLS-2$
+			}
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			throw new DockerException(e.message());
 		} catch (com.spotify.docker.client.exceptions.DockerException
@@ -1361,9 +1743,10 @@ public class DockerConnection
 			final DockerProgressHandler d = new DockerProgressHandler(handler);
 			final java.nio.file.Path p = FileSystems.getDefault()
 					.getPath(path.makeAbsolute().toOSString());
-			String res = getClientCopy().build(p, name, d,
-					getBuildParameters(buildOptions));
-			return res;
+			try (DockerClientPool.Lease lease = clientPool.acquire()) {
+				return lease.client().build(p, name, d,
+						getBuildParameters(buildOptions));
+			}
 		} catch (com.spotify.docker.client.exceptions.DockerRequestException e) {
 			throw new DockerException(e.message());
 		} catch (com.spotify.docker.client.exceptions.DockerException
@@ -1557,6 +1940,8 @@ public class DockerConnection
 		try {
 			// stop container or kill after 10 seconds
 			client.stopContainer(id, 10); // allow up to 10 seconds to stop
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			synchronized (loggingThreads) {
 				if (loggingThreads.containsKey(id)) {
 					loggingThreads.get(id).kill();
@@ -1580,6 +1965,8 @@ public class DockerConnection
 		try {
 			// kill container
 			client.killContainer(id);
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			synchronized (loggingThreads) {
 				if (loggingThreads.containsKey(id)) {
 					loggingThreads.get(id).kill();
@@ -1602,6 +1989,8 @@ public class DockerConnection
 		try {
 			// pause container
 			client.pauseContainer(id);
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			listContainers(); // update container list
 		} catch (ContainerNotFoundException e) {
 			throw new DockerContainerNotFoundException(e);
@@ -1618,11 +2007,13 @@ public class DockerConnection
 		try {
 			// unpause container
 			client.unpauseContainer(id);
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			if (stream != null) {
 				synchronized (loggingThreads) {
 					LogThread t = loggingThreads.get(id);
 					if (t == null || !t.isAlive()) {
-						t = new LogThread(id, getClientCopy(), true);
+						t = new LogThread(id, true);
 						loggingThreads.put(id, t);
 						t.setOutputStream(stream);
 						t.start();
@@ -1652,6 +2043,8 @@ public class DockerConnection
 		try {
 			// kill container
 			client.removeContainer(id);
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			listContainers(); // update container list
 		} catch (ContainerNotFoundException e) {
 			throw new DockerContainerNotFoundException(e);
@@ -1684,6 +2077,8 @@ public class DockerConnection
 		try {
 			// start container
 			client.startContainer(id);
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			// Log the started container if a stream is provided
 			if (stream != null && containerInfo != null
 					&& containerInfo.config() != null
@@ -1692,7 +2087,7 @@ public class DockerConnection
 				synchronized (loggingThreads) {
 					LogThread t = loggingThreads.get(id);
 					if (t == null || !t.isAlive()) {
-						t = new LogThread(id, getClientCopy(), true);
+						t = new LogThread(id, true);
 						loggingThreads.put(id, t);
 						t.setOutputStream(stream);
 						t.start();
@@ -1725,6 +2120,8 @@ public class DockerConnection
 		try {
 			// start container with host config
 			client.startContainer(id);
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			// Log the started container based on user preference
 			// Log the started container based on user preference
 			// Log the started container based on user preference
@@ -1737,7 +2134,7 @@ public class DockerConnection
 				synchronized (loggingThreads) {
 					LogThread t = loggingThreads.get(loggingId);
 					if (t == null || !t.isAlive()) {
-						t = new LogThread(id, getClientCopy(), true);
+						t = new LogThread(id, true);
 						loggingThreads.put(loggingId, t);
 						t.setOutputStream(stream);
 						t.start();
@@ -1771,6 +2168,8 @@ public class DockerConnection
 		try {
 			// restart container
 			client.restartContainer(id, secondsToWait);
+			this.containerInfoCache.invalidate(id);
+			this.fileSystemBrowser.invalidate(id);
 			// Log the started container if a stream is provided
 			final IDockerContainerInfo containerInfo = getContainerInfo(id);
 			if (stream != null && containerInfo != null
@@ -1780,7 +2179,7 @@ public class DockerConnection
 				synchronized (loggingThreads) {
 					LogThread t = loggingThreads.get(id);
 					if (t == null || !t.isAlive()) {
-						t = new LogThread(id, getClientCopy(), true);
+						t = new LogThread(id, true);
 						loggingThreads.put(id, t);
 						t.setOutputStream(stream);
 						t.start();
@@ -1823,23 +2222,81 @@ public class DockerConnection
 	@Override
 	public InputStream copyContainer(final String id, final String path)
 			throws DockerException, InterruptedException {
-		InputStream stream;
+		// the shared client is in use until the returned stream is closed,
+		// which also releases its HTTP connection
+		final DockerClientPool.Lease lease = clientPool.acquire();
+		InputStream archive = null;
 		try {
-			DockerClient copy = getClientCopy();
-			stream = copy.archiveContainer(id, path);
+			archive = lease.client().archiveContainer(id, path);
+			return new FilterInputStream(archive) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						lease.close();
+					}
+				}
+			};
+		} catch (com.spotify.docker.client.exceptions.DockerException e) {
+			throw new DockerException(e.getMessage(), e.getCause());
+		} finally {
+			if (archive == null) {
+				lease.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads the archive of a path of a container on a dedicated client, whose
+	 * connection is closed if the archive is aborted, so that the rest of a
+	 * large archive is not transferred.
+	 */
+	private ContainerFileSystemBrowser.Archive readContainerArchive(
+			final String id, final String path)
+			throws DockerException, InterruptedException {
+		final DockerClientPool.Lease lease = clientPool.acquireDedicated();
+		InputStream archive = null;
+		try {
+			archive = lease.client().archiveContainer(id, path);
+			return new ContainerFileSystemBrowser.Archive(archive) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						lease.close();
+					}
+				}
+
+				@Override
+				public void abort() throws IOException {
+					// closing the client first, since closing the stream
+					// would read the rest of the archive
+					lease.abort();
+					try {
+						this.in.close();
+					} catch (IOException e) {
+						// the connection is already closed
+					}
+				}
+			};
 		} catch (com.spotify.docker.client.exceptions.DockerException e) {
 			throw new DockerException(e.getMessage(), e.getCause());
+		} finally {
+			if (archive == null) {
+				lease.close();
+			}
 		}
-		return stream;
 	}
 
 	@Override
 	public List<IDockerContainerChange> containerChanges(final String id)
 			throws DockerException, InterruptedException {
 		List<IDockerContainerChange> containerChanges = new ArrayList<>();
-		try {
-			DockerClient copy = getClientCopy();
-			List<ContainerChange> changes = copy.inspectContainerChanges(id);
+		try (DockerClientPool.Lease lease = clientPool.acquire()) {
+			List<ContainerChange> changes = lease.client()
+					.inspectContainerChanges(id);
 			for (ContainerChange change : changes) {
 				containerChanges.add(new DockerContainerChange(change.path(),
 						change.kind()));
@@ -1884,12 +2341,11 @@ public class DockerConnection
 	public void copyToContainer(final String directory, final String id,
 			final String path)
 			throws DockerException, InterruptedException, IOException {
-		try {
-			DockerClient copy = getClientCopy();
+		try (DockerClientPool.Lease lease = clientPool.acquire()) {
 			java.nio.file.Path dirPath = FileSystems.getDefault()
 					.getPath(directory);
-			copy.copyToContainer(dirPath, id, path);
-			copy.close(); /* dispose of client copy now that we are done */
+			lease.client().copyToContainer(dirPath, id, path);
+			this.fileSystemBrowser.invalidate(id);
 		} catch (com.spotify.docker.client.exceptions.DockerException e) {
 			throw new DockerException(e.getMessage(), e.getCause());
 		}
@@ -1924,16 +2380,17 @@ public class DockerConnection
 
 	@Override
 	public void stopLoggingThread(final String id) {
+		final LogThread t;
 		synchronized (loggingThreads) {
-			LogThread t = loggingThreads.get(id);
-			if (t != null)
-				t.requestStop();
+			t = loggingThreads.get(id);
 		}
-		while (loggingStatus(id) == EnumDockerLoggingStatus.LOGGING_ACTIVE) {
+		if (t != null) {
+			t.requestStop();
 			try {
-				Thread.sleep(1000);
+				t.join();
 			} catch (InterruptedException e) {
 				Activator.log(e);
+				Thread.currentThread().interrupt();
 			}
 		}
 	}
@@ -1945,12 +2402,11 @@ public class DockerConnection
 			// Figure out if we are logging a running container or not
 			// Pass that info to see whether the LogThread should just terminate
 			// or keep running
+			final ContainerInfo info = client.inspectContainer(id);
 			synchronized (loggingThreads) {
-				ContainerInfo info = client.inspectContainer(id);
 				LogThread t = loggingThreads.get(id);
 				if (t == null || !t.isAlive()) {
-					t = new LogThread(id, getClientCopy(), info.state()
-							.running());
+					t = new LogThread(id, info.state().running());
 					loggingThreads.put(id, t);
 					t.setOutputStream(stream);
 					t.start();
@@ -1976,10 +2432,8 @@ public class DockerConnection
 	public void attachLog(final String id, final OutputStream out,
 			final OutputStream err)
 			throws DockerException, InterruptedException, IOException {
-		DockerClient copyClient;
-		try {
-			copyClient = getClientCopy();
-			LogStream stream = copyClient.logs(id, LogsParam.follow(),
+		try (DockerClientPool.Lease lease = clientPool.acquireDedicated()) {
+			LogStream stream = lease.client().logs(id, LogsParam.follow(),
 					LogsParam.stdout(), LogsParam.stderr());
 			stream.attach(out, err);
 			stream.close();
@@ -1993,11 +2447,13 @@ public class DockerConnection
 			throws DockerException, InterruptedException {
 		try {
 			// wait for container to exit
-			DockerClient copy = getClientCopy();
-			ContainerExit x = copy.waitContainer(id);
+			final ContainerExit x;
+			try (DockerClientPool.Lease lease = clientPool
+					.acquireDedicated()) {
+				x = lease.client().waitContainer(id);
+			}
 			DockerContainerExit exit = new DockerContainerExit(x.statusCode());
 			listContainers(); // update container list
-			copy.close(); // dispose of copy now we are finished
 			return exit;
 		} catch (ContainerNotFoundException e) {
 			throw new DockerContainerNotFoundException(e);
@@ -2056,12 +2512,36 @@ public class DockerConnection
 		}
 	}
 
-	@SuppressWarnings("unused")
+	/**
+	 * Lists a directory of a container from the headers of its archive. The
+	 * listings are cached until the container changes, and the
+	 * sub-directories are listed in the background.
+	 *
+	 * @param id
+	 *            the id of the container
+	 * @param path
+	 *            the path of the directory in the container
+	 * @return the files of the directory, empty if it could not be listed
+	 * @throws DockerException
+	 *             declared for compatibility, failures give an empty list
+	 */
 	public List<ContainerFileProxy> readContainerDirectory(final String id,
 			final String path) throws DockerException {
+		return this.fileSystemBrowser.list(id, path);
+	}
+
+	/**
+	 * Lists a directory of a container with the <code>ls</code> command, when
+	 * its archive is too large.
+	 *
+	 * @return the files of the directory, or <code>null</code> if the
+	 *         <code>ls</code> command failed
+	 */
+	private List<ContainerFileProxy> listContainerDirectory(final String id,
+			final String path) throws DockerException {
 		List<ContainerFileProxy> childList = new ArrayList<>();
-		try {
-			DockerClient copyClient = getClientCopy();
+		try (DockerClientPool.Lease lease = clientPool.acquire()) {
+			final DockerClient copyClient = lease.client();
 			final ExecCreation execCreation = copyClient.execCreate(id,
 					new String[] { "/bin/sh", "-c", "ls -l -F -L -Q " + path }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 					ExecCreateParam.attachStdout(),
@@ -2110,11 +2590,16 @@ public class DockerConnection
 			} finally {
 				if (pty_stream != null)
 					pty_stream.close();
-				if (copyClient != null)
-					copyClient.close();
+			}
+			final Integer exitCode = copyClient.execInspect(execId)
+					.exitCode();
+			if (childList.isEmpty() && exitCode != null && exitCode != 0) {
+				// no 'ls' command in the container, or no such directory
+				return null;
 			}
 		} catch (Exception e) {
-			// e.printStackTrace();
+			// the container may not be running
+			return null;
 		}
 		return childList;
 	}
@@ -2349,15 +2834,14 @@ public class DockerConnection
 	@Override
 	public IDockerImageHierarchyNode resolveImageHierarchy(
 			final IDockerImage selectedImage) {
-		return DockerImageHierarchyNodeUtils.resolveImageHierarchy(this.images,
-				this.containers, selectedImage);
+		return this.imageHierarchyIndex.resolveImageHierarchy(selectedImage);
 	}
 
 	@Override
 	public IDockerImageHierarchyNode resolveImageHierarchy(
 			final IDockerContainer selectedContainer) {
-		return DockerImageHierarchyNodeUtils.resolveImageHierarchy(this.images,
-				selectedContainer);
+		return this.imageHierarchyIndex
+				.resolveImageHierarchy(selectedContainer);
 	}
 
 }
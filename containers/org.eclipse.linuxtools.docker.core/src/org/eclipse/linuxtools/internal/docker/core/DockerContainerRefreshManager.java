@@ -21,10 +21,13 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.linuxtools.docker.core.Activator;
+import org.eclipse.linuxtools.docker.core.DockerException;
 import org.eclipse.linuxtools.docker.core.IDockerConnection;
 import org.eclipse.linuxtools.docker.core.IDockerContainer;
 import org.eclipse.linuxtools.docker.core.IDockerContainerListener;
 
+import com.spotify.docker.client.EventStream;
+
 public class DockerContainerRefreshManager implements IDockerContainerListener {
 
 	private static DockerContainerRefreshManager instance;
@@ -101,14 +104,21 @@ public class DockerContainerRefreshManager implements IDockerContainerListener {
 	 * ContainerRefreshThread class is used to update the container lists for a
 	 * particular connection as short as needed to keep the UI updated on a
 	 * regular basis.
-	 *
+	 * 
+	 * The thread follows the stream of events of the Docker daemon and applies
+	 * each container or image event as it arrives. If the stream cannot be
+	 * opened or breaks, the thread falls back to reloading the containers
+	 * every {@link #getSleepTime()} milliseconds while it tries to open the
+	 * stream again, and reloads the containers and images once the stream is
+	 * back, since events may have been missed in the meantime.
 	 */
 	private class ContainerRefreshThread extends Thread {
 
 		private IDockerConnection connection;
 		private long sleepTime;
-		private boolean kill;
-		private boolean monitor;
+		private volatile boolean kill;
+		private volatile boolean monitor;
+		private volatile DockerClientPool.Lease lease;
 
 		public ContainerRefreshThread(IDockerConnection connection,
 				long sleepTime) {
@@ -124,6 +134,7 @@ public class DockerContainerRefreshManager implements IDockerContainerListener {
 		 */
 		public void stopMonitoring() {
 			monitor = false;
+			closeEvents();
 		}
 
 		public IDockerConnection getConnection() {
@@ -141,12 +152,28 @@ public class DockerContainerRefreshManager implements IDockerContainerListener {
 
 		public void kill() {
 			kill = true;
+			monitor = false;
+			closeEvents();
 			this.interrupt();
 		}
 
+		private void closeEvents() {
+			// closing the client aborts the blocking read of the events
+			final DockerClientPool.Lease current = lease;
+			if (current != null) {
+				current.abort();
+			}
+		}
+
 		@Override
 		public void run() {
+			// the containers were just loaded when this thread was started
+			boolean resync = false;
 			while (monitor) {
+				followEvents(resync);
+				if (!monitor) {
+					break;
+				}
 				try {
 					Thread.sleep(getSleepTime());
 					// After sleep period, update the containers list, but make
@@ -156,9 +183,7 @@ public class DockerContainerRefreshManager implements IDockerContainerListener {
 						// monitoring may have been switched off while the
 						// thread was sleeping
 						if (monitor) {
-							// connection.removeContainerListener(instance);
 							((DockerConnection) connection).getContainers(true);
-							// connection.addContainerListener(instance);
 						}
 					}
 				} catch (InterruptedException e) {
@@ -166,11 +191,60 @@ public class DockerContainerRefreshManager implements IDockerContainerListener {
 						break;
 					// otherwise..continue
 				}
+				resync = true;
 			}
 			Activator.log(new Status(IStatus.INFO, Activator.PLUGIN_ID,
 					"Stopped monitor container changes for connection '"
 							+ connection.getName() + "'"));
 		}
+
+		/**
+		 * Applies the events of the Docker daemon until the stream of events
+		 * ends or fails, or monitoring is stopped.
+		 * 
+		 * @param resync
+		 *            whether to reload all containers and images once the
+		 *            stream is open
+		 */
+		private void followEvents(final boolean resync) {
+			final DockerConnection dockerConnection = (DockerConnection) connection;
+			EventStream events = null;
+			boolean ended = false;
+			try {
+				lease = dockerConnection.getClientPool().acquireDedicated();
+				if (!monitor) {
+					return;
+				}
+				events = lease.client().events();
+				if (resync) {
+					dockerConnection.getContainers(true);
+					if (dockerConnection.isImagesLoaded()) {
+						dockerConnection.getImages(true);
+					}
+				}
+				while (monitor && events.hasNext()) {
+					dockerConnection.handleEvent(events.next());
+				}
+				ended = monitor;
+			} catch (DockerException
+					| com.spotify.docker.client.exceptions.DockerException
+					| RuntimeException e) {
+				// the stream could not be opened or was closed: fall back to
+				// polling until it can be opened again
+			} catch (InterruptedException e) {
+				// the sleep time changed or the thread was killed
+			} finally {
+				final DockerClientPool.Lease current = lease;
+				lease = null;
+				if (ended) {
+					// the client can be reused once the stream is closed
+					events.close();
+					current.close();
+				} else if (current != null) {
+					current.abort();
+				}
+			}
+		}
 	}
 
 	/***
@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.linuxtools.docker.core.IDockerContainer;
+import org.eclipse.linuxtools.docker.core.IDockerImage;
+import org.eclipse.linuxtools.docker.core.IDockerImageHierarchyNode;
+import org.eclipse.linuxtools.docker.core.IDockerModelDelta;
+
+/**
+ * Index of the images and containers of a connection that resolves
+ * {@link IDockerImageHierarchyNode}s without scanning the lists of images and
+ * containers.
+ * <p>
+ * Images are indexed by id, by parent id and by repo tag, and containers by
+ * the name of their image. The index is updated as images and containers are
+ * added and removed, and a resolved hierarchy is kept until the next update.
+ * </p>
+ */
+public class DockerImageHierarchyIndex {
+
+	private final Map<String, IDockerImage> imagesById = new HashMap<>();
+	// children images indexed by the id of their parent, then by their own id
+	private final Map<String, Map<String, IDockerImage>> imagesByParentId = new HashMap<>();
+	private final Map<String, Map<String, IDockerImage>> imagesByRepoTag = new HashMap<>();
+	private final Map<String, IDockerContainer> containersById = new HashMap<>();
+	// containers indexed by the name of their image, then by their own id
+	private final Map<String, Map<String, IDockerContainer>> containersByImage = new HashMap<>();
+	// hierarchies resolved since the last update, indexed by their selected
+	// image or container
+	private final Map<Object, IDockerImageHierarchyNode> resolvedHierarchies = new HashMap<>();
+
+	/**
+	 * Creates an empty index.
+	 */
+	public DockerImageHierarchyIndex() {
+	}
+
+	/**
+	 * Creates an index of the given images and containers.
+	 *
+	 * @param images
+	 *            the images
+	 * @param containers
+	 *            the containers
+	 */
+	public DockerImageHierarchyIndex(final Collection<IDockerImage> images,
+			final Collection<IDockerContainer> containers) {
+		setImages(images);
+		setContainers(containers);
+	}
+
+	/**
+	 * Replaces all images of the index.
+	 *
+	 * @param images
+	 *            the images
+	 */
+	public synchronized void setImages(final Collection<IDockerImage> images) {
+		this.imagesById.clear();
+		this.imagesByParentId.clear();
+		this.imagesByRepoTag.clear();
+		this.resolvedHierarchies.clear();
+		for (IDockerImage image : images) {
+			addImage(image);
+		}
+	}
+
+	/**
+	 * Updates the images of the index.
+	 *
+	 * @param delta
+	 *            the images that were added, removed or changed
+	 */
+	public synchronized void updateImages(
+			final IDockerModelDelta<IDockerImage> delta) {
+		this.resolvedHierarchies.clear();
+		for (IDockerImage image : delta.getRemoved()) {
+			removeImage(image.id());
+		}
+		for (IDockerImage image : delta.getChanged()) {
+			removeImage(image.id());
+			addImage(image);
+		}
+		for (IDockerImage image : delta.getAdded()) {
+			addImage(image);
+		}
+	}
+
+	/**
+	 * Replaces all containers of the index.
+	 *
+	 * @param containers
+	 *            the containers
+	 */
+	public synchronized void setContainers(
+			final Collection<IDockerContainer> containers) {
+		this.containersById.clear();
+		this.containersByImage.clear();
+		this.resolvedHierarchies.clear();
+		for (IDockerContainer container : containers) {
+			addContainer(container);
+		}
+	}
+
+	/**
+	 * Updates the containers of the index.
+	 *
+	 * @param delta
+	 *            the containers that were added, removed or changed
+	 */
+	public synchronized void updateContainers(
+			final IDockerModelDelta<IDockerContainer> delta) {
+		this.resolvedHierarchies.clear();
+		for (IDockerContainer container : delta.getRemoved()) {
+			removeContainer(container.id());
+		}
+		for (IDockerContainer container : delta.getChanged()) {
+			removeContainer(container.id());
+			addContainer(container);
+		}
+		for (IDockerContainer container : delta.getAdded()) {
+			addContainer(container);
+		}
+	}
+
+	private void addImage(final IDockerImage image) {
+		// keep the first image with a given id, like a scan of the list would
+		if (this.imagesById.putIfAbsent(image.id(), image) != null) {
+			return;
+		}
+		if (image.parentId() != null) {
+			put(this.imagesByParentId, image.parentId(), image.id(), image);
+		}
+		for (String repoTag : image.repoTags()) {
+			put(this.imagesByRepoTag, repoTag, image.id(), image);
+		}
+	}
+
+	private void removeImage(final String id) {
+		final IDockerImage image = this.imagesById.remove(id);
+		if (image == null) {
+			return;
+		}
+		if (image.parentId() != null) {
+			remove(this.imagesByParentId, image.parentId(), id);
+		}
+		for (String repoTag : image.repoTags()) {
+			remove(this.imagesByRepoTag, repoTag, id);
+		}
+	}
+
+	private void addContainer(final IDockerContainer container) {
+		if (this.containersById.putIfAbsent(container.id(),
+				container) != null) {
+			return;
+		}
+		if (container.image() != null) {
+			put(this.containersByImage, container.image(), container.id(),
+					container);
+		}
+	}
+
+	private void removeContainer(final String id) {
+		final IDockerContainer container = this.containersById.remove(id);
+		if (container != null && container.image() != null) {
+			remove(this.containersByImage, container.image(), id);
+		}
+	}
+
+	private static <T> void put(final Map<String, Map<String, T>> index,
+			final String key, final String id, final T element) {
+		index.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(id,
+				element);
+	}
+
+	private static <T> void remove(final Map<String, Map<String, T>> index,
+			final String key, final String id) {
+		final Map<String, T> elements = index.get(key);
+		if (elements != null) {
+			elements.remove(id);
+			if (elements.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Resolves the hierarchy of the given image: its parent images, and all
+	 * the images and containers that derive from it.
+	 *
+	 * @param image
+	 *            the selected image
+	 * @return the {@link IDockerImageHierarchyNode} of the selected image
+	 */
+	public synchronized IDockerImageHierarchyNode resolveImageHierarchy(
+			final IDockerImage image) {
+		return this.resolvedHierarchies.computeIfAbsent(image, i -> {
+			final DockerImageHierarchyNode imageNode = new DockerImageHierarchyImageNode(
+					image, getParentImageNode(
+							this.imagesById.get(image.parentId())));
+			resolveChildrenNodes(imageNode, image);
+			return imageNode;
+		});
+	}
+
+	/**
+	 * Resolves the hierarchy of the given container: the image it was created
+	 * from and the parent images of that image.
+	 *
+	 * @param container
+	 *            the selected container
+	 * @return the {@link IDockerImageHierarchyNode} of the selected container
+	 */
+	public synchronized IDockerImageHierarchyNode resolveImageHierarchy(
+			final IDockerContainer container) {
+		return this.resolvedHierarchies.computeIfAbsent(container, c -> {
+			final Map<String, IDockerImage> images = container.image() != null
+					? this.imagesByRepoTag.get(container.image()) : null;
+			final IDockerImage image = images != null
+					? images.values().iterator().next() : null;
+			// there's no children images/containers for a container
+			return new DockerImageHierarchyContainerNode(container,
+					getParentImageNode(image));
+		});
+	}
+
+	/**
+	 * @return the node of the given image, attached to the nodes of its own
+	 *         parent images, or <code>null</code> if the image is
+	 *         <code>null</code>
+	 */
+	private IDockerImageHierarchyNode getParentImageNode(
+			final IDockerImage parentImage) {
+		final List<IDockerImage> ancestors = new ArrayList<>();
+		final Set<String> ancestorIds = new HashSet<>();
+		for (IDockerImage ancestor = parentImage; ancestor != null
+				&& ancestorIds.add(ancestor.id()); ancestor = this.imagesById
+						.get(ancestor.parentId())) {
+			ancestors.add(ancestor);
+		}
+		IDockerImageHierarchyNode node = null;
+		for (int i = ancestors.size() - 1; i >= 0; i--) {
+			node = new DockerImageHierarchyImageNode(ancestors.get(i), node);
+		}
+		return node;
+	}
+
+	/**
+	 * Adds the nodes of all images and containers that derive from the given
+	 * image to its node.
+	 */
+	private void resolveChildrenNodes(final IDockerImageHierarchyNode imageNode,
+			final IDockerImage image) {
+		final Deque<IDockerImageHierarchyNode> nodes = new ArrayDeque<>();
+		final Deque<IDockerImage> images = new ArrayDeque<>();
+		nodes.push(imageNode);
+		images.push(image);
+		while (!nodes.isEmpty()) {
+			final IDockerImageHierarchyNode parentNode = nodes.pop();
+			final IDockerImage parentImage = images.pop();
+			final Map<String, IDockerImage> childImages = this.imagesByParentId
+					.get(parentImage.id());
+			if (childImages != null) {
+				for (IDockerImage childImage : childImages.values()) {
+					nodes.push(new DockerImageHierarchyImageNode(childImage,
+							parentNode));
+					images.push(childImage);
+				}
+			}
+			for (String repoTag : parentImage.repoTags()) {
+				final Map<String, IDockerContainer> containers = this.containersByImage
+						.get(repoTag);
+				if (containers != null) {
+					for (IDockerContainer container : containers.values()) {
+						new DockerImageHierarchyContainerNode(container,
+								parentNode);
+					}
+				}
+			}
+		}
+	}
+
+}
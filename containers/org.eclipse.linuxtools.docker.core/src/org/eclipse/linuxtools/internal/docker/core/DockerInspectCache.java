@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.core;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.spotify.docker.client.exceptions.DockerException;
+
+/**
+ * A short-lived cache of the results of the {@code inspect} requests on
+ * containers or images, indexed by id.
+ * <p>
+ * Concurrent requests for the same id share a single call to the daemon.
+ * Results expire after a given time, and are invalidated as soon as the
+ * state of the container or image is known to have changed. Failures are not
+ * cached.
+ * </p>
+ *
+ * @param <T>
+ *            the type of inspect results
+ */
+public class DockerInspectCache<T> {
+
+	/**
+	 * Sends the {@code inspect} request for a given id.
+	 *
+	 * @param <T>
+	 *            the type of inspect results
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+
+		/**
+		 * @param id
+		 *            the id of the container or image to inspect
+		 * @return the inspect result, never <code>null</code>
+		 * @throws DockerException
+		 *             if the request failed
+		 * @throws InterruptedException
+		 *             if the thread was interrupted
+		 */
+		T load(String id) throws DockerException, InterruptedException;
+	}
+
+	private static final int PREFETCH_THREADS = 4;
+
+	private static final ThreadPoolExecutor prefetcher = new ThreadPoolExecutor(
+			PREFETCH_THREADS, PREFETCH_THREADS, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), runnable -> {
+				final Thread thread = new Thread(runnable,
+						"Docker Inspect Prefetcher"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		prefetcher.allowCoreThreadTimeOut(true);
+	}
+
+	private static class Entry<T> {
+
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+		// System.nanoTime() after which the result is stale, set once loaded
+		private volatile long expiry = Long.MAX_VALUE;
+
+		private boolean isExpired() {
+			return System.nanoTime() - this.expiry > 0;
+		}
+	}
+
+	private final Loader<T> loader;
+	private final long timeToLive;
+	private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * Constructor
+	 *
+	 * @param loader
+	 *            sends the {@code inspect} requests
+	 * @param timeToLive
+	 *            the time in milliseconds during which a result is reused
+	 */
+	public DockerInspectCache(final Loader<T> loader, final long timeToLive) {
+		this.loader = loader;
+		this.timeToLive = TimeUnit.MILLISECONDS.toNanos(timeToLive);
+	}
+
+	/**
+	 * Returns the cached result for the given id, or waits for the request
+	 * that is already running for this id, or else sends a new request.
+	 *
+	 * @param id
+	 *            the id of the container or image to inspect
+	 * @return the inspect result
+	 * @throws DockerException
+	 *             if the request failed
+	 * @throws InterruptedException
+	 *             if the thread was interrupted
+	 */
+	public T get(final String id)
+			throws DockerException, InterruptedException {
+		Entry<T> entry = this.entries.get(id);
+		if (entry != null && entry.isExpired()) {
+			this.entries.remove(id, entry);
+			entry = null;
+		}
+		if (entry == null) {
+			final Entry<T> newEntry = new Entry<>();
+			entry = this.entries.putIfAbsent(id, newEntry);
+			if (entry == null) {
+				load(id, newEntry);
+				entry = newEntry;
+			} else {
+				this.hits.incrementAndGet();
+			}
+		} else {
+			this.hits.incrementAndGet();
+		}
+		try {
+			return entry.result.get();
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof DockerException) {
+				throw (DockerException) cause;
+			} else if (cause instanceof InterruptedException) {
+				throw (InterruptedException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new DockerException(cause);
+		}
+	}
+
+	/**
+	 * Sends the requests for the given ids in the background, unless their
+	 * result is already cached or being retrieved.
+	 *
+	 * @param ids
+	 *            the ids of the containers or images to inspect
+	 */
+	public void prefetch(final Collection<String> ids) {
+		for (String id : ids) {
+			final Entry<T> entry = this.entries.get(id);
+			if (entry != null && !entry.isExpired()) {
+				continue;
+			}
+			if (entry != null) {
+				this.entries.remove(id, entry);
+			}
+			final Entry<T> newEntry = new Entry<>();
+			if (this.entries.putIfAbsent(id, newEntry) == null) {
+				prefetcher.execute(() -> load(id, newEntry));
+			}
+		}
+	}
+
+	private void load(final String id, final Entry<T> entry) {
+		this.loads.incrementAndGet();
+		try {
+			final T result = this.loader.load(id);
+			entry.expiry = System.nanoTime() + this.timeToLive;
+			entry.result.complete(result);
+		} catch (Throwable e) {
+			// let the next call retry
+			this.entries.remove(id, entry);
+			entry.result.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Discards the result for the given id. A request that is running for this
+	 * id completes, but its result is not kept.
+	 *
+	 * @param id
+	 *            the id of the container or image that changed
+	 */
+	public void invalidate(final String id) {
+		this.entries.remove(id);
+	}
+
+	/**
+	 * Discards all results.
+	 */
+	public void invalidateAll() {
+		this.entries.clear();
+	}
+
+	/**
+	 * @return the number of requests sent since the cache was created
+	 */
+	public long getLoadCount() {
+		return this.loads.get();
+	}
+
+	/**
+	 * @return the number of results served from the cache or from a request
+	 *         that was already running
+	 */
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	@Override
+	public String toString() {
+		return "DockerInspectCache [entries=" + this.entries.size() //$NON-NLS-1$
+				+ ", loads=" + getLoadCount() + ", hits=" + getHitCount() //$NON-NLS-1$ //$NON-NLS-2$
+				+ "]"; //$NON-NLS-1$
+	}
+}
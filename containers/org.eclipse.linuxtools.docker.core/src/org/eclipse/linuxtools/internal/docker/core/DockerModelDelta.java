@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import org.eclipse.linuxtools.docker.core.IDockerModelDelta;
+
+/**
+ * The differences between two snapshots of containers or images indexed by id.
+ *
+ * @param <T>
+ *            the type of elements
+ */
+public class DockerModelDelta<T> implements IDockerModelDelta<T> {
+
+	private final List<T> added = new ArrayList<>();
+	private final List<T> removed = new ArrayList<>();
+	private final List<T> changed = new ArrayList<>();
+
+	/**
+	 * Computes the differences between two snapshots.
+	 *
+	 * @param previous
+	 *            the previous elements, indexed by id
+	 * @param current
+	 *            the current elements, indexed by id
+	 * @param sameState
+	 *            tells whether two versions of an element that are equal
+	 *            also show the same state
+	 * @return the differences
+	 */
+	public static <T> DockerModelDelta<T> compute(
+			final Map<String, T> previous, final Map<String, T> current,
+			final BiPredicate<T, T> sameState) {
+		final DockerModelDelta<T> delta = new DockerModelDelta<>();
+		for (Entry<String, T> entry : current.entrySet()) {
+			final T before = previous.get(entry.getKey());
+			final T after = entry.getValue();
+			if (before == null) {
+				delta.added.add(after);
+			} else if (!before.equals(after)) {
+				delta.removed.add(before);
+				delta.added.add(after);
+			} else if (!sameState.test(before, after)) {
+				delta.changed.add(after);
+			}
+		}
+		for (Entry<String, T> entry : previous.entrySet()) {
+			if (!current.containsKey(entry.getKey())) {
+				delta.removed.add(entry.getValue());
+			}
+		}
+		return delta;
+	}
+
+	/**
+	 * Updates the given index with this delta.
+	 *
+	 * @param index
+	 *            the elements indexed by id
+	 * @param id
+	 *            the function returning the id of an element
+	 */
+	public void applyTo(final Map<String, T> index,
+			final Function<T, String> id) {
+		for (T element : removed) {
+			index.remove(id.apply(element));
+		}
+		for (T element : added) {
+			index.put(id.apply(element), element);
+		}
+		for (T element : changed) {
+			index.put(id.apply(element), element);
+		}
+	}
+
+	@Override
+	public List<T> getAdded() {
+		return Collections.unmodifiableList(added);
+	}
+
+	@Override
+	public List<T> getRemoved() {
+		return Collections.unmodifiableList(removed);
+	}
+
+	@Override
+	public List<T> getChanged() {
+		return Collections.unmodifiableList(changed);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "added: " + added + ", removed: " + removed + ", changed: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ changed;
+	}
+}
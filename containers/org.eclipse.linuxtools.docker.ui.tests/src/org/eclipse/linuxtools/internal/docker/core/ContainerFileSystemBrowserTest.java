@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.docker.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.eclipse.linuxtools.docker.core.DockerException;
+import org.eclipse.linuxtools.internal.docker.core.ContainerFileSystemBrowser.Archive;
+import org.eclipse.linuxtools.internal.docker.core.ContainerFileSystemBrowser.ArchiveReader;
+import org.eclipse.linuxtools.internal.docker.core.ContainerFileSystemBrowser.DirectoryLister;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+/**
+ * Testing the {@link ContainerFileSystemBrowser} class
+ */
+public class ContainerFileSystemBrowserTest {
+
+	private ArchiveReader archiveReader;
+	private DirectoryLister directoryLister;
+
+	private static Archive usrArchive() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+			for (String directory : new String[] { "usr/", "usr/bin/", "usr/lib/" }) {
+				tar.putArchiveEntry(new TarArchiveEntry(directory));
+				tar.closeArchiveEntry();
+			}
+			final byte[] content = "foo".getBytes();
+			final TarArchiveEntry file = new TarArchiveEntry("usr/bin/foo");
+			file.setSize(content.length);
+			tar.putArchiveEntry(file);
+			tar.write(content);
+			tar.closeArchiveEntry();
+			final TarArchiveEntry link = new TarArchiveEntry("usr/lib64", TarArchiveEntry.LF_SYMLINK);
+			link.setLinkName("lib");
+			tar.putArchiveEntry(link);
+			tar.closeArchiveEntry();
+		}
+		return new Archive(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	/**
+	 * @param entries
+	 *            the names of the entries, ending with '/' for directories, and
+	 *            followed by '->' and the target for links
+	 */
+	private static byte[] archiveBytes(final String... entries) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+			for (String name : entries) {
+				final int arrow = name.indexOf("->");
+				if (arrow >= 0) {
+					final TarArchiveEntry link = new TarArchiveEntry(name.substring(0, arrow),
+							TarArchiveEntry.LF_SYMLINK);
+					link.setLinkName(name.substring(arrow + 2));
+					tar.putArchiveEntry(link);
+				} else {
+					tar.putArchiveEntry(new TarArchiveEntry(name));
+				}
+				tar.closeArchiveEntry();
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static Archive archive(final String... entries) throws IOException {
+		return new Archive(new ByteArrayInputStream(archiveBytes(entries)));
+	}
+
+	private static Archive jvmArchive() throws IOException {
+		return archive("jvm/", "jvm/java-1.8.0/", "jvm/java->/etc/alternatives/java_sdk", "jvm/jre->java-1.8.0");
+	}
+
+	private static String[] names(final List<ContainerFileProxy> files) {
+		return files.stream().map(ContainerFileProxy::getFullPath).toArray(String[]::new);
+	}
+
+	@Before
+	public void setupMocks() throws DockerException, InterruptedException, IOException {
+		this.archiveReader = Mockito.mock(ArchiveReader.class);
+		Mockito.when(archiveReader.read("foo_container", "/usr")).then(invocation -> usrArchive());
+		this.directoryLister = Mockito.mock(DirectoryLister.class);
+	}
+
+	@Test
+	public void shouldListSubDirectoriesFromSameArchive() throws DockerException, InterruptedException {
+		// given
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(archiveReader, directoryLister);
+		// when
+		final List<ContainerFileProxy> usr = browser.list("foo_container", "/usr/");
+		final List<ContainerFileProxy> bin = browser.list("foo_container", "/usr/bin");
+		// then
+		assertThat(names(usr)).containsExactly("/usr/bin", "/usr/lib", "/usr/lib64");
+		assertThat(usr.get(0).isFolder()).isTrue();
+		assertThat(usr.get(2).isLink()).isTrue();
+		assertThat(usr.get(2).isFolder()).isTrue();
+		assertThat(usr.get(2).getLink()).isEqualTo("/usr/lib");
+		assertThat(names(bin)).containsExactly("/usr/bin/foo");
+		assertThat(bin.get(0).isFolder()).isFalse();
+		Mockito.verify(archiveReader, Mockito.times(1)).read(Matchers.anyString(), Matchers.anyString());
+		Mockito.verifyZeroInteractions(directoryLister);
+	}
+
+	@Test
+	public void shouldReadArchiveAgainAfterInvalidation() throws DockerException, InterruptedException {
+		// given
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(archiveReader, directoryLister);
+		browser.list("foo_container", "/usr");
+		// when
+		browser.invalidate("foo_container");
+		browser.list("foo_container", "/usr");
+		// then
+		Mockito.verify(archiveReader, Mockito.times(2)).read("foo_container", "/usr");
+	}
+
+	@Test
+	public void shouldListLargeDirectoryWithFallback() throws DockerException, InterruptedException {
+		// given
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(archiveReader, directoryLister, 2,
+				ContainerFileSystemBrowser.MAX_ARCHIVE_SIZE);
+		Mockito.when(directoryLister.list("foo_container", "/usr"))
+				.thenReturn(Arrays.asList(new ContainerFileProxy("/usr", "bin", false)));
+		// when
+		final List<ContainerFileProxy> usr = browser.list("foo_container", "/usr");
+		// then
+		assertThat(names(usr)).containsExactly("/usr/bin");
+		Mockito.verify(directoryLister).list("foo_container", "/usr");
+	}
+
+	@Test
+	public void shouldReadWholeArchiveWhenFallbackFails() throws DockerException, InterruptedException {
+		// given
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(archiveReader, directoryLister, 2,
+				ContainerFileSystemBrowser.MAX_ARCHIVE_SIZE);
+		Mockito.when(directoryLister.list("foo_container", "/usr")).thenReturn(null);
+		// when
+		final List<ContainerFileProxy> usr = browser.list("foo_container", "/usr");
+		// then
+		assertThat(names(usr)).containsExactly("/usr/bin", "/usr/lib", "/usr/lib64");
+		Mockito.verify(archiveReader, Mockito.times(2)).read("foo_container", "/usr");
+	}
+
+	@Test
+	public void shouldResolveLinkOutsideArchiveWithFallback() throws DockerException, InterruptedException {
+		// given
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(archiveReader, directoryLister);
+		Mockito.when(archiveReader.read("foo_container", "/usr/lib/jvm")).then(invocation -> jvmArchive());
+		Mockito.when(directoryLister.list("foo_container", "/usr/lib/jvm"))
+				.thenReturn(Arrays.asList(new ContainerFileProxy("/usr/lib/jvm", "java", true),
+						new ContainerFileProxy("/usr/lib/jvm", "java-1.8.0", true),
+						new ContainerFileProxy("/usr/lib/jvm", "jre", true)));
+		// when
+		final List<ContainerFileProxy> jvm = browser.list("foo_container", "/usr/lib/jvm");
+		browser.list("foo_container", "/usr/lib/jvm");
+		// then
+		assertThat(names(jvm)).containsExactly("/usr/lib/jvm/java", "/usr/lib/jvm/java-1.8.0", "/usr/lib/jvm/jre");
+		assertThat(jvm.get(0).isLink()).isTrue();
+		assertThat(jvm.get(0).isFolder()).isTrue();
+		assertThat(jvm.get(0).getLink()).isEqualTo("/etc/alternatives/java_sdk");
+		assertThat(jvm.get(2).isFolder()).isTrue();
+		// the links are resolved once
+		Mockito.verify(directoryLister, Mockito.times(1)).list("foo_container", "/usr/lib/jvm");
+	}
+
+	@Test
+	public void shouldResolveLinkOutsideArchiveFromCachedListing() throws DockerException, InterruptedException {
+		// given
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(archiveReader, directoryLister);
+		Mockito.when(archiveReader.read("foo_container", "/usr/lib/jvm")).then(invocation -> jvmArchive());
+		Mockito.when(archiveReader.read("foo_container", "/etc/alternatives"))
+				.then(invocation -> archive("alternatives/", "alternatives/java_sdk/"));
+		browser.list("foo_container", "/etc/alternatives");
+		// when
+		final List<ContainerFileProxy> jvm = browser.list("foo_container", "/usr/lib/jvm");
+		// then
+		assertThat(jvm.get(0).isLink()).isTrue();
+		assertThat(jvm.get(0).isFolder()).isTrue();
+		Mockito.verifyZeroInteractions(directoryLister);
+	}
+
+	@Test
+	public void shouldOnlyPrefetchSmallArchivesOutsidePseudoFileSystems()
+			throws DockerException, InterruptedException {
+		// given
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(archiveReader, directoryLister, 2,
+				ContainerFileSystemBrowser.MAX_ARCHIVE_SIZE);
+		Mockito.when(directoryLister.list("foo_container", "/"))
+				.thenReturn(Arrays.asList(new ContainerFileProxy("/", "dev", true),
+						new ContainerFileProxy("/", "proc", true), new ContainerFileProxy("/", "sys", true),
+						new ContainerFileProxy("/", "usr", true)));
+		Mockito.when(directoryLister.list("foo_container", "/usr"))
+				.thenReturn(Arrays.asList(new ContainerFileProxy("/usr", "bin", true)));
+		// when
+		browser.list("foo_container", "/");
+		Mockito.verify(archiveReader, Mockito.timeout(5000)).read("foo_container", "/usr");
+		final List<ContainerFileProxy> usr = browser.list("foo_container", "/usr");
+		// then the archive of '/usr' is too large to be prefetched
+		assertThat(names(usr)).containsExactly("/usr/bin");
+		Mockito.verify(directoryLister, Mockito.times(1)).list("foo_container", "/usr");
+		// and the root directory is listed without its archive
+		Mockito.verify(archiveReader, Mockito.never()).read("foo_container", "/");
+		Mockito.verify(archiveReader, Mockito.never()).read("foo_container", "/dev");
+		Mockito.verify(archiveReader, Mockito.never()).read("foo_container", "/proc");
+		Mockito.verify(archiveReader, Mockito.never()).read("foo_container", "/sys");
+	}
+
+	@Test
+	public void shouldAbortTransferOfLargeArchive() throws IOException, DockerException {
+		// given
+		final String[] entries = new String[100];
+		entries[0] = "usr/";
+		for (int i = 1; i < entries.length; i++) {
+			entries[i] = "usr/dir" + i + "/";
+		}
+		final ByteArrayInputStream transfer = new ByteArrayInputStream(archiveBytes(entries));
+		final AtomicBoolean aborted = new AtomicBoolean();
+		final ArchiveReader reader = (containerId, path) -> new Archive(
+				path.equals("/usr") ? transfer : new ByteArrayInputStream(new byte[0])) {
+			@Override
+			public void abort() throws IOException {
+				aborted.set(true);
+				super.abort();
+			}
+		};
+		final ContainerFileSystemBrowser browser = new ContainerFileSystemBrowser(reader, directoryLister, 2,
+				ContainerFileSystemBrowser.MAX_ARCHIVE_SIZE);
+		Mockito.when(directoryLister.list("foo_container", "/usr"))
+				.thenReturn(Arrays.asList(new ContainerFileProxy("/usr", "dir1", true)));
+		// when
+		final List<ContainerFileProxy> usr = browser.list("foo_container", "/usr");
+		// then
+		assertThat(names(usr)).containsExactly("/usr/dir1");
+		assertThat(aborted.get()).isTrue();
+		assertThat(transfer.available()).isGreaterThan(0);
+	}
+
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.docker.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.spotify.docker.client.DockerClient;
+
+/**
+ * Testing the {@link DockerClientPool} class
+ */
+public class DockerClientPoolTest {
+
+	private final List<DockerClient> clients = new ArrayList<>();
+
+	private DockerClientPool pool(final int maxSharedRequests, final int maxDedicatedRequests) {
+		return new DockerClientPool(() -> {
+			final DockerClient client = Mockito.mock(DockerClient.class);
+			clients.add(client);
+			return client;
+		}, maxSharedRequests, maxDedicatedRequests, 2);
+	}
+
+	@Test
+	public void shouldShareOneClientForShortRequests() throws Exception {
+		// given
+		final DockerClientPool pool = pool(4, 4);
+		// when
+		for (int i = 0; i < 100; i++) {
+			try (DockerClientPool.Lease lease = pool.acquire()) {
+				lease.client().ping();
+			}
+		}
+		// then
+		assertThat(pool.getCreatedClientCount()).isEqualTo(1);
+		assertThat(pool.getRequestCount()).isEqualTo(100);
+		assertThat(pool.getActiveRequestCount()).isEqualTo(0);
+		Mockito.verify(clients.get(0), Mockito.times(100)).ping();
+		Mockito.verify(clients.get(0), Mockito.never()).close();
+	}
+
+	@Test
+	public void shouldReuseReleasedDedicatedClients() throws Exception {
+		// given
+		final DockerClientPool pool = pool(4, 4);
+		// when
+		final DockerClientPool.Lease first = pool.acquireDedicated();
+		final DockerClientPool.Lease second = pool.acquireDedicated();
+		assertThat(pool.getActiveDedicatedRequestCount()).isEqualTo(2);
+		first.close();
+		second.abort();
+		final DockerClientPool.Lease third = pool.acquireDedicated();
+		// then
+		assertThat(pool.getCreatedClientCount()).isEqualTo(2);
+		assertThat(third.client()).isSameAs(first.client());
+		Mockito.verify(second.client()).close();
+		Mockito.verify(first.client(), Mockito.never()).close();
+		third.close();
+		assertThat(pool.getIdleDedicatedClientCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldBoundConcurrentRequests() throws Exception {
+		// given
+		final DockerClientPool pool = pool(1, 1);
+		final DockerClientPool.Lease lease = pool.acquireDedicated();
+		final CountDownLatch acquired = new CountDownLatch(1);
+		final Thread thread = new Thread(() -> {
+			try (DockerClientPool.Lease other = pool.acquireDedicated()) {
+				acquired.countDown();
+			} catch (Exception e) {
+				// the latch is not counted down
+			}
+		});
+		// when
+		thread.start();
+		// then
+		assertThat(acquired.await(200, TimeUnit.MILLISECONDS)).isFalse();
+		lease.close();
+		assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+		thread.join();
+		assertThat(pool.getCreatedClientCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldCloseClientsWhenClosed() throws Exception {
+		// given
+		final DockerClientPool pool = pool(4, 4);
+		pool.acquire().close();
+		pool.acquireDedicated().close();
+		final DockerClientPool.Lease running = pool.acquireDedicated();
+		// when
+		pool.close();
+		// then
+		assertThat(pool.getIdleDedicatedClientCount()).isEqualTo(0);
+		Mockito.verify(clients.get(0)).close();
+		Mockito.verify(clients.get(1)).close();
+		Mockito.verify(running.client(), Mockito.never()).close();
+		// the client in use when the pool was closed is not kept
+		running.close();
+		Mockito.verify(running.client()).close();
+		assertThat(pool.getIdleDedicatedClientCount()).isEqualTo(0);
+	}
+
+}
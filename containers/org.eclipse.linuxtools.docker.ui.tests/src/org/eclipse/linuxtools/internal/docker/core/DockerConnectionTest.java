@@ -15,21 +15,40 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.eclipse.linuxtools.docker.core.DockerException;
 import org.eclipse.linuxtools.docker.core.EnumDockerConnectionState;
+import org.eclipse.linuxtools.docker.core.EnumDockerLoggingStatus;
+import org.eclipse.linuxtools.docker.core.IDockerConnection;
 import org.eclipse.linuxtools.docker.core.IDockerContainer;
+import org.eclipse.linuxtools.docker.core.IDockerContainerListener2;
 import org.eclipse.linuxtools.docker.core.IDockerImage;
+import org.eclipse.linuxtools.docker.core.IDockerModelDelta;
 import org.eclipse.linuxtools.internal.docker.ui.testutils.MockContainerFactory;
 import org.eclipse.linuxtools.internal.docker.ui.testutils.MockDockerClientFactory;
 import org.eclipse.linuxtools.internal.docker.ui.testutils.MockDockerConnectionFactory;
 import org.eclipse.linuxtools.internal.docker.ui.testutils.MockImageFactory;
 import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
 
 import com.spotify.docker.client.exceptions.DockerCertificateException;
 import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.LogMessage;
+import com.spotify.docker.client.LogStream;
 import com.spotify.docker.client.messages.Container;
+import com.spotify.docker.client.messages.ContainerInfo;
+import com.spotify.docker.client.messages.ContainerState;
+import com.spotify.docker.client.messages.Event;
 import com.spotify.docker.client.messages.Image;
 
 /**
@@ -85,6 +104,218 @@ public class DockerConnectionTest {
 		assertTrue(dockerConnection.hasImage("org/foo", "1.0"));
 	}
 
+	@Test
+	public void shouldUpdateContainersOnEvents() throws Exception {
+		// given
+		final Container fooContainer = MockContainerFactory.id("foo").name("foo").build();
+		final Container barContainer = MockContainerFactory.id("bar").name("bar").build();
+		final List<Container> nativeContainers = new ArrayList<>(Arrays.asList(fooContainer));
+		final DockerClient client = MockDockerClientFactory.build();
+		Mockito.when(client.listContainers(Matchers.<DockerClient.ListContainersParam> anyVararg()))
+				.thenAnswer(invocation -> nativeContainers);
+		final DockerConnection dockerConnection = MockDockerConnectionFactory.from("Test", client)
+				.withDefaultTCPConnectionSettings();
+		dockerConnection.open(false);
+		assertThat(containerIds(dockerConnection)).containsExactly("foo");
+		final List<List<IDockerContainer>> notifications = new ArrayList<>();
+		dockerConnection.addContainerListener((connection, containers) -> notifications.add(containers));
+		// when
+		nativeContainers.add(barContainer);
+		dockerConnection.handleEvent(event("create", "bar"));
+		nativeContainers.remove(fooContainer);
+		dockerConnection.handleEvent(event("destroy", "foo"));
+		dockerConnection.handleEvent(event("exec_start", "bar"));
+		// then
+		assertThat(containerIds(dockerConnection)).containsExactly("bar");
+		assertThat(notifications).hasSize(2);
+	}
+
+	@Test
+	public void shouldNotifyContainerChangesOnly() throws Exception {
+		// given
+		final Container fooContainer = MockContainerFactory.id("foo").name("foo").status("Up 1 second").build();
+		final Container barContainer = MockContainerFactory.id("bar").name("bar").build();
+		final Container stoppedFooContainer = MockContainerFactory.id("foo").name("foo").status("Exited (0)")
+				.build();
+		final List<Container> nativeContainers = new ArrayList<>(Arrays.asList(fooContainer));
+		final DockerClient client = MockDockerClientFactory.build();
+		Mockito.when(client.listContainers(Matchers.<DockerClient.ListContainersParam> anyVararg()))
+				.thenAnswer(invocation -> nativeContainers);
+		final DockerConnection dockerConnection = MockDockerConnectionFactory.from("Test", client)
+				.withDefaultTCPConnectionSettings();
+		dockerConnection.open(false);
+		final List<IDockerModelDelta<IDockerContainer>> deltas = new ArrayList<>();
+		dockerConnection.addContainerListener(new IDockerContainerListener2() {
+
+			@Override
+			public void listChanged(final IDockerConnection connection, final List<IDockerContainer> containers) {
+				fail("Expected only the changes to be notified");
+			}
+
+			@Override
+			public void containersChanged(final IDockerConnection connection, final List<IDockerContainer> containers,
+					final IDockerModelDelta<IDockerContainer> delta) {
+				deltas.add(delta);
+			}
+		});
+		// when
+		dockerConnection.getContainers(true);
+		nativeContainers.add(barContainer);
+		dockerConnection.getContainers(true);
+		nativeContainers.set(0, stoppedFooContainer);
+		dockerConnection.getContainers(true);
+		// then
+		assertThat(deltas).hasSize(2);
+		assertThat(deltas.get(0).getAdded()).extracting("id").containsExactly("bar");
+		assertThat(deltas.get(0).getRemoved()).isEmpty();
+		assertThat(deltas.get(0).getChanged()).isEmpty();
+		assertThat(deltas.get(1).getAdded()).isEmpty();
+		assertThat(deltas.get(1).getChanged()).extracting("status").containsExactly("Exited (0)");
+		assertThat(dockerConnection.getContainer("foo").status()).isEqualTo("Exited (0)");
+	}
+
+	@Test
+	public void shouldFollowContainerLogsUntilStopped() throws Exception {
+		// given a daemon that sends many log frames, then waits for more
+		final int lines = 10000;
+		final CountDownLatch drained = new CountDownLatch(1);
+		final CountDownLatch closed = new CountDownLatch(1);
+		final DockerClient client = MockDockerClientFactory.build();
+		Mockito.doAnswer(invocation -> {
+			closed.countDown();
+			return null;
+		}).when(client).close();
+		final ContainerState containerState = Mockito.mock(ContainerState.class);
+		Mockito.when(containerState.running()).thenReturn(true);
+		final ContainerInfo containerInfo = Mockito.mock(ContainerInfo.class);
+		Mockito.when(containerInfo.state()).thenReturn(containerState);
+		Mockito.when(client.inspectContainer("foo")).thenReturn(containerInfo);
+		final AtomicInteger sent = new AtomicInteger();
+		final LogStream logStream = Mockito.mock(LogStream.class);
+		Mockito.when(logStream.hasNext()).thenAnswer(invocation -> {
+			if (sent.get() < lines) {
+				return true;
+			}
+			drained.countDown();
+			closed.await();
+			throw new RuntimeException("Connection closed");
+		});
+		Mockito.when(logStream.next()).thenAnswer(invocation -> new LogMessage(LogMessage.Stream.STDOUT,
+				ByteBuffer.wrap(("line " + sent.getAndIncrement() + "\n").getBytes())));
+		Mockito.when(client.logs(Matchers.eq("foo"), Matchers.<DockerClient.LogsParam> anyVararg()))
+				.thenReturn(logStream);
+		final DockerConnection dockerConnection = MockDockerConnectionFactory.from("Test", client)
+				.withDefaultTCPConnectionSettings();
+		dockerConnection.open(false);
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		// when
+		dockerConnection.logContainer("foo", output);
+		assertTrue(drained.await(5, TimeUnit.SECONDS));
+		final long stopStart = System.currentTimeMillis();
+		dockerConnection.stopLoggingThread("foo");
+		// then
+		assertThat(output.toString().split("\n")).hasSize(lines);
+		assertThat(System.currentTimeMillis() - stopStart).isLessThan(1000);
+		assertThat(dockerConnection.loggingStatus("foo")).isEqualTo(EnumDockerLoggingStatus.LOGGING_COMPLETE);
+	}
+
+	@Test
+	public void shouldReuseContainerInfoUntilContainerChanges() throws Exception {
+		// given
+		final Container fooContainer = MockContainerFactory.id("foo").name("foo").status("Up 1 second").build();
+		final Container stoppedFooContainer = MockContainerFactory.id("foo").name("foo").status("Exited (0)")
+				.build();
+		final List<Container> nativeContainers = new ArrayList<>(Arrays.asList(fooContainer));
+		final DockerClient client = MockDockerClientFactory.build();
+		Mockito.when(client.listContainers(Matchers.<DockerClient.ListContainersParam> anyVararg()))
+				.thenAnswer(invocation -> nativeContainers);
+		Mockito.when(client.inspectContainer("foo")).thenReturn(Mockito.mock(ContainerInfo.class));
+		final DockerConnection dockerConnection = MockDockerConnectionFactory.from("Test", client)
+				.withDefaultTCPConnectionSettings();
+		dockerConnection.open(false);
+		dockerConnection.getContainers(true);
+		// when
+		for (int i = 0; i < 10; i++) {
+			assertThat(dockerConnection.getContainerInfo("foo")).isNotNull();
+		}
+		// then
+		Mockito.verify(client, Mockito.times(1)).inspectContainer("foo");
+		// when
+		nativeContainers.set(0, stoppedFooContainer);
+		dockerConnection.getContainers(true);
+		dockerConnection.getContainerInfo("foo");
+		// then
+		Mockito.verify(client, Mockito.times(2)).inspectContainer("foo");
+	}
+
+	@Test
+	public void shouldShareConcurrentContainerInfoRequests() throws Exception {
+		// given a daemon that takes time to reply
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch reply = new CountDownLatch(1);
+		final DockerClient client = MockDockerClientFactory.build();
+		Mockito.when(client.inspectContainer("foo")).thenAnswer(invocation -> {
+			started.countDown();
+			reply.await();
+			return Mockito.mock(ContainerInfo.class);
+		});
+		final DockerConnection dockerConnection = MockDockerConnectionFactory.from("Test", client)
+				.withDefaultTCPConnectionSettings();
+		dockerConnection.open(false);
+		final List<Thread> threads = new ArrayList<>();
+		final List<Object> results = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			threads.add(new Thread(() -> {
+				final Object info = dockerConnection.getContainerInfo("foo");
+				synchronized (results) {
+					results.add(info);
+				}
+			}));
+		}
+		// when
+		threads.get(0).start();
+		started.await();
+		threads.stream().skip(1).forEach(Thread::start);
+		reply.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		// then
+		assertThat(results).hasSize(5).doesNotContainNull();
+		assertThat(results.stream().distinct().count()).isEqualTo(1);
+		Mockito.verify(client, Mockito.times(1)).inspectContainer("foo");
+	}
+
+	@Test
+	public void shouldPrefetchContainerInfo() throws Exception {
+		// given
+		final DockerClient client = MockDockerClientFactory.build();
+		Mockito.when(client.inspectContainer(Matchers.anyString()))
+				.thenAnswer(invocation -> Mockito.mock(ContainerInfo.class));
+		final DockerConnection dockerConnection = MockDockerConnectionFactory.from("Test", client)
+				.withDefaultTCPConnectionSettings();
+		dockerConnection.open(false);
+		// when
+		dockerConnection.prefetchContainerInfo(Arrays.asList("foo", "bar"));
+		dockerConnection.prefetchContainerInfo(Arrays.asList("foo", "bar"));
+		// then
+		assertThat(dockerConnection.getContainerInfo("foo")).isNotNull();
+		assertThat(dockerConnection.getContainerInfo("bar")).isNotNull();
+		Mockito.verify(client, Mockito.times(1)).inspectContainer("foo");
+		Mockito.verify(client, Mockito.times(1)).inspectContainer("bar");
+	}
+
+	private static List<String> containerIds(final DockerConnection dockerConnection) {
+		return dockerConnection.getContainers().stream().map(c -> c.id()).collect(Collectors.toList());
+	}
+
+	private static Event event(final String status, final String id) {
+		final Event event = Mockito.mock(Event.class);
+		Mockito.when(event.status()).thenReturn(status);
+		Mockito.when(event.id()).thenReturn(id);
+		return event;
+	}
+
 	@Test
 	public void shouldBeClosedWhenInvalidPathToCerts() {
 		// given
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.docker.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.linuxtools.docker.core.IDockerContainer;
+import org.eclipse.linuxtools.docker.core.IDockerImage;
+import org.eclipse.linuxtools.docker.core.IDockerImageHierarchyNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Testing the {@link DockerImageHierarchyIndex} class
+ */
+public class DockerImageHierarchyIndexTest {
+
+	private IDockerImage rootImage;
+	private IDockerImage fooImage1;
+	private IDockerImage fooImage2;
+	private IDockerContainer fooContainer1;
+	private IDockerContainer fooContainer2;
+	private DockerImageHierarchyIndex index;
+
+	private static IDockerImage image(final String id, final String parentId, final String... repoTags) {
+		final IDockerImage image = Mockito.mock(IDockerImage.class);
+		Mockito.when(image.id()).thenReturn(id);
+		Mockito.when(image.parentId()).thenReturn(parentId);
+		Mockito.when(image.repoTags()).thenReturn(Arrays.asList(repoTags));
+		return image;
+	}
+
+	private static IDockerContainer container(final String id, final String imageName) {
+		final IDockerContainer container = Mockito.mock(IDockerContainer.class);
+		Mockito.when(container.id()).thenReturn(id);
+		Mockito.when(container.image()).thenReturn(imageName);
+		return container;
+	}
+
+	@Before
+	public void setupData() {
+		// root_image
+		// |- foo_image1
+		// _|- foo_container1
+		// _|- foo_image2
+		// __|- foo_container2 (using the foo_image2_alias name)
+		this.rootImage = image("sha256:root_image", null, "root_image");
+		this.fooImage1 = image("sha256:foo_image1", "sha256:root_image", "foo_image1");
+		this.fooImage2 = image("sha256:foo_image2", "sha256:foo_image1", "foo_image2", "foo_image2_alias");
+		this.fooContainer1 = container("foo_container1", "foo_image1");
+		this.fooContainer2 = container("foo_container2", "foo_image2_alias");
+		this.index = new DockerImageHierarchyIndex(Arrays.asList(rootImage, fooImage1, fooImage2),
+				Arrays.asList(fooContainer1, fooContainer2));
+	}
+
+	@Test
+	public void shouldResolveImageHierarchy() {
+		// when
+		final IDockerImageHierarchyNode fooImage1Node = index.resolveImageHierarchy(fooImage1);
+		// then
+		assertThat(fooImage1Node.getElement()).isEqualTo(fooImage1);
+		assertThat(fooImage1Node.getParent().getElement()).isEqualTo(rootImage);
+		assertThat(fooImage1Node.getParent().getParent()).isNull();
+		assertThat(fooImage1Node.getParent().getChildren()).containsExactly(fooImage1Node);
+		assertThat(fooImage1Node.getChildren()).hasSize(2);
+		assertThat(fooImage1Node.getChild("foo_container1").getElement()).isEqualTo(fooContainer1);
+		final IDockerImageHierarchyNode fooImage2Node = fooImage1Node.getChild("sha256:foo_image2");
+		assertThat(fooImage2Node.getElement()).isEqualTo(fooImage2);
+		assertThat(fooImage2Node.getChildren()).hasSize(1);
+		assertThat(fooImage2Node.getChild("foo_container2").getElement()).isEqualTo(fooContainer2);
+	}
+
+	@Test
+	public void shouldResolveContainerHierarchy() {
+		// when
+		final IDockerImageHierarchyNode fooContainer2Node = index.resolveImageHierarchy(fooContainer2);
+		// then
+		assertThat(fooContainer2Node.getElement()).isEqualTo(fooContainer2);
+		assertThat(fooContainer2Node.getChildren()).isEmpty();
+		final IDockerImageHierarchyNode fooImage2Node = fooContainer2Node.getParent();
+		assertThat(fooImage2Node.getElement()).isEqualTo(fooImage2);
+		assertThat(fooImage2Node.getChildren()).containsExactly(fooContainer2Node);
+		assertThat(fooImage2Node.getParent().getElement()).isEqualTo(fooImage1);
+		assertThat(fooImage2Node.getParent().getParent().getElement()).isEqualTo(rootImage);
+	}
+
+	@Test
+	public void shouldResolveSameHierarchyUntilUpdated() {
+		// given
+		final IDockerImageHierarchyNode rootImageNode = index.resolveImageHierarchy(rootImage);
+		assertThat(index.resolveImageHierarchy(rootImage)).isSameAs(rootImageNode);
+		final Map<String, IDockerImage> previous = new LinkedHashMap<>();
+		previous.put(rootImage.id(), rootImage);
+		previous.put(fooImage1.id(), fooImage1);
+		previous.put(fooImage2.id(), fooImage2);
+		final Map<String, IDockerImage> current = new LinkedHashMap<>(previous);
+		current.remove(fooImage2.id());
+		// when
+		index.updateImages(DockerModelDelta.compute(previous, current, (before, after) -> true));
+		index.setContainers(Collections.singletonList(fooContainer1));
+		// then
+		final IDockerImageHierarchyNode updatedRootImageNode = index.resolveImageHierarchy(rootImage);
+		assertThat(updatedRootImageNode).isNotSameAs(rootImageNode);
+		final IDockerImageHierarchyNode fooImage1Node = updatedRootImageNode.getChild("sha256:foo_image1");
+		assertThat(fooImage1Node.getChildren()).hasSize(1);
+		assertThat(fooImage1Node.getChild("foo_container1")).isNotNull();
+		assertThat(index.resolveImageHierarchy(fooContainer2).getParent()).isNull();
+	}
+
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.docker.ui.launch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+/**
+ * Testing the {@link BlockingInputStream} class.
+ */
+public class BlockingInputStreamTest {
+
+	/**
+	 * A stream that returns no bytes on every other bulk read, as the
+	 * streams copied from a container may do.
+	 */
+	private static class StallingInputStream extends FilterInputStream {
+
+		private boolean stall = true;
+		private boolean closed = false;
+
+		StallingInputStream(final byte[] content) {
+			super(new ByteArrayInputStream(content));
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			stall = !stall;
+			if (!stall) {
+				return 0;
+			}
+			return super.read(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+
+	@Test
+	public void shouldReadAllBytesWhenStreamStalls() throws IOException {
+		// given
+		final InputStream in = new BlockingInputStream(new StallingInputStream("foobar".getBytes()));
+		final byte[] buffer = new byte[4];
+		// when
+		final int first = in.read(buffer, 0, buffer.length);
+		final int second = in.read(buffer, first, buffer.length - first);
+		// then
+		assertThat(first).isEqualTo(1);
+		assertThat(second).isEqualTo(3);
+		assertThat(new String(buffer)).isEqualTo("foob");
+	}
+
+	@Test
+	public void shouldReturnEndOfStreamAfterStall() throws IOException {
+		// given
+		final InputStream in = new BlockingInputStream(new StallingInputStream(new byte[0]));
+		// then
+		assertThat(in.read(new byte[4], 0, 4)).isEqualTo(-1);
+	}
+
+	@Test
+	public void shouldNotReadForEmptyBuffer() throws IOException {
+		// given
+		final InputStream in = new BlockingInputStream(new StallingInputStream("foo".getBytes()));
+		// then
+		assertThat(in.read(new byte[4], 0, 0)).isEqualTo(0);
+		assertThat(in.read()).isEqualTo('f');
+	}
+
+	@Test
+	public void shouldCloseWrappedStream() throws IOException {
+		// given
+		final StallingInputStream stalling = new StallingInputStream("foo".getBytes());
+		// when
+		new BlockingInputStream(stalling).close();
+		// then
+		assertThat(stalling.closed).isTrue();
+	}
+
+}
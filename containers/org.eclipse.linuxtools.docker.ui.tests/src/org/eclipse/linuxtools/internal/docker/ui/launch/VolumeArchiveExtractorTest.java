@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.docker.ui.launch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Set;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Testing the {@link VolumeArchiveExtractor} and {@link VolumeManifest}
+ * classes.
+ */
+public class VolumeArchiveExtractorTest {
+
+	private static final long MOD_TIME = 1500000000000L;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static InputStream archive(final long modTime, final String... namesAndContents) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+			final TarArchiveEntry dir = new TarArchiveEntry("include/");
+			tar.putArchiveEntry(dir);
+			tar.closeArchiveEntry();
+			for (int i = 0; i < namesAndContents.length; i += 2) {
+				final byte[] content = namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8);
+				final TarArchiveEntry entry = new TarArchiveEntry("include/" + namesAndContents[i]);
+				entry.setSize(content.length);
+				entry.setModTime(new Date(modTime));
+				tar.putArchiveEntry(entry);
+				tar.write(content);
+				tar.closeArchiveEntry();
+			}
+		}
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+
+	private static String read(final File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void shouldOnlyWriteChangedFiles() throws IOException {
+		// given
+		final IPath target = new Path(folder.getRoot().getAbsolutePath());
+		final VolumeManifest manifest = VolumeManifest.load(target.toFile());
+		final IPath usr = new Path("/usr");
+		new VolumeArchiveExtractor(manifest).extract(archive(MOD_TIME, "a.h", "foo", "b.h", "bar"),
+				target.append(usr), usr, new NullProgressMonitor());
+		final File a = target.append("usr/include/a.h").toFile();
+		final File b = target.append("usr/include/b.h").toFile();
+		assertThat(read(a)).isEqualTo("foo");
+		assertThat(a.lastModified()).isEqualTo(MOD_TIME);
+		// when the same files are copied again
+		final VolumeArchiveExtractor extractor = new VolumeArchiveExtractor(manifest);
+		extractor.extract(archive(MOD_TIME, "a.h", "foo", "b.h", "bar"), target.append(usr), usr,
+				new NullProgressMonitor());
+		// then
+		assertThat(extractor.getWrittenFileCount()).isEqualTo(0);
+		assertThat(extractor.getSkippedFileCount()).isEqualTo(2);
+		// when the image was rebuilt: same content for a.h, new content for
+		// b.h
+		final VolumeArchiveExtractor rebuiltExtractor = new VolumeArchiveExtractor(manifest);
+		rebuiltExtractor.extract(archive(MOD_TIME + 60000, "a.h", "foo", "b.h", "baz"), target.append(usr), usr,
+				new NullProgressMonitor());
+		// then
+		assertThat(rebuiltExtractor.getWrittenFileCount()).isEqualTo(1);
+		assertThat(rebuiltExtractor.getSkippedFileCount()).isEqualTo(1);
+		assertThat(a.lastModified()).isEqualTo(MOD_TIME);
+		assertThat(read(b)).isEqualTo("baz");
+		assertThat(b.lastModified()).isEqualTo(MOD_TIME + 60000);
+	}
+
+	@Test
+	public void shouldSaveManifestAndDeleteRemovedFiles() throws IOException {
+		// given
+		final IPath target = new Path(folder.getRoot().getAbsolutePath());
+		final IPath usrInclude = new Path("/usr/include");
+		final IPath usr = usrInclude.removeLastSegments(1);
+		final VolumeManifest manifest = VolumeManifest.load(target.toFile());
+		new VolumeArchiveExtractor(manifest).extract(archive(MOD_TIME, "a.h", "foo", "b.h", "bar"),
+				target.append(usr), usr, new NullProgressMonitor());
+		manifest.save();
+		// when
+		final VolumeManifest loadedManifest = VolumeManifest.load(target.toFile());
+		final VolumeArchiveExtractor extractor = new VolumeArchiveExtractor(loadedManifest);
+		final Set<String> paths = extractor.extract(archive(MOD_TIME, "a.h", "foo"), target.append(usr), usr,
+				new NullProgressMonitor());
+		extractor.deleteRemovedFiles(target.append(usrInclude), usrInclude, paths);
+		// then
+		assertThat(loadedManifest.getPaths("usr/include")).containsExactly("usr/include/a.h");
+		assertThat(loadedManifest.get("usr/include/a.h").getSize()).isEqualTo(3);
+		assertThat(target.append("usr/include/a.h").toFile().exists()).isTrue();
+		assertThat(target.append("usr/include/b.h").toFile().exists()).isFalse();
+	}
+
+}
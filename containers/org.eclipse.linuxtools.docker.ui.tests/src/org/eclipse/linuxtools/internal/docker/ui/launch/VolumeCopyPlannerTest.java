@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.docker.ui.launch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Testing the {@link VolumeCopyPlanner} class.
+ */
+public class VolumeCopyPlannerTest {
+
+	@Test
+	public void shouldMatchParentDirectoryOnPathBoundary() {
+		assertThat(VolumeCopyPlanner.isParentDir("/usr", "/usr/include")).isTrue();
+		assertThat(VolumeCopyPlanner.isParentDir("/usr", "/usr")).isFalse();
+		assertThat(VolumeCopyPlanner.isParentDir("/usr", "/usr2/include")).isFalse();
+		assertThat(VolumeCopyPlanner.isParentDir("/usr/include", "/usr")).isFalse();
+	}
+
+	@Test
+	public void shouldFindVolumesCopiedDirectlyOrWithParent() {
+		// given
+		final Set<String> copied = new HashSet<>(Arrays.asList("/usr/include", "/opt"));
+		// then
+		assertThat(VolumeCopyPlanner.isCopied("/usr/include", copied)).isTrue();
+		assertThat(VolumeCopyPlanner.isCopied("/opt/foo/include", copied)).isTrue();
+		assertThat(VolumeCopyPlanner.isCopied("/usr", copied)).isFalse();
+		assertThat(VolumeCopyPlanner.isCopied("/optional", copied)).isFalse();
+	}
+
+	@Test
+	public void shouldExcludeProjectAndCopiedVolumes() {
+		// given
+		final Set<String> copied = new HashSet<>(Arrays.asList("/usr/include"));
+		// when
+		final List<String> volumes = VolumeCopyPlanner.getVolumesToCopy(
+				Arrays.asList("/home/${ProjName}", "/usr/include", "/usr/include/sys", "/usr/lib"), copied);
+		// then
+		assertThat(volumes).containsExactly("/usr/lib");
+	}
+
+	@Test
+	public void shouldExcludeDuplicateAndNestedVolumes() {
+		// when
+		final List<String> volumes = VolumeCopyPlanner.getVolumesToCopy(
+				Arrays.asList("/usr/lib/gcc", "/usr/lib", "/usr/lib", "/usr/lib64", "/usr/lib/gcc/x86_64"),
+				Collections.emptySet());
+		// then
+		assertThat(volumes).containsExactly("/usr/lib", "/usr/lib64");
+	}
+
+}
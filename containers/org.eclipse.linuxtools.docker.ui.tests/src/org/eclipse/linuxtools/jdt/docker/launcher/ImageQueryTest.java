@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.jdt.docker.launcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * Testing the {@link ImageQuery} and {@link ImageQueryCache} classes, without
+ * any probe container.
+ */
+public class ImageQueryTest {
+
+	private static final String DISCOVERY_OUTPUT = "javaPath=/usr/lib/jvm/java-1.8.0/jre/bin/java\r\n"
+			+ "jvmPath=/usr/lib/jvm/java-1.8.0\r\n"
+			+ "version=1.8.0\r\n"
+			+ "file:/usr/lib/jvm/java-1.8.0/jre/bin/java=true\r\n"
+			+ "file:/usr/lib/jvm/java-1.8.0/jre/bin/javaw=false\r\n"
+			+ "file:/opt/a=b/bin/java=true\r\n"
+			+ "no value\r\n";
+
+	private static String newImageId() {
+		return "sha256:test-" + System.nanoTime();
+	}
+
+	@Test
+	public void shouldPrintEveryResultOfDiscoveryScript() {
+		// when
+		final String script = ImageQuery.getDiscoveryScript();
+		// then
+		assertThat(script).contains("echo \"javaPath=$j\"", "echo \"jvmPath=$l\"", "echo \"version=",
+				"echo \"file:$h/$f=$r\"", " jre/bin/javaw ", " bin/java ", " bin/j9.exe;");
+	}
+
+	@Test
+	public void shouldParseDiscoveryOutput() {
+		// given
+		final Properties results = new Properties();
+		// when
+		ImageQuery.parseDiscoveryOutput(DISCOVERY_OUTPUT, results);
+		// then
+		assertThat(results.getProperty("javaPath")).isEqualTo("/usr/lib/jvm/java-1.8.0/jre/bin/java");
+		assertThat(results.getProperty("jvmPath")).isEqualTo("/usr/lib/jvm/java-1.8.0");
+		assertThat(results.getProperty("version")).isEqualTo("1.8.0");
+		assertThat(results.getProperty("file:/usr/lib/jvm/java-1.8.0/jre/bin/java")).isEqualTo("true");
+		assertThat(results.getProperty("file:/usr/lib/jvm/java-1.8.0/jre/bin/javaw")).isEqualTo("false");
+		// the path of a file may contain '='
+		assertThat(results.getProperty("file:/opt/a=b/bin/java")).isEqualTo("true");
+		assertThat(results).hasSize(6);
+	}
+
+	@Test
+	public void shouldMarkImageWithoutJavaAsDiscovered() {
+		// given
+		final Properties results = new Properties();
+		// when
+		ImageQuery.parseDiscoveryOutput("version=\n", results);
+		// then
+		assertThat(results.getProperty("javaPath")).isEmpty();
+		assertThat(results.getProperty("version")).isEmpty();
+	}
+
+	@Test
+	public void shouldKeepOneCacheEntryPerImage() {
+		// given
+		final String imageId = newImageId();
+		// when
+		final Properties results = ImageQueryCache.getInstance().get(imageId);
+		// then
+		assertThat(results).isEmpty();
+		assertThat(ImageQueryCache.getInstance().get(imageId)).isSameAs(results);
+		assertThat(ImageQueryCache.getInstance().get(newImageId())).isNotSameAs(results);
+	}
+
+	@Test
+	public void shouldAnswerFromCacheWithoutContainer() {
+		// given
+		final String imageId = newImageId();
+		ImageQuery.parseDiscoveryOutput(DISCOVERY_OUTPUT, ImageQueryCache.getInstance().get(imageId));
+		// when no connection is available to start a probe container
+		final ImageQuery query = new ImageQuery(null, imageId);
+		// then
+		assertThat(query.getDefaultJVMInstallLocation().getAbsolutePath())
+				.isEqualTo("/usr/lib/jvm/java-1.8.0/");
+		assertThat(query.getJavaVersion()).isEqualTo(1.8);
+		assertThat(query.isFile(new UnixFile("/usr/lib/jvm/java-1.8.0/jre/bin/java"))).isTrue();
+		assertThat(query.isFile(new UnixFile("/usr/lib/jvm/java-1.8.0/jre/bin/javaw"))).isFalse();
+	}
+
+}
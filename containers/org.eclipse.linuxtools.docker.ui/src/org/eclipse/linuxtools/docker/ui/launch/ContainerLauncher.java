@@ -24,6 +24,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -34,9 +35,11 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -65,8 +68,12 @@ import org.eclipse.linuxtools.internal.docker.core.DockerPortBinding;
 import org.eclipse.linuxtools.internal.docker.core.IConsoleListener;
 import org.eclipse.linuxtools.internal.docker.ui.consoles.ConsoleOutputStream;
 import org.eclipse.linuxtools.internal.docker.ui.consoles.RunConsole;
+import org.eclipse.linuxtools.internal.docker.ui.launch.BlockingInputStream;
 import org.eclipse.linuxtools.internal.docker.ui.launch.ContainerCommandProcess;
 import org.eclipse.linuxtools.internal.docker.ui.launch.LaunchConfigurationUtils;
+import org.eclipse.linuxtools.internal.docker.ui.launch.VolumeArchiveExtractor;
+import org.eclipse.linuxtools.internal.docker.ui.launch.VolumeCopyPlanner;
+import org.eclipse.linuxtools.internal.docker.ui.launch.VolumeManifest;
 import org.eclipse.linuxtools.internal.docker.ui.views.DVMessages;
 import org.eclipse.linuxtools.internal.docker.ui.wizards.DataVolumeModel;
 import org.eclipse.swt.custom.CTabFolder;
@@ -165,12 +172,15 @@ public class ContainerLauncher {
 		private static final String COPY_VOLUMES_FROM_JOB_TITLE = "ContainerLaunch.copyVolumesFromJob.title"; //$NON-NLS-1$
 		private static final String COPY_VOLUMES_FROM_DESC = "ContainerLaunch.copyVolumesFromJob.desc"; //$NON-NLS-1$
 		private static final String COPY_VOLUMES_FROM_TASK = "ContainerLaunch.copyVolumesFromJob.task"; //$NON-NLS-1$
+		private static final int MAX_CONCURRENT_COPIES = 4;
 
 		private final List<String> volumes;
 		private final IDockerConnection connection;
 		private final String image;
 		private final IPath target;
 		private Set<String> dirList;
+		// the state of the files copied into the target directory
+		private VolumeManifest manifest;
 
 		public CopyVolumesFromImageJob(
 				IDockerConnection connection,
@@ -203,6 +213,8 @@ public class ContainerLauncher {
 					volumes.size());
 			String containerId = null;
 			try {
+				target.toFile().mkdirs();
+				manifest = VolumeManifest.load(target.toFile());
 				IDockerImage dockerImage = ((DockerConnection) connection)
 						.getImageByTag(image);
 				// if there is a .image_id file, check the image id to ensure
@@ -243,86 +255,16 @@ public class ContainerLauncher {
 				IDockerHostConfig hostConfig = hostBuilder.build();
 				containerId = ((DockerConnection) connection)
 						.createContainer(config, hostConfig, null);
-				for (String volume : volumes) {
-					if (monitor.isCanceled()) {
-						monitor.done();
-						return Status.CANCEL_STATUS;
-					}
-					// don't bother copying files from project
-					if (volume.contains("${ProjName}")) { //$NON-NLS-1$
-						monitor.worked(1);
-						continue;
-					}
-					// if we have already copied the directory either directly
-					// or as part of a parent directory copy, then skip to next
-					// volume.
-					for (String path : dirList) {
-						if (volume.equals(path)
-								|| (volume.startsWith(path) && volume.charAt(
-										path.length()) == File.separatorChar)) {
-							monitor.worked(1);
-							continue;
-						}
-					}
-					try {
-						monitor.setTaskName(Messages.getFormattedString(
-								COPY_VOLUMES_FROM_TASK, volume));
-						monitor.worked(1);
-
-
-						InputStream in = ((DockerConnection) connection)
-								.copyContainer(containerId, volume);
-
-						synchronized (lockObject) {
-							dirList.add(volume);
-						}
-
-						/*
-						 * The input stream from copyContainer might be
-						 * incomplete or non-blocking so we should wrap it in a
-						 * stream that is guaranteed to block until data is
-						 * available.
-						 */
-						TarArchiveInputStream k = new TarArchiveInputStream(
-								new BlockingInputStream(in));
-						TarArchiveEntry te = null;
-						target.toFile().mkdirs();
-						IPath currDir = target.append(volume)
-								.removeLastSegments(1);
-						currDir.toFile().mkdirs();
-						while ((te = k.getNextTarEntry()) != null) {
-							long size = te.getSize();
-							IPath path = currDir;
-							path = path.append(te.getName());
-							File f = new File(path.toOSString());
-							if (te.isDirectory()) {
-								f.mkdir();
-								continue;
-							} else {
-								f.createNewFile();
-							}
-							FileOutputStream os = new FileOutputStream(f);
-							int bufferSize = ((int) size > 4096 ? 4096
-									: (int) size);
-							byte[] barray = new byte[bufferSize];
-							int result = -1;
-							while ((result = k.read(barray, 0,
-									bufferSize)) > -1) {
-								if (monitor.isCanceled()) {
-									monitor.done();
-									k.close();
-									os.close();
-									return Status.CANCEL_STATUS;
-								}
-								os.write(barray, 0, result);
-							}
-							os.close();
-						}
-						k.close();
-					} catch (final DockerException e) {
-						// ignore
-					}
+				// don't bother copying files from project, nor
+				// directories that we have already copied either directly
+				// or as part of a parent directory copy
+				final List<String> volumesToCopy;
+				synchronized (lockObject) {
+					volumesToCopy = VolumeCopyPlanner.getVolumesToCopy(volumes,
+							dirList);
 				}
+				monitor.worked(volumes.size() - volumesToCopy.size());
+				return copyVolumes(containerId, volumesToCopy, monitor);
 			} catch (InterruptedException e) {
 				// do nothing
 			} catch (IOException e) {
@@ -338,44 +280,142 @@ public class ContainerLauncher {
 						// ignore
 					}
 				}
+				// record what was copied even if the copy was interrupted
+				if (manifest != null) {
+					try {
+						manifest.save();
+					} catch (IOException e) {
+						Activator.log(e);
+					}
+				}
+				saveCopiedVolumes();
 				monitor.done();
 			}
 			return Status.OK_STATUS;
 		}
-	}
-
-	/**
-	 * A blocking input stream that waits until data is available.
-	 */
-	private class BlockingInputStream extends InputStream {
-		private InputStream in;
 
-		public BlockingInputStream(InputStream in) {
-			this.in = in;
+		/**
+		 * Copies the given volumes concurrently, each one from its own
+		 * archive.
+		 */
+		private IStatus copyVolumes(final String containerId,
+				final List<String> volumesToCopy,
+				final IProgressMonitor monitor)
+				throws IOException, InterruptedException {
+			if (volumesToCopy.isEmpty()) {
+				return Status.OK_STATUS;
+			}
+			final ExecutorService executor = Executors.newFixedThreadPool(
+					Math.min(volumesToCopy.size(), MAX_CONCURRENT_COPIES));
+			try {
+				final List<Future<IStatus>> results = new ArrayList<>();
+				for (String volume : volumesToCopy) {
+					results.add(executor.submit(
+							() -> copyVolume(containerId, volume, monitor)));
+				}
+				IStatus status = Status.OK_STATUS;
+				IOException failure = null;
+				for (Future<IStatus> result : results) {
+					try {
+						if (result.get() == Status.CANCEL_STATUS) {
+							status = Status.CANCEL_STATUS;
+						}
+					} catch (ExecutionException e) {
+						if (e.getCause() instanceof IOException) {
+							if (failure == null) {
+								failure = (IOException) e.getCause();
+							}
+						} else if (e.getCause() instanceof InterruptedException) {
+							throw (InterruptedException) e.getCause();
+						} else if (!(e.getCause() instanceof DockerException)) {
+							// volumes that cannot be copied are ignored
+							Activator.log(new Status(IStatus.ERROR,
+									Activator.PLUGIN_ID,
+									e.getCause().getMessage(), e.getCause()));
+						}
+					}
+				}
+				if (failure != null) {
+					throw failure;
+				}
+				return status;
+			} finally {
+				executor.shutdownNow();
+			}
 		}
 
-		@Override
-		public int read() throws IOException {
-			return in.read();
+		/**
+		 * Extracts the archive of the given volume under the target
+		 * directory.
+		 */
+		private IStatus copyVolume(final String containerId,
+				final String volume, final IProgressMonitor monitor)
+				throws DockerException, IOException, InterruptedException {
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			synchronized (monitor) {
+				monitor.setTaskName(Messages
+						.getFormattedString(COPY_VOLUMES_FROM_TASK, volume));
+				monitor.worked(1);
+			}
+			final InputStream in = ((DockerConnection) connection)
+					.copyContainer(containerId, volume);
+			/*
+			 * The input stream from copyContainer might be incomplete or
+			 * non-blocking so we should wrap it in a stream that is guaranteed
+			 * to block until data is available. Only the files that changed
+			 * since the last copy are written.
+			 */
+			final IPath volumePath = new Path(volume);
+			final VolumeArchiveExtractor extractor = new VolumeArchiveExtractor(
+					manifest);
+			final Set<String> paths = extractor.extract(
+					new BlockingInputStream(in),
+					target.append(volumePath.removeLastSegments(1)),
+					volumePath.removeLastSegments(1), monitor);
+			if (paths == null) {
+				return Status.CANCEL_STATUS;
+			}
+			extractor.deleteRemovedFiles(target.append(volumePath),
+					volumePath, paths);
+			synchronized (lockObject) {
+				dirList.add(volume);
+			}
+			return Status.OK_STATUS;
 		}
 	}
 
-	@Override
-	protected void finalize() throws Throwable {
+	/**
+	 * Saves the volumes copied from each image, so that they are not copied
+	 * again after a restart. The previous file is replaced only once the new
+	 * one is completely written.
+	 */
+	private static void saveCopiedVolumes() {
 		synchronized (lockObject) {
 			if (copiedVolumesMap != null) {
 				IPath pluginPath = Platform.getStateLocation(
 						Platform.getBundle(Activator.PLUGIN_ID));
 				IPath path = pluginPath.append(DIRFILE_NAME);
-
 				File dirFile = path.toFile();
-				FileOutputStream f = new FileOutputStream(dirFile);
-				try (ObjectOutputStream oos = new ObjectOutputStream(f)) {
+				File tmpFile = pluginPath.append(DIRFILE_NAME + ".tmp") //$NON-NLS-1$
+						.toFile();
+				try (ObjectOutputStream oos = new ObjectOutputStream(
+						new FileOutputStream(tmpFile))) {
 					oos.writeObject(copiedVolumesMap);
+				} catch (IOException e) {
+					Activator.log(e);
+					return;
+				}
+				try {
+					Files.move(tmpFile.toPath(), dirFile.toPath(),
+							StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				} catch (IOException e) {
+					Activator.log(e);
 				}
 			}
 		}
-		super.finalize();
 	}
 
 	public ContainerLauncher() {
@@ -37,9 +37,10 @@ public class ContainerFileSystemProvider implements IImportStructureProvider {
 		try {
 			ContainerFileProxy proxy = (ContainerFileProxy) element;
 			if (proxy.isFolder()) {
+				// the archive of a link only contains the link itself
 				return ((DockerConnection) connection).readContainerDirectory(
 						containerId,
-						proxy.getFullPath());
+						proxy.isLink() ? proxy.getLink() : proxy.getFullPath());
 			}
 		} catch (DockerException e) {
 			// do nothing for now
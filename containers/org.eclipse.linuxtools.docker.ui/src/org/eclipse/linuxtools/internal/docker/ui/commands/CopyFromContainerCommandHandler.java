@@ -34,6 +34,7 @@ import org.eclipse.linuxtools.docker.ui.Activator;
 import org.eclipse.linuxtools.docker.ui.wizards.ImageSearch;
 import org.eclipse.linuxtools.internal.docker.core.ContainerFileProxy;
 import org.eclipse.linuxtools.internal.docker.core.DockerConnection;
+import org.eclipse.linuxtools.internal.docker.ui.launch.BlockingInputStream;
 import org.eclipse.linuxtools.internal.docker.ui.wizards.ContainerCopyFrom;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IWorkbenchPart;
@@ -119,38 +120,38 @@ public class CopyFromContainerCommandHandler extends AbstractHandler {
 							 * in a stream that is guaranteed to block until
 							 * data is available.
 							 */
-							TarArchiveInputStream k = new TarArchiveInputStream(
-									new BlockingInputStream(in));
-							TarArchiveEntry te = null;
-							while ((te = k.getNextTarEntry()) != null) {
-								long size = te.getSize();
-								IPath path = new Path(target);
-								path = path.append(te.getName());
-								File f = new File(path.toOSString());
-								if (te.isDirectory()) {
-									f.mkdir();
-									continue;
-								} else {
-									f.createNewFile();
-								}
-								FileOutputStream os = new FileOutputStream(f);
-								int bufferSize = ((int) size > 4096 ? 4096
-										: (int) size);
-								byte[] barray = new byte[bufferSize];
-								int result = -1;
-								while ((result = k.read(barray, 0,
-										bufferSize)) > -1) {
-									if (monitor.isCanceled()) {
-										monitor.done();
-										k.close();
-										os.close();
-										return Status.CANCEL_STATUS;
+							try (TarArchiveInputStream k = new TarArchiveInputStream(
+									new BlockingInputStream(in))) {
+								TarArchiveEntry te = null;
+								while ((te = k.getNextTarEntry()) != null) {
+									long size = te.getSize();
+									IPath path = new Path(target);
+									path = path.append(te.getName());
+									File f = new File(path.toOSString());
+									if (te.isDirectory()) {
+										f.mkdir();
+										continue;
+									} else {
+										f.createNewFile();
+									}
+									FileOutputStream os = new FileOutputStream(
+											f);
+									int bufferSize = ((int) size > 4096 ? 4096
+											: (int) size);
+									byte[] barray = new byte[bufferSize];
+									int result = -1;
+									while ((result = k.read(barray, 0,
+											bufferSize)) > -1) {
+										if (monitor.isCanceled()) {
+											monitor.done();
+											os.close();
+											return Status.CANCEL_STATUS;
+										}
+										os.write(barray, 0, result);
 									}
-									os.write(barray, 0, result);
+									os.close();
 								}
-								os.close();
 							}
-							k.close();
 						} catch (final DockerException e) {
 							Display.getDefault()
 									.syncExec(() -> MessageDialog.openError(
@@ -182,20 +183,4 @@ public class CopyFromContainerCommandHandler extends AbstractHandler {
 
 	}
 
-	/**
-	 * A blocking input stream that waits until data is available.
-	 */
-	public class BlockingInputStream extends InputStream {
-		private InputStream in;
-
-		public BlockingInputStream(InputStream in) {
-			this.in = in;
-		}
-
-		@Override
-		public int read() throws IOException {
-			return in.read();
-		}
-	}
-
 }
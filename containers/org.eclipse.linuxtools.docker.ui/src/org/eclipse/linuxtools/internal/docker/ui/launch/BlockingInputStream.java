@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.ui.launch;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that blocks until data is available, for streams such as
+ * the archives copied from a container that may return no bytes instead of
+ * waiting for more.
+ * <p>
+ * When the wrapped stream returns no bytes, this stream reads a single byte,
+ * which blocks until one is available or the stream ends.
+ * </p>
+ */
+public class BlockingInputStream extends FilterInputStream {
+
+	/**
+	 * Constructor
+	 *
+	 * @param in
+	 *            the stream to read, closed along with this stream
+	 */
+	public BlockingInputStream(final InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		final int n = in.read(b, off, len);
+		if (n != 0) {
+			return n;
+		}
+		// wait until at least one byte is available
+		final int c = in.read();
+		if (c == -1) {
+			return -1;
+		}
+		b[off] = (byte) c;
+		return 1;
+	}
+
+}
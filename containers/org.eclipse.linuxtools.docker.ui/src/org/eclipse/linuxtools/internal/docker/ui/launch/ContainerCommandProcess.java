@@ -11,8 +11,6 @@
 package org.eclipse.linuxtools.internal.docker.ui.launch;
 
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -20,8 +18,6 @@ import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.Map;
 
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -166,22 +162,6 @@ public class ContainerCommandProcess extends Process {
 		return new ByteArrayOutputStream();
 	}
 
-	/**
-	 * A blocking input stream that waits until data is available.
-	 */
-	private class BlockingInputStream extends InputStream {
-		private InputStream in;
-
-		public BlockingInputStream(InputStream in) {
-			this.in = in;
-		}
-
-		@Override
-		public int read() throws IOException {
-			return in.read();
-		}
-	}
-
 	private class CopyVolumesFromImageJob extends Job {
 
 		private static final String COPY_VOLUMES_FROM_JOB_TITLE = "ContainerLaunch.copyVolumesFromJob.title"; //$NON-NLS-1$
@@ -213,6 +193,10 @@ public class ContainerCommandProcess extends Process {
 				IDockerHostConfig hostConfig = hostBuilder.build();
 				containerId = ((DockerConnection) connection)
 						.createContainer(config, hostConfig, null);
+				// the host files are compared with the archives, there is no
+				// manifest to keep
+				final VolumeArchiveExtractor extractor = new VolumeArchiveExtractor(
+						new VolumeManifest());
 				for (String volume : remoteVolumes.keySet()) {
 					try {
 						monitor.setTaskName(Messages.getFormattedString(
@@ -227,42 +211,14 @@ public class ContainerCommandProcess extends Process {
 						 * The input stream from copyContainer might be
 						 * incomplete or non-blocking so we should wrap it in a
 						 * stream that is guaranteed to block until data is
-						 * available.
+						 * available. Only the files that the command changed
+						 * are written back.
 						 */
-						TarArchiveInputStream k = new TarArchiveInputStream(
-								new BlockingInputStream(in));
-						TarArchiveEntry te = null;
 						IPath currDir = new Path(volume).removeLastSegments(1);
-						currDir.toFile().mkdirs();
-						while ((te = k.getNextTarEntry()) != null) {
-							long size = te.getSize();
-							IPath path = currDir;
-							path = path.append(te.getName());
-							File f = new File(path.toOSString());
-							if (te.isDirectory()) {
-								f.mkdir();
-								continue;
-							} else {
-								f.createNewFile();
-							}
-							FileOutputStream os = new FileOutputStream(f);
-							int bufferSize = ((int) size > 4096 ? 4096
-									: (int) size);
-							byte[] barray = new byte[bufferSize];
-							int result = -1;
-							while ((result = k.read(barray, 0,
-									bufferSize)) > -1) {
-								if (monitor.isCanceled()) {
-									monitor.done();
-									k.close();
-									os.close();
-									return Status.CANCEL_STATUS;
-								}
-								os.write(barray, 0, result);
-							}
-							os.close();
+						if (extractor.extract(new BlockingInputStream(in),
+								currDir, currDir, monitor) == null) {
+							return Status.CANCEL_STATUS;
 						}
-						k.close();
 					} catch (final DockerException e) {
 						// ignore
 					}
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.ui.launch;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.linuxtools.internal.docker.ui.launch.VolumeManifest.FileState;
+
+/**
+ * Extracts the archive of a directory copied from a container into a host
+ * directory, writing only the files whose content changed:
+ * <ul>
+ * <li>a file with the same size and modification time as its archive entry is
+ * skipped without reading its content,</li>
+ * <li>a small file with the same size is only written if the hash of the
+ * entry differs from the hash of the file, which the manifest gives without
+ * reading the file again if it did not change since it was recorded,</li>
+ * <li>any other file is written.</li>
+ * </ul>
+ * Written files get the modification time of their archive entry, and the
+ * manifest records the state of the written and compared files.
+ */
+public class VolumeArchiveExtractor {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final VolumeManifest manifest;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private final byte[] fileBuffer = new byte[BUFFER_SIZE];
+	private int writtenFiles;
+	private int skippedFiles;
+
+	/**
+	 * Constructor
+	 *
+	 * @param manifest
+	 *            the manifest of the host directory, updated as files are
+	 *            extracted
+	 */
+	public VolumeArchiveExtractor(final VolumeManifest manifest) {
+		this.manifest = manifest;
+	}
+
+	/**
+	 * Extracts the given archive.
+	 *
+	 * @param in
+	 *            the tar archive, closed once extracted
+	 * @param directory
+	 *            the host directory to extract the archive into
+	 * @param manifestPath
+	 *            the path of this directory in the manifest
+	 * @param monitor
+	 *            the progress monitor, checked for cancellation
+	 * @return the manifest paths of the files of the archive, or
+	 *         <code>null</code> if the extraction was cancelled
+	 * @throws IOException
+	 *             if the archive could not be read or a file could not be
+	 *             written
+	 */
+	public Set<String> extract(final InputStream in, final IPath directory,
+			final IPath manifestPath, final IProgressMonitor monitor)
+			throws IOException {
+		final Set<String> paths = new HashSet<>();
+		try (TarArchiveInputStream archive = new TarArchiveInputStream(
+				new BufferedInputStream(in, BUFFER_SIZE))) {
+			directory.toFile().mkdirs();
+			TarArchiveEntry entry = null;
+			while ((entry = archive.getNextTarEntry()) != null) {
+				final File file = directory.append(entry.getName()).toFile();
+				if (entry.isDirectory()) {
+					file.mkdirs();
+					continue;
+				}
+				final String path = manifestPath.append(entry.getName())
+						.makeRelative().toPortableString();
+				paths.add(path);
+				if (!extractFile(archive, entry, file, path, monitor)) {
+					return null;
+				}
+			}
+		}
+		return paths;
+	}
+
+	private boolean extractFile(final TarArchiveInputStream archive,
+			final TarArchiveEntry entry, final File file, final String path,
+			final IProgressMonitor monitor) throws IOException {
+		final long size = entry.getSize();
+		final long modTime = entry.getModTime().getTime();
+		final boolean sameSize = file.isFile() && file.length() == size;
+		// archives only keep the modification time in seconds
+		if (sameSize && file.lastModified() / 1000 == modTime / 1000) {
+			this.skippedFiles++;
+			return true;
+		}
+		if (sameSize && size <= this.buffer.length) {
+			readFully(archive, (int) size);
+			final MessageDigest digest = VolumeManifest.newDigest();
+			digest.update(this.buffer, 0, (int) size);
+			final String hash = VolumeManifest.toHash(digest);
+			if (hash.equals(getHash(file, path))) {
+				// keep the modification time of a file whose content did not
+				// change, for the tools that compare it
+				this.manifest.put(path,
+						new FileState(size, file.lastModified(), hash));
+				this.skippedFiles++;
+				return true;
+			}
+			try (OutputStream out = new FileOutputStream(file)) {
+				out.write(this.buffer, 0, (int) size);
+			}
+			record(file, path, modTime, hash);
+			return true;
+		}
+		file.getParentFile().mkdirs();
+		final MessageDigest digest = VolumeManifest.newDigest();
+		try (OutputStream out = new FileOutputStream(file)) {
+			int n;
+			while ((n = archive.read(this.buffer)) > -1) {
+				if (monitor.isCanceled()) {
+					return false;
+				}
+				digest.update(this.buffer, 0, n);
+				out.write(this.buffer, 0, n);
+			}
+		}
+		record(file, path, modTime, VolumeManifest.toHash(digest));
+		return true;
+	}
+
+	private void readFully(final InputStream in, final int size)
+			throws IOException {
+		int offset = 0;
+		while (offset < size) {
+			final int n = in.read(this.buffer, offset, size - offset);
+			if (n < 0) {
+				throw new EOFException();
+			}
+			offset += n;
+		}
+	}
+
+	/**
+	 * @return the hash of the given file, from the manifest if the file did
+	 *         not change since it was recorded
+	 */
+	private String getHash(final File file, final String path)
+			throws IOException {
+		final FileState state = this.manifest.get(path);
+		if (state != null && state.matches(file)) {
+			return state.getHash();
+		}
+		return VolumeManifest.hash(file, this.fileBuffer);
+	}
+
+	private void record(final File file, final String path,
+			final long modTime, final String hash) {
+		file.setLastModified(modTime);
+		this.manifest.put(path,
+				new FileState(file.length(), file.lastModified(), hash));
+		this.writtenFiles++;
+	}
+
+	/**
+	 * Deletes the files under the given directory that the manifest recorded
+	 * but that are no longer in its archive, unless they were modified since.
+	 *
+	 * @param directory
+	 *            the host directory the archive was extracted into
+	 * @param manifestPath
+	 *            the path of this directory in the manifest
+	 * @param paths
+	 *            the manifest paths of the files of the archive
+	 */
+	public void deleteRemovedFiles(final IPath directory,
+			final IPath manifestPath, final Set<String> paths) {
+		final String directoryPath = manifestPath.makeRelative()
+				.removeTrailingSeparator().toPortableString();
+		for (String path : this.manifest.getPaths(directoryPath)) {
+			if (paths.contains(path)) {
+				continue;
+			}
+			final File file = directory.append(
+					new Path(path).removeFirstSegments(
+							manifestPath.makeRelative().segmentCount()))
+					.toFile();
+			final FileState state = this.manifest.get(path);
+			if (state != null && state.matches(file)) {
+				file.delete();
+			}
+			this.manifest.remove(path);
+		}
+	}
+
+	/**
+	 * @return the number of files written since this extractor was created
+	 */
+	public int getWrittenFileCount() {
+		return this.writtenFiles;
+	}
+
+	/**
+	 * @return the number of files left untouched since this extractor was
+	 *         created
+	 */
+	public int getSkippedFileCount() {
+		return this.skippedFiles;
+	}
+}
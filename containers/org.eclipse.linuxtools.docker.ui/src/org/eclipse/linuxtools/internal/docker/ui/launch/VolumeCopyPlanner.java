@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.ui.launch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Selects the volumes of an image that need to be copied from a container to
+ * the host, given the directories that were already copied.
+ */
+public class VolumeCopyPlanner {
+
+	private static final String PROJECT_VARIABLE = "${ProjName}"; //$NON-NLS-1$
+
+	private VolumeCopyPlanner() {
+		// utility class
+	}
+
+	/**
+	 * @param parent
+	 *            a directory path
+	 * @param dir
+	 *            another directory path
+	 * @return <code>true</code> if <code>dir</code> is located below
+	 *         <code>parent</code>, <code>false</code> otherwise, including
+	 *         when both paths are equal
+	 */
+	public static boolean isParentDir(final String parent, final String dir) {
+		return dir.startsWith(parent) && dir.length() > parent.length()
+				&& dir.charAt(parent.length()) == '/';
+	}
+
+	/**
+	 * @param volume
+	 *            the volume to check
+	 * @param copied
+	 *            the directories that were already copied
+	 * @return <code>true</code> if the given volume was copied before,
+	 *         either directly or as part of a parent directory
+	 */
+	public static boolean isCopied(final String volume,
+			final Collection<String> copied) {
+		for (String path : copied) {
+			if (volume.equals(path) || isParentDir(path, volume)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Selects the volumes to copy, in their original order. Volumes from the
+	 * project, volumes that were already copied, duplicates and volumes
+	 * nested in another selected volume are left out, the latter since they
+	 * are copied along with their parent.
+	 *
+	 * @param volumes
+	 *            the volumes of the image
+	 * @param copied
+	 *            the directories that were already copied
+	 * @return the volumes to copy
+	 */
+	public static List<String> getVolumesToCopy(final List<String> volumes,
+			final Collection<String> copied) {
+		final List<String> pendingVolumes = new ArrayList<>();
+		for (String volume : volumes) {
+			if (volume.contains(PROJECT_VARIABLE) || isCopied(volume, copied)
+					|| pendingVolumes.contains(volume)) {
+				continue;
+			}
+			pendingVolumes.add(volume);
+		}
+		final List<String> volumesToCopy = new ArrayList<>();
+		for (String volume : pendingVolumes) {
+			if (pendingVolumes.stream()
+					.noneMatch(other -> isParentDir(other, volume))) {
+				volumesToCopy.add(volume);
+			}
+		}
+		return volumesToCopy;
+	}
+
+}
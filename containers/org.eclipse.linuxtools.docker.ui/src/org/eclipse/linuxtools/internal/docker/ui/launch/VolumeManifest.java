@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.docker.ui.launch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The size, modification time and content hash of the files copied from a
+ * container into a host directory. A file whose size and modification time
+ * still match its entry does not need to be read again to know its content.
+ * <p>
+ * A manifest loaded from a directory is saved into that directory as a text
+ * file sorted by path.
+ * </p>
+ */
+public class VolumeManifest {
+
+	/**
+	 * Name of the file of a manifest in its directory.
+	 */
+	public static final String FILE_NAME = ".volumes_manifest"; //$NON-NLS-1$
+
+	private static final String HEADER = "# volume manifest 1"; //$NON-NLS-1$
+
+	private static final String HASH_ALGORITHM = "SHA-256"; //$NON-NLS-1$
+
+	/**
+	 * The state of a file when it was last written or checked.
+	 */
+	public static class FileState {
+
+		private final long size;
+		private final long modTime;
+		private final String hash;
+
+		/**
+		 * Constructor
+		 *
+		 * @param size
+		 *            the size of the file
+		 * @param modTime
+		 *            the modification time of the file on the host
+		 * @param hash
+		 *            the hash of the content of the file
+		 */
+		public FileState(final long size, final long modTime,
+				final String hash) {
+			this.size = size;
+			this.modTime = modTime;
+			this.hash = hash;
+		}
+
+		public long getSize() {
+			return this.size;
+		}
+
+		public long getModTime() {
+			return this.modTime;
+		}
+
+		public String getHash() {
+			return this.hash;
+		}
+
+		/**
+		 * @param file
+		 *            a file on the host
+		 * @return <code>true</code> if the file was not modified since this
+		 *         state was recorded
+		 */
+		public boolean matches(final File file) {
+			return file.isFile() && file.length() == this.size
+					&& file.lastModified() == this.modTime;
+		}
+	}
+
+	private final File file;
+	private final SortedMap<String, FileState> states = new TreeMap<>();
+
+	/**
+	 * Creates an empty manifest that is not saved.
+	 */
+	public VolumeManifest() {
+		this.file = null;
+	}
+
+	private VolumeManifest(final File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Loads the manifest of the given directory.
+	 *
+	 * @param directory
+	 *            the directory the files are copied into
+	 * @return the manifest, empty if the directory has none or if it could not
+	 *         be read
+	 */
+	public static VolumeManifest load(final File directory) {
+		final VolumeManifest manifest = new VolumeManifest(
+				new File(directory, FILE_NAME));
+		if (!manifest.file.exists()) {
+			return manifest;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(
+				manifest.file.toPath(), StandardCharsets.UTF_8)) {
+			if (!HEADER.equals(reader.readLine())) {
+				return manifest;
+			}
+			String line;
+			while ((line = reader.readLine()) != null) {
+				// path, size, modification time and hash separated by tabs;
+				// the path is first since it may contain tabs itself
+				final int hashIndex = line.lastIndexOf('\t');
+				final int modTimeIndex = line.lastIndexOf('\t', hashIndex - 1);
+				final int sizeIndex = line.lastIndexOf('\t', modTimeIndex - 1);
+				if (sizeIndex <= 0) {
+					continue;
+				}
+				manifest.states.put(line.substring(0, sizeIndex),
+						new FileState(
+								Long.parseLong(line.substring(sizeIndex + 1,
+										modTimeIndex)),
+								Long.parseLong(line.substring(modTimeIndex + 1,
+										hashIndex)),
+								line.substring(hashIndex + 1)));
+			}
+		} catch (IOException | NumberFormatException e) {
+			// start over: files are compared with their content
+			manifest.states.clear();
+		}
+		return manifest;
+	}
+
+	/**
+	 * @param path
+	 *            the path of a file relative to the directory of the manifest
+	 * @return the recorded state of the file, or <code>null</code> if none
+	 */
+	public synchronized FileState get(final String path) {
+		return this.states.get(path);
+	}
+
+	/**
+	 * Records the state of a file.
+	 *
+	 * @param path
+	 *            the path of the file relative to the directory of the
+	 *            manifest
+	 * @param state
+	 *            its state
+	 */
+	public synchronized void put(final String path, final FileState state) {
+		this.states.put(path, state);
+	}
+
+	/**
+	 * Forgets the state of a file.
+	 *
+	 * @param path
+	 *            the path of the file relative to the directory of the
+	 *            manifest
+	 */
+	public synchronized void remove(final String path) {
+		this.states.remove(path);
+	}
+
+	/**
+	 * @param directory
+	 *            the path of a directory relative to the directory of the
+	 *            manifest
+	 * @return the paths of the recorded files under the given directory
+	 */
+	public synchronized List<String> getPaths(final String directory) {
+		if (directory.isEmpty()) {
+			return new ArrayList<>(this.states.keySet());
+		}
+		final String prefix = directory.endsWith("/") ? directory //$NON-NLS-1$
+				: directory + '/';
+		return new ArrayList<>(this.states
+				.subMap(prefix, prefix + Character.MAX_VALUE).keySet());
+	}
+
+	/**
+	 * @return the number of recorded files
+	 */
+	public synchronized int size() {
+		return this.states.size();
+	}
+
+	/**
+	 * Saves the manifest into its directory. The previous manifest is
+	 * replaced only once the new one is completely written.
+	 *
+	 * @throws IOException
+	 *             if the manifest could not be written
+	 */
+	public synchronized void save() throws IOException {
+		if (this.file == null) {
+			return;
+		}
+		final File tmpFile = new File(this.file.getParentFile(),
+				FILE_NAME + ".tmp"); //$NON-NLS-1$
+		try (BufferedWriter writer = Files.newBufferedWriter(tmpFile.toPath(),
+				StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.newLine();
+			for (Entry<String, FileState> entry : this.states.entrySet()) {
+				final FileState state = entry.getValue();
+				writer.write(entry.getKey() + '\t' + state.getSize() + '\t'
+						+ state.getModTime() + '\t' + state.getHash());
+				writer.newLine();
+			}
+		}
+		Files.move(tmpFile.toPath(), this.file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * @return a new digest to compute the hash of a file content
+	 */
+	public static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform supports SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @param digest
+	 *            the digest of a content
+	 * @return the hash of the content as a string
+	 */
+	public static String toHash(final MessageDigest digest) {
+		final StringBuilder hash = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hash.append(String.format("%02x", b)); //$NON-NLS-1$
+		}
+		return hash.toString();
+	}
+
+	/**
+	 * @param file
+	 *            a file on the host
+	 * @param buffer
+	 *            the buffer to read the file with
+	 * @return the hash of the content of the file
+	 * @throws IOException
+	 *             if the file could not be read
+	 */
+	public static String hash(final File file, final byte[] buffer)
+			throws IOException {
+		final MessageDigest digest = newDigest();
+		try (InputStream in = new FileInputStream(file)) {
+			int n;
+			while ((n = in.read(buffer)) > -1) {
+				digest.update(buffer, 0, n);
+			}
+		}
+		return toHash(digest);
+	}
+}
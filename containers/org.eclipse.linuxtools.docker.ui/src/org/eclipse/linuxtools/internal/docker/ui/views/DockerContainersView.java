@@ -53,8 +53,9 @@ import org.eclipse.linuxtools.docker.core.EnumDockerStatus;
 import org.eclipse.linuxtools.docker.core.IDockerConnection;
 import org.eclipse.linuxtools.docker.core.IDockerConnectionManagerListener;
 import org.eclipse.linuxtools.docker.core.IDockerContainer;
-import org.eclipse.linuxtools.docker.core.IDockerContainerListener;
+import org.eclipse.linuxtools.docker.core.IDockerContainerListener2;
 import org.eclipse.linuxtools.docker.core.IDockerImage;
+import org.eclipse.linuxtools.docker.core.IDockerModelDelta;
 import org.eclipse.linuxtools.docker.core.IDockerPortMapping;
 import org.eclipse.linuxtools.docker.ui.Activator;
 import org.eclipse.linuxtools.internal.docker.core.DockerConnection;
@@ -87,7 +88,7 @@ import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetPage;
  *
  */
 public class DockerContainersView extends ViewPart implements
-		IDockerContainerListener, ISelectionListener,
+		IDockerContainerListener2, ISelectionListener,
 		ITabbedPropertySheetPageContributor, IDockerConnectionManagerListener {
 
 	private static final String TOGGLE_STATE = "org.eclipse.ui.commands.toggleState"; //$NON-NLS-1$
@@ -473,9 +474,26 @@ public class DockerContainersView extends ViewPart implements
 		return event -> {
 			IStructuredSelection s = event.getStructuredSelection();
 			updateToolBarItemEnablement(s);
+			prefetchContainerInfo(s);
 		};
 	}
 
+	/**
+	 * Retrieves the info of the selected containers in the background, for the
+	 * Properties view and the commands that inspect them.
+	 */
+	private void prefetchContainerInfo(final IStructuredSelection selection) {
+		if (this.connection instanceof DockerConnection) {
+			final List<String> ids = new ArrayList<>();
+			for (Object element : selection.toList()) {
+				if (element instanceof IDockerContainer) {
+					ids.add(((IDockerContainer) element).id());
+				}
+			}
+			((DockerConnection) this.connection).prefetchContainerInfo(ids);
+		}
+	}
+
 	@Override
 	public void selectionChanged(IWorkbenchPart part, ISelection selection) {
 		final ITreeSelection treeSelection = (ITreeSelection) selection;
@@ -542,6 +560,58 @@ public class DockerContainersView extends ViewPart implements
 			});
 		}
 	}
+
+	@Override
+	public void containersChanged(final IDockerConnection connection,
+			final List<IDockerContainer> containers,
+			final IDockerModelDelta<IDockerContainer> delta) {
+		Display.getDefault().asyncExec(() -> {
+			if (DockerContainersView.this.viewer != null
+					&& !DockerContainersView.this.viewer.getTable()
+							.isDisposed()
+					&& connection
+							.equals(DockerContainersView.this.viewer
+									.getInput())) {
+				setLabelFilterIds();
+				// changed containers are removed and added again so that the
+				// filters and the sort order are applied to them, and the
+				// selection is restored afterwards
+				final IStructuredSelection selection = DockerContainersView.this.viewer
+						.getStructuredSelection();
+				DockerContainersView.this.viewer
+						.remove(delta.getRemoved().toArray());
+				DockerContainersView.this.viewer
+						.remove(delta.getChanged().toArray());
+				DockerContainersView.this.viewer
+						.add(delta.getAdded().toArray());
+				DockerContainersView.this.viewer
+						.add(delta.getChanged().toArray());
+				DockerContainersView.this.viewer.setSelection(
+						refreshedSelection(selection, containers), true);
+				refreshViewTitle();
+				updateToolBarItemEnablement(DockerContainersView.this.viewer
+						.getStructuredSelection());
+			}
+		});
+	}
+
+	/**
+	 * @return the selection with the elements of the given selection that are
+	 *         still in the given list of containers, replaced by their new
+	 *         version
+	 */
+	private static IStructuredSelection refreshedSelection(
+			final IStructuredSelection selection,
+			final List<IDockerContainer> containers) {
+		final List<IDockerContainer> selectedContainers = new ArrayList<>();
+		for (Object selected : selection.toList()) {
+			final int index = containers.indexOf(selected);
+			if (index >= 0) {
+				selectedContainers.add(containers.get(index));
+			}
+		}
+		return new StructuredSelection(selectedContainers);
+	}
 	
 	/**
 	 * @return the {@link IDockerConnection} used to display the current {@link IDockerContainer}
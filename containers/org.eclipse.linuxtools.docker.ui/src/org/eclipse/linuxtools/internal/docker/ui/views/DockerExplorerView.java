@@ -30,9 +30,10 @@ import org.eclipse.linuxtools.docker.core.DockerConnectionManager;
 import org.eclipse.linuxtools.docker.core.IDockerConnection;
 import org.eclipse.linuxtools.docker.core.IDockerConnectionManagerListener;
 import org.eclipse.linuxtools.docker.core.IDockerContainer;
-import org.eclipse.linuxtools.docker.core.IDockerContainerListener;
+import org.eclipse.linuxtools.docker.core.IDockerContainerListener2;
 import org.eclipse.linuxtools.docker.core.IDockerImage;
-import org.eclipse.linuxtools.docker.core.IDockerImageListener;
+import org.eclipse.linuxtools.docker.core.IDockerImageListener2;
+import org.eclipse.linuxtools.docker.core.IDockerModelDelta;
 import org.eclipse.linuxtools.internal.docker.ui.DockerConnectionWatcher;
 import org.eclipse.linuxtools.internal.docker.ui.commands.CommandUtils;
 import org.eclipse.linuxtools.internal.docker.ui.wizards.NewDockerConnection;
@@ -373,16 +374,37 @@ public class DockerExplorerView extends CommonNavigator implements
 		});
 	}
 
-	class ContainersRefresher implements IDockerContainerListener {
+	class ContainersRefresher implements IDockerContainerListener2 {
 
 		@Override
 		public void listChanged(final IDockerConnection connection,
 				final List<IDockerContainer> containers) {
 			refresh(connection);
 		}
+
+		@Override
+		public void containersChanged(final IDockerConnection connection,
+				final List<IDockerContainer> containers,
+				final IDockerModelDelta<IDockerContainer> delta) {
+			Display.getDefault().asyncExec(() -> {
+				if (getCommonViewer().getTree() != null
+						&& !getCommonViewer().getTree().isDisposed()) {
+					getCommonViewer().remove(delta.getRemoved().toArray());
+					getCommonViewer().add(
+							new DockerExplorerContentProvider.DockerContainersCategory(
+									connection),
+							delta.getAdded().toArray());
+					// refreshing a changed container also replaces the
+					// previous version held by its tree item
+					for (IDockerContainer container : delta.getChanged()) {
+						getCommonViewer().refresh(container, true);
+					}
+				}
+			});
+		}
 	}
 
-	class ImagesRefresher implements IDockerImageListener {
+	class ImagesRefresher implements IDockerImageListener2 {
 
 		@Override
 		public void listChanged(final IDockerConnection connection,
@@ -390,6 +412,22 @@ public class DockerExplorerView extends CommonNavigator implements
 			refresh(connection);
 		}
 
+		@Override
+		public void imagesChanged(final IDockerConnection connection,
+				final List<IDockerImage> images,
+				final IDockerModelDelta<IDockerImage> delta) {
+			// images are split by repository in the tree, so only the images
+			// category of the connection is refreshed
+			Display.getDefault().asyncExec(() -> {
+				if (getCommonViewer().getTree() != null
+						&& !getCommonViewer().getTree().isDisposed()) {
+					getCommonViewer().refresh(
+							new DockerExplorerContentProvider.DockerImagesCategory(
+									connection),
+							true);
+				}
+			});
+		}
 	}
 
 }
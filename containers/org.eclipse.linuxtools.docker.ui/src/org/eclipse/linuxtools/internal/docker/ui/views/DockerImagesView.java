@@ -32,6 +32,7 @@ import org.eclipse.jface.layout.TableColumnLayout;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.ColumnWeightData;
 import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.ITreeSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
@@ -45,8 +46,10 @@ import org.eclipse.linuxtools.docker.core.IDockerConnection;
 import org.eclipse.linuxtools.docker.core.IDockerConnectionManagerListener;
 import org.eclipse.linuxtools.docker.core.IDockerContainer;
 import org.eclipse.linuxtools.docker.core.IDockerImage;
-import org.eclipse.linuxtools.docker.core.IDockerImageListener;
+import org.eclipse.linuxtools.docker.core.IDockerImageListener2;
+import org.eclipse.linuxtools.docker.core.IDockerModelDelta;
 import org.eclipse.linuxtools.docker.ui.Activator;
+import org.eclipse.linuxtools.internal.docker.core.DockerConnection;
 import org.eclipse.linuxtools.internal.docker.ui.DockerConnectionWatcher;
 import org.eclipse.linuxtools.internal.docker.ui.commands.CommandUtils;
 import org.eclipse.swt.SWT;
@@ -72,7 +75,7 @@ import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetPage;
  * @author jjohnstn
  *
  */
-public class DockerImagesView extends ViewPart implements IDockerImageListener,
+public class DockerImagesView extends ViewPart implements IDockerImageListener2,
 		ISelectionListener,
 		ITabbedPropertySheetPageContributor, IDockerConnectionManagerListener {
 
@@ -313,10 +316,30 @@ public class DockerImagesView extends ViewPart implements IDockerImageListener,
 		// apply search filter
 		this.viewer.addFilter(getImagesFilter());
 		setConnection(CommandUtils.getCurrentConnection(null));
+		this.viewer.addSelectionChangedListener(onImageSelection());
 		// get the current selection in the tableviewer
 		getSite().setSelectionProvider(viewer);
 	}
 
+	/**
+	 * Retrieves the info of the selected images in the background, for the
+	 * Properties view and the commands that inspect them.
+	 */
+	private ISelectionChangedListener onImageSelection() {
+		return event -> {
+			if (this.connection instanceof DockerConnection) {
+				final List<String> ids = new ArrayList<>();
+				for (Object element : event.getStructuredSelection()
+						.toList()) {
+					if (element instanceof IDockerImage) {
+						ids.add(((IDockerImage) element).id());
+					}
+				}
+				((DockerConnection) this.connection).prefetchImageInfo(ids);
+			}
+		};
+	}
+
 	private TableViewerColumn createColumn(final String title) {
 		final TableViewerColumn propertyColumn = new TableViewerColumn(viewer,
 				SWT.BORDER);
@@ -399,6 +422,41 @@ public class DockerImagesView extends ViewPart implements IDockerImageListener,
 			});
 		}
 	}
+
+	@Override
+	public void imagesChanged(final IDockerConnection connection,
+			final List<IDockerImage> images,
+			final IDockerModelDelta<IDockerImage> delta) {
+		Display.getDefault().asyncExec(() -> {
+			if (DockerImagesView.this.viewer != null
+					&& !DockerImagesView.this.viewer.getTable().isDisposed()
+					&& connection.equals(
+							DockerImagesView.this.viewer.getInput())) {
+				// changed images are removed and added again so that the
+				// filters and the sort order are applied to them, and the
+				// selection is restored afterwards
+				final IStructuredSelection selection = DockerImagesView.this.viewer
+						.getStructuredSelection();
+				DockerImagesView.this.viewer
+						.remove(delta.getRemoved().toArray());
+				DockerImagesView.this.viewer
+						.remove(delta.getChanged().toArray());
+				DockerImagesView.this.viewer.add(delta.getAdded().toArray());
+				DockerImagesView.this.viewer
+						.add(delta.getChanged().toArray());
+				final List<IDockerImage> selectedImages = new ArrayList<>();
+				for (Object selected : selection.toList()) {
+					final int index = images.indexOf(selected);
+					if (index >= 0) {
+						selectedImages.add(images.get(index));
+					}
+				}
+				DockerImagesView.this.viewer.setSelection(
+						new StructuredSelection(selectedImages), true);
+				refreshViewTitle();
+			}
+		});
+	}
 	
 	private void refreshViewTitle() {
 		if (this.viewer == null || this.viewer.getControl().isDisposed()
@@ -30,6 +30,7 @@ public class ContainerVMInstall implements IVMInstall {
 	private File installLocation;
 	private IDockerImage image;
 	private int port;
+	private ImageQuery query;
 
 	public ContainerVMInstall (ILaunchConfiguration cfg, IDockerImage img, int port) {
 		this.config = cfg;
@@ -51,10 +52,7 @@ public class ContainerVMInstall implements IVMInstall {
 	@Override
 	public String getName() {
 		if (name == null) {
-			DockerConnection conn = getConnection();
-			ImageQuery q = new ImageQuery(conn, image.id());
-			name = q.getDefaultJVMName();
-			q.destroy();
+			name = getImageQuery().getDefaultJVMName();
 		}
 		return name;
 	}
@@ -67,10 +65,7 @@ public class ContainerVMInstall implements IVMInstall {
 	@Override
 	public File getInstallLocation() {
 		if (installLocation == null) {
-			DockerConnection conn = getConnection();
-			ImageQuery q = new ImageQuery(conn, image.id());
-			installLocation = q.getDefaultJVMInstallLocation();
-			q.destroy();
+			installLocation = getImageQuery().getDefaultJVMInstallLocation();
 		}
 		return installLocation;
 	}
@@ -131,8 +126,7 @@ public class ContainerVMInstall implements IVMInstall {
 		final String[] fgCandidateJavaFiles = {"javaw", "javaw.exe", "java", "java.exe", "j9w", "j9w.exe", "j9", "j9.exe"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
 		final String[] fgCandidateJavaLocations = {"bin" + UnixFile.separatorChar, JRE + UnixFile.separatorChar + "bin" + UnixFile.separatorChar}; //$NON-NLS-1$ //$NON-NLS-2$
 
-		DockerConnection conn = getConnection();
-		ImageQuery q = new ImageQuery(conn, image.id());
+		ImageQuery q = getImageQuery();
 
 		// Try each candidate in order.  The first one found wins.  Thus, the order
 		// of fgCandidateJavaLocations and fgCandidateJavaFiles is significant.
@@ -140,15 +134,34 @@ public class ContainerVMInstall implements IVMInstall {
 			for (int j = 0; j < fgCandidateJavaLocations.length; j++) {
 				File javaFile = new UnixFile(vmInstallLocation, fgCandidateJavaLocations[j] + fgCandidateJavaFiles[i]);
 				if (q.isFile(javaFile)) {
-					q.destroy();
 					return javaFile;
 				}
 			}
 		}
-		q.destroy();
 		return null;
 	}
 
+	/**
+	 * @return the query on the image of this VM, shared by all the lookups
+	 *         until {@link #dispose()} is called
+	 */
+	public synchronized ImageQuery getImageQuery() {
+		if (query == null) {
+			query = new ImageQuery(getConnection(), image.id());
+		}
+		return query;
+	}
+
+	/**
+	 * Removes the probe container of the image query, if one was started.
+	 */
+	public synchronized void dispose() {
+		if (query != null) {
+			query.destroy();
+			query = null;
+		}
+	}
+
 	public DockerConnection getConnection () {
 		String connectionURI;
 		try {
@@ -26,7 +26,6 @@ import org.eclipse.linuxtools.docker.core.DockerConnectionManager;
 import org.eclipse.linuxtools.docker.core.IDockerContainerInfo;
 import org.eclipse.linuxtools.docker.ui.launch.ContainerLauncher;
 import org.eclipse.linuxtools.docker.ui.launch.IContainerLaunchListener;
-import org.eclipse.linuxtools.internal.docker.core.DockerConnection;
 import org.eclipse.osgi.util.NLS;
 
 public class ContainerVMRunner extends StandardVMRunner {
@@ -142,13 +141,7 @@ public class ContainerVMRunner extends StandardVMRunner {
 
 	@Override
 	protected boolean fileExists(File file) {
-		DockerConnection conn = ((ContainerVMInstall) fVMInstance).getConnection();
-		ImageQuery q = new ImageQuery(conn, fVMInstance.getId());
-		try {
-			return q.isFile(file);
-		} finally {
-			q.destroy();
-		}
+		return ((ContainerVMInstall) fVMInstance).getImageQuery().isFile(file);
 	}
 
 	public String getIPAddress() {
@@ -13,10 +13,9 @@ package org.eclipse.linuxtools.jdt.docker.launcher;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Properties;
 
-import org.eclipse.linuxtools.docker.core.DockerConnectionManager;
 import org.eclipse.linuxtools.docker.core.DockerException;
-import org.eclipse.linuxtools.docker.core.IDockerConnection;
 import org.eclipse.linuxtools.docker.core.IDockerContainerConfig;
 import org.eclipse.linuxtools.docker.core.IDockerHostConfig;
 import org.eclipse.linuxtools.internal.docker.core.DockerConnection;
@@ -29,13 +28,48 @@ import com.spotify.docker.client.DockerClient.ExecCreateParam;
 import com.spotify.docker.client.LogStream;
 import com.spotify.docker.client.messages.ExecCreation;
 
+/**
+ * Queries the JVM of an image. The results are kept in the
+ * {@link ImageQueryCache}, so that an image whose JVM was already discovered
+ * is not started again. Otherwise, a single probe container is started on the
+ * first query and reused by the next ones until {@link #destroy()} is called,
+ * and the install location, the version and the candidate Java executables
+ * are all discovered by a single script.
+ */
 public class ImageQuery {
 
+	private static final String JAVA_PATH = "javaPath"; //$NON-NLS-1$
+	private static final String JVM_PATH = "jvmPath"; //$NON-NLS-1$
+	private static final String VERSION = "version"; //$NON-NLS-1$
+	private static final String FILE = "file:"; //$NON-NLS-1$
+	private static final String EXISTS = "exists:"; //$NON-NLS-1$
+
+	private static final String JRE = "jre"; //$NON-NLS-1$
+	private static final String[] fgCandidateJavaFiles = {"javaw", "javaw.exe", "java", "java.exe", "j9w", "j9w.exe", "j9", "j9.exe"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+	private static final String[] fgCandidateJavaLocations = {JRE + UnixFile.separatorChar + "bin" + UnixFile.separatorChar, "bin" + UnixFile.separatorChar}; //$NON-NLS-1$ //$NON-NLS-2$
+
+	private final DockerConnection conn;
+	private final String image;
+	private final Properties results;
 	private String id;
 	private DockerClient client;
-	private DockerConnection conn;
+	private boolean modified;
 
 	public ImageQuery(DockerConnection conn, String image) {
+		this.conn = conn;
+		this.image = image;
+		this.results = ImageQueryCache.getInstance().get(image);
+	}
+
+	/**
+	 * Starts the probe container if it is not running yet.
+	 *
+	 * @return <code>true</code> if the probe container is running
+	 */
+	private boolean start() {
+		if (id != null) {
+			return true;
+		}
 		IDockerHostConfig hc = DockerHostConfig.builder().build();
 		IDockerContainerConfig cc = new DockerContainerConfig.Builder()
 				.image(image)
@@ -50,15 +84,19 @@ public class ImageQuery {
 			this.id = conn.createContainer(cc, hc);
 			conn.startContainer(id, null);
 			this.client = conn.getClient();
-			this.conn = conn;
+			return true;
 		} catch (DockerException e) {
 			e.printStackTrace();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
+		return false;
 	}
 
 	private String exec(String [] cmd) {
+		if (!start()) {
+			return null;
+		}
 		LogStream stream = null;
 		try {
 			ExecCreation exeCr = client.execCreate(id, cmd,
@@ -76,14 +114,90 @@ public class ImageQuery {
 		} catch (Exception e) {
 			e.printStackTrace();
 		} finally {
-			try {
-				stream.close();
-			} catch (IOException e) {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Discovers the JVM of the image in a single script, unless it was already
+	 * discovered.
+	 *
+	 * @return <code>true</code> if the JVM of the image is known
+	 */
+	private boolean discover() {
+		if (results.containsKey(JAVA_PATH)) {
+			return true;
+		}
+		String result = exec(new String [] {"sh", "-c", getDiscoveryScript()}); //$NON-NLS-1$ //$NON-NLS-2$
+		if (result == null) {
+			return false;
+		}
+		parseDiscoveryOutput(result, results);
+		modified = true;
+		return true;
+	}
+
+	/**
+	 * @return the script that resolves the <code>java</code> command and the
+	 *         <code>/usr/lib/jvm/java</code> link, gets the Java version, and
+	 *         checks all the candidate Java executables of the possible
+	 *         install locations, printing each result as a
+	 *         <code>key=value</code> line
+	 */
+	public static String getDiscoveryScript() {
+		StringBuilder script = new StringBuilder();
+		script.append("j=$(readlink -f \"$(which java)\" 2>/dev/null)\n"); //$NON-NLS-1$
+		script.append("l=$(readlink -f /usr/lib/jvm/java)\n"); //$NON-NLS-1$
+		script.append("echo \"" + JAVA_PATH + "=$j\"\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		script.append("echo \"" + JVM_PATH + "=$l\"\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		script.append("echo \"" + VERSION + "=$(java -version 2>&1 | grep version | cut -d\\\" -f2 | cut -d_ -f1)\"\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		script.append("for h in \"${j%/jre/bin/*}\" \"${j%/bin/*}\" \"$l\"; do\n"); //$NON-NLS-1$
+		script.append("for f in"); //$NON-NLS-1$
+		for (String location : fgCandidateJavaLocations) {
+			for (String file : fgCandidateJavaFiles) {
+				script.append(' ').append(location).append(file);
+			}
+		}
+		script.append("; do\n"); //$NON-NLS-1$
+		script.append("if [ -f \"$h/$f\" ]; then r=true; else r=false; fi\n"); //$NON-NLS-1$
+		script.append("echo \"" + FILE + "$h/$f=$r\"\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		script.append("done\ndone\n"); //$NON-NLS-1$
+
+		return script.toString();
+	}
+
+	/**
+	 * Adds the results printed by the {@link #getDiscoveryScript() discovery
+	 * script} to the given results of an image.
+	 *
+	 * @param output
+	 *            the output of the discovery script
+	 * @param results
+	 *            the results of the image
+	 */
+	public static void parseDiscoveryOutput(String output, Properties results) {
+		synchronized (results) {
+			for (String line : output.split("\n")) { //$NON-NLS-1$
+				line = line.replaceAll("\r", ""); //$NON-NLS-1$ //$NON-NLS-2$
+				// the value of a file is last, since its path may contain '='
+				int index = line.startsWith(FILE) ? line.lastIndexOf('=') : line.indexOf('=');
+				if (index > 0) {
+					results.setProperty(line.substring(0, index), line.substring(index + 1));
+				}
+			}
+			// mark the image as discovered even if it has no 'java' command
+			if (!results.containsKey(JAVA_PATH)) {
+				results.setProperty(JAVA_PATH, ""); //$NON-NLS-1$
+			}
+		}
+	}
+
 	public String getDefaultJVMName () {
 		String result = null;
 		File f =  getDefaultJVMInstallLocation();
@@ -94,67 +208,76 @@ public class ImageQuery {
 	}
 
 	public File getDefaultJVMInstallLocation () {
-		final String JRE = "jre"; //$NON-NLS-1$
-		final String[] fgCandidateJavaFiles = {"javaw", "javaw.exe", "java", "java.exe", "j9w", "j9w.exe", "j9", "j9.exe"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
-		final String[] fgCandidateJavaLocations = {JRE + UnixFile.separatorChar + "bin" + UnixFile.separatorChar, "bin" + UnixFile.separatorChar}; //$NON-NLS-1$ //$NON-NLS-2$
-
-		String result = exec(new String [] {"sh", "-c", "readlink -f `which java`"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-		if (result != null) {
-			result = result.replaceAll("\n", ""); //$NON-NLS-1$ //$NON-NLS-2$
-
-			for (int i = 0; i < fgCandidateJavaFiles.length; i++) {
-				for (int j = 0; j < fgCandidateJavaLocations.length; j++) {
-					if (result.endsWith(fgCandidateJavaLocations[j] + fgCandidateJavaFiles[i])) {
-						return new UnixFile(result.replace(fgCandidateJavaLocations[j] + fgCandidateJavaFiles[i], "")); //$NON-NLS-1$
-					}
+		if (!discover()) {
+			return null;
+		}
+		String result = results.getProperty(JAVA_PATH);
+		for (int i = 0; i < fgCandidateJavaFiles.length; i++) {
+			for (int j = 0; j < fgCandidateJavaLocations.length; j++) {
+				if (result.endsWith(fgCandidateJavaLocations[j] + fgCandidateJavaFiles[i])) {
+					return new UnixFile(result.replace(fgCandidateJavaLocations[j] + fgCandidateJavaFiles[i], "")); //$NON-NLS-1$
 				}
 			}
-
-			result = exec(new String [] {"readlink", "-f", "/usr/lib/jvm/java"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			if (result != null) {
-				result = result.replaceAll("\n", ""); //$NON-NLS-1$ //$NON-NLS-2$
-			}
-			return new UnixFile(result);
-		} else {
-			return null;
 		}
+		return new UnixFile(results.getProperty(JVM_PATH, "")); //$NON-NLS-1$
 	}
 
 	public double getJavaVersion () {
-		String result = exec(new String [] {"sh", "-c", "java -version 2>&1 | grep version | cut -d\\\" -f2 | cut -d_ -f1"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-		if (result != null) {
-			result = result.replaceAll("\n", ""); //$NON-NLS-1$ //$NON-NLS-2$
-			Version v = new Version(result);
-			String newV = v.getMajor() + "." + v.getMinor(); //$NON-NLS-1$
-			return Double.valueOf(newV);
-		} else {
+		if (!discover()) {
+			return 0;
+		}
+		String result = results.getProperty(VERSION, ""); //$NON-NLS-1$
+		if (result.isEmpty()) {
 			return 0;
 		}
+		Version v = new Version(result);
+		String newV = v.getMajor() + "." + v.getMinor(); //$NON-NLS-1$
+		return Double.valueOf(newV);
 	}
 
 	public boolean fileExists (File file) {
-		String result = exec(new String [] {"sh", "-c", "[ -e " + file.getAbsolutePath() + " ]; echo $?"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-		try {
-			result = result.replaceAll("\n", ""); //$NON-NLS-1$ //$NON-NLS-2$
-			int res = Integer.parseInt(result);
-			return res == 0;
-		} catch (NumberFormatException e) {
-			return false;
-		}
+		return test(EXISTS, "-e", file); //$NON-NLS-1$
 	}
 
 	public boolean isFile (File file) {
-		String result = exec(new String [] {"sh", "-c", "[ -f " + file.getAbsolutePath() + " ]; echo $?"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		// the candidate Java executables are checked by the discovery
+		discover();
+		return test(FILE, "-f", file); //$NON-NLS-1$
+	}
+
+	private boolean test(String prefix, String operator, File file) {
+		String key = prefix + file.getAbsolutePath();
+		String cached = results.getProperty(key);
+		if (cached != null) {
+			return Boolean.parseBoolean(cached);
+		}
+		String result = exec(new String [] {"sh", "-c", "[ " + operator + " " + file.getAbsolutePath() + " ]; echo $?"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		if (result == null) {
+			return false;
+		}
 		try {
 			result = result.replaceAll("\n", ""); //$NON-NLS-1$ //$NON-NLS-2$
 			int res = Integer.parseInt(result);
+			results.setProperty(key, String.valueOf(res == 0));
+			modified = true;
 			return res == 0;
 		} catch (NumberFormatException e) {
 			return false;
 		}
 	}
 
+	/**
+	 * Removes the probe container if one was started, and saves the results
+	 * discovered since this query was created.
+	 */
 	public void destroy() {
+		if (modified) {
+			ImageQueryCache.getInstance().save(image);
+			modified = false;
+		}
+		if (id == null) {
+			return;
+		}
 		try {
 			conn.stopContainer(id);
 			conn.removeContainer(id);
@@ -162,6 +285,8 @@ public class ImageQuery {
 			e.printStackTrace();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
+		} finally {
+			id = null;
 		}
 	}
 
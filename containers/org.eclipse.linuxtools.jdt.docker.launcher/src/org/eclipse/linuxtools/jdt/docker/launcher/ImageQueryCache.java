@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - Initial Contribution
+ *******************************************************************************/
+package org.eclipse.linuxtools.jdt.docker.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * The results of the {@link ImageQuery} instances, indexed by image id. Since
+ * the content of an image never changes for a given id, the results are kept
+ * in memory and in the state location of the plug-in, and launching the same
+ * image again does not need any probe container.
+ */
+public class ImageQueryCache {
+
+	private static final String PLUGIN_ID = "org.eclipse.linuxtools.jdt.docker.launcher"; //$NON-NLS-1$
+
+	private static final String DIRECTORY_NAME = "image-queries"; //$NON-NLS-1$
+
+	private static final String FILE_EXTENSION = ".properties"; //$NON-NLS-1$
+
+	private static final ImageQueryCache instance = new ImageQueryCache();
+
+	private final Map<String, Properties> results = new ConcurrentHashMap<>();
+
+	public static ImageQueryCache getInstance() {
+		return instance;
+	}
+
+	private ImageQueryCache() {
+	}
+
+	/**
+	 * @param imageId
+	 *            the id of an image
+	 * @return the results of the queries on the given image, loaded from the
+	 *         disk the first time, and empty if none was saved
+	 */
+	public Properties get(String imageId) {
+		return results.computeIfAbsent(imageId, id -> {
+			Properties properties = new Properties();
+			File file = getFile(id);
+			if (file != null && file.exists()) {
+				try (InputStream in = Files.newInputStream(file.toPath())) {
+					properties.load(in);
+				} catch (IOException | IllegalArgumentException e) {
+					// query the image again
+					properties.clear();
+				}
+			}
+			return properties;
+		});
+	}
+
+	/**
+	 * Saves the results of the queries on the given image. The previous file
+	 * is replaced only once the new one is completely written.
+	 *
+	 * @param imageId
+	 *            the id of an image
+	 */
+	public void save(String imageId) {
+		Properties properties = results.get(imageId);
+		File file = getFile(imageId);
+		if (properties == null || file == null) {
+			return;
+		}
+		file.getParentFile().mkdirs();
+		File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			synchronized (properties) {
+				try (OutputStream out = Files.newOutputStream(tmpFile.toPath())) {
+					properties.store(out, imageId);
+				}
+			}
+			Files.move(tmpFile.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// the image is queried again on the next launch
+			tmpFile.delete();
+			Platform.getLog(Platform.getBundle(PLUGIN_ID)).log(new Status(
+					IStatus.WARNING, PLUGIN_ID, e.getMessage(), e));
+		}
+	}
+
+	private static File getDirectory() {
+		if (Platform.getBundle(PLUGIN_ID) == null) {
+			return null;
+		}
+		IPath pluginPath = Platform.getStateLocation(Platform.getBundle(PLUGIN_ID));
+		return pluginPath.append(DIRECTORY_NAME).toFile();
+	}
+
+	private static File getFile(String imageId) {
+		File directory = getDirectory();
+		if (directory == null) {
+			return null;
+		}
+		// image ids such as 'sha256:...' are not valid file names everywhere
+		return new File(directory, imageId.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_EXTENSION); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+}
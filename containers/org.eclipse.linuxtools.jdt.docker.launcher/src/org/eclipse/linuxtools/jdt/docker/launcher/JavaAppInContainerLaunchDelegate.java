@@ -39,7 +39,6 @@ import org.eclipse.debug.ui.DebugUITools;
 import org.eclipse.jdt.launching.AbstractJavaLaunchConfigurationDelegate;
 import org.eclipse.jdt.launching.ExecutionArguments;
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
-import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.VMRunnerConfiguration;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.linuxtools.docker.core.DockerConnectionManager;
@@ -71,6 +70,7 @@ public class JavaAppInContainerLaunchDelegate extends AbstractJavaLaunchConfigur
 		String connectionURI = configuration.getAttribute(JavaLaunchConfigurationConstants.CONNECTION_URI, (String) null);
 		String imageID = configuration.getAttribute(JavaLaunchConfigurationConstants.IMAGE_ID, (String) null);
 		List<String> extraDirs = configuration.getAttribute(JavaLaunchConfigurationConstants.DIRS, Arrays.asList(new String [0]));
+		ContainerVMInstall vm = null;
 
 		try {
 			DockerConnection conn = (DockerConnection) DockerConnectionManager.getInstance().getConnectionByUri(connectionURI);
@@ -124,7 +124,7 @@ public class JavaAppInContainerLaunchDelegate extends AbstractJavaLaunchConfigur
 			monitor.subTask(Messages.JavaAppInContainerLaunchDelegate_Verifying_launch_attributes____1);
 
 			String mainTypeName = verifyMainTypeName(configuration);
-			IVMInstall vm = new ContainerVMInstall(configuration, img, port);
+			vm = new ContainerVMInstall(configuration, img, port);
 			ContainerVMRunner runner = new ContainerVMRunner(vm);
 
 			File workingDir = verifyWorkingDirectory(configuration);
@@ -161,7 +161,7 @@ public class JavaAppInContainerLaunchDelegate extends AbstractJavaLaunchConfigur
 
 			List<String> finalVMArgs = new ArrayList<> (Arrays.asList(execArgs.getVMArgumentsArray()));
 			if (ILaunchManager.DEBUG_MODE.equals(mode)) {
-				double version = getJavaVersion(conn, img);
+				double version = vm.getImageQuery().getJavaVersion();
 				if (version < 1.5) {
 					finalVMArgs.add("-Xdebug"); //$NON-NLS-1$
 					finalVMArgs.add("-Xnoagent"); //$NON-NLS-1$
@@ -203,6 +203,9 @@ public class JavaAppInContainerLaunchDelegate extends AbstractJavaLaunchConfigur
 
 			// Launch the configuration - 1 unit of work
 			runner.run(runConfig, launch, monitor);
+			// the JVM of the image is known once the runner started
+			// its container, so the probe container is no longer needed
+			vm.dispose();
 
 			// check for cancellation
 			if (monitor.isCanceled()) {
@@ -268,17 +271,13 @@ public class JavaAppInContainerLaunchDelegate extends AbstractJavaLaunchConfigur
 			}
 		}
 		finally {
+			if (vm != null) {
+				vm.dispose();
+			}
 			monitor.done();
 		}
 	}
 
-	private double getJavaVersion(DockerConnection conn, IDockerImage img) {
-		ImageQuery q = new ImageQuery(conn, img.id());
-		double res = q.getJavaVersion();
-		q.destroy();
-		return res;
-	}
-
 	private boolean isListening (String addr, int port) {
 		try (Socket s = new Socket())
 		{
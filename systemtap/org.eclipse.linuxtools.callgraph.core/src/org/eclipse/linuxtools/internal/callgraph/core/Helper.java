@@ -10,11 +10,8 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.callgraph.core;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 
@@ -44,18 +41,8 @@ public class Helper {
      * @return : The contents of the file as a String.
      */
     public static String readFile(String absoluteFilePath) {
-
-        try (BufferedReader bw = new BufferedReader(new FileReader(new File(absoluteFilePath)))) {
-            String output = ""; //$NON-NLS-1$
-            String tmp = ""; //$NON-NLS-1$
-            while ((tmp = bw.readLine()) != null) {
-                output+=tmp + "\n"; //$NON-NLS-1$
-            }
-            bw.close();
-
-            return output;
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
+        try {
+            return MappedTextFile.open(absoluteFilePath).getContents();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,386 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.callgraph.core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A text file read through a memory mapping, with an index of where its lines start.
+ *
+ * The index is only built once a line is looked up by its number, so reading
+ * a file from its start, with {@link #forEachLine(int, Consumer)} from the
+ * first line, {@link #getContents()} or {@link #newReader()}, reads it once.
+ * The index is built by scanning the mapped bytes for line breaks in bulk, and
+ * only records the start of every {@link #INDEX_STRIDE}th line, so it stays
+ * small even for traces of several gigabytes. Indexes are cached by path: when
+ * a file is opened again, only the bytes appended since it was last indexed
+ * are scanned, and a file that was rewritten is indexed again from the start.
+ *
+ * Lines are decoded with the default character set, like {@link java.io.FileReader}
+ * does, and line breaks are <code>\n</code> or <code>\r\n</code>.
+ */
+public final class MappedTextFile {
+
+    private static final int INDEX_STRIDE = 64;
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final int CHECKSUM_SIZE = 4096;
+    private static final int MAX_CACHED_FILES = 8;
+
+    private static final Map<String, MappedTextFile> cache = Collections.synchronizedMap(
+            new LinkedHashMap<String, MappedTextFile>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, MappedTextFile> eldest) {
+                    return size() > MAX_CACHED_FILES;
+                }
+            });
+
+    private final File file;
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * The offset of every {@link #INDEX_STRIDE}th line.
+     */
+    private long[] index = new long[16];
+    private int lineCount;
+    /**
+     * The number of bytes scanned, up to the end of the last complete line.
+     */
+    private long scanned;
+    /**
+     * The size and modification time of the file when it was last indexed.
+     */
+    private long indexedSize;
+    private long indexedLastModified;
+    private long checksum;
+    /**
+     * The size and modification time of the file when it was last opened.
+     */
+    private long size;
+    private long lastModified;
+
+    private MappedTextFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens a file. Its index, if it is needed, reuses and extends the index
+     * of an earlier call for the same file if the file was only appended to since.
+     * @param path The absolute path of the file.
+     * @return The file.
+     * @throws IOException If the file could not be read.
+     */
+    public static MappedTextFile open(String path) throws IOException {
+        File file = new File(path).getAbsoluteFile();
+        MappedTextFile text = cache.computeIfAbsent(file.getPath(), key -> new MappedTextFile(file));
+        text.refresh();
+        return text;
+    }
+
+    /**
+     * Records the current size of the file, without reading it.
+     */
+    private synchronized void refresh() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            size = channel.size();
+            lastModified = file.lastModified();
+        }
+    }
+
+    /**
+     * Indexes the lines written since the file was last indexed.
+     */
+    private synchronized void updateIndex() throws IOException {
+        if (size == indexedSize && lastModified == indexedLastModified) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (size <= indexedSize || checksum(channel, Math.min(indexedSize, CHECKSUM_SIZE)) != checksum) {
+                // The file was not only appended to; start over.
+                lineCount = 0;
+                scanned = 0;
+            }
+            scan(channel, size);
+            indexedSize = size;
+            indexedLastModified = lastModified;
+            checksum = checksum(channel, Math.min(indexedSize, CHECKSUM_SIZE));
+        }
+    }
+
+    private void scan(FileChannel channel, long end) throws IOException {
+        byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+        long position = scanned;
+        while (position < end) {
+            long windowEnd = Math.min(end, position + WINDOW_SIZE);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+            while (window.hasRemaining()) {
+                int length = Math.min(buffer.length, window.remaining());
+                window.get(buffer, 0, length);
+                for (int i = 0; i < length; i++) {
+                    if (buffer[i] == '\n') {
+                        addLine(scanned);
+                        scanned = position + i + 1;
+                    }
+                }
+                position += length;
+            }
+        }
+    }
+
+    private void addLine(long start) {
+        if (lineCount % INDEX_STRIDE == 0) {
+            int slot = lineCount / INDEX_STRIDE;
+            if (slot == index.length) {
+                index = Arrays.copyOf(index, index.length * 2);
+            }
+            index[slot] = start;
+        }
+        lineCount++;
+    }
+
+    private static long checksum(FileChannel channel, long length) throws IOException {
+        CRC32 crc = new CRC32();
+        if (length > 0) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * @return The number of lines in the file. A last line without a line
+     * break is counted too.
+     * @throws IOException If the file could not be read.
+     */
+    public synchronized int getLineCount() throws IOException {
+        updateIndex();
+        return scanned < size ? lineCount + 1 : lineCount;
+    }
+
+    /**
+     * Passes lines of the file to a consumer, in order.
+     * @param first The first line to pass.
+     * @param consumer Receives each line, without its line break.
+     * @throws IOException If the file could not be read.
+     */
+    public void forEachLine(int first, Consumer<String> consumer) throws IOException {
+        readLines(first, Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * @param line The number of a line of the file, starting from 0.
+     * @return The line, without its line break.
+     * @throws IOException If the file could not be read.
+     */
+    public String getLine(int line) throws IOException {
+        if (line < 0 || line >= getLineCount()) {
+            throw new IndexOutOfBoundsException(Integer.toString(line));
+        }
+        String[] result = new String[1];
+        readLines(line, 1, text -> result[0] = text);
+        return result[0];
+    }
+
+    private void readLines(int first, int count, Consumer<String> consumer) throws IOException {
+        long start;
+        long end;
+        synchronized (this) {
+            end = size;
+            if (first == 0) {
+                // Reading from the start does not need the index.
+                start = 0;
+            } else {
+                if (first < 0 || first >= getLineCount()) {
+                    return;
+                }
+                // The last line is not indexed until it is complete.
+                int slot = first / INDEX_STRIDE;
+                start = slot * INDEX_STRIDE < lineCount ? index[slot] : scanned;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            LineSplitter lines = new LineSplitter(consumer, first % INDEX_STRIDE, count);
+            long position = start;
+            while (position < end && !lines.isDone()) {
+                long windowEnd = Math.min(end, position + WINDOW_SIZE);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowEnd - position);
+                lines.split(window, windowEnd == end);
+                position = windowEnd;
+            }
+        }
+    }
+
+    /**
+     * @return The whole file, with each line ending in <code>\n</code>.
+     * @throws IOException If the file could not be read.
+     */
+    public String getContents() throws IOException {
+        long length;
+        synchronized (this) {
+            length = size;
+        }
+        StringBuilder contents = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, length + 1));
+        forEachLine(0, line -> contents.append(line).append('\n'));
+        return contents.toString();
+    }
+
+    /**
+     * @return A reader of the whole file that reads straight from its mapping.
+     * @throws IOException If the file could not be read.
+     */
+    public BufferedReader newReader() throws IOException {
+        long length;
+        synchronized (this) {
+            length = size;
+        }
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new BufferedReader(new InputStreamReader(new MappedInputStream(channel, length), charset));
+    }
+
+    /**
+     * Splits mapped bytes into lines, keeping a line that spans two windows
+     * until its end is found.
+     */
+    private class LineSplitter {
+        private final Consumer<String> consumer;
+        private int skip;
+        private int remaining;
+        private byte[] partial = new byte[256];
+        private int partialLength;
+        private final byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+
+        private LineSplitter(Consumer<String> consumer, int skip, int count) {
+            this.consumer = consumer;
+            this.skip = skip;
+            this.remaining = count;
+        }
+
+        private boolean isDone() {
+            return remaining <= 0;
+        }
+
+        private void split(ByteBuffer window, boolean last) {
+            while (window.hasRemaining() && !isDone()) {
+                int length = Math.min(buffer.length, window.remaining());
+                window.get(buffer, 0, length);
+                int lineStart = 0;
+                for (int i = 0; i < length && !isDone(); i++) {
+                    if (buffer[i] == '\n') {
+                        if (partialLength > 0) {
+                            appendPartial(buffer, lineStart, i);
+                            deliver(partial, 0, partialLength);
+                            partialLength = 0;
+                        } else {
+                            deliver(buffer, lineStart, i);
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+                if (!isDone()) {
+                    appendPartial(buffer, lineStart, length);
+                }
+            }
+            if (last && partialLength > 0 && !isDone()) {
+                deliver(partial, 0, partialLength);
+                partialLength = 0;
+            }
+        }
+
+        private void appendPartial(byte[] bytes, int start, int end) {
+            int length = end - start;
+            if (partialLength + length > partial.length) {
+                partial = Arrays.copyOf(partial, Math.max(partial.length * 2, partialLength + length));
+            }
+            System.arraycopy(bytes, start, partial, partialLength, length);
+            partialLength += length;
+        }
+
+        private void deliver(byte[] bytes, int start, int end) {
+            if (skip > 0) {
+                skip--;
+                return;
+            }
+            if (end > start && bytes[end - 1] == '\r') {
+                end--;
+            }
+            remaining--;
+            consumer.accept(new String(bytes, start, end - start, charset));
+        }
+    }
+
+    /**
+     * Reads a file through memory mappings of consecutive windows of it.
+     */
+    private static class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        private MappedByteBuffer window;
+
+        private MappedInputStream(FileChannel channel, long end) {
+            this.channel = channel;
+            this.end = end;
+        }
+
+        private boolean fill() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            if (position >= end) {
+                return false;
+            }
+            long length = Math.min(end - position, WINDOW_SIZE);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? window.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int length = Math.min(len, window.remaining());
+            window.get(b, off, length);
+            return length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.callgraph.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a file that is still being written, handing every complete line
+ * to a consumer as soon as it is available.
+ *
+ * Lines are read through a file channel on a dedicated thread and passed on
+ * in chunks of whole lines through a bounded queue, so a slow consumer makes
+ * the reader wait instead of buffering the whole file. While no new data
+ * arrives, the reader blocks until the file system reports a change to the
+ * directory of the file, or until {@link #wakeUp()} is called once the parser
+ * is done. Changes are still checked every {@link #MAX_IDLE_WAIT}
+ * milliseconds for file systems that do not report them.
+ */
+class RealTimeReader implements Runnable {
+
+    /**
+     * Marks the end of the file in the queue of chunks.
+     */
+    static final String END_OF_FILE = new String();
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final long MAX_IDLE_WAIT = 500;
+
+    private final FileChannel channel;
+    private final WatchService watcher;
+    private final SystemTapParser parser;
+    private final BlockingQueue<String> chunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder partialLine = new StringBuilder();
+    private Thread thread;
+    private volatile boolean stopped = false;
+
+    /**
+     * @param path The file to follow.
+     * @param parser The parser whose {@link SystemTapParser#isDone()} flag
+     * indicates that no more data will be written to the file.
+     * @throws IOException If the file could not be opened.
+     */
+    RealTimeReader(String path, SystemTapParser parser) throws IOException {
+        Path file = Paths.get(path).toAbsolutePath();
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.parser = parser;
+        this.watcher = file.getFileSystem().newWatchService();
+        try {
+            file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watcher.close();
+            channel.close();
+            throw e;
+        }
+    }
+
+    void start() {
+        thread = new Thread(this, "SystemTapParser Reader"); //$NON-NLS-1$
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops reading and closes the file. Chunks already in the queue are discarded.
+     */
+    void stop() {
+        stopped = true;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        chunks.clear();
+    }
+
+    /**
+     * Stops waiting for changes to the file, so that the remaining data is
+     * read immediately once the parser is done.
+     */
+    void wakeUp() {
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            CallgraphCorePlugin.logException(e);
+        }
+    }
+
+    /**
+     * Waits for the next chunk of lines.
+     * @param timeout The longest time to wait, in milliseconds.
+     * @return A chunk of complete lines, each ending with a new line, or
+     * {@link #END_OF_FILE}, or <code>null</code> if the timeout elapsed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    String poll(long timeout) throws InterruptedException {
+        return chunks.poll(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!stopped) {
+                // Check for completion before reading, so that all data written
+                // before the parser was marked done is still read.
+                boolean last = parser.isDone();
+                int read = channel.read(bytes);
+                if (read > 0) {
+                    decode(false);
+                    continue;
+                }
+                if (last) {
+                    decode(true);
+                    if (partialLine.length() > 0) {
+                        partialLine.append('\n');
+                        chunks.put(partialLine.toString());
+                    }
+                    break;
+                }
+                awaitChange();
+            }
+        } catch (IOException e) {
+            CallgraphCorePlugin.logException(e);
+        } catch (InterruptedException e) {
+            // Stopped
+        } finally {
+            try {
+                channel.close();
+                watcher.close();
+            } catch (IOException e) {
+                // Do nothing
+            }
+            if (!stopped) {
+                try {
+                    chunks.put(END_OF_FILE);
+                } catch (InterruptedException e) {
+                    // Stopped
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocks until a file in the directory of the followed file is modified,
+     * or the watcher is closed by {@link #wakeUp()}.
+     */
+    private void awaitChange() throws InterruptedException {
+        try {
+            WatchKey key = watcher.poll(MAX_IDLE_WAIT, TimeUnit.MILLISECONDS);
+            if (key != null) {
+                key.pollEvents();
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Done, read the remaining data
+        }
+    }
+
+    /**
+     * Decodes the bytes read so far and queues all complete lines as one chunk.
+     */
+    private void decode(boolean endOfInput) throws InterruptedException {
+        bytes.flip();
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, endOfInput);
+            appendChars();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            while (decoder.flush(chars).isOverflow()) {
+                appendChars();
+            }
+            appendChars();
+        }
+        bytes.compact();
+
+        int end = partialLine.lastIndexOf("\n"); //$NON-NLS-1$
+        if (end >= 0) {
+            chunks.put(partialLine.substring(0, end + 1));
+            partialLine.delete(0, end + 1);
+        }
+    }
+
+    private void appendChars() {
+        chars.flip();
+        partialLine.append(chars);
+        chars.clear();
+    }
+}
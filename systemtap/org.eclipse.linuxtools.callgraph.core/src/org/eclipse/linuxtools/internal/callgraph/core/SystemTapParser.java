@@ -14,6 +14,8 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -22,6 +24,16 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 public abstract class SystemTapParser extends Job {
+    /**
+     * The shortest time in milliseconds between two view updates while parsing in real time.
+     */
+    public static final long FRAME_BUDGET = 40;
+
+    /**
+     * How long in milliseconds to wait for new data before checking for cancellation.
+     */
+    private static final long IDLE_WAIT = 200;
+
     protected IProgressMonitor monitor;
     protected String sourcePath;
     protected String viewID;
@@ -30,8 +42,11 @@ public abstract class SystemTapParser extends Job {
     protected Object data;
     protected BufferedReader internalData;
     private String secondaryID = ""; //$NON-NLS-1$
+    private boolean streaming = false;
+    private boolean updatePending = false;
+    private volatile RealTimeReader reader;
 
-    public boolean done;
+    public volatile boolean done;
 
     public SystemTapParser() {
         super("Parsing data"); //$NON-NLS-1$
@@ -80,13 +95,16 @@ public abstract class SystemTapParser extends Job {
 
 
     /**
-     * Implement this method if your parser is to execute in realtime. This method
-     * will be called as part of a while loop in a separate Job. Use the setInternalData
-     * method to initialize some data object for use in realTimeParsing. The default
-     * setInternalMethod method will set internalData to a BufferedReader
+     * Implement this method if your parser is to execute in realtime. When run as
+     * a real-time Job, the output file is followed on a separate thread, and this
+     * method is called whenever new lines are available, with internalData set to
+     * a BufferedReader over those lines. Lines are always complete.
      * <br> <br>
-     * After the isDone flag is set to true, the realTimeParsing() method will
-     * be run one more time to catch any stragglers.
+     * Call {@link #updateView()} rather than updating the view directly, so that
+     * updates can be coalesced while data arrives quickly.
+     * <br> <br>
+     * After the isDone flag is set to true, the remaining output is read and
+     * passed to this method before the Job finishes.
      */
     public abstract IStatus realTimeParsing();
 
@@ -159,27 +177,8 @@ public abstract class SystemTapParser extends Job {
         makeView();
         if (realTime) {
             try {
-                setInternalData();
-                while (!done){
-                    returnStatus = realTimeParsing();
-                    if (monitor.isCanceled() || returnStatus == Status.CANCEL_STATUS) {
-                        done = true;
-                        return Status.CANCEL_STATUS;
-                    }
-
-                    Thread.sleep(500);
-                }
-                if (!monitor.isCanceled()) returnStatus = realTimeParsing();
-                done = true;
-                return returnStatus;
-            } catch (InterruptedException e) {
-                SystemTapUIErrorMessages m = new SystemTapUIErrorMessages(
-                        Messages.getString("SystemTapParser.InternalData"), //$NON-NLS-1$
-                        Messages.getString("SystemTapParser.FailedToSetData"), //$NON-NLS-1$
-                        Messages.getString("SystemTapParser.FailedToSetDataMessage")); //$NON-NLS-1$
-                m.schedule();
-                return Status.CANCEL_STATUS;
-            } catch (FileNotFoundException e) {
+                return streamRealTime();
+            } catch (IOException|InterruptedException e) {
                 SystemTapUIErrorMessages m = new SystemTapUIErrorMessages(
                         Messages.getString("SystemTapParser.InternalData"), //$NON-NLS-1$
                         Messages.getString("SystemTapParser.FailedToSetData"), //$NON-NLS-1$
@@ -199,6 +198,94 @@ public abstract class SystemTapParser extends Job {
 
     }
 
+    /**
+     * Follows the output file until the parser is done, passing new lines to
+     * {@link #realTimeParsing()} as they are written. View updates requested
+     * through {@link #updateView()} are performed between two calls, no more
+     * often than every {@link #FRAME_BUDGET} milliseconds, or than the last
+     * update took, whichever is longer.
+     */
+    private IStatus streamRealTime() throws IOException, InterruptedException {
+        IStatus returnStatus = Status.OK_STATUS;
+        reader = new RealTimeReader(sourcePath, this);
+        streaming = true;
+        reader.start();
+        if (done) {
+            reader.wakeUp();
+        }
+        try {
+            long nextUpdate = 0;
+            while (true) {
+                long wait = updatePending
+                        ? Math.max(0, nextUpdate - System.currentTimeMillis())
+                        : IDLE_WAIT;
+                String chunk = reader.poll(wait);
+                if (monitor.isCanceled()) {
+                    done = true;
+                    return Status.CANCEL_STATUS;
+                }
+                if (chunk == RealTimeReader.END_OF_FILE) {
+                    break;
+                }
+                if (chunk != null) {
+                    internalData = new BufferedReader(new StringReader(chunk));
+                    returnStatus = realTimeParsing();
+                    if (monitor.isCanceled() || returnStatus == Status.CANCEL_STATUS) {
+                        done = true;
+                        return Status.CANCEL_STATUS;
+                    }
+                }
+                if (updatePending && System.currentTimeMillis() >= nextUpdate) {
+                    long start = System.currentTimeMillis();
+                    performUpdate();
+                    long end = System.currentTimeMillis();
+                    nextUpdate = end + Math.max(FRAME_BUDGET, end - start);
+                }
+            }
+            performUpdate();
+            done = true;
+            return returnStatus;
+        } finally {
+            reader.stop();
+            reader = null;
+            streaming = false;
+        }
+    }
+
+    /**
+     * Requests that the view shows the data parsed so far. When parsing in
+     * real time, the update is deferred until the current lines are parsed
+     * and may be merged with later requests; otherwise the view is updated
+     * immediately. In both cases the view is updated from the parsing thread,
+     * which waits for the update to complete.
+     *
+     * @throws InterruptedException
+     */
+    protected void updateView() throws InterruptedException {
+        updatePending = true;
+        if (!streaming) {
+            performUpdate();
+        }
+    }
+
+    private void performUpdate() throws InterruptedException {
+        if (updatePending) {
+            updatePending = false;
+            if (view != null) {
+                view.update();
+            }
+            viewUpdated();
+        }
+    }
+
+    /**
+     * Called after the view has been updated following {@link #updateView()}.
+     * Override to discard data that the view has now shown.
+     */
+    protected void viewUpdated() {
+        // Nothing by default
+    }
+
     /**
      * For easier JUnit testing only. Allows public access to run method without
      * scheduling an extra job.
@@ -230,9 +317,10 @@ public abstract class SystemTapParser extends Job {
     }
 
     /**
-     * Generic method for setting the internalData object. This will be called
-     * by a real-time-parser immediately before its main polling loop. By default,
-     * this method will attempt to create a bufferedReader around File(filePath)
+     * Generic method for setting the internalData object. By default, this
+     * method will attempt to create a bufferedReader around File(filePath).
+     * The real-time Job no longer calls it: it sets internalData to the new
+     * lines before each call to {@link #realTimeParsing()}.
      * @throws FileNotFoundException
      */
     protected void setInternalData() throws FileNotFoundException {
@@ -259,12 +347,15 @@ public abstract class SystemTapParser extends Job {
     }
 
     /**
-     * Will terminate the parser at the next opportunity (~once every 0.5s)s
+     * Will terminate the parser once the remaining output has been parsed
      *
      * @param val
      */
     public void setDone(boolean val) {
         done = val;
+        if (val) {
+            wakeUpReader();
+        }
     }
 
     public void setMonitor(IProgressMonitor m) {
@@ -308,6 +399,14 @@ public abstract class SystemTapParser extends Job {
      */
     public void cancelJob() {
         done = true;
+        wakeUpReader();
+    }
+
+    private void wakeUpReader() {
+        RealTimeReader current = reader;
+        if (current != null) {
+            current.wakeUp();
+        }
     }
 
     public boolean isDone() {
@@ -20,6 +20,11 @@ public class SystemTapTextParser extends SystemTapParser{
 
     protected String contents;
 
+    /**
+     * Text read in real time that the view has not shown yet.
+     */
+    private final StringBuilder unshownText = new StringBuilder();
+
     @Override
     public IStatus nonRealTimeParsing() {
         contents = Helper.readFile(sourcePath);
@@ -34,7 +39,6 @@ public class SystemTapTextParser extends SystemTapParser{
     @Override
     public IStatus realTimeParsing() {
         BufferedReader buff = internalData;
-        StringBuffer text = new StringBuffer();
 
         String line;
         try {
@@ -42,10 +46,10 @@ public class SystemTapTextParser extends SystemTapParser{
                 if (monitor.isCanceled()) {
                     return Status.CANCEL_STATUS;
                 }
-                text.append(line + "\n"); //$NON-NLS-1$
+                unshownText.append(line).append('\n');
             }
-            setData(text.toString());
-            view.update();
+            setData(unshownText.toString());
+            updateView();
         } catch (IOException|InterruptedException e) {
             e.printStackTrace();
         }
@@ -53,4 +57,9 @@ public class SystemTapTextParser extends SystemTapParser{
         return Status.OK_STATUS;
     }
 
+    @Override
+    protected void viewUpdated() {
+        unshownText.setLength(0);
+    }
+
 }
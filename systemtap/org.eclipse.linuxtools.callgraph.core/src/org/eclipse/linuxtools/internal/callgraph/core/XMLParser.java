@@ -10,9 +10,7 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.callgraph.core;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -46,11 +44,16 @@ public class XMLParser {
     }
 
     /**
-     * Helper method to call parse on the contents of a file.
+     * Helper method to call parse on the contents of a file. The lines of the
+     * file are parsed as they are read, without reading the whole file first.
      * @param file
      */
     public void parse(File file) {
-        parse(getContents(file));
+        try {
+            MappedTextFile.open(file.getPath()).forEachLine(0, line -> parseLine(line.replace("\t", ""))); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
     }
 
 
@@ -65,60 +68,64 @@ public class XMLParser {
         String[] lines = tabstrip.split("\n"); //$NON-NLS-1$
 
         for (String line : lines) {
-            if (line.length() < 1) {
-                continue;
-            }
+            parseLine(line);
+        }
+    }
 
-            if (line.charAt(0) == '<') {
-                //Either an open or close tag
-                if (line.charAt(1) == '/') {
-                    //Closing tag -- assume properly formed
-                    idList.remove((Integer) currentlyIn);
-                    currentlyIn = -1;
-                    if (idList.size() > 0) {
-                        currentlyIn = idList.get(idList.size()-1);
-                    }
-                    setTextMode(true);
+    private void parseLine(String line) {
+        if (line.length() < 1) {
+            return;
+        }
 
-                } else if (line.substring(line.length()-2, line.length() - 1).equals("/>")) { //$NON-NLS-1$
-                    //This tag opens and closes in one line
-                    id++;
-                    String[] tokens = line.split(" "); //$NON-NLS-1$
-                    HashMap<String,String> map = new HashMap<>();
-                    map.put(ATTR_NAME, tokens[0]);
-                    keyValues.put(id,map);
-                    textMode = false;
-                    addAttributes(currentlyIn, tokens, 1);
-
-                } else {
-                    //Open tag
-                    idList.add(id);
-                    id++;
-                    currentlyIn = id;
-
-                    String[] tokens = line.split(" "); //$NON-NLS-1$
-
-                    //Add name variable
-                    HashMap<String,String> map = new HashMap<>();
-                    map.put(ATTR_NAME, tokens[0]);
-                    keyValues.put(id,map);
-
-                    addAttributes(currentlyIn, tokens, 1);
-                }
-            } else {
-                //Attribute addition
-                if (currentlyIn < 0 ) {
-                    continue;
+        if (line.charAt(0) == '<') {
+            //Either an open or close tag
+            if (line.charAt(1) == '/') {
+                //Closing tag -- assume properly formed
+                idList.remove((Integer) currentlyIn);
+                currentlyIn = -1;
+                if (idList.size() > 0) {
+                    currentlyIn = idList.get(idList.size()-1);
                 }
+                setTextMode(true);
 
-                if (textMode) {
-                    HashMap<String,String> map = keyValues.get(currentlyIn);
-                    map.put(ATTR_TEXT, line);
-                }
+            } else if (line.substring(line.length()-2, line.length() - 1).equals("/>")) { //$NON-NLS-1$
+                //This tag opens and closes in one line
+                id++;
+                String[] tokens = line.split(" "); //$NON-NLS-1$
+                HashMap<String,String> map = new HashMap<>();
+                map.put(ATTR_NAME, tokens[0]);
+                keyValues.put(id,map);
+                textMode = false;
+                addAttributes(currentlyIn, tokens, 1);
+
+            } else {
+                //Open tag
+                idList.add(id);
+                id++;
+                currentlyIn = id;
 
                 String[] tokens = line.split(" "); //$NON-NLS-1$
-                addAttributes(currentlyIn, tokens, 0);
+
+                //Add name variable
+                HashMap<String,String> map = new HashMap<>();
+                map.put(ATTR_NAME, tokens[0]);
+                keyValues.put(id,map);
+
+                addAttributes(currentlyIn, tokens, 1);
+            }
+        } else {
+            //Attribute addition
+            if (currentlyIn < 0 ) {
+                return;
             }
+
+            if (textMode) {
+                HashMap<String,String> map = keyValues.get(currentlyIn);
+                map.put(ATTR_TEXT, line);
+            }
+
+            String[] tokens = line.split(" "); //$NON-NLS-1$
+            addAttributes(currentlyIn, tokens, 0);
         }
     }
 
@@ -166,22 +173,6 @@ public class XMLParser {
         keyValues.put(id, map);
     }
 
-    private static String getContents(File file) {
-        StringBuilder contents = new StringBuilder();
-
-        try (BufferedReader input = new BufferedReader(new FileReader(file))) {
-            String line = null;
-            while ((line = input.readLine()) != null) {
-                contents.append(line);
-                contents.append("\n"); //$NON-NLS-1$
-            }
-        } catch (IOException ex) {
-            ex.printStackTrace();
-        }
-
-        return contents.toString();
-    }
-
       private void setTextMode(boolean val) {
           textMode = val;
       }
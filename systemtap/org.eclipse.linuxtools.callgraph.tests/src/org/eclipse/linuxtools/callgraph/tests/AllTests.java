@@ -14,6 +14,6 @@ package org.eclipse.linuxtools.callgraph.tests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 @RunWith(Suite.class)
-@Suite.SuiteClasses({MouseListenerTest.class, StapGraphParserTest.class, SystemTapGraphTest.class, SystemTapGraphViewTest.class })
+@Suite.SuiteClasses({LevelLayoutTest.class, MappedTextFileTest.class, MouseListenerTest.class, StapGraphParserTest.class, SystemTapGraphTest.class, SystemTapGraphViewTest.class })
 public class AllTests {
 }
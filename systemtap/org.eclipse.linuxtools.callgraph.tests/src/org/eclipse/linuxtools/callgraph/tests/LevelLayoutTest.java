@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.callgraph.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.linuxtools.internal.callgraph.LevelLayout;
+import org.junit.Test;
+
+public class LevelLayoutTest {
+
+    private static LevelLayout newLayout() {
+        LevelLayout layout = new LevelLayout(1, 3);
+        layout.setLevel(1, 10, new int[] {1}, new int[] {500}, 1);
+        layout.setLevel(2, 40, new int[] {2, 3, 4, 5, 0}, new int[] {100, 200, 200, 400, 0}, 4);
+        layout.setLevel(3, 70, new int[0], new int[0], 0);
+        return layout;
+    }
+
+    @Test
+    public void testLevels() {
+        LevelLayout layout = newLayout();
+        assertEquals(1, layout.getFirstLevel());
+        assertEquals(3, layout.getLastLevel());
+        assertEquals(40, layout.getY(2));
+        assertEquals(4, layout.getSize(2));
+        assertEquals(0, layout.getSize(3));
+        assertEquals(4, layout.getId(2, 2));
+        assertEquals(400, layout.getX(2, 3));
+    }
+
+    @Test
+    public void testExtent() {
+        LevelLayout layout = newLayout();
+        // Empty levels do not count
+        assertEquals(500, layout.getWidth());
+        assertEquals(40, layout.getHeight());
+    }
+
+    @Test
+    public void testIndexOf() {
+        LevelLayout layout = newLayout();
+        assertEquals(0, layout.indexOf(2, 0));
+        assertEquals(0, layout.indexOf(2, 100));
+        assertEquals(1, layout.indexOf(2, 150));
+        // First of the nodes sharing a position
+        assertEquals(1, layout.indexOf(2, 200));
+        assertEquals(3, layout.indexOf(2, 201));
+        assertEquals(4, layout.indexOf(2, 401));
+        assertEquals(0, layout.indexOf(3, 100));
+    }
+
+    @Test
+    public void testEmptyLayout() {
+        LevelLayout layout = new LevelLayout(2, 1);
+        assertEquals(1, layout.getLastLevel());
+        assertEquals(0, layout.getWidth());
+        assertEquals(0, layout.getHeight());
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.callgraph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.linuxtools.internal.callgraph.core.MappedTextFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedTextFileTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("callgraph", ".out"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private void write(String text, boolean append) throws IOException {
+        if (append) {
+            Files.write(file.toPath(), text.getBytes(), StandardOpenOption.APPEND);
+        } else {
+            Files.write(file.toPath(), text.getBytes());
+        }
+    }
+
+    private static String lines(int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            text.append("line ").append(i).append('\n'); //$NON-NLS-1$
+        }
+        return text.toString();
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        write(lines(0, 1000) + "last\r\nunterminated", false); //$NON-NLS-1$
+        MappedTextFile text = MappedTextFile.open(file.getPath());
+        assertEquals(1002, text.getLineCount());
+        assertEquals("line 0", text.getLine(0)); //$NON-NLS-1$
+        assertEquals("line 64", text.getLine(64)); //$NON-NLS-1$
+        assertEquals("line 999", text.getLine(999)); //$NON-NLS-1$
+        assertEquals("last", text.getLine(1000)); //$NON-NLS-1$
+        assertEquals("unterminated", text.getLine(1001)); //$NON-NLS-1$
+
+        List<String> read = new ArrayList<>();
+        text.forEachLine(990, read::add);
+        assertEquals(12, read.size());
+        assertEquals("line 990", read.get(0)); //$NON-NLS-1$
+        assertEquals(lines(0, 1000) + "last\nunterminated\n", text.getContents()); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testAppendAndRewrite() throws IOException {
+        write(lines(0, 100) + "line ", false); //$NON-NLS-1$
+        MappedTextFile text = MappedTextFile.open(file.getPath());
+        assertEquals(101, text.getLineCount());
+        assertEquals("line ", text.getLine(100)); //$NON-NLS-1$
+
+        write("100\n" + lines(101, 200), true); //$NON-NLS-1$
+        text = MappedTextFile.open(file.getPath());
+        assertEquals(200, text.getLineCount());
+        assertEquals("line 100", text.getLine(100)); //$NON-NLS-1$
+        assertEquals("line 199", text.getLine(199)); //$NON-NLS-1$
+
+        write("other\n" + lines(0, 10), false); //$NON-NLS-1$
+        text = MappedTextFile.open(file.getPath());
+        assertEquals(11, text.getLineCount());
+        assertEquals("line 9", text.getLine(10)); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testReadFromStartAfterAppend() throws IOException {
+        write(lines(0, 100), false);
+        List<String> read = new ArrayList<>();
+        MappedTextFile.open(file.getPath()).forEachLine(0, read::add);
+        assertEquals(100, read.size());
+
+        write(lines(100, 200), true);
+        read.clear();
+        MappedTextFile text = MappedTextFile.open(file.getPath());
+        text.forEachLine(0, read::add);
+        assertEquals(200, read.size());
+        assertEquals("line 199", read.get(199)); //$NON-NLS-1$
+        assertEquals(200, text.getLineCount());
+        assertEquals("line 150", text.getLine(150)); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testReader() throws IOException {
+        write(lines(0, 10), false);
+        try (BufferedReader reader = MappedTextFile.open(file.getPath()).newReader()) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals("line " + i, reader.readLine()); //$NON-NLS-1$
+            }
+            assertNull(reader.readLine());
+        }
+    }
+}
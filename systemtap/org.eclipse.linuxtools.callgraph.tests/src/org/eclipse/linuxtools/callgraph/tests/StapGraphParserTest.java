@@ -15,9 +15,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-
+import org.eclipse.linuxtools.internal.callgraph.CallRecords;
 import org.eclipse.linuxtools.internal.callgraph.StapGraphParser;
 import org.junit.Test;
 
@@ -32,61 +30,49 @@ public class StapGraphParserTest {
     }
 
     public static void assertSanity(StapGraphParser grph){
-        /*if (grph.serialMap.size() == 0 || grph.timeMap.size() == 0
-                || grph.outNeighbours.size() == 0 || grph.countMap.size() == 0
-                || grph.aggregateTimeMap.size() == 0){
-            fail("Parsing Error : One or more data structures were empty.");
-        }*/
-
-        //SAME NUMBER OF NODES ENTRIES
-        assertEquals(grph.serialMap.size(),grph.timeMap.size());
-        int nsize = 0;
-        for (int key : grph.neighbourMaps.keySet())
-            if (grph.neighbourMaps.get(key)!= null)
-                nsize+=grph.neighbourMaps.get(key).size();
-        assertEquals(grph.serialMap.size(),nsize);
-        //ALL UNIQUE FUNCTIONS HAVE A TIME
-        //ALL FUNCTIONS HAVE A CUMULATIVE TIME
-        for (int val : grph.serialMap.keySet()){
-            String fname = grph.serialMap.get(val);
-            assertNotNull(grph.timeMap.get(val));
+        CallRecords records = grph.getCallRecords();
+        //EVERY NODE CAN BE FOUND BY ITS ID
+        for (int row = 0; row < records.size(); row++){
+            assertEquals(row, records.indexOf(records.getId(row)));
+        }
+        //ALL FUNCTIONS HAVE A CUMULATIVE TIME AND A COUNT
+        assertEquals(records.getNameCount(), grph.aggregateTimeMap.size());
+        assertEquals(records.getNameCount(), grph.countMap.size());
+        for (int row = 0; row < records.size(); row++){
+            String fname = records.getName(records.getNameId(row));
             assertNotNull(grph.aggregateTimeMap.get(fname));
+            assertNotNull(grph.countMap.get(fname));
         }
     }
 
 
     public static void assertTimes(StapGraphParser grph){
+        CallRecords records = grph.getCallRecords();
         //NO FUNCTION HAS TIME/CUMULATIVE TIME LARGER THAN TOTAL
-        for (int val : grph.serialMap.keySet()){
-            String fname = grph.serialMap.get(val);
-            assertTrue(grph.totalTime >= grph.timeMap.get(val));
+        for (int row = 0; row < records.size(); row++){
+            String fname = records.getName(records.getNameId(row));
+            assertTrue(grph.totalTime >= records.getTime(row));
             assertTrue(grph.totalTime >= grph.aggregateTimeMap.get(fname));
         }
     }
 
 
     public static void assertConnectedness (StapGraphParser grph){
-        boolean hasParent;
-        //ALL NODES MUST HAVE A PARENT EXCEPT THE ROOT
-        for (int key : grph.serialMap.keySet()){
-            hasParent = false;
-            for (int k:grph.neighbourMaps.keySet()) {
-                HashMap<Integer, ArrayList<Integer>> outNeighbours = grph.neighbourMaps.get(k);
-                if (outNeighbours != null && outNeighbours.size() > 0)
-                for (ArrayList<Integer> list : outNeighbours.values()){
-                    if (list.contains(key)){
-                        hasParent = true;
-                        break;
-                    }
-                }
-
-                if (!hasParent){
-                    for (int other : grph.serialMap.keySet()){
-                        if (key > other){
-                            fail(key + " " + grph.serialMap.get(key) + " had no parent");
-                        }
+        CallRecords records = grph.getCallRecords();
+        //ALL NODES MUST HAVE A PARENT EXCEPT THE ROOTS, WHICH COME FIRST ON THEIR THREAD
+        for (int row = 0; row < records.size(); row++){
+            int parent = records.getParent(row);
+            if (parent == CallRecords.NO_PARENT) {
+                for (int other = 0; other < row; other++){
+                    if (records.getThread(other) == records.getThread(row)
+                            && records.getEnd(other) == CallRecords.NO_END){
+                        fail(records.getId(row) + " " + records.getName(records.getNameId(row)) + " had no parent");
                     }
                 }
+            } else {
+                int parentRow = records.indexOf(parent);
+                assertTrue(parentRow >= 0 && parentRow < row);
+                assertEquals(records.getThread(parentRow), records.getThread(row));
             }
         }
 
@@ -136,4 +122,23 @@ public class StapGraphParserTest {
         executeGraphTests();
     }
 
+    @Test
+    public void testCallRecords(){
+        StapGraphParser grph = StapGraphParserTest.initializeGraph(currentPath+"heavy.graph");
+        CallRecords records = grph.getCallRecords();
+        assertTrue(records.size() > 0);
+        assertEquals(records.size(), records.getCallOrder().size());
+        int total = 0;
+        for (int count : grph.countMap.values()){
+            total += count;
+        }
+        assertEquals(records.size(), total);
+        for (int row = 0; row < records.size(); row++){
+            assertEquals(records.getId(row), records.getCallOrder().get(row).intValue());
+            if (records.getEnd(row) != CallRecords.NO_END) {
+                assertEquals(records.getEnd(row) - records.getStart(row), records.getTime(row));
+            }
+        }
+    }
+
 }
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.callgraph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact storage for the function calls of a trace.
+ *
+ * Every call is a row in a set of parallel primitive arrays holding its id,
+ * the id of its caller, its thread, its function and its start and end times.
+ * Function names are interned to dense name ids, and call ids are mapped to
+ * rows with an open addressing hash table, so that adding and looking up a
+ * call takes constant time and no objects are allocated per call.
+ */
+public class CallRecords {
+
+    /**
+     * Value of {@link #getEnd(int)} for a call that has not returned.
+     */
+    public static final long NO_END = -1;
+
+    /**
+     * Value of {@link #getParent(int)} for a call without a caller.
+     */
+    public static final int NO_PARENT = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] threads = new int[INITIAL_CAPACITY];
+    private int[] nameIds = new int[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Open addressing table of row + 1 for each call id; 0 marks a free slot.
+     */
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int nameCount;
+
+    /**
+     * Returns the dense id of the given function name, assigning the next
+     * free id if the name has not been seen before.
+     * @param name The function name.
+     * @return The id of the name.
+     */
+    public int intern(String name) {
+        Integer nameId = nameIndex.get(name);
+        if (nameId != null) {
+            return nameId;
+        }
+        if (nameCount == names.length) {
+            names = Arrays.copyOf(names, nameCount * 2);
+        }
+        names[nameCount] = name;
+        nameIndex.put(name, nameCount);
+        return nameCount++;
+    }
+
+    /**
+     * @param name The function name.
+     * @return The id of the name, or -1 if the name has not been interned.
+     */
+    public int getNameId(String name) {
+        Integer nameId = nameIndex.get(name);
+        return nameId != null ? nameId : -1;
+    }
+
+    /**
+     * @param nameId The id of a name returned by {@link #intern(String)}.
+     * @return The interned name.
+     */
+    public String getName(int nameId) {
+        return names[nameId];
+    }
+
+    /**
+     * @return The number of distinct function names.
+     */
+    public int getNameCount() {
+        return nameCount;
+    }
+
+    /**
+     * Adds a call. If a call with the same id already exists, lookups by
+     * that id will return the new call from now on.
+     * @param id The id of the call.
+     * @param parent The id of the calling function, or {@link #NO_PARENT}.
+     * @param thread The id of the thread making the call.
+     * @param nameId The id of the function name.
+     * @param start The time at which the call started.
+     * @return The row of the new call.
+     */
+    public int add(int id, int parent, int thread, int nameId, long start) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = id;
+        parents[row] = parent;
+        threads[row] = thread;
+        nameIds[row] = nameId;
+        starts[row] = start;
+        ends[row] = NO_END;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            insert(id, row);
+        }
+        return row;
+    }
+
+    /**
+     * @param id The id of a call.
+     * @return The row of the call, or -1 if there is no call with that id.
+     */
+    public int indexOf(int id) {
+        int mask = slots.length - 1;
+        for (int slot = hash(id) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = slots[slot] - 1;
+            if (ids[row] == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public int getParent(int row) {
+        return parents[row];
+    }
+
+    public void setParent(int row, int parent) {
+        parents[row] = parent;
+    }
+
+    public int getThread(int row) {
+        return threads[row];
+    }
+
+    public int getNameId(int row) {
+        return nameIds[row];
+    }
+
+    public long getStart(int row) {
+        return starts[row];
+    }
+
+    /**
+     * @param row The row of a call.
+     * @return The time at which the call returned, or {@link #NO_END}.
+     */
+    public long getEnd(int row) {
+        return ends[row];
+    }
+
+    public void setEnd(int row, long end) {
+        ends[row] = end;
+    }
+
+    /**
+     * @param row The row of a call.
+     * @return The duration of the call if it returned, otherwise the time
+     * at which it started.
+     */
+    public long getTime(int row) {
+        return ends[row] != NO_END ? ends[row] - starts[row] : starts[row];
+    }
+
+    /**
+     * @return A read-only view of the call ids in the order of the calls,
+     * backed by these records.
+     */
+    public List<Integer> getCallOrder() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException(Integer.toString(index));
+                }
+                return ids[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return The number of calls.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all calls and names.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        Arrays.fill(names, 0, nameCount, null);
+        nameIndex.clear();
+        nameCount = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        threads = Arrays.copyOf(threads, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int row = 0; row < size; row++) {
+            insert(ids[row], row);
+        }
+    }
+
+    private void insert(int id, int row) {
+        int mask = slots.length - 1;
+        int slot = hash(id) & mask;
+        while (slots[slot] != 0 && ids[slots[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = row + 1;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -15,7 +15,6 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Set;
 
@@ -182,64 +181,33 @@ public class CallgraphView extends SystemTapView {
 
 
         /*
-         * Load graph data
+         * Load graph data, callers always come before the functions they call
          */
-        for (int id_parent : parser.serialMap.keySet()) {
-            if (id_parent < 0) {
+        CallRecords records = parser.getCallRecords();
+        for (int row = 0; row < records.size(); row++) {
+            int id = records.getId(row);
+            if (id < 0 || g.getNodeData(id) != null) {
                 continue;
             }
+            if (monitor.isCanceled()) {
+                return Status.CANCEL_STATUS;
+            }
             boolean marked = false;
             String msg = ""; //$NON-NLS-1$
-            if (g.getNodeData(id_parent) == null) {
-                if (parser.markedMap.get(id_parent) != null) {
-                    marked = true;
-                    msg = parser.markedMap.remove(id_parent);
-                }
-                g.loadData(SWT.NONE, id_parent, parser.serialMap.get(id_parent), parser.timeMap.get(id_parent),
-                        1, 0, marked, msg);
+            if (parser.markedMap.get(id) != null) {
+                marked = true;
+                msg = parser.markedMap.remove(id);
             }
-
-            for (int key :parser.neighbourMaps.keySet()) {
-                HashMap<Integer, ArrayList<Integer>> outNeighbours = parser.neighbourMaps.get(key);
-                if (outNeighbours == null || outNeighbours.get(id_parent) == null) {
-                    continue;
-                }
-                for (int id_child : outNeighbours.get(id_parent)) {
-                    if (g.getNodeData(id_child) != null && id_child < 0) {
-                        //Assume this is an additional call of the same node
-                        //Should only happen in dot-files!!
-                        g.addCalled(id_child);
-                        continue;
-                    } else if (g.getNodeData(id_child) != null) {
-                        continue;
-                    }
-                    if (monitor.isCanceled()) {
-                        return Status.CANCEL_STATUS;
-                    }
-
-                    marked = false;
-                    msg = ""; //$NON-NLS-1$
-                    if (parser.markedMap.get(id_child) != null) {
-                        marked = true;
-                        msg = parser.markedMap.remove(id_child);
-                    }
-                    if (id_child != -1) {
-                        if (parser.timeMap.get(id_child) == null){
-                            g.loadData(SWT.NONE, id_child, parser.serialMap
-                                    .get(id_child), parser.timeMap.get(0),
-                                    1, id_parent, marked,msg);
-                        }else{
-                            g.loadData(SWT.NONE, id_child, parser.serialMap
-                                    .get(id_child), parser.timeMap.get(id_child),
-                                    1, id_parent, marked,msg);
-                        }
-                    }
-                }
+            int id_parent = records.getParent(row);
+            if (id_parent == CallRecords.NO_PARENT || g.getNodeData(id_parent) == null) {
+                id_parent = 0;
             }
+            g.loadData(SWT.NONE, id, records.getName(records.getNameId(row)), records.getTime(row),
+                    1, id_parent, marked, msg);
+        }
 
-            if (parser.neighbourMaps.size() > 1) {
-                g.setThreaded();
-            }
+        if (parser.isThreaded()) {
+            g.setThreaded();
         }
 
         monitor.worked(1);
@@ -313,7 +281,7 @@ public class CallgraphView extends SystemTapView {
         if (monitor.isCanceled()) {
             return Status.CANCEL_STATUS;
         }
-        g.setCallOrderList(parser.callOrderList);
+        g.setCallOrderList(parser.getCallRecords().getCallOrder());
         g.setProject(parser.project);
 
 
@@ -480,7 +448,7 @@ public class CallgraphView extends SystemTapView {
         saveCurDot = new Action(Messages.getString("CallgraphView.SaveViewAsDot")) { //$NON-NLS-1$
             @Override
             public void run(){
-                writeToDot(g.getCollapseMode(), g.nodeMap.keySet());
+                writeToDot(g.getCollapseMode(), g.getNodesInView());
             }
 
         };
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.callgraph;
+
+import java.util.Arrays;
+
+/**
+ * Positions of the nodes drawn in level mode, kept apart from the figures.
+ *
+ * Each level holds the ids of its nodes in left-to-right order together with
+ * their x coordinates, so the nodes of a level that fall within a horizontal
+ * range can be found with a binary search. This lets the graph create
+ * figures only for the nodes that are in view.
+ */
+public class LevelLayout {
+
+    private final int firstLevel;
+    private final int[][] ids;
+    private final int[][] xs;
+    private final int[] sizes;
+    private final int[] ys;
+    private int width;
+    private int height;
+
+    /**
+     * @param firstLevel The first level of the layout.
+     * @param lastLevel The last level of the layout.
+     */
+    public LevelLayout(int firstLevel, int lastLevel) {
+        int count = Math.max(0, lastLevel - firstLevel + 1);
+        this.firstLevel = firstLevel;
+        ids = new int[count][];
+        xs = new int[count][];
+        sizes = new int[count];
+        ys = new int[count];
+    }
+
+    /**
+     * Sets the nodes of a level.
+     * @param level The level.
+     * @param y The y coordinate of all nodes in the level.
+     * @param levelIds The ids of the nodes in the level, in left-to-right order.
+     * @param levelXs The x coordinate of each node, in increasing order.
+     * @param count The number of nodes in the level.
+     */
+    public void setLevel(int level, int y, int[] levelIds, int[] levelXs, int count) {
+        int i = level - firstLevel;
+        ids[i] = Arrays.copyOf(levelIds, count);
+        xs[i] = Arrays.copyOf(levelXs, count);
+        sizes[i] = count;
+        ys[i] = y;
+        if (count > 0) {
+            width = Math.max(width, levelXs[count - 1]);
+            height = Math.max(height, y);
+        }
+    }
+
+    public int getFirstLevel() {
+        return firstLevel;
+    }
+
+    /**
+     * @return The last level of the layout, or <code>getFirstLevel() - 1</code> if it is empty.
+     */
+    public int getLastLevel() {
+        return firstLevel + sizes.length - 1;
+    }
+
+    public int getY(int level) {
+        return ys[level - firstLevel];
+    }
+
+    /**
+     * @return The number of nodes in the given level.
+     */
+    public int getSize(int level) {
+        return sizes[level - firstLevel];
+    }
+
+    public int getId(int level, int index) {
+        return ids[level - firstLevel][index];
+    }
+
+    public int getX(int level, int index) {
+        return xs[level - firstLevel][index];
+    }
+
+    /**
+     * @return The index of the first node of the level whose x coordinate is at least x.
+     */
+    public int indexOf(int level, int x) {
+        int i = level - firstLevel;
+        int index = Arrays.binarySearch(xs[i], 0, sizes[i], x);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Nodes may share an x coordinate; find the first one.
+        while (index > 0 && xs[i][index - 1] == x) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * @return The largest x coordinate of any node.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The largest y coordinate of any node.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -10,20 +10,30 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.callgraph;
 
+import java.beans.PropertyChangeListener;
 import java.text.NumberFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeSet;
 
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.draw2d.Animation;
 import org.eclipse.draw2d.Label;
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.jface.viewers.IDoubleClickListener;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TreeViewer;
@@ -68,16 +78,29 @@ public class StapGraph extends Graph {
     public static final Color CONSTANT_MARKED = new Color(Display.getCurrent(),
             210, 112, 214);
     private int ANIMATION_TIME = 500;
+    // Extra pixels around the view in which level mode nodes are kept
+    private static final int CULLING_MARGIN = 200;
+    // Milliseconds to wait for the view to stop moving before updating nodes
+    private static final int CULLING_DELAY = 30;
     // Draw level management
     private int topLevelToDraw;
     private int bottomLevelToDraw;
     public int levelBuffer = 30;
+    // Most figures shown at once in level mode before nodes are summarized
     private int maxNodes = 150;
     private Projectionist proj;
 
     private int lowestLevelOfNodesAdded;
     public Map<Integer, List<Integer>> levels; // Level number, list of node ids
 
+    // Level mode layout, figures are created only for the nodes in view
+    private LevelLayout levelLayout;
+    private int levelPixelWidth;
+    private List<GraphNode> summaryNodes;
+    private GraphNode extentNode;
+    private boolean cullingScheduled;
+    private final PropertyChangeListener viewportListener = evt -> scheduleCulling();
+
     // Node management
     private int idOfLastNode;
     private int idOfLastCollapsedNode;
@@ -128,7 +151,6 @@ public class StapGraph extends Graph {
     private Canvas thumbCanvas;
     private ICProject project;
     private boolean threaded;
-    private int counter; // All purpose counting variable
 
     public StapGraphMouseListener getMouseListener() {
         return mListener;
@@ -153,6 +175,7 @@ public class StapGraph extends Graph {
         collapsedLevelSize = new HashMap<>();
         markedNodes = new ArrayList<>();
         markedCollapsedNodes = new ArrayList<>();
+        summaryNodes = new ArrayList<>();
         animation_mode = 1;
         idOfLastNode = 0;
         rootVisibleNodeNumber = 0;
@@ -179,6 +202,8 @@ public class StapGraph extends Graph {
         this.addMouseListener(mListener);
         this.addKeyListener(new StapGraphKeyListener(this));
         this.addMouseWheelListener(new StapGraphMouseWheelListener(this));
+        getViewport().getHorizontalRangeModel().addPropertyChangeListener(viewportListener);
+        getViewport().getVerticalRangeModel().addPropertyChangeListener(viewportListener);
 
     }
 
@@ -694,150 +719,272 @@ public class StapGraph extends Graph {
     }
 
     /**
-     * Draws a tree roughly starting from node id
+     * Draws a tree roughly starting from node id. The whole range of levels
+     * is laid out, but figures are only created for the nodes in view; see
+     * {@link #updateVisibleNodes(boolean)}.
      */
     private void drawBox(int id, int y) {
         setLevelLimits(id);
-        int MaxLevelPixelWidth = 1;
-        int currPixelWidth = 1;
+        levelLayout = layoutLevels(y);
+
+        // POSITION THE ROOT, IT IS KEPT WHEREVER THE VIEW SCROLLS
+        StapNode root = nodeMap.get(id);
+        int level = getLevelOfNode(id);
+        if (level >= levelLayout.getFirstLevel()
+                && level <= levelLayout.getLastLevel()) {
+            for (int i = 0; i < levelLayout.getSize(level); i++) {
+                if (levelLayout.getId(level, i) == id) {
+                    root.setLocation(levelLayout.getX(level, i),
+                            levelLayout.getY(level));
+                    break;
+                }
+            }
+        }
+        if (id == getFirstUsefulNode()) {
+            root.setLocation(150 + (levelPixelWidth / 2), y);
+        }
+        root.setSize(root.getSize().width / scale, root.getSize().height / scale);
+        if (getNodeData(id).isMarked()) {
+            root.setBackgroundColor(CONSTANT_MARKED);
+        }
 
-        // FIND THE LEVEL THAT WILL BE THE WIDEST
-        // WILL BE A USEFUL VALUE LATER ON
-        int count;
+        // LET THE VIEW SCROLL OVER THE WHOLE LAYOUT
+        extentNode = new GraphNode(this, SWT.NONE, ""); //$NON-NLS-1$
+        extentNode.setLocation(levelLayout.getWidth()
+                + CONSTANT_HORIZONTAL_SPACING_FOR_LEVEL, levelLayout.getHeight()
+                + 3 * (int) (CONSTANT_VERTICAL_INCREMENT / scale));
+        extentNode.setVisible(false);
 
+        updateVisibleNodes(getAnimationMode() == CONSTANT_ANIMATION_SLOW);
+    }
+
+    /**
+     * Computes the position of every node between topLevelToDraw and
+     * bottomLevelToDraw without creating any figures.
+     *
+     * @param y
+     *            - height of the top level
+     */
+    private LevelLayout layoutLevels(int y) {
+        // FIND THE LEVEL THAT WILL BE THE WIDEST
+        int maxLevelPixelWidth = 1;
+        int firstLevel = Math.max(topLevelToDraw, 1);
+        int[][] levelIds = new int[Math.max(0, bottomLevelToDraw - firstLevel + 1)][];
+        int[] counts = new int[levelIds.length];
         for (int i = topLevelToDraw; i <= bottomLevelToDraw; i++) {
-            count = 0;
-            levels.get(i).add(0, count);
-            int size = levels.get(i).size();
-            for (int j = 1; j < size; j++) {
-                int val = levels.get(i).get(j);
-                StapData data = nodeDataMap.get(val);
-                if (!data.isOnlyChildWithThisName()) {
-                    if (collapseMode && data.isPartOfCollapsedNode()) {
-                        continue;
-                    }
-                    if (!collapseMode && data.isCollapsed) {
-                        continue;
-                    }
+            List<Integer> level = levels.get(i);
+            int[] ids = new int[level.size()];
+            int count = 0;
+            int currPixelWidth = 1;
+            for (int id : level) {
+                StapData data = nodeDataMap.get(id);
+                if (isHiddenInLevel(data)) {
+                    continue;
                 }
-
                 currPixelWidth += data.name.length() * 10
                         + StapGraph.CONSTANT_HORIZONTAL_SPACING_FOR_LEVEL;
-                if (MaxLevelPixelWidth < currPixelWidth) {
-                    MaxLevelPixelWidth = currPixelWidth;
-                }
-                count++;
-                levels.get(i).remove(0);
-                levels.get(i).add(0, count);
+                ids[count++] = id;
+            }
+            maxLevelPixelWidth = Math.max(maxLevelPixelWidth, currPixelWidth);
+            // LEVEL 0 ONLY HOLDS THE ROOT, WHICH IS PLACED BY drawBox
+            if (i >= firstLevel) {
+                levelIds[i - firstLevel] = ids;
+                counts[i - firstLevel] = count;
             }
-            currPixelWidth = 1;
         }
+        levelPixelWidth = (int) (maxLevelPixelWidth / scale);
 
-        MaxLevelPixelWidth = (int) (MaxLevelPixelWidth / scale);
-        counter = 0;
-        if (id == getFirstUsefulNode()) {
-            nodeMap.get(id).setLocation(150 + (MaxLevelPixelWidth / 2), y);
+        LevelLayout layout = new LevelLayout(firstLevel, bottomLevelToDraw);
+        int levelHeight = 3 * (int) (CONSTANT_VERTICAL_INCREMENT / scale);
+        for (int i = 0; i < levelIds.length; i++) {
+            int total = counts[i];
+            int[] xs = new int[total];
+            for (int j = 0; j < total; j++) {
+                xs[j] = 150 + (levelPixelWidth / (total + 1) * (j + 1));
+            }
+            int level = firstLevel + i;
+            layout.setLevel(level, y + (level - topLevelToDraw) * levelHeight,
+                    levelIds[i], xs, total);
         }
+        return layout;
+    }
 
-        drawFromBottomToTop(
-                bottomLevelToDraw,
-                y
-                        + ((bottomLevelToDraw - topLevelToDraw) * 3 * (int) (CONSTANT_VERTICAL_INCREMENT / scale)),
-                MaxLevelPixelWidth);
-
-        if (id == getFirstUsefulNode()) {
-            nodeMap.get(id).setLocation(150 + (MaxLevelPixelWidth / 2), y);
+    /**
+     * @return true if the given node is not drawn in level mode because it is
+     *         hidden by the current collapse mode
+     */
+    private boolean isHiddenInLevel(StapData data) {
+        if (data.isOnlyChildWithThisName()) {
+            return false;
         }
+        return collapseMode ? data.isPartOfCollapsedNode() : data.isCollapsed;
     }
 
-    private void drawFromBottomToTop(int level, int height,
-            int maxLevelPixelWidth) {
-
-        // FINISHED DRAWING THE ROOT IN THE LAST RECURSIVE CALL
-        if (level == 0 || level < topLevelToDraw) {
+    /**
+     * Creates figures for the nodes of the level layout that are in view and
+     * disposes the figures of the nodes that have left the view. If more than
+     * maxNodes nodes are in view, runs of adjacent nodes on a level are shown
+     * as a single summary node instead.
+     *
+     * @param animate
+     *            - whether new nodes should move out from the root
+     */
+    private void updateVisibleNodes(boolean animate) {
+        cullingScheduled = false;
+        if (levelLayout == null || isDisposed()) {
             return;
         }
 
-        // FIND ALL THE CHILDREN AT LEVEL 'level'
-        int total = levels.get(level).remove(0);
-        int count = 1;
+        Viewport viewport = getViewport();
+        Point origin = viewport.getViewLocation();
+        Dimension size = viewport.getSize();
+        int left = origin.x - CULLING_MARGIN;
+        int right = origin.x + size.width + CULLING_MARGIN;
+        int top = origin.y - CULLING_MARGIN;
+        int bottom = origin.y + size.height + CULLING_MARGIN;
+
+        // FIND THE NODES IN VIEW ON EACH LEVEL
+        int firstLevel = levelLayout.getFirstLevel();
+        int lastLevel = levelLayout.getLastLevel();
+        int[] from = new int[Math.max(0, lastLevel - firstLevel + 1)];
+        int[] to = new int[from.length];
+        int total = 0;
+        for (int level = firstLevel; level <= lastLevel; level++) {
+            int i = level - firstLevel;
+            int y = levelLayout.getY(level);
+            if (y >= top && y <= bottom) {
+                from[i] = levelLayout.indexOf(level, left);
+                to[i] = levelLayout.indexOf(level, right + 1);
+                total += to[i] - from[i];
+            }
+        }
+        // NUMBER OF ADJACENT NODES SHOWN AS ONE WHEN THERE ARE TOO MANY
+        int groupSize = maxNodes > 0 ? Math.max(1, (total + maxNodes - 1) / maxNodes) : 1;
 
-        // CREATE THE NODES
-        for (int i = 0; i < levels.get(level).size(); i++) {
-            int id = levels.get(level).get(i);
+        for (GraphNode n : summaryNodes) {
+            n.dispose();
+        }
+        summaryNodes.clear();
 
-            StapData data = nodeDataMap.get(id);
-            if (!data.isOnlyChildWithThisName()) {
-                if (collapseMode && data.isPartOfCollapsedNode()) {
-                    continue;
+        Set<Integer> visible = new HashSet<>();
+        visible.add(rootVisibleNodeNumber);
+        for (int level = firstLevel; level <= lastLevel; level++) {
+            int i = level - firstLevel;
+            if (groupSize == 1) {
+                for (int j = from[i]; j < to[i]; j++) {
+                    visible.add(levelLayout.getId(level, j));
                 }
-                if (!collapseMode && nodeDataMap.get(id).isCollapsed) {
+                continue;
+            }
+            for (int j = from[i]; j < to[i]; j += groupSize) {
+                int count = Math.min(groupSize, to[i] - j);
+                if (count == 1) {
+                    visible.add(levelLayout.getId(level, j));
                     continue;
                 }
+                GraphNode summary = new GraphNode(this, SWT.NONE, count
+                        + Messages.getString("StapGraph.Calls")); //$NON-NLS-1$
+                summary.setLocation(levelLayout.getX(level, j),
+                        levelLayout.getY(level));
+                summaryNodes.add(summary);
             }
+        }
 
-            if (nodeMap.get(id) == null) {
-                nodeMap.put(id, getNodeData(id).makeNode(this));
+        // DISPOSE THE NODES THAT LEFT THE VIEW
+        Iterator<Entry<Integer, StapNode>> it = nodeMap.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<Integer, StapNode> entry = it.next();
+            if (!visible.contains(entry.getKey())) {
+                entry.getValue().dispose();
+                it.remove();
             }
+        }
 
-            StapNode n = nodeMap.get(id);
-
-            n.setVisible(true);
-            n.setSize(n.getSize().width / scale, n.getSize().height / scale);
-            // Placement algorithm
-            if (getAnimationMode() == CONSTANT_ANIMATION_SLOW) {
-
-                if (counter <= ANIMATION_TIME) {
-                    Animation.markBegin();
+        // CREATE THE NODES THAT ENTERED THE VIEW, PARENTS FIRST
+        StapNode root = nodeMap.get(rootVisibleNodeNumber);
+        List<StapNode> added = new ArrayList<>();
+        List<Point> targets = new ArrayList<>();
+        for (int level = firstLevel; level <= lastLevel; level++) {
+            int i = level - firstLevel;
+            for (int j = from[i]; j < to[i]; j++) {
+                int id = levelLayout.getId(level, j);
+                if (!visible.contains(id) || nodeMap.get(id) != null) {
+                    continue;
+                }
+                // The constructor connects the node to its caller
+                StapNode n = getNodeData(id).makeNode(this);
+                nodeMap.put(id, n);
+                n.setSize(n.getSize().width / scale, n.getSize().height / scale);
+
+                // IF WE CANNOT DISPLAY ALL NODES COLOUR NODES ON BOTTOM THAT
+                // STILL HAVE CHILDREN
+                if (level == bottomLevelToDraw
+                        && nodeDataMap.get(id).children.size() != 0) {
+                    n.setBackgroundColor(CONSTANT_HAS_CHILDREN);
                 }
-                n.setLocation(150 + (nodeMap.get(getRootVisibleNodeNumber())
-                        .getLocation().x),
-                        nodeMap.get(getRootVisibleNodeNumber()).getLocation().y);
-                n.setLocation(150 + (maxLevelPixelWidth / (total + 1) * count),
-                        height);
-
-                if (counter <= ANIMATION_TIME) {
-                    Animation.run(ANIMATION_TIME / nodeMap.size() / 3);
-                    counter += ANIMATION_TIME / nodeMap.size();
+                if (getNodeData(id).isMarked()) {
+                    n.setBackgroundColor(CONSTANT_MARKED);
                 }
 
-            } else {
-                n.setLocation(150 + (maxLevelPixelWidth / (total + 1) * count),
-                        height);
-            }
+                // RECONNECT CALLEES WHOSE CONNECTION WAS DISPOSED WITH THIS NODE
+                List<Integer> setOfCallees = collapseMode ? nodeDataMap.get(id).collapsedChildren
+                        : nodeDataMap.get(id).children;
+                for (int val : setOfCallees) {
+                    StapNode callee = nodeMap.get(val);
+                    if (callee != null && (callee.connection == null
+                            || callee.connection.isDisposed())) {
+                        callee.makeConnection(SWT.NONE, n,
+                                nodeDataMap.get(val).timesCalled);
+                    }
+                }
 
-            // IF WE CANNOT DISPLAY ALL NODES COLOUR NODES ON BOTTOM THAT STILL
-            // HAVE CHILDREN
-            if (level == bottomLevelToDraw
-                    && nodeDataMap.get(id).children.size() != 0) {
-                n.setBackgroundColor(CONSTANT_HAS_CHILDREN);
+                Point target = new Point(levelLayout.getX(level, j), levelLayout.getY(level));
+                if (animate && root != null) {
+                    n.setLocation(root.getLocation().x, root.getLocation().y);
+                    added.add(n);
+                    targets.add(target);
+                } else {
+                    n.setLocation(target.x, target.y);
+                }
             }
+        }
 
-            if (getNodeData(n.id).isMarked()) {
-                n.setBackgroundColor(CONSTANT_MARKED);
+        if (!added.isEmpty()) {
+            Animation.markBegin();
+            for (int i = 0; i < added.size(); i++) {
+                added.get(i).setLocation(targets.get(i).x, targets.get(i).y);
             }
+            Animation.run(ANIMATION_TIME);
+        }
+    }
 
-            // FIND ALL THE NODES THAT THIS NODE CALLS AND MAKE CONNECTIONS
-            List<Integer> setOfCallees = null;
-            if (collapseMode) {
-                setOfCallees = nodeDataMap.get(id).collapsedChildren;
-            } else {
-                setOfCallees = nodeDataMap.get(id).children;
-            }
+    /**
+     * Updates the nodes in view once the view has stopped moving.
+     */
+    private void scheduleCulling() {
+        if (cullingScheduled || levelLayout == null || isDisposed()) {
+            return;
+        }
+        cullingScheduled = true;
+        getDisplay().timerExec(CULLING_DELAY, () -> updateVisibleNodes(false));
+    }
 
-            for (int val : setOfCallees) {
-                if (nodeMap.get(val) != null) {
-                    nodeMap.get(val).makeConnection(SWT.NONE, n,
-                            nodeDataMap.get(val).timesCalled);
-                }
+    /**
+     * @return The ids of the nodes in the current view. In level mode this
+     *         includes the nodes that are laid out but scrolled out of view.
+     */
+    public Set<Integer> getNodesInView() {
+        if (draw_mode != CONSTANT_DRAWMODE_LEVEL || levelLayout == null) {
+            return nodeMap.keySet();
+        }
+        Set<Integer> ids = new HashSet<>(nodeMap.keySet());
+        for (int level = levelLayout.getFirstLevel(); level <= levelLayout
+                .getLastLevel(); level++) {
+            for (int i = 0; i < levelLayout.getSize(level); i++) {
+                ids.add(levelLayout.getId(level, i));
             }
-
-            count++;
         }
-        // DRAW THE NEXT LEVEL UP
-        drawFromBottomToTop(level - 1, height
-                - (3 * (int) (CONSTANT_VERTICAL_INCREMENT / scale)),
-                maxLevelPixelWidth);
+        return ids;
     }
 
     /*
@@ -859,6 +1006,17 @@ public class StapGraph extends Graph {
             aggregateNodes.clear();
         }
 
+        // -------------Delete level mode summary nodes
+        for (GraphNode n : summaryNodes) {
+            n.dispose();
+        }
+        summaryNodes.clear();
+        if (extentNode != null) {
+            extentNode.dispose();
+            extentNode = null;
+        }
+        levelLayout = null;
+
         // -------------Save exception node's location
         int x = -1;
         int y = -1;
@@ -971,6 +1129,13 @@ public class StapGraph extends Graph {
     }
 
     public boolean changeLevelLimits(int lvl) {
+        // Level mode only creates figures for the nodes in view. The other
+        // modes are already bounded: tree mode by the depth limit below,
+        // radial mode by CONSTANT_MAX_NUMBER_OF_RADIAL_SIBLINGS and aggregate
+        // mode by the number of distinct functions.
+        if (draw_mode == CONSTANT_DRAWMODE_LEVEL) {
+            return false;
+        }
         int numberOfNodes = 0;
         List<Integer> list;
 
@@ -1203,18 +1368,42 @@ public class StapGraph extends Graph {
      * Uncollapsed nodes, however, will not have a list of collapsed nodes
      * attached.
      *
+     * The descendants are visited depth first with an explicit stack rather
+     * than through recursion, so that deep call chains cannot overflow the
+     * stack of the UI thread.
+     *
      * @param ID
      *            of node to start from (use getFirstUsefulNode() to collapse
      *            everything
      * @return True if successful
      */
     public boolean recursivelyCollapseAllChildrenOfNode(int id) {
-        // -------------Initialize
-        // If all nodes have been collapsed, don't do anything
         setCollapseMode(true);
 
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(id);
+        while (!pending.isEmpty()) {
+            List<Integer> collapsedChildren = collapseChildrenOfNode(pending.pop());
+            // Push in reverse so that children are visited in order
+            for (int i = collapsedChildren.size() - 1; i >= 0; i--) {
+                pending.push(collapsedChildren.get(i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collapses the children of node id, and puts them in the
+     * collapsedCallees list of id.
+     *
+     * @param id
+     *            of the node whose children to collapse
+     * @return The collapsed children of id, which still have to be collapsed
+     */
+    private List<Integer> collapseChildrenOfNode(int id) {
+        // -------------Initialize
         if (nodeDataMap.get(id).children.size() == 0) {
-            return true;
+            return Collections.emptyList();
         }
         // Name, id
         HashMap<String, Integer> newNodeMap = new HashMap<>();
@@ -1335,15 +1524,11 @@ public class StapGraph extends Graph {
             }
         }
 
-        // -------------Finish iterations
-        for (int i : nodeDataMap.get(id).collapsedChildren) {
-            recursivelyCollapseAllChildrenOfNode(i);
-        }
-
         collapsedNodesWithOnlyOneNodeInThem.clear();
         newNodeMap.clear();
 
-        return true;
+        // -------------Finish iterations
+        return nodeDataMap.get(id).collapsedChildren;
     }
 
     /**
@@ -10,20 +10,18 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.callgraph;
 import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.eclipse.cdt.core.model.CoreModel;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.linuxtools.internal.callgraph.core.MappedTextFile;
 import org.eclipse.linuxtools.internal.callgraph.core.SystemTapParser;
 import org.eclipse.linuxtools.internal.callgraph.core.SystemTapUIErrorMessages;
 import org.eclipse.swt.widgets.Display;
@@ -36,17 +34,14 @@ import org.eclipse.swt.widgets.Shell;
  *
  * After a stap command is sent to be executed, and after data is stored
  * into some temporary file, the data must be parsed to be used. This class
- * handles all of the parsing. All data is stored into Maps and this class
- * also starts the job responsible for taking the parsed data and rendering it.
+ * handles all of the parsing. The calls are stored into {@link CallRecords},
+ * the per function data into Maps, and this class also starts the job
+ * responsible for taking the parsed data and rendering it.
  */
 public class StapGraphParser extends SystemTapParser {
 
-    public Map<Integer, Long> timeMap;
-    public Map<Integer, String> serialMap;
-    public Map<Integer, HashMap<Integer, ArrayList<Integer>>> neighbourMaps;
     public Map<String, Long> aggregateTimeMap;
     public Map<String, Integer> countMap;
-    public List<Integer> callOrderList;
     public Map<Integer, String> markedMap;
     public Long endingTimeInNS;
     public long totalTime;
@@ -55,11 +50,27 @@ public class StapGraphParser extends SystemTapParser {
     private static final String DELIM = ",,"; //$NON-NLS-1$
 
     private boolean encounteredMain = false;
-    private List<Integer> shouldGetEndingTimeForID = new ArrayList <>();
 
-    private Map<Integer, List<String>> nameMaps;
-    private Map<Integer, List<Integer>> idMaps;
+    /**
+     * All calls of the trace, including their interned function names.
+     */
+    private CallRecords records;
+    /**
+     * The calls that have not returned yet, by thread id.
+     */
+    private Map<Integer, CallStack> callStacks;
+    /**
+     * Whether a call is the outermost call of its function on its thread,
+     * and so contributes its duration to the aggregate time, by row.
+     */
+    private BitSet outermostCalls;
+    /**
+     * Aggregate time and call count, by name id.
+     */
+    private long[] aggregateTimes = new long[0];
+    private int[] counts = new int[0];
     private boolean skippedDirectives = false;
+    private boolean expectProjectName = false;
     private int firstNode = -1;
 
     public long startTime = -1;
@@ -67,17 +78,14 @@ public class StapGraphParser extends SystemTapParser {
     @Override
     protected void initialize() {
         //INITIALIZE MAPS
-        neighbourMaps = new HashMap<>();
-        timeMap = new HashMap<>();
-        serialMap = new TreeMap<>();
         aggregateTimeMap = new HashMap<>();
         countMap = new HashMap<>();
         endingTimeInNS = 0l;
-        callOrderList = new ArrayList<>();
         markedMap = new HashMap<>();
         lastFunctionMap = new HashMap<>();
-        nameMaps = new HashMap<>();
-        idMaps = new HashMap<>();
+        records = new CallRecords();
+        callStacks = new HashMap<>();
+        outermostCalls = new BitSet();
         project = null;
         startTime = -1;
     }
@@ -86,51 +94,57 @@ public class StapGraphParser extends SystemTapParser {
     @Override
     public IStatus nonRealTimeParsing(){
         //Clear maps (in case a previous execution left values hanging)
-        neighbourMaps.clear();
-        timeMap.clear();
-        serialMap.clear();
         aggregateTimeMap.clear();
         countMap.clear();
-        callOrderList.clear();
-        shouldGetEndingTimeForID.clear();
-        nameMaps.clear();
-        idMaps.clear();
+        records.clear();
+        callStacks.clear();
+        outermostCalls.clear();
+        aggregateTimes = new long[0];
+        counts = new int[0];
         encounteredMain = false;
         skippedDirectives = false;
+        expectProjectName = false;
         firstNode = -1;
         startTime = -1;
 
         BufferedReader buff = null;
         try {
-            buff = new BufferedReader(new FileReader(sourcePath));
-        } catch (FileNotFoundException e1) {
+            buff = MappedTextFile.open(sourcePath).newReader();
+        } catch (IOException e1) {
             Display.getDefault().asyncExec(() -> MessageDialog.openError(new Shell(), Messages.getString("StapGraphParser.FileNotFound"),  //$NON-NLS-1$
 			        Messages.getString("StapGraphParser.CouldNotOpen") + sourcePath)); //$NON-NLS-1$
             return Status.CANCEL_STATUS;
         }
         internalData = buff;
-        return realTimeParsing();
+        try {
+            return realTimeParsing();
+        } finally {
+            try {
+                buff.close();
+            } catch (IOException e) {
+                // Do nothing
+            }
+        }
     }
 
 
     private void parseEnd() {
 
         //CHECK FOR EXIT() CALL
-        for (Map.Entry<Integer, List<Integer>> entry : idMaps.entrySet()) {
-            List<Integer> idList = entry.getValue();
+        for (Map.Entry<Integer, CallStack> entry : callStacks.entrySet()) {
+            CallStack stack = entry.getValue();
             int lastFunctionCalled = lastFunctionMap.get(entry.getKey());
-            if (idList.size() > 1) {
-                for (int val : idList) {
-                    String name = serialMap.get(val);
-                    long time = endingTimeInNS - timeMap.get(val);
-                    timeMap.put(val, time);
+            if (stack.size > 1) {
+                for (int i = 0; i < stack.size; i++) {
+                    int row = stack.rows[i];
+                    int val = records.getId(row);
+                    records.setEnd(row, endingTimeInNS);
+                    long time = records.getTime(row);
                     if (val == firstNode) {
                         showTime(val, time);
                     }
-                    if (shouldGetEndingTimeForID.contains(val)) {
-                        long cumulativeTime = aggregateTimeMap.get(name)
-                                + endingTimeInNS;
-                        aggregateTimeMap.put(name, cumulativeTime);
+                    if (outermostCalls.get(row)) {
+                        aggregateTimes[records.getNameId(row)] += endingTimeInNS;
                     }
 
                     lastFunctionCalled = val;
@@ -145,18 +159,19 @@ public class StapGraphParser extends SystemTapParser {
                                         + "\n" + Messages.getString("StapGraphParser.Term")); //$NON-NLS-1$ //$NON-NLS-2$
             }
         }
+        publishAggregates();
 
         //timecheck is true if the total execution time is less than 10ms
         //and the first function is more than 1% off from the total time.
         boolean timeCheck = totalTime < 50000000 &&
-                            (((float)timeMap.get(firstNode)/totalTime) > 1.01 ||
-                            ((float)timeMap.get(firstNode)/totalTime) < 0.99);
+                            (((float)getTime(firstNode)/totalTime) > 1.01 ||
+                            ((float)getTime(firstNode)/totalTime) < 0.99);
 
         /*
          * Indicate whether or not we had to manipulate total time, and why
          */
         if (skippedDirectives || timeCheck) {
-            totalTime = timeMap.get(firstNode);
+            totalTime = getTime(firstNode);
             String markedMessage = ""; //$NON-NLS-1$
             if (markedMap.containsKey(firstNode)) {
                 markedMessage = markedMap.get(firstNode) + "\n"; //$NON-NLS-1$
@@ -182,11 +197,11 @@ public class StapGraphParser extends SystemTapParser {
 
         int key = Integer.parseInt(parsed[0]);
 
-        List<Integer> idList = idMaps.get(key);
-        if (idList == null || msg.length() < 1 || idList.size() < 1) {
+        CallStack stack = callStacks.get(key);
+        if (stack == null || msg.length() < 1 || stack.size < 1) {
             return;
         }
-        int id = idList.get(idList.size() -1);
+        int id = records.getId(stack.rows[stack.size - 1]);
         if (parsed[1].equals("<unknown>")) { //$NON-NLS-1$
             parsed[1] = parsed[1] + Messages.getString("StapGraphParser.UnknownMarkers"); //$NON-NLS-1$
         }
@@ -207,7 +222,7 @@ public class StapGraphParser extends SystemTapParser {
                  *
                  *
                  */
-                String[] args = s.substring(1, s.length()).split(DELIM);
+                String[] args = splitArgs(s);
                 // args[0] = name
                 // args[1] = id
                 // arsg[2] = time of event
@@ -223,19 +238,10 @@ public class StapGraphParser extends SystemTapParser {
                     break;
                 }
 
-                List<String> nameList = nameMaps.get(tid);
-                if (nameList == null) {
-                    nameList = new ArrayList<>();
-                }
-
-                List<Integer> idList = idMaps.get(tid);
-                if (idList == null) {
-                    idList = new ArrayList<>();
-                }
-
-                HashMap<Integer, ArrayList<Integer>> outNeighbours = neighbourMaps.get(tid);
-                if (outNeighbours == null) {
-                    outNeighbours = new HashMap<>();
+                CallStack stack = callStacks.get(tid);
+                if (stack == null) {
+                    stack = new CallStack();
+                    callStacks.put(tid, stack);
                 }
 
                 if (startTime < 1) {
@@ -243,7 +249,9 @@ public class StapGraphParser extends SystemTapParser {
                 }
                 endingTimeInNS=time;
 
-                name = cleanFunctionName(name);
+                int nameId = records.intern(cleanFunctionName(name));
+                name = records.getName(nameId);
+                ensureNameCapacity(nameId);
                 if (name.equals("main")) { //$NON-NLS-1$
                     encounteredMain = true;
                 }
@@ -251,50 +259,20 @@ public class StapGraphParser extends SystemTapParser {
                     firstNode = id;
                 }
 
-                serialMap.put(id, name);
-                timeMap.put(id, time);
-
-                if (aggregateTimeMap.get(name) == null){
-                    aggregateTimeMap.put(name, (long) 0);
-                }
+                int parentID = stack.size > 0 ? records.getId(stack.rows[stack.size - 1]) : CallRecords.NO_PARENT;
+                int row = records.add(id, parentID, tid, nameId, time);
 
                 //IF THERE ARE PREVIOUS FUNCTIONS WITH THE SAME NAME
                 //WE ARE IN ONE OF THEM SO DO NOT ADD TO CUMULATIVE TIME
-
-
-                if (nameList.indexOf(name) == -1) {
-                    long cumulativeTime = aggregateTimeMap.get(name) - time;
-                    aggregateTimeMap.put(name, cumulativeTime);
-                    shouldGetEndingTimeForID.add(id);
+                if (stack.openCount(nameId) == 0) {
+                    aggregateTimes[nameId] -= time;
+                    outermostCalls.set(row);
                 }
 
-
-                if (countMap.get(name) == null){
-                    countMap.put(name, 0);
-                }
-                countMap.put(name, countMap.get(name) + 1);
-
-                nameList.add(name);
-                idList.add(id);
-
-
-                if (outNeighbours.get(id) == null){
-                    outNeighbours.put(id, new ArrayList<Integer>());
-                }
-
-                if (idList.size() > 1) {
-                    int parentID = idList.get(idList.size() - 2);
-                    outNeighbours.get(parentID).add(id);
-                }
-
-
-                callOrderList.add(id);
+                counts[nameId]++;
+                stack.push(row, nameId);
                 lastFunctionMap.put(tid,id);
 
-                neighbourMaps.put(tid, outNeighbours);
-                nameMaps.put(tid, nameList);
-                idMaps.put(tid, idList);
-
                 break;
             case '>' :
 
@@ -304,22 +282,13 @@ public class StapGraphParser extends SystemTapParser {
                  *
                  */
 
-                args = s.substring(1, s.length()).split(DELIM);
+                args = splitArgs(s);
                 //args[0] = name
                 //args[1] = time of event
                 name = args[0];
                 tid = Integer.parseInt(args[2]);
 
-                nameList = nameMaps.get(tid);
-                if (nameList == null) {
-                    nameList = new ArrayList<>();
-                }
-
-                idList = idMaps.get(tid);
-                if (idList == null) {
-                    idList = new ArrayList<>();
-                }
-
+                stack = callStacks.get(tid);
 
                 //If we haven't encountered a main function yet and the name isn't clean,
                 //and the name contains "__", then this is probably a C directive
@@ -329,37 +298,29 @@ public class StapGraphParser extends SystemTapParser {
                 }
 
                 name = cleanFunctionName(name);
-                int lastOccurance = nameList.lastIndexOf(name);
+                nameId = records.getNameId(name);
+                int lastOccurance = stack != null && nameId >= 0 ? stack.lastIndexOf(nameId) : -1;
                 if (lastOccurance < 0) {
                     parsingError(Messages.getString("StapGraphParser.RetMismatch") + name); //$NON-NLS-1$
                     return Status.CANCEL_STATUS;
                 }
 
-                nameList.remove(lastOccurance);
-                id = idList.remove(lastOccurance);
-
+                row = stack.remove(lastOccurance);
+                id = records.getId(row);
 
-                if (timeMap.get(id) == null) {
-                    parsingError(Messages.getString("StapGraphParser.NoStartTime") + name); //$NON-NLS-1$
-                    return Status.CANCEL_STATUS;
-                }
                 endingTimeInNS=Long.parseLong(args[1]);
-                time = endingTimeInNS - timeMap.get(id);
-                timeMap.put(id, time);
+                records.setEnd(row, endingTimeInNS);
+                time = records.getTime(row);
                 if (id == firstNode) {
                     showTime(id, time);
                 }
 
 
-                //IF AN ID IS IN THIS ARRAY IT IS BECAUSE WE NEED THE ENDING TIME
+                //IF A CALL IS MARKED OUTERMOST IT IS BECAUSE WE NEED THE ENDING TIME
                 // TO BE ADDED TO THE CUMULATIVE TIME FOR FUNCTIONS OF THIS NAME
-                if (shouldGetEndingTimeForID.contains(id)){
-                    long cumulativeTime = aggregateTimeMap.get(name) + Long.parseLong(args[1]);
-                    aggregateTimeMap.put(name, cumulativeTime);
+                if (outermostCalls.get(row)){
+                    aggregateTimes[nameId] += endingTimeInNS;
                 }
-
-                nameMaps.put(tid, nameList);
-                idMaps.put(tid, idList);
                 break;
             default :
                 /*
@@ -390,9 +351,10 @@ public class StapGraphParser extends SystemTapParser {
     private IStatus parseDotFile() {
         BufferedReader buff = internalData;
 
-        HashMap <Integer, ArrayList<Integer>> outNeighbours= new HashMap<>();
-        ArrayList<String> nameList = new ArrayList<>();
-        ArrayList<Integer> idList = new ArrayList<>();
+        //Connections may name a node before it is declared, so they are
+        //applied once all the nodes are read
+        int[] connections = new int[16];
+        int connectionCount = 0;
         endingTimeInNS =0l;
         totalTime=10000l;
         try {
@@ -412,13 +374,15 @@ public class StapGraphParser extends SystemTapParser {
                 if (args[0].contains("->")) { //$NON-NLS-1$
                     //connection
                     int[] ids = new int[2];
-                    int called = 1;
                     try {
                         ids[0] = Integer.parseInt(args[0].split("->")[0]); //$NON-NLS-1$
                         ids[1] = Integer.parseInt(args[0].split("->")[1]); //$NON-NLS-1$
-                        int index1 = args[1].indexOf("=\""); //$NON-NLS-1$
-                        int index2 = args[1].indexOf("\"]"); //$NON-NLS-1$
-                        called = Integer.parseInt(args[1].substring(index1 + 2,index2));
+                        if (args.length > 1 && args[1].contains("=\"")) { //$NON-NLS-1$
+                            int index1 = args[1].indexOf("=\""); //$NON-NLS-1$
+                            int index2 = args[1].indexOf("\"]"); //$NON-NLS-1$
+                            //The call count is only validated, each node is loaded once
+                            Integer.parseInt(args[1].substring(index1 + 2,index2));
+                        }
                     } catch (NumberFormatException e) {
                         SystemTapUIErrorMessages m = new SystemTapUIErrorMessages(
                                 Messages.getString("StapGraphParser.idOrLabel"), Messages.getString("StapGraphParser.idOrLabel"),  //$NON-NLS-1$ //$NON-NLS-2$
@@ -428,16 +392,11 @@ public class StapGraphParser extends SystemTapParser {
                     }
 
                     //Set neighbour
-                    ArrayList<Integer> tmpList = outNeighbours.get(ids[0]);
-                    if (tmpList == null) {
-                        tmpList = new ArrayList<>();
-                    }
-
-                    for (int i = 0; i < called; i++) {
-                        tmpList.add(ids[1]);
+                    if (connectionCount + 2 > connections.length) {
+                        connections = Arrays.copyOf(connections, connections.length * 2);
                     }
-
-                    outNeighbours.put(ids[0], tmpList);
+                    connections[connectionCount++] = ids[0];
+                    connections[connectionCount++] = ids[1];
                 } else {
                     //node
                     try {
@@ -446,22 +405,16 @@ public class StapGraphParser extends SystemTapParser {
                             firstNode = id;
                         }
                         int index = args[1].indexOf("=\""); //$NON-NLS-1$
-                        String name = args[1].substring(index + 2, args[1].indexOf(' ', index));
+                        int nameId = records.intern(args[1].substring(index + 2, args[1].indexOf(' ', index)));
                         double dtime = 0.0;
                         dtime = Double.parseDouble(args[1].substring(args[1].indexOf(' ') + 1, args[1].indexOf('%')));
                         long time = (long) (dtime*100);
 
-                        nameList.add(name);
-                        idList.add(id);
-                        timeMap.put(id, time);
-                        serialMap.put(id, name);
-                        if (countMap.get(name) == null){
-                            countMap.put(name, 0);
-                        }
-                        countMap.put(name, countMap.get(name) + 1);
-
-                        long cumulativeTime = (aggregateTimeMap.get(name) != null ? aggregateTimeMap.get(name) : 0) + time;
-                        aggregateTimeMap.put(name, cumulativeTime);
+                        int row = records.add(id, CallRecords.NO_PARENT, 0, nameId, 0);
+                        records.setEnd(row, time);
+                        ensureNameCapacity(nameId);
+                        counts[nameId]++;
+                        aggregateTimes[nameId] += time;
                     } catch (NumberFormatException e) {
                         SystemTapUIErrorMessages m = new SystemTapUIErrorMessages(
                                 Messages.getString("StapGraphParser.idOrTime"), Messages.getString("StapGraphParser.idOrTime"),  //$NON-NLS-1$ //$NON-NLS-2$
@@ -483,11 +436,15 @@ public class StapGraphParser extends SystemTapParser {
                 //Do nothing
             }
         }
-        neighbourMaps.put(0, outNeighbours);
-        nameMaps.put(0, nameList);
-        idMaps.put(0, idList);
+        for (int i = 0; i < connectionCount; i += 2) {
+            int row = records.indexOf(connections[i + 1]);
+            if (row >= 0) {
+                records.setParent(row, connections[i]);
+            }
+        }
+        publishAggregates();
         try {
-            view.update();
+            updateView();
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
@@ -507,6 +464,18 @@ public class StapGraphParser extends SystemTapParser {
                 if (monitor.isCanceled()) {
                     return Status.CANCEL_STATUS;
                 }
+                //The line following PROBE_BEGIN may name the project
+                if (expectProjectName) {
+                    expectProjectName = false;
+                    if (line.length() < 1) {
+                        continue;
+                    }
+                    char tchar = line.charAt(0);
+                    if (tchar != '-' && tchar != '+' && tchar != '?' && tchar != '>' && tchar != '<') {
+                        project = CoreModel.getDefault().getCModel().getCProject(line);
+                        continue;
+                    }
+                }
                 if (line.length() < 1) {
                     continue;
                 }
@@ -517,18 +486,7 @@ public class StapGraphParser extends SystemTapParser {
 
                 draw = true;
                 if (line.equals("PROBE_BEGIN")) { //$NON-NLS-1$
-                    buff.mark(100);
-                    String tmp = buff.readLine();
-
-                    if (tmp != null && tmp.length() > 0) {
-                        char tchar = tmp.charAt(0);
-                        if (tchar != '-' && tchar != '+' && tchar != '?' && tchar != '>' && tchar != '<') {
-                            project = CoreModel.getDefault().getCModel().getCProject(tmp);
-                        } else {
-                            buff.reset();
-                        }
-                    }
-
+                    expectProjectName = true;
                 } else if (line.charAt(0) == '-') {
                     endingTimeInNS = Long.parseLong(line.substring(1));
                 } else if (line.charAt(0) == '+') {
@@ -545,10 +503,9 @@ public class StapGraphParser extends SystemTapParser {
                     }
                 }
             }
-            if (draw && view != null) {
-                view.update();
-                //Repeat until all lines are read
-                realTimeParsing();
+            if (draw) {
+                publishAggregates();
+                updateView();
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -559,6 +516,64 @@ public class StapGraphParser extends SystemTapParser {
         return Status.OK_STATUS;
     }
 
+    /**
+     * Splits the fields of an entry or return line, skipping the leading tag character.
+     */
+    private static String[] splitArgs(String s) {
+        int count = 1;
+        for (int i = s.indexOf(DELIM, 1); i >= 0; i = s.indexOf(DELIM, i + DELIM.length())) {
+            count++;
+        }
+        String[] args = new String[count];
+        int start = 1;
+        for (int i = 0; i < count - 1; i++) {
+            int end = s.indexOf(DELIM, start);
+            args[i] = s.substring(start, end);
+            start = end + DELIM.length();
+        }
+        args[count - 1] = s.substring(start);
+        return args;
+    }
+
+    private void ensureNameCapacity(int nameId) {
+        if (nameId >= counts.length) {
+            int capacity = Math.max(16, Math.max(nameId + 1, counts.length * 2));
+            counts = Arrays.copyOf(counts, capacity);
+            aggregateTimes = Arrays.copyOf(aggregateTimes, capacity);
+        }
+    }
+
+    /**
+     * Copies the aggregate time and call count of each function to
+     * {@link #aggregateTimeMap} and {@link #countMap}.
+     */
+    private void publishAggregates() {
+        for (int nameId = 0; nameId < records.getNameCount(); nameId++) {
+            String name = records.getName(nameId);
+            aggregateTimeMap.put(name, aggregateTimes[nameId]);
+            countMap.put(name, counts[nameId]);
+        }
+    }
+
+    /**
+     * @return The compact record of all calls parsed so far.
+     */
+    public CallRecords getCallRecords() {
+        return records;
+    }
+
+    /**
+     * @return Whether the calls were made by more than one thread.
+     */
+    public boolean isThreaded() {
+        return callStacks.size() > 1;
+    }
+
+    private long getTime(int id) {
+        int row = records.indexOf(id);
+        return row >= 0 ? records.getTime(row) : 0;
+    }
+
     /**
      * Mark node id with a message giving its actual time.
      */
@@ -572,5 +587,60 @@ public class StapGraphParser extends SystemTapParser {
                 + Messages.getString("StapGraphParser.TimeUnits")); //$NON-NLS-1$
     }
 
+    /**
+     * The rows of the calls of one thread that have not returned yet, along
+     * with the number of such calls per function name.
+     */
+    private static class CallStack {
+        private int[] rows = new int[16];
+        private int[] nameIds = new int[16];
+        private int size;
+        private int[] openCounts = new int[16];
+
+        private void push(int row, int nameId) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                nameIds = Arrays.copyOf(nameIds, size * 2);
+            }
+            rows[size] = row;
+            nameIds[size++] = nameId;
+            if (nameId >= openCounts.length) {
+                openCounts = Arrays.copyOf(openCounts, Math.max(nameId + 1, openCounts.length * 2));
+            }
+            openCounts[nameId]++;
+        }
+
+        private int openCount(int nameId) {
+            return nameId < openCounts.length ? openCounts[nameId] : 0;
+        }
+
+        /**
+         * Returns the index of the most recent call with the given name,
+         * or -1 if none is open.
+         */
+        private int lastIndexOf(int nameId) {
+            if (openCount(nameId) == 0) {
+                return -1;
+            }
+            for (int i = size - 1; i >= 0; i--) {
+                if (nameIds[i] == nameId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
 
+        /**
+         * Removes the call at the given index of the stack.
+         * @return The row of the removed call.
+         */
+        private int remove(int index) {
+            int row = rows[index];
+            openCounts[nameIds[index]]--;
+            System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+            System.arraycopy(nameIds, index + 1, nameIds, index, size - index - 1);
+            size--;
+            return row;
+        }
+    }
 }
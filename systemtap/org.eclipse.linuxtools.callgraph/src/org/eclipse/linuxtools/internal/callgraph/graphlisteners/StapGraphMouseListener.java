@@ -97,12 +97,13 @@ public class StapGraphMouseListener implements MouseListener {
         graph.removeMouseMoveListener(listener);
         graph.removeListener(SWT.MouseExit, exitListener);
 
-        List<StapNode> list = graph.getSelection();
+        List<GraphNode> list = graph.getSelection();
 
         if (list.size() == 1) {
             int id;
-            if (list.get(0) != null) {
-                id = list.get(0).id;
+            // Summary nodes of level mode are plain GraphNodes
+            if (list.get(0) instanceof StapNode) {
+                id = ((StapNode) list.get(0)).id;
             } else {
                 graph.setSelection(null);
                 return;
@@ -112,7 +113,7 @@ public class StapGraphMouseListener implements MouseListener {
             // ------------Highlighting
             if (graph.getDrawMode() == StapGraph.CONSTANT_DRAWMODE_TREE
                     || graph.getDrawMode() == StapGraph.CONSTANT_DRAWMODE_LEVEL) {
-                for (StapNode n : (List<StapNode>) graph.getNodes()) {
+                for (StapNode n : graph.nodeMap.values()) {
                     unhighlightall(n);
                 }
 
@@ -138,7 +139,7 @@ public class StapGraphMouseListener implements MouseListener {
             }
 
         } else if (list.size() == 0 && ! (graph.getDrawMode() == StapGraph.CONSTANT_DRAWMODE_AGGREGATE)) {
-            for (StapNode n : (List<StapNode>) graph.getNodes()) {
+            for (StapNode n : graph.nodeMap.values()) {
                 unhighlightall(n);
             }
 
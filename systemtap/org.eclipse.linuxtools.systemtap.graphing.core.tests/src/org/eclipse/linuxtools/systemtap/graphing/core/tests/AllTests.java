@@ -11,6 +11,7 @@
 
 package org.eclipse.linuxtools.systemtap.graphing.core.tests;
 
+import org.eclipse.linuxtools.systemtap.graphing.core.tests.adapters.ScrollAdapterTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.aggregates.AverageAggregateTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.aggregates.CountAggregateTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.aggregates.MaxAggregateTest;
@@ -24,18 +25,23 @@ import org.eclipse.linuxtools.systemtap.graphing.core.tests.datasets.table.Filte
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.datasets.table.TableDataSetTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.datasets.table.TableEntryTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.datasets.table.TableParserTest;
+import org.eclipse.linuxtools.systemtap.graphing.core.tests.filters.FilterChainTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.filters.MatchFilterTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.filters.RangeFilterTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.filters.SortFilterTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.filters.UniqueFilterTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.structures.ChartStreamDaemonTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.structures.NumberTypeTest;
+import org.eclipse.linuxtools.systemtap.graphing.core.tests.structures.SlidingWindowExtremeTest;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.structures.UpdateManagerTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({// Aggregates
+@Suite.SuiteClasses({// Adapters
+        ScrollAdapterTest.class,
+
+        // Aggregates
         AverageAggregateTest.class,
         CountAggregateTest.class,
         MaxAggregateTest.class,
@@ -56,11 +62,11 @@ import org.junit.runners.Suite;
         TableParserTest.class,
 
         // Filters
-        MatchFilterTest.class, RangeFilterTest.class, SortFilterTest.class,
+        FilterChainTest.class, MatchFilterTest.class, RangeFilterTest.class, SortFilterTest.class,
         UniqueFilterTest.class,
 
         // Structures
         ChartStreamDaemonTest.class, NumberTypeTest.class,
-        UpdateManagerTest.class })
+        SlidingWindowExtremeTest.class, UpdateManagerTest.class })
 public class AllTests {
 }
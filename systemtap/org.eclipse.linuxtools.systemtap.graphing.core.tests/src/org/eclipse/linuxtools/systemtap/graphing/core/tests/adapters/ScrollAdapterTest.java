@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.tests.adapters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.adapters.ScrollAdapter;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScrollAdapterTest {
+
+    @Before
+    public void setUp() {
+        data = new RowDataSet(new String[] {"a"});
+        adapter = new ScrollAdapter(data, -1, new int[] {0}, null);
+    }
+
+    private void append(int value) {
+        RowEntry entry = new RowEntry();
+        entry.putRow(0, new Object[] {Integer.valueOf(value)});
+        data.append(entry);
+    }
+
+    @Test
+    public void testSeriesMaxAfterAppend() {
+        append(9);
+        append(1);
+        assertEquals(9, adapter.getYSeriesMax(0, 0, 2).intValue());
+        append(12);
+        assertEquals(12, adapter.getYSeriesMax(0, 0, 3).intValue());
+        assertEquals(12, adapter.getYSeriesMax(0, 1, 3).intValue());
+    }
+
+    @Test
+    public void testSeriesMaxAfterRemove() {
+        append(9);
+        append(1);
+        assertEquals(9, adapter.getYSeriesMax(0, 0, 2).intValue());
+        // the last value read is the same instance after this change
+        data.remove(0);
+        append(1);
+        assertEquals(1, adapter.getYSeriesMax(0, 0, 2).intValue());
+    }
+
+    @Test
+    public void testModificationCount() {
+        append(9);
+        long count = data.getModificationCount();
+        append(1);
+        assertEquals(count, data.getModificationCount());
+        data.remove(0);
+        assertNotEquals(count, data.getModificationCount());
+    }
+
+    private RowDataSet data;
+    private ScrollAdapter adapter;
+}
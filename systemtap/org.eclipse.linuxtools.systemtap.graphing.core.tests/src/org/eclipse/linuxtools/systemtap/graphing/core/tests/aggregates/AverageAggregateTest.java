@@ -14,6 +14,7 @@ package org.eclipse.linuxtools.systemtap.graphing.core.tests.aggregates;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.AggregateAccumulator;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.AverageAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.tests.MockDataSet;
 import org.junit.Test;
@@ -51,6 +52,21 @@ public class AverageAggregateTest {
         assertEquals(1.0/3.0, num.doubleValue(), 0.0);
     }
 
+    @Test
+    public void testAggregateAccumulator() {
+        AverageAggregate aa = new AverageAggregate();
+        AggregateAccumulator acc = new AggregateAccumulator();
+        assertNull(aa.aggregate(acc, Double.valueOf(0)));
+
+        acc.add(1);
+        acc.add(-2);
+        acc.add(Long.valueOf(3));
+        acc.add(0);
+        Number num = aa.aggregate(acc, Double.valueOf(0));
+        assertEquals(0.5, num.doubleValue(), 0.0);
+        assertEquals(Double.class, num.getClass());
+    }
+
     @Test
     public void testGetID() {
         AverageAggregate aa = new AverageAggregate();
@@ -11,12 +11,18 @@
 
 package org.eclipse.linuxtools.systemtap.graphing.core.tests.datasets.row;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowDataSet;
@@ -106,9 +112,39 @@ public class RowDataSetTest  {
         assertEquals(-1, new RowDataSet(null).getColCount());
     }
     @Test
-    public void testReadFromFile() {}
+    public void testReadFromFile() throws IOException {
+        File file = File.createTempFile("dataset", null); //$NON-NLS-1$
+        try {
+            Files.write(file.toPath(), (data.getID() + "\n" + "a, b, c, \n1, 2, 3, \n4, 5, 6, \n") //$NON-NLS-1$ //$NON-NLS-2$
+                    .getBytes(StandardCharsets.UTF_8));
+            RowDataSet read = new RowDataSet(new String[] {"a", "b", "c"});
+            assertTrue(read.readFromFile(file));
+            assertEquals(2, read.getEntryCount());
+            assertArrayEquals(data.getEntry(1).getData(), read.getEntry(1).getData());
+        } finally {
+            file.delete();
+        }
+    }
     @Test
-    public void testWriteToFile() {}
+    public void testWriteToFile() throws IOException {
+        File file = File.createTempFile("dataset", null); //$NON-NLS-1$
+        try {
+            for (int i = 0; i < 10000; i++) {
+                RowEntry entry = new RowEntry();
+                entry.putRow(0, new String[] {Integer.toString(i * 7 - 500), "text " + i, null});
+                data.setData(entry);
+            }
+            assertTrue(data.writeToFile(file));
+            RowDataSet read = new RowDataSet(new String[] {"a", "b", "c"});
+            assertTrue(read.readFromFile(file));
+            assertEquals(data.getEntryCount(), read.getEntryCount());
+            for (int i = 0; i < data.getEntryCount(); i++) {
+                assertArrayEquals(data.getEntry(i).getData(), read.getEntry(i).getData());
+            }
+        } finally {
+            file.delete();
+        }
+    }
     @Test
     public void testGetID() {
         assertEquals(RowDataSet.ID, data.getID());
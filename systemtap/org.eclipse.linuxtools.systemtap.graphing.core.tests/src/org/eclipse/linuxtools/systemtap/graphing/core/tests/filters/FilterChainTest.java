@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.tests.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.SumAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.FilterChain;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.IDataSetFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.MatchFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.RangeFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.UniqueFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.tests.MockDataSet;
+import org.junit.Test;
+
+public class FilterChainTest {
+    @Test
+    public void testApply() {
+        ArrayList<Object>[] data = MockDataSet.buildArray(3, 12, 4);
+        List<IDataSetFilter> filters = Arrays.asList(
+                new RangeFilter(0, 1, 3, RangeFilter.INSIDE_BOUNDS | RangeFilter.INCLUSIVE),
+                new MatchFilter(1, "0", MatchFilter.REMOVE_MATCHING));
+        FilterChain chain = new FilterChain();
+
+        List<Object>[] data2 = chain.apply(filters, head(data, 8), -1);
+        assertEquals(-1, chain.getFirstChangedRow());
+        assertEquals(4, data2[0].size());
+
+        data2 = chain.apply(filters, data, 8);
+        assertEquals(4, chain.getFirstChangedRow());
+        assertEquals(6, data2[0].size());
+        assertEquals("1", data2[0].get(0));
+        assertEquals("2", data2[0].get(1));
+        assertEquals("1", data2[0].get(4));
+        assertEquals("2", data2[0].get(5));
+    }
+
+    @Test
+    public void testApplyNotAppendOnly() {
+        ArrayList<Object>[] data = MockDataSet.buildArray(3, 12, 4);
+        List<IDataSetFilter> filters = Arrays.asList(
+                new UniqueFilter(0, new SumAggregate()),
+                new MatchFilter(0, "0", MatchFilter.REMOVE_MATCHING));
+        FilterChain chain = new FilterChain();
+
+        chain.apply(filters, head(data, 8), -1);
+        List<Object>[] data2 = chain.apply(filters, data, 8);
+        assertEquals(-1, chain.getFirstChangedRow());
+        assertEquals(3, data2[0].size());
+    }
+
+    private static List<Object>[] head(List<Object>[] data, int rows) {
+        List<Object>[] head = MockDataSet.createArrayList(data.length, new Object());
+        for(int i=0; i<head.length; i++) {
+            head[i] = new ArrayList<>(data[i].subList(0, rows));
+        }
+        return head;
+    }
+}
@@ -14,6 +14,7 @@ package org.eclipse.linuxtools.systemtap.graphing.core.tests.filters;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -59,6 +60,25 @@ public class MatchFilterTest  {
         assertNull(filter.filter(data));
     }
     @Test
+    public void testFilterAppended() {
+        ArrayList<Object>[] data = MockDataSet.buildArray(2, 10, 3);
+        MatchFilter filter = new MatchFilter(0, "1", MatchFilter.KEEP_MATCHING);
+
+        List<Object>[] head = MockDataSet.createArrayList(2, new Object());
+        for(int i=0; i<head.length; i++) {
+            head[i] = new ArrayList<>(data[i].subList(0, 5));
+        }
+        List<Object>[] data2 = filter.filterAppended(head, 0);
+        assertEquals(2, data2[0].size());
+
+        data2 = filter.filterAppended(data, 5);
+        assertEquals(3, data2[0].size());
+        assertEquals(data[1].get(1), data2[1].get(0));
+        assertEquals(data[1].get(4), data2[1].get(1));
+        assertEquals(data[1].get(7), data2[1].get(2));
+        assertTrue(filter.isAppendOnly());
+    }
+    @Test
     public void testGetID() {
         MatchFilter filter = new MatchFilter(0, "", MatchFilter.KEEP_MATCHING);
         assertEquals(MatchFilter.ID, filter.getID());
@@ -12,6 +12,7 @@
 package org.eclipse.linuxtools.systemtap.graphing.core.tests.filters;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -90,6 +91,22 @@ public class SortFilterTest {
         assertNotNull(filter.filter(data));
     }
     @Test
+    public void testFilterAppended() {
+        ArrayList<Object>[] data = MockDataSet.buildArray(2, 10, 3);
+        List<Object>[] expected = new SortFilter(0, SortFilter.ASCENDING).filter(data);
+
+        List<Object>[] head = MockDataSet.createArrayList(2, new Object());
+        for(int i=0; i<head.length; i++) {
+            head[i] = new ArrayList<>(data[i].subList(0, 6));
+        }
+        filter.filter(head);
+        List<Object>[] data2 = filter.filterAppended(data, 6);
+
+        assertEquals(expected[0], data2[0]);
+        assertEquals(expected[1], data2[1]);
+        assertFalse(filter.isAppendOnly());
+    }
+    @Test
     public void testGetID() {
         assertEquals(SortFilter.ID, filter.getID());
     }
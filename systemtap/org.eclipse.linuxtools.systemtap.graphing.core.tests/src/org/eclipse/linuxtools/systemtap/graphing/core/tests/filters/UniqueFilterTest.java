@@ -74,6 +74,28 @@ public class UniqueFilterTest  {
         assertNotNull(filter.filter(data));
     }
     @Test
+    public void testFilterAppended() {
+        ArrayList<Object>[] data = MockDataSet.buildArray(4, 10, 3);
+        List<Object>[] expected = new UniqueFilter(0, new SumAggregate()).filter(data);
+
+        List<Object>[] head = MockDataSet.createArrayList(4, new Object());
+        for(int i=0; i<head.length; i++) {
+            head[i] = new ArrayList<>(data[i].subList(0, 4));
+        }
+        filter.filter(head);
+        List<Object>[] data2 = filter.filterAppended(data, 4);
+
+        for(int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], data2[i]);
+        }
+
+        // A mismatching first row falls back to filtering everything
+        data2 = filter.filterAppended(data, 2);
+        for(int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], data2[i]);
+        }
+    }
+    @Test
     public void testGetID() {
         assertEquals(UniqueFilter.ID, filter.getID());
     }
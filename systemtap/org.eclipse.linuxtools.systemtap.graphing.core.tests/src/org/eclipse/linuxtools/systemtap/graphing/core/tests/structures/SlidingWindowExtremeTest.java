@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.tests.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.structures.SlidingWindowExtreme;
+import org.junit.Test;
+
+public class SlidingWindowExtremeTest {
+    @Test
+    public void testMax() {
+        SlidingWindowExtreme window = new SlidingWindowExtreme(true);
+        assertTrue(window.isEmpty());
+
+        double[] values = {3, 1, 4, 1, 5, 9, 2, 6};
+        for (int i = 0; i < values.length; i++) {
+            window.add(i, values[i]);
+        }
+        assertEquals(9, window.get(), 0);
+
+        window.removeBefore(6);
+        assertEquals(6, window.get(), 0);
+
+        window.removeBefore(8);
+        assertTrue(window.isEmpty());
+    }
+
+    @Test
+    public void testMin() {
+        SlidingWindowExtreme window = new SlidingWindowExtreme(false);
+        double[] values = {3, 1, 4, 1, 5, 9, 2, 6};
+        for (int i = 0; i < values.length; i++) {
+            window.add(i, values[i]);
+        }
+        assertEquals(1, window.get(), 0);
+
+        window.removeBefore(4);
+        assertEquals(2, window.get(), 0);
+
+        window.clear();
+        assertTrue(window.isEmpty());
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        Random random = new Random(0);
+        double[] values = new double[1000];
+        SlidingWindowExtreme window = new SlidingWindowExtreme(true);
+        int width = 50;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian();
+            window.add(i, values[i]);
+            window.removeBefore(i - width + 1);
+            assertFalse(window.isEmpty());
+
+            double max = Double.NEGATIVE_INFINITY;
+            for (int j = Math.max(0, i - width + 1); j <= i; j++) {
+                max = Math.max(max, values[j]);
+            }
+            assertEquals(max, window.get(), 0);
+        }
+    }
+}
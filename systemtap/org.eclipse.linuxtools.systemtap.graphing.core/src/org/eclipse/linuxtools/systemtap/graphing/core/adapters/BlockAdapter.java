@@ -12,6 +12,8 @@
 package org.eclipse.linuxtools.systemtap.graphing.core.adapters;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IBlockDataSet;
@@ -30,22 +32,16 @@ public class BlockAdapter implements IAdapter {
     }
 
     @Override
-    public Number getSeriesMax(int series, int start, int end) {
+    public synchronized Number getSeriesMax(int series, int start, int end) {
         if(start < 0 || end > data.getRowCount() || start > end)
             return null;
 
-        Number max = new Double(Double.NEGATIVE_INFINITY);
-        Number cur;
-
-        Object[] dataColumn = data.getColumn(series, start, end);
-        for(int i=0; i<dataColumn.length; i++) {
-            try {
-                cur = new Double(Double.parseDouble(dataColumn[i].toString()));
-                if(max.doubleValue() < cur.doubleValue())
-                    max = cur;
-            } catch (NumberFormatException e) {}
+        SeriesMaximum max = maxima.get(Integer.valueOf(series));
+        if(max == null) {
+            max = new SeriesMaximum();
+            maxima.put(Integer.valueOf(series), max);
         }
-        return max;
+        return max.get(start, end, data.getModificationCount(), (s, e) -> data.getColumn(series, s, e));
     }
 
     @Override
@@ -84,7 +80,7 @@ public class BlockAdapter implements IAdapter {
         Object[] row;
         for(int j,i=0; i<o.length; i++) {
             row = data.getRow(i+start);
-            o[i][0] = (IDataSet.COL_ROW_NUM == xSeries) ? Integer.valueOf(i) : row[xSeries];
+            o[i][0] = (IDataSet.COL_ROW_NUM == xSeries) ? Integer.valueOf(i+start) : row[xSeries];
 
             for(j=0; j<ySeries.length; j++)
                 o[i][j+1] = row[ySeries[j]];
@@ -96,4 +92,5 @@ public class BlockAdapter implements IAdapter {
     private IBlockDataSet data;
     private int xSeries;
     private int[] ySeries;
+    private Map<Integer, SeriesMaximum> maxima = new HashMap<>();
 }
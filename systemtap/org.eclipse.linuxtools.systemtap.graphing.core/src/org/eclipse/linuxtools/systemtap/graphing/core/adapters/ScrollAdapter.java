@@ -12,6 +12,8 @@
 package org.eclipse.linuxtools.systemtap.graphing.core.adapters;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataSet;
@@ -31,22 +33,16 @@ public class ScrollAdapter implements IAdapter {
     }
 
     @Override
-    public Number getSeriesMax(int series, int start, int end) {
+    public synchronized Number getSeriesMax(int series, int start, int end) {
         if(start < 0 || end > data.getRowCount() || start > end)
             return null;
 
-        Number max = new Double(Double.NEGATIVE_INFINITY);
-        Number cur;
-
-        Object[] dataColumn = data.getHistoricalData(key, series, start, end);
-        for(int i=0; i<dataColumn.length; i++) {
-            try {
-                cur = new Double(Double.parseDouble(dataColumn[i].toString()));
-                if(max.doubleValue() < cur.doubleValue())
-                    max = cur;
-            } catch (NumberFormatException e) {}
+        SeriesMaximum max = maxima.get(Integer.valueOf(series));
+        if(max == null) {
+            max = new SeriesMaximum();
+            maxima.put(Integer.valueOf(series), max);
         }
-        return max;
+        return max.get(start, end, data.getModificationCount(), (s, e) -> data.getHistoricalData(key, series, s, e));
     }
 
     @Override
@@ -83,7 +79,7 @@ public class ScrollAdapter implements IAdapter {
         Object[][] o = new Object[Math.min(end-start,getRecordCount())][ySeries.length+1];
 
         Object[] x = data.getHistoricalData(key, xSeries, start, end);
-        Object[][] y = new Object[ySeries.length][data.getEntryCount()];
+        Object[][] y = new Object[ySeries.length][];
 
         for(int i=0; i<ySeries.length; i++)
             y[i] = data.getHistoricalData(key, ySeries[i], start, end);
@@ -100,5 +96,6 @@ public class ScrollAdapter implements IAdapter {
     private IHistoricalDataSet data;
     private int xSeries;
     private int[] ySeries;
+    private Map<Integer, SeriesMaximum> maxima = new HashMap<>();
     private String key;
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.adapters;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.structures.SlidingWindowExtreme;
+
+/**
+ * The maximum of a range of one series of a dataset. When the range only moves
+ * forward between calls, only the values that entered it are read.
+ */
+final class SeriesMaximum {
+    /**
+     * Reads a range of the series.
+     */
+    interface SeriesReader {
+        Object[] read(int start, int end);
+    }
+
+    /**
+     * @param start The first row of the range.
+     * @param end The row after the last row of the range.
+     * @param modificationCount The modification count of the data set, or -1
+     * if it is unknown, in which case the whole range is read.
+     * @param reader Reads values of the series.
+     *
+     * @return The maximum of the range, or negative infinity if no values are numbers.
+     */
+    Number get(int start, int end, long modificationCount, SeriesReader reader) {
+        Object[] values = null;
+        int index = start;
+        // The rows already read are unchanged if the data set was only appended to since.
+        if(modificationCount != -1 && modificationCount == this.modificationCount
+                && start >= windowStart && end >= windowEnd && start < windowEnd) {
+            values = reader.read(windowEnd, end);
+            index = windowEnd;
+        }
+        if(values == null) {
+            index = start;
+            window.clear();
+            values = reader.read(start, end);
+            if(values == null) {
+                return null;
+            }
+        }
+
+        for(int i=0; i<values.length; i++) {
+            double value = toDouble(values[i]);
+            if(!Double.isNaN(value)) {
+                window.add(index + i, value);
+            }
+        }
+        this.modificationCount = modificationCount;
+        window.removeBefore(start);
+        windowStart = start;
+        windowEnd = index + values.length;
+
+        return Double.valueOf(window.isEmpty() ? Double.NEGATIVE_INFINITY : window.get());
+    }
+
+    private static double toDouble(Object o) {
+        if(o instanceof Number) {
+            return ((Number) o).doubleValue();
+        }
+        if(o == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(o.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private final SlidingWindowExtreme window = new SlidingWindowExtreme(true);
+    private int windowStart;
+    private int windowEnd;
+    private long modificationCount = -1;
+}
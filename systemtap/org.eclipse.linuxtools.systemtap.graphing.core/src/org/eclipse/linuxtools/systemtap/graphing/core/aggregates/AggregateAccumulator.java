@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.aggregates;
+
+/**
+ * Keeps the count, sum, minimum and maximum of a stream of numbers. Each value
+ * is accounted for in constant time, so an aggregate over a growing column
+ * never has to revisit the values it has already seen.
+ * @since 2.2
+ */
+public class AggregateAccumulator {
+    /**
+     * Accounts for one more value.
+     *
+     * @param value The value to add.
+     */
+    public void add(Number value) {
+        add(value.doubleValue());
+    }
+
+    /**
+     * Accounts for one more value.
+     *
+     * @param value The value to add.
+     */
+    public void add(double value) {
+        count++;
+        sum += value;
+        if(min > value) {
+            min = value;
+        }
+        if(max < value) {
+            max = value;
+        }
+    }
+
+    /**
+     * Forgets all values added so far.
+     */
+    public void clear() {
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getAverage() {
+        return sum / count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    private int count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+}
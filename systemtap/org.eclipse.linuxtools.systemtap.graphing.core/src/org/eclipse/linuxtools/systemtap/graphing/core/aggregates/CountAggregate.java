@@ -11,7 +11,7 @@
 
 package org.eclipse.linuxtools.systemtap.graphing.core.aggregates;
 
-public class CountAggregate implements IDataAggregate {
+public class CountAggregate implements IStreamingDataAggregate {
 
     /**
      * Ensure column isn't empty, then get the count of the column's values.
@@ -35,6 +35,18 @@ public class CountAggregate implements IDataAggregate {
         return Integer.valueOf(num);
     }
 
+    /**
+     * @since 2.2
+     */
+    @Override
+    public Number aggregate(AggregateAccumulator accumulator, Number type) {
+        if(accumulator == null || accumulator.getCount() == 0) {
+            return null;
+        }
+
+        return Integer.valueOf(accumulator.getCount());
+    }
+
     @Override
     public String getID() {
         return ID;
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.aggregates;
+
+/**
+ * An aggregate that can be computed from an {@link AggregateAccumulator}
+ * instead of the whole column of values.
+ * @since 2.2
+ */
+public interface IStreamingDataAggregate extends IDataAggregate {
+    /**
+     * Get the aggregate of all values added to the accumulator.
+     *
+     * @param accumulator The accumulator holding the column's values.
+     * @param type A value of the column, giving the type of the result.
+     *
+     * @return The aggregate, or <code>null</code> if no values were added.
+     */
+    Number aggregate(AggregateAccumulator accumulator, Number type);
+}
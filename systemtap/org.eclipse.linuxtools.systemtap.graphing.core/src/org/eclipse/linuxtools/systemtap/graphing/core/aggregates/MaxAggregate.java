@@ -13,7 +13,7 @@ package org.eclipse.linuxtools.systemtap.graphing.core.aggregates;
 
 import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
 
-public class MaxAggregate implements IDataAggregate {
+public class MaxAggregate implements IStreamingDataAggregate {
 
     /**
      * Ensure column isn't empty, then get the maximum of all the column's values.
@@ -39,6 +39,18 @@ public class MaxAggregate implements IDataAggregate {
         return NumberType.getNumber(column[0], num);
     }
 
+    /**
+     * @since 2.2
+     */
+    @Override
+    public Number aggregate(AggregateAccumulator accumulator, Number type) {
+        if(accumulator == null || accumulator.getCount() == 0) {
+            return null;
+        }
+
+        return NumberType.getNumber(type, accumulator.getMax());
+    }
+
     @Override
     public String getID() {
         return ID;
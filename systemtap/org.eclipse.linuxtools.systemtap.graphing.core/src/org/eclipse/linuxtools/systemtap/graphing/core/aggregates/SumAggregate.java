@@ -13,7 +13,7 @@ package org.eclipse.linuxtools.systemtap.graphing.core.aggregates;
 
 import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
 
-public class SumAggregate implements IDataAggregate {
+public class SumAggregate implements IStreamingDataAggregate {
 
     /**
      * Ensure column isn't empty, then get the sum total of all the column's values.
@@ -37,6 +37,18 @@ public class SumAggregate implements IDataAggregate {
         return NumberType.getNumber(column[0], num);
     }
 
+    /**
+     * @since 2.2
+     */
+    @Override
+    public Number aggregate(AggregateAccumulator accumulator, Number type) {
+        if(accumulator == null || accumulator.getCount() == 0) {
+            return null;
+        }
+
+        return NumberType.getNumber(type, accumulator.getSum());
+    }
+
     @Override
     public String getID() {
         return ID;
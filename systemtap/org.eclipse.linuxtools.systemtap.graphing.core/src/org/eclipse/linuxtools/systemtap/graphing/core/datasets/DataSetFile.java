@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.datasets;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a data set saved by {@link DataSetWriter}.
+ *
+ * The file starts with a header holding the id of the data set and its
+ * column titles, followed by blocks of entries. Each block stores its
+ * entries column by column, optionally compressed, and is read straight from
+ * a memory mapping of the file. Reading stops at the first incomplete block,
+ * so a file can be read while it is still being written.
+ * @since 2.2
+ */
+public class DataSetFile implements Closeable {
+    static final int MAGIC = 0x53544453;
+    static final int FORMAT_VERSION = 1;
+    static final int END_OF_BLOCKS = 0;
+    static final byte FLAG_COMPRESSED = 1;
+    static final byte COLUMN_STRINGS = 0;
+    static final byte COLUMN_INTEGERS = 1;
+
+    private static final int BLOCK_HEADER_SIZE = 17;
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final String id;
+    private final String[] titles;
+    private final long firstBlock;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * @param file A file.
+     * @return <code>true</code> if the file holds a data set written by {@link DataSetWriter}.
+     */
+    public static boolean isDataSetFile(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a data set file and reads its header.
+     * @param file The file to read.
+     * @throws IOException If the file could not be read or is not a data set file.
+     */
+    public DataSetFile(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            ByteBuffer header = map(0, 12);
+            if (header == null || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException(file.getPath());
+            }
+            int headerSize = header.getInt();
+            ByteBuffer in = map(12, headerSize);
+            if (in == null) {
+                throw new IOException(file.getPath());
+            }
+            id = readString(in);
+            titles = new String[(int) readVarLong(in)];
+            for (int i = 0; i < titles.length; i++) {
+                titles[i] = readString(in);
+            }
+            firstBlock = 12L + headerSize;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+    }
+
+    public String getID() {
+        return id;
+    }
+
+    public String[] getTitles() {
+        return titles;
+    }
+
+    /**
+     * Reads all entries in the file.
+     * @param consumer Receives the rows of each entry, in the order they were written.
+     * @return The number of entries read.
+     * @throws IOException If the file is corrupt.
+     */
+    public int readEntries(Consumer<Object[][]> consumer) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            int count = 0;
+            long position = firstBlock;
+            while (true) {
+                ByteBuffer header = map(position, BLOCK_HEADER_SIZE);
+                if (header == null) {
+                    return count;
+                }
+                int entries = header.getInt();
+                if (entries == END_OF_BLOCKS) {
+                    return count;
+                }
+                int rows = header.getInt();
+                byte flags = header.get();
+                int rawLength = header.getInt();
+                int length = header.getInt();
+                ByteBuffer payload = map(position + BLOCK_HEADER_SIZE, length);
+                if (payload == null) {
+                    // The block is still being written.
+                    return count;
+                }
+                if ((flags & FLAG_COMPRESSED) != 0) {
+                    payload = inflate(inflater, payload, rawLength);
+                }
+                readBlock(payload, entries, rows, consumer);
+                count += entries;
+                position += BLOCK_HEADER_SIZE + length;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                | NegativeArraySizeException | DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void readBlock(ByteBuffer in, int entries, int rows, Consumer<Object[][]> consumer) {
+        int[] entryRows = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            entryRows[i] = (int) readVarLong(in);
+        }
+        int columns = (int) readVarLong(in);
+        Object[][] cells = new Object[rows][columns];
+        for (int col = 0; col < columns; col++) {
+            byte type = in.get();
+            if (type == COLUMN_INTEGERS) {
+                long value = 0;
+                for (int row = 0; row < rows; row++) {
+                    long zigzag = readVarLong(in);
+                    value += (zigzag >>> 1) ^ -(zigzag & 1);
+                    cells[row][col] = Long.toString(value);
+                }
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    cells[row][col] = readString(in);
+                }
+            }
+        }
+
+        int row = 0;
+        for (int count : entryRows) {
+            Object[][] entry = new Object[count][];
+            for (int i = 0; i < count; i++) {
+                entry[i] = cells[row++];
+            }
+            consumer.accept(entry);
+        }
+    }
+
+    private static ByteBuffer inflate(Inflater inflater, ByteBuffer payload, int rawLength)
+            throws DataFormatException {
+        byte[] input = new byte[payload.remaining()];
+        payload.get(input);
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(input);
+        int length = 0;
+        while (length < rawLength && !inflater.finished()) {
+            int inflated = inflater.inflate(raw, length, rawLength - length);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                throw new DataFormatException();
+            }
+            length += inflated;
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    /**
+     * Returns a buffer over a range of the file, remapping the window of the
+     * file that is mapped if the range is outside of it.
+     * @return The range, or <code>null</code> if the file ends before it does.
+     */
+    private ByteBuffer map(long position, int length) throws IOException {
+        if (length < 0 || position + length > size) {
+            return null;
+        }
+        if (window == null || position < windowStart
+                || position + length > windowStart + window.capacity()) {
+            long mapped = Math.min(size - position, Math.max(length, WINDOW_SIZE));
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+            windowStart = position;
+        }
+        ByteBuffer range = window.duplicate();
+        int start = (int) (position - windowStart);
+        range.limit(start + length);
+        range.position(start);
+        return range.slice();
+    }
+
+    private static String readString(ByteBuffer in) {
+        long length = readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (in.hasArray()) {
+            int start = in.arrayOffset() + in.position();
+            in.position(in.position() + (int) length);
+            return new String(in.array(), start, (int) length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
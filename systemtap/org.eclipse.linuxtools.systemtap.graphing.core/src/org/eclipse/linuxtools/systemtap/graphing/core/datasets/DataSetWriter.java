@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.datasets;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the entries of a data set to a file in the format read by
+ * {@link DataSetFile}, one block of entries at a time.
+ *
+ * Entries are buffered until a block is full and then written column by
+ * column, optionally compressed. Every complete block can be read while the
+ * file is still being written, so a data set can be saved as it is recorded.
+ * @since 2.2
+ */
+public class DataSetWriter implements Closeable {
+    private static final int BLOCK_ENTRIES = 4096;
+    private static final int BLOCK_ROWS = 16384;
+
+    private final DataOutputStream out;
+    private final boolean compress;
+    private final Deflater deflater;
+    private final List<Object[][]> entries = new ArrayList<>();
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private byte[] compressed = new byte[0];
+    private int rows;
+    private boolean closed;
+
+    /**
+     * Creates the file and writes its header.
+     * @param file The file to write. An existing file is replaced.
+     * @param id The id of the data set, as returned by {@link IDataSet#getID()}.
+     * @param titles The titles of the columns.
+     * @param compress Whether to compress the blocks of entries.
+     * @throws IOException If the file could not be written.
+     */
+    public DataSetWriter(File file, String id, String[] titles, boolean compress) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        this.compress = compress;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        try {
+            out.writeInt(DataSetFile.MAGIC);
+            out.writeInt(DataSetFile.FORMAT_VERSION);
+            writeString(block, id);
+            writeVarLong(block, titles.length);
+            for (String title : titles) {
+                writeString(block, title);
+            }
+            out.writeInt(block.size());
+            block.writeTo(out);
+            block.reset();
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds an entry to the file.
+     * @param entryRows The rows of the entry, as returned by {@link IDataEntry#getData()}.
+     * @throws IOException If the file could not be written.
+     */
+    public void write(Object[][] entryRows) throws IOException {
+        entries.add(entryRows);
+        rows += entryRows.length;
+        if (entries.size() >= BLOCK_ENTRIES || rows >= BLOCK_ROWS) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the entries added so far, so that they can be read from the file.
+     * @throws IOException If the file could not be written.
+     */
+    public void flush() throws IOException {
+        if (!entries.isEmpty()) {
+            writeBlock();
+            entries.clear();
+            rows = 0;
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the remaining entries and marks the end of the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            out.writeInt(DataSetFile.END_OF_BLOCKS);
+        } finally {
+            out.close();
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        int columns = 0;
+        for (Object[][] entry : entries) {
+            writeVarLong(block, entry.length);
+            for (Object[] row : entry) {
+                columns = Math.max(columns, row != null ? row.length : 0);
+            }
+        }
+        writeVarLong(block, columns);
+        for (int col = 0; col < columns; col++) {
+            writeColumn(col);
+        }
+
+        byte[] raw = block.toByteArray();
+        block.reset();
+        byte[] payload = raw;
+        int length = raw.length;
+        byte flags = 0;
+        if (compress) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            if (compressed.length < raw.length) {
+                compressed = new byte[raw.length];
+            }
+            length = deflater.deflate(compressed);
+            if (deflater.finished()) {
+                payload = compressed;
+                flags |= DataSetFile.FLAG_COMPRESSED;
+            } else {
+                // Compressing made the block larger; store it as it is.
+                length = raw.length;
+            }
+        }
+        out.writeInt(entries.size());
+        out.writeInt(rows);
+        out.writeByte(flags);
+        out.writeInt(raw.length);
+        out.writeInt(length);
+        out.write(payload, 0, length);
+    }
+
+    /**
+     * Writes one column of the current block. Columns holding only integers
+     * are written as differences between consecutive values, everything else
+     * as text.
+     */
+    private void writeColumn(int col) throws IOException {
+        boolean integers = true;
+        for (Object[][] entry : entries) {
+            for (Object[] row : entry) {
+                if (!isInteger(getCell(row, col))) {
+                    integers = false;
+                    break;
+                }
+            }
+            if (!integers) {
+                break;
+            }
+        }
+
+        if (integers) {
+            block.write(DataSetFile.COLUMN_INTEGERS);
+            long previous = 0;
+            for (Object[][] entry : entries) {
+                for (Object[] row : entry) {
+                    long value = Long.parseLong((String) getCell(row, col));
+                    long delta = value - previous;
+                    writeVarLong(block, (delta << 1) ^ (delta >> 63));
+                    previous = value;
+                }
+            }
+        } else {
+            block.write(DataSetFile.COLUMN_STRINGS);
+            for (Object[][] entry : entries) {
+                for (Object[] row : entry) {
+                    Object cell = getCell(row, col);
+                    writeString(block, cell != null ? cell.toString() : null);
+                }
+            }
+        }
+    }
+
+    private static Object getCell(Object[] row, int col) {
+        return row != null && col < row.length ? row[col] : null;
+    }
+
+    /**
+     * @return <code>true</code> if the value is a string holding a
+     * <code>long</code> exactly as {@link Long#toString(long)} would write it.
+     */
+    private static boolean isInteger(Object value) {
+        if (!(value instanceof String)) {
+            return false;
+        }
+        String s = (String) value;
+        int start = s.startsWith("-") ? 1 : 0; //$NON-NLS-1$
+        int length = s.length() - start;
+        if (length == 0 || length > 18 || (s.charAt(start) == '0' && (length > 1 || start == 1))) {
+            return false;
+        }
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(ByteArrayOutputStream buffer, String s) throws IOException {
+        if (s == null) {
+            writeVarLong(buffer, 0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(buffer, bytes.length + 1L);
+        buffer.write(bytes);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+}
@@ -30,5 +30,15 @@ public interface IDataSet {
     void setData(IDataEntry entry);
     boolean remove(IDataEntry entry);
 
+    /**
+     * @return A counter that changes whenever rows of this data set are
+     * removed, replaced or reordered, but not when rows are only appended,
+     * or -1 if the data set does not count its modifications.
+     * @since 2.2
+     */
+    default long getModificationCount() {
+        return -1;
+    }
+
     int COL_ROW_NUM = -1;
 }
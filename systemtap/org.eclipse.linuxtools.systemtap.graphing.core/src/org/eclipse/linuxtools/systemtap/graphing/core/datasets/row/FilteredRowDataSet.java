@@ -17,6 +17,7 @@ import java.util.List;
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.GraphingCorePlugin;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IFilteredDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.FilterChain;
 import org.eclipse.linuxtools.systemtap.graphing.core.filters.IDataSetFilter;
 
 public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
@@ -82,6 +83,12 @@ public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
         rebuildDataSet();
         return super.getEntry(entry);
     }
+
+    @Override
+    public long getModificationCount() {
+        rebuildDataSet();
+        return super.getModificationCount();
+    }
      //End overwrite to ensure the data returned has all the filters applied
 
     //IFilteredDataSet Methods
@@ -112,17 +119,25 @@ public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
     //End IFilteredDataSet Methods
 
     private void rebuildDataSet() {
-        IDataEntry top = original.getEntry(original.getEntryCount()-1);
-
-        if(filtersChanged || dataCount != original.getRowCount() || topData != top) {
-            dataCount = original.getRowCount();
+        int count = original.getRowCount();
+        IDataEntry top = original.getEntry(count-1);
+
+        if(filtersChanged || dataCount != count || topData != top) {
+            // Rows are only ever appended to the original set unless it shrank or its old top entry moved.
+            boolean appended = !filtersChanged && filterData != null && count > dataCount
+                    && original.getEntry(dataCount-1) == topData;
+            int firstNewRow = appended ? dataCount : -1;
+            filtersChanged = false;
+            dataCount = count;
             topData = top;
 
-            List<Object>[] filterData = getFilterData();
-            for(int i=0; i<filters.size(); i++) {
-                filterData = filters.get(i).filter(filterData);
+            if(appended) {
+                appendFilterData(firstNewRow);
+            } else {
+                filterData = getFilterData();
             }
-            setFilteredData(filterData);
+            List<Object>[] filteredData = chain.apply(filters, filterData, firstNewRow);
+            setFilteredData(filteredData, chain.getFirstChangedRow());
         }
     }
 
@@ -143,12 +158,30 @@ public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
         return data;
     }
 
-    private void setFilteredData(List<?>[] data) {
-        this.data = new ArrayList<>();
+    private void appendFilterData(int firstNewRow) {
+        Object[] row;
+        for(int j,i=firstNewRow; i<original.getRowCount(); i++) {
+            row = original.getRow(i);
+            for(j=0; j<filterData.length; j++) {
+                filterData[j].add(row[j]);
+            }
+        }
+    }
+
+    private void setFilteredData(List<?>[] data, int firstChangedRow) {
+        int first = firstChangedRow;
+        if(first < 0 || first > this.data.size() || this.data == original.data) {
+            this.data = new ArrayList<>();
+            first = 0;
+            modificationCount++;
+        } else if(first < this.data.size()) {
+            this.data.subList(first, this.data.size()).clear();
+            modificationCount++;
+        }
 
         RowEntry entry;
         Object[] row;
-        for(int j,i=0; i<data[0].size(); i++) {
+        for(int j,i=first; i<data[0].size(); i++) {
             row = new Object[data.length];
             entry = new RowEntry();
             for(j=0; j<data.length; j++) {
@@ -161,6 +194,8 @@ public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
 
     private RowDataSet original;
     private List<IDataSetFilter> filters;
+    private FilterChain chain = new FilterChain();
+    private ArrayList<Object>[] filterData;
 
     private boolean filtersChanged;
     private int dataCount;
@@ -13,15 +13,15 @@ package org.eclipse.linuxtools.systemtap.graphing.core.datasets.row;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.DataSetFile;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.DataSetWriter;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IHistoricalDataSet;
 
@@ -87,8 +87,24 @@ public class RowDataSet implements IHistoricalDataSet {
         return titles.length;
     }
 
+    /**
+     * Reads the entries of a data set saved by {@link #writeToFile(File)}.
+     * Files in the text format of earlier versions can still be read.
+     */
     @Override
     public boolean readFromFile(File file) {
+        if (DataSetFile.isDataSetFile(file)) {
+            try (DataSetFile in = new DataSetFile(file)) {
+                in.readEntries(rows -> {
+                    RowEntry entry = new RowEntry();
+                    entry.putRow(0, rows[0]);
+                    append(entry);
+                });
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
         try (FileReader fr = new FileReader(file);
             BufferedReader br = new BufferedReader(fr)){
             br.readLine();    //Skip the ID
@@ -106,33 +122,14 @@ public class RowDataSet implements IHistoricalDataSet {
         return false;
     }
 
+    /**
+     * Saves the data set in the binary format read by {@link DataSetFile}.
+     */
     @Override
     public boolean writeToFile(File file) {
-        try {
-            file.createNewFile();
-            try (FileOutputStream fos = new FileOutputStream(file);
-                    PrintStream ps = new PrintStream(fos)) {
-
-                String line = ""; //$NON-NLS-1$
-                Object[] dataRow;
-
-                // ID
-                ps.print(ID + "\n"); //$NON-NLS-1$
-
-                // Labels
-                int i, j;
-                for (i = 0; i < titles.length; i++)
-                    line += titles[i] + ", "; //$NON-NLS-1$
-                ps.print(line + "\n"); //$NON-NLS-1$
-
-                // Data
-                for (i = 0; i < getRowCount(); i++) {
-                    dataRow = getRow(i);
-                    line = ""; //$NON-NLS-1$
-                    for (j = 0; j < dataRow.length; j++)
-                        line += dataRow[j].toString() + ", "; //$NON-NLS-1$
-                    ps.print(line + "\n"); //$NON-NLS-1$
-                }
+        try (DataSetWriter writer = new DataSetWriter(file, ID, titles, true)) {
+            for (IDataEntry entry : data) {
+                writer.write(entry.getData());
             }
             return true;
         } catch (IOException e) {
@@ -181,6 +178,7 @@ public class RowDataSet implements IHistoricalDataSet {
 
     @Override
     public boolean remove(IDataEntry entry) {
+        modificationCount++;
         return data.remove(entry);
     }
 
@@ -189,9 +187,18 @@ public class RowDataSet implements IHistoricalDataSet {
         if(entry < 0 || entry >= data.size()) {
             return false;
         }
+        modificationCount++;
         return (null != data.remove(entry));
     }
 
+    /**
+     * @since 2.2
+     */
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
     @Override
     public IDataEntry getEntry(int entry) {
         if(entry < 0 || entry >= getEntryCount()) {
@@ -203,6 +210,10 @@ public class RowDataSet implements IHistoricalDataSet {
     //End IHistoricalDataSet Methods
 
     protected List<IDataEntry> data;
+    /**
+     * @since 2.2
+     */
+    protected long modificationCount;
     private String[] titles;
     public static final String ID = "org.eclipse.linuxtools.systemtap.graphing.core.datasets.rowdataset"; //$NON-NLS-1$
 }
@@ -17,6 +17,7 @@ import java.util.List;
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.GraphingCorePlugin;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IFilteredDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.FilterChain;
 import org.eclipse.linuxtools.systemtap.graphing.core.filters.IDataSetFilter;
 
 
@@ -94,6 +95,12 @@ public class FilteredTableDataSet extends TableDataSet implements IFilteredDataS
         rebuildDataSet();
         return super.getData();
     }
+
+    @Override
+    public long getModificationCount() {
+        rebuildDataSet();
+        return super.getModificationCount();
+    }
      //End overwrite to ensure the data returned has all the filters applied
 
     //IFilteredDataSet Methods
@@ -131,11 +138,8 @@ public class FilteredTableDataSet extends TableDataSet implements IFilteredDataS
             topData = top;
             historical = false;
 
-             List<Object>[] filterData = getFilterData();
-            for(int i=0; i<filters.size(); i++) {
-                filterData = filters.get(i).filter(filterData);
-            }
-            setFilteredData(filterData);
+            // Table entries replace the whole table, so every rebuild filters it from scratch.
+            setFilteredData(chain.apply(filters, getFilterData(), -1));
         }
     }
 
@@ -157,6 +161,7 @@ public class FilteredTableDataSet extends TableDataSet implements IFilteredDataS
 
     private void setFilteredData(List<Object>[] data) {
         this.data = new ArrayList<>();
+        modificationCount++;
 
         TableEntry entry = new TableEntry();
         Object[] row;
@@ -172,6 +177,7 @@ public class FilteredTableDataSet extends TableDataSet implements IFilteredDataS
 
     private TableDataSet original;
     private List<IDataSetFilter> filters;
+    private FilterChain chain = new FilterChain();
 
     private boolean filtersChanged;
     private int dataCount;
@@ -13,14 +13,14 @@ package org.eclipse.linuxtools.systemtap.graphing.core.datasets.table;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.DataSetFile;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.DataSetWriter;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IBlockDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IHistoricalDataSet;
@@ -48,8 +48,26 @@ public class TableDataSet implements IHistoricalDataSet, IBlockDataSet {
         return ID;
     }
 
+    /**
+     * Reads the entries of a data set saved by {@link #writeToFile(File)}.
+     * Files in the text format of earlier versions can still be read.
+     */
     @Override
     public boolean readFromFile(File file) {
+        if (DataSetFile.isDataSetFile(file)) {
+            try (DataSetFile in = new DataSetFile(file)) {
+                in.readEntries(rows -> {
+                    TableEntry entry = new TableEntry();
+                    for (Object[] row : rows) {
+                        entry.add(row);
+                    }
+                    append(entry);
+                });
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
         try (FileReader fr = new FileReader(file);
             BufferedReader br = new BufferedReader(fr)){
 
@@ -71,39 +89,14 @@ public class TableDataSet implements IHistoricalDataSet, IBlockDataSet {
         return false;
     }
 
+    /**
+     * Saves the data set in the binary format read by {@link DataSetFile}.
+     */
     @Override
     public boolean writeToFile(File file) {
-        try {
-            file.createNewFile();
-            try (FileOutputStream fos = new FileOutputStream(file);
-                    PrintStream ps = new PrintStream(fos)) {
-                StringBuilder b = new StringBuilder();
-
-                // ID
-                b.append(ID + "\n"); //$NON-NLS-1$
-
-                // Labels
-                int i, j, k;
-                for (i = 0; i < titles.length; i++) {
-                    b.append(titles[i] + ", "); //$NON-NLS-1$
-                }
-                b.append("\n"); //$NON-NLS-1$
-
-                // Data
-                TableEntry e;
-                Object[] o;
-                for (i = 0; i < data.size(); i++) {
-                    e = data.get(i);
-                    for (j = 0; j < e.getRowCount(); j++) {
-                        o = e.getRow(j);
-                        for (k = 0; k < o.length; k++) {
-                            b.append(o[k].toString() + ", "); //$NON-NLS-1$
-                        }
-                        b.append("\n"); //$NON-NLS-1$
-                    }
-                    b.append("\n"); //$NON-NLS-1$
-                }
-                ps.print(b.toString());
+        try (DataSetWriter writer = new DataSetWriter(file, ID, titles, true)) {
+            for (TableEntry entry : data) {
+                writer.write(entry.getData());
             }
             return true;
         } catch (IOException e) {
@@ -157,6 +150,7 @@ public class TableDataSet implements IHistoricalDataSet, IBlockDataSet {
 
     @Override
     public boolean remove(IDataEntry entry) {
+        modificationCount++;
         return data.remove(entry);
     }
     //End IDataSet Methods
@@ -165,6 +159,8 @@ public class TableDataSet implements IHistoricalDataSet, IBlockDataSet {
     @Override
     public void append(IDataEntry data) {
         if(data instanceof TableEntry) {
+            // the rows of the data set are those of its latest table
+            modificationCount++;
             this.data.add((TableEntry)data);
         }
     }
@@ -217,8 +213,17 @@ public class TableDataSet implements IHistoricalDataSet, IBlockDataSet {
         if(entry < 0 || entry >= data.size()) {
             return false;
         }
+        modificationCount++;
         return (null != data.remove(entry));
     }
+
+    /**
+     * @since 2.2
+     */
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
     //End IHistoricalDataSet Methods
 
     //IBlockDataSet Methods
@@ -230,5 +235,9 @@ public class TableDataSet implements IHistoricalDataSet, IBlockDataSet {
 
     public static final String ID = "org.eclipse.linuxtools.systemtap.graphing.core.datasets.tabledataset"; //$NON-NLS-1$
     protected List<TableEntry> data;
+    /**
+     * @since 2.2
+     */
+    protected long modificationCount;
     private String[] titles;
 }
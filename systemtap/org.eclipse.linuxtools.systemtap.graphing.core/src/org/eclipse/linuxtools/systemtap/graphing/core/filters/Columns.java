@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.filters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.linuxtools.internal.systemtap.graphing.core.GraphingCorePlugin;
+
+/**
+ * Helpers for building filtered datasets out of row index vectors.
+ */
+final class Columns {
+    private Columns() {
+    }
+
+    /**
+     * Creates a new dataset holding the given rows of the passed dataset, in order.
+     *
+     * @param data The dataset to select rows from.
+     * @param rows The indices of the rows to select.
+     *
+     * @return The new dataset.
+     */
+    static List<Object>[] select(List<Object>[] data, IndexVector rows) {
+        List<Object>[] newData = GraphingCorePlugin.createArrayList(data.length);
+        for (int i = 0; i < newData.length; i++) {
+            newData[i] = new ArrayList<>(rows.size());
+        }
+        appendRows(newData, data, rows, 0);
+        return newData;
+    }
+
+    /**
+     * Appends the rows of the passed dataset whose indices are held in
+     * <code>rows</code>, starting at position <code>from</code>, to <code>newData</code>.
+     */
+    static void appendRows(List<Object>[] newData, List<Object>[] data, IndexVector rows, int from) {
+        int[] indices = rows.array();
+        int size = rows.size();
+        for (int j = 0; j < data.length; j++) {
+            List<Object> src = data[j];
+            List<Object> dst = newData[j];
+            int srcSize = src.size();
+            for (int i = from; i < size; i++) {
+                if (indices[i] < srcSize) {
+                    dst.add(src.get(indices[i]));
+                }
+            }
+        }
+    }
+}
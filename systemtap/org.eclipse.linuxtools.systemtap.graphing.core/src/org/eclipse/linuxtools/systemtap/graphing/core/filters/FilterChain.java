@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.filters;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a list of filters to a dataset, one after the other. When the
+ * dataset only had rows appended since the previous run, each
+ * {@link IIncrementalDataSetFilter} only processes the new rows, for as long
+ * as the filters before it kept their output append-only.
+ * @since 2.2
+ */
+public class FilterChain {
+    /**
+     * Apply the filters to the passed dataset.
+     *
+     * @param filters The filters to apply, in order.
+     * @param data The dataset to filter.
+     * @param firstNewRow The index of the first row appended since the previous
+     * run of this chain with the same filters, or <code>-1</code> if the whole
+     * dataset has to be filtered again.
+     *
+     * @return The filtered dataset.
+     */
+    public List<Object>[] apply(List<IDataSetFilter> filters, List<Object>[] data, int firstNewRow) {
+        List<Object>[] filterData = data;
+        int firstChanged = firstNewRow;
+        if(firstChanged < 0) {
+            outputSizes.clear();
+        }
+        for(IDataSetFilter filter : filters) {
+            if(filterData == null) {
+                break;
+            }
+            if(firstChanged >= 0 && filter instanceof IIncrementalDataSetFilter) {
+                IIncrementalDataSetFilter incremental = (IIncrementalDataSetFilter) filter;
+                int previousSize = outputSize(incremental);
+                filterData = incremental.filterAppended(filterData, firstChanged);
+                firstChanged = incremental.isAppendOnly() ? previousSize : -1;
+            } else {
+                filterData = filter.filter(filterData);
+                firstChanged = -1;
+            }
+            if(filterData != null) {
+                outputSizes.put(filter, Integer.valueOf(filterData.length == 0 ? 0 : filterData[0].size()));
+            }
+        }
+        firstChangedRow = firstChanged;
+        return filterData;
+    }
+
+    /**
+     * @return The index of the first row of the last result of
+     * {@link #apply(List, List[], int)} that may differ from the result of the
+     * run before it, or <code>-1</code> if the whole result may differ.
+     */
+    public int getFirstChangedRow() {
+        return firstChangedRow;
+    }
+
+    private int outputSize(IDataSetFilter filter) {
+        Integer size = outputSizes.get(filter);
+        return size == null ? -1 : size.intValue();
+    }
+
+    private final Map<IDataSetFilter, Integer> outputSizes = new IdentityHashMap<>();
+    private int firstChangedRow = -1;
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.filters;
+
+import java.util.List;
+
+/**
+ * A filter that can bring its result up to date when rows are appended to
+ * its input, without re-examining the rows it has already processed.
+ * @since 2.2
+ */
+public interface IIncrementalDataSetFilter extends IDataSetFilter {
+    /**
+     * Apply the filter to a dataset of which only the rows starting at
+     * <code>firstNewRow</code> were appended since the last call to
+     * {@link #filter(List[])} or to this method. If the filter has not seen
+     * exactly <code>firstNewRow</code> rows so far, the whole dataset is filtered.
+     *
+     * @param data The dataset to filter.
+     * @param firstNewRow The index of the first appended row.
+     *
+     * @return The filtered dataset. The returned lists belong to the filter
+     * and are only valid until its next invocation.
+     */
+    List<Object>[] filterAppended(List<Object>[] data, int firstNewRow);
+
+    /**
+     * @return <code>true</code> if appending rows to the input of this filter
+     * can only ever append rows to its output.
+     */
+    boolean isAppendOnly();
+}
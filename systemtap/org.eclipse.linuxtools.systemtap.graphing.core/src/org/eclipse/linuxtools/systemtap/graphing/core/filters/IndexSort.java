@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.filters;
+
+/**
+ * Stable sorting of row index arrays by an arbitrary row ordering, without
+ * boxing the indices.
+ */
+final class IndexSort {
+    /**
+     * Compares two rows by their indices.
+     */
+    interface IndexComparator {
+        int compare(int row1, int row2);
+    }
+
+    private IndexSort() {
+    }
+
+    /**
+     * Stable sort of the range <code>[from, to)</code> of <code>indices</code>.
+     */
+    static void sort(int[] indices, int from, int to, IndexComparator c) {
+        for (int lo = from; lo < to; lo += RUN) {
+            insertionSort(indices, lo, Math.min(lo + RUN, to), c);
+        }
+        if (to - from <= RUN) {
+            return;
+        }
+
+        int[] src = indices;
+        int[] dst = new int[indices.length];
+        for (int width = RUN; width < to - from; width *= 2) {
+            for (int lo = from; lo < to; lo += 2 * width) {
+                int mid = Math.min(lo + width, to);
+                int hi = Math.min(lo + 2 * width, to);
+                merge(src, lo, mid, src, mid, hi, dst, lo, c);
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != indices) {
+            System.arraycopy(src, from, indices, from, to - from);
+        }
+    }
+
+    /**
+     * Merges two sorted ranges into <code>dst</code>. On ties, entries of the
+     * left range come first.
+     */
+    static void merge(int[] left, int leftFrom, int leftTo, int[] right, int rightFrom, int rightTo,
+            int[] dst, int dstFrom, IndexComparator c) {
+        int i = leftFrom;
+        int j = rightFrom;
+        int k = dstFrom;
+        while (i < leftTo && j < rightTo) {
+            if (c.compare(right[j], left[i]) < 0) {
+                dst[k++] = right[j++];
+            } else {
+                dst[k++] = left[i++];
+            }
+        }
+        while (i < leftTo) {
+            dst[k++] = left[i++];
+        }
+        while (j < rightTo) {
+            dst[k++] = right[j++];
+        }
+    }
+
+    private static void insertionSort(int[] indices, int from, int to, IndexComparator c) {
+        for (int i = from + 1; i < to; i++) {
+            int row = indices[i];
+            int j = i - 1;
+            while (j >= from && c.compare(indices[j], row) > 0) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = row;
+        }
+    }
+
+    private static final int RUN = 32;
+}
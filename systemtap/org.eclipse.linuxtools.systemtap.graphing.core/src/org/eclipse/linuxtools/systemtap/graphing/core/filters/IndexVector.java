@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.filters;
+
+import java.util.Arrays;
+
+/**
+ * A growable vector of row indices.
+ */
+final class IndexVector {
+    IndexVector() {
+        this(16);
+    }
+
+    IndexVector(int capacity) {
+        indices = new int[Math.max(capacity, 1)];
+    }
+
+    void add(int index) {
+        if (size == indices.length) {
+            indices = Arrays.copyOf(indices, size * 2);
+        }
+        indices[size++] = index;
+    }
+
+    int get(int i) {
+        return indices[i];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Makes this vector use the first <code>count</code> entries of
+     * <code>source</code> as its contents, without copying them.
+     */
+    void set(int[] source, int count) {
+        indices = source.length > 0 ? source : new int[1];
+        size = count;
+    }
+
+    /**
+     * @return The backing array, of which only the first {@link #size()} entries are valid.
+     */
+    int[] array() {
+        return indices;
+    }
+
+    private int[] indices;
+    private int size;
+}
@@ -12,15 +12,13 @@
 package org.eclipse.linuxtools.systemtap.graphing.core.filters;
 
 import java.text.MessageFormat;
-import java.util.List;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
 import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
-import org.eclipse.linuxtools.systemtap.structures.Copier;
 
 
 
-public class RangeFilter implements IDataSetFilter {
+public class RangeFilter extends RowSelectionFilter {
     /**
      * Create a new Range Filter for a table of data.
      * @param column The index of the table's column to apply the filter to.
@@ -30,7 +28,7 @@ public class RangeFilter implements IDataSetFilter {
      * {@link #INSIDE_BOUNDS}, {@link #OUTSIDE_BOUNDS}, or {@link #INCLUSIVE}.
      */
     public RangeFilter(int column, Number lowerBound, Number upperBound, int style) {
-        this.column = column;
+        super(column);
         this.lowerBound = lowerBound;
         this.upperBound = upperBound;
         if (lowerBound == null || upperBound == null) {
@@ -40,28 +38,9 @@ public class RangeFilter implements IDataSetFilter {
         }
     }
 
-    /**
-     * Apply the RangeFilter to the passed dataset.
-     *
-     * @param data The dataset to filter.
-     *
-     * @return The filtered dataset.
-     */
     @Override
-    public List<Object>[] filter(List<Object>[] data) {
-        if(column < 0 || column >= data.length) {
-            return null;
-        }
-
-        List<Object>[] newData = Copier.copy(data);
-        for(int j,i=newData[column].size()-1; i>=0; i--) {
-            if(!inBounds(NumberType.obj2num(newData[column].get(i)))) {
-                for(j=0; j<newData.length; j++) {
-                    newData[j].remove(i);
-                }
-            }
-        }
-        return newData;
+    boolean accept(Object value) {
+        return inBounds(NumberType.obj2num(value));
     }
 
     @Override
@@ -126,15 +105,6 @@ public class RangeFilter implements IDataSetFilter {
         }
     }
 
-    /**
-     * @since 2.0
-     */
-    @Override
-    public int getColumn() {
-        return column;
-    }
-
-    private int column;
     private Number upperBound;
     private Number lowerBound;
     private int style;
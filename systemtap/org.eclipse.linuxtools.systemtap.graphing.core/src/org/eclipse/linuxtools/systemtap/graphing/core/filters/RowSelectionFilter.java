@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.filters;
+
+import java.util.List;
+
+/**
+ * Base class for filters that keep or drop each row depending only on the
+ * value of one column. Rows are selected in a single scan into an index vector,
+ * and appended rows are scanned on their own.
+ */
+abstract class RowSelectionFilter implements IIncrementalDataSetFilter {
+    RowSelectionFilter(int column) {
+        this.column = column;
+    }
+
+    /**
+     * Apply the filter to the passed dataset.
+     *
+     * @param data The dataset to filter.
+     *
+     * @return The filtered dataset.
+     */
+    @Override
+    public synchronized List<Object>[] filter(List<Object>[] data) {
+        if(column < 0 || column >= data.length) {
+            return null;
+        }
+
+        output = null;
+        rows.clear();
+        scan(data, 0);
+        return Columns.select(data, rows);
+    }
+
+    @Override
+    public synchronized List<Object>[] filterAppended(List<Object>[] data, int firstNewRow) {
+        if(column < 0 || column >= data.length) {
+            return null;
+        }
+
+        if(output == null || output.length != data.length || firstNewRow != scanned) {
+            rows.clear();
+            scan(data, 0);
+            output = Columns.select(data, rows);
+        } else {
+            int first = rows.size();
+            scan(data, firstNewRow);
+            Columns.appendRows(output, data, rows, first);
+        }
+        return output;
+    }
+
+    @Override
+    public boolean isAppendOnly() {
+        return true;
+    }
+
+    @Override
+    public int getColumn() {
+        return column;
+    }
+
+    private void scan(List<Object>[] data, int from) {
+        List<Object> values = data[column];
+        int size = values.size();
+        for(int i=from; i<size; i++) {
+            if(accept(values.get(i))) {
+                rows.add(i);
+            }
+        }
+        scanned = size;
+    }
+
+    /**
+     * @param value The value of the filtered column in a row.
+     *
+     * @return <code>true</code> if the row is kept.
+     */
+    abstract boolean accept(Object value);
+
+    final int column;
+    private final IndexVector rows = new IndexVector();
+    private List<Object>[] output;
+    private int scanned;
+}
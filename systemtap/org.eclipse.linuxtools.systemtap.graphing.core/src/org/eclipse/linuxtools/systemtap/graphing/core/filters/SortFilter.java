@@ -11,58 +11,120 @@
 
 package org.eclipse.linuxtools.systemtap.graphing.core.filters;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
 import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
-import org.eclipse.linuxtools.systemtap.structures.Copier;
-import org.eclipse.linuxtools.systemtap.structures.IndexedObject;
-import org.eclipse.linuxtools.systemtap.structures.Sort;
 
 
 
-public class SortFilter implements IDataSetFilter {
+public class SortFilter implements IIncrementalDataSetFilter {
     public SortFilter(int column, int ordering) {
         this.column = column;
         this.style = (ordering==ASCENDING ? ASCENDING : DESCENDING);
     }
 
     /**
-     * Apply the RangeFilter to the passed dataset.
+     * Apply the SortFilter to the passed dataset.
      *
      * @param data The dataset to filter.
      *
      * @return The filtered dataset.
      */
     @Override
-    public List<Object>[] filter(List<Object>[] data) {
+    public synchronized List<Object>[] filter(List<Object>[] data) {
         if(column < 0 || column >= data.length)
             return null;
 
-        List<Object>[] newData = Copier.copy(data);
-        IndexedObject[] items = new IndexedObject[newData[0].size()];
+        sortAll(data[column]);
+        return Columns.select(data, order);
+    }
+
+    /**
+     * @since 2.2
+     */
+    @Override
+    public synchronized List<Object>[] filterAppended(List<Object>[] data, int firstNewRow) {
+        if(column < 0 || column >= data.length)
+            return null;
+
+        List<Object> values = data[column];
+        if(firstNewRow != order.size() || !numeric || !readKeys(values, firstNewRow)) {
+            sortAll(values);
+        } else {
+            int size = values.size();
+            int[] appended = new int[size - firstNewRow];
+            for(int i=0; i<appended.length; i++)
+                appended[i] = firstNewRow + i;
+            IndexSort.IndexComparator c = comparator(values);
+            IndexSort.sort(appended, 0, appended.length, c);
+
+            int[] merged = new int[size];
+            IndexSort.merge(order.array(), 0, order.size(), appended, 0, appended.length, merged, 0, c);
+            order.set(merged, size);
+        }
+        return Columns.select(data, order);
+    }
+
+    /**
+     * @since 2.2
+     */
+    @Override
+    public boolean isAppendOnly() {
+        return false;
+    }
+
+    private void sortAll(List<Object> values) {
+        int size = values.size();
+        numeric = readKeys(values, 0);
+
+        int[] indices = new int[size];
+        for(int i=0; i<size; i++)
+            indices[i] = i;
+        IndexSort.sort(indices, 0, size, comparator(values));
+        order.set(indices, size);
+    }
+
+    /**
+     * Reads the numeric sort keys of the given rows.
+     *
+     * @return <code>false</code> if one of the values is not a number.
+     */
+    private boolean readKeys(List<Object> values, int from) {
+        int size = values.size();
+        if(keys.length < size)
+            keys = Arrays.copyOf(keys, Math.max(size, keys.length * 2));
 
         try {
-            for(int i=0; i<newData[column].size(); i++)
-                items[i] = new IndexedObject(i, NumberType.cleanObj2Num(newData[column].get(i)));
+            for(int i=from; i<size; i++)
+                keys[i] = NumberType.cleanObj2Num(values.get(i)).doubleValue();
         } catch(NumberFormatException nfe) {
-            for(int i=0; i<newData[column].size(); i++)
-                items[i] = new IndexedObject(i, newData[column].get(i));
+            return false;
         }
+        return true;
+    }
 
-        Sort.quicksort(items, 0, items.length-1);
-
-        for(int j, i=0; i<newData.length; i++) {
-            for(j=0; j<items.length; j++) {
-                if(DESCENDING == style)
-                    newData[i].add(newData[i].get(items[items.length-j-1].index));
-                else
-                    newData[i].add(newData[i].get(items[j].index));
-            }
-            for(j=0; j<items.length; j++)
-                newData[i].remove(0);
+    private IndexSort.IndexComparator comparator(List<Object> values) {
+        IndexSort.IndexComparator c;
+        if(numeric) {
+            final double[] k = keys;
+            c = (row1, row2) -> Double.compare(k[row1], k[row2]);
+        } else {
+            c = (row1, row2) -> compareObjects(values.get(row1), values.get(row2));
         }
-        return newData;
+        if(DESCENDING == style) {
+            final IndexSort.IndexComparator ascending = c;
+            c = (row1, row2) -> ascending.compare(row2, row1);
+        }
+        return c;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static int compareObjects(Object o1, Object o2) {
+        Comparable c1 = (o1 instanceof Comparable) ? (Comparable)o1 : o1.toString();
+        Comparable c2 = (o2 instanceof Comparable) ? (Comparable)o2 : o2.toString();
+        return c1.compareTo(c2);
     }
 
     @Override
@@ -88,6 +150,9 @@ public class SortFilter implements IDataSetFilter {
 
     private int column;
     private int style;
+    private final IndexVector order = new IndexVector();
+    private double[] keys = new double[16];
+    private boolean numeric;
 
     public static final int ASCENDING = 0;
     public static final int DESCENDING = 1;
@@ -12,71 +12,165 @@
 package org.eclipse.linuxtools.systemtap.graphing.core.filters;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.GraphingCorePlugin;
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.AggregateAccumulator;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.AverageAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.CountAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.IDataAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.IStreamingDataAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.MaxAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.MinAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.SumAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
-import org.eclipse.linuxtools.systemtap.structures.Copier;
 
 
-public class UniqueFilter implements IDataSetFilter {
+public class UniqueFilter implements IIncrementalDataSetFilter {
     public UniqueFilter(int column, IDataAggregate aggregate) {
         this.column = column;
         this.aggregate = aggregate;
     }
 
     /**
-     * Verify that the number passed is in the bounds of the created filter.
+     * Merge all rows sharing the same value in the filtered column into one,
+     * aggregating the values of the other columns. Merged rows are ordered by
+     * the last occurrence of their value.
      *
-     * @param data The data to verify.
+     * @param data The dataset to filter.
      *
-     * @return True if the number is within bounds.
+     * @return The filtered dataset.
      */
     @Override
-    public List<Object>[] filter(List<Object>[] data) {
+    public synchronized List<Object>[] filter(List<Object>[] data) {
         if(column < 0 || column >= data.length) {
             return null;
         }
 
-        List<Object>[] newData = Copier.copy(data);
-        ArrayList<Object>[] aggregates = GraphingCorePlugin.createArrayList(newData.length);
-        for(int i=0; i<aggregates.length;i++) {
-            aggregates[i] = new ArrayList<>();
+        groups.clear();
+        group(data, 0);
+        return collect(data);
+    }
+
+    /**
+     * @since 2.2
+     */
+    @Override
+    public synchronized List<Object>[] filterAppended(List<Object>[] data, int firstNewRow) {
+        if(column < 0 || column >= data.length) {
+            return null;
         }
 
-        for(int k,j,i=newData[0].size()-1; i>=0; i--) {
-            for(j=i-1; j>=0; j--) {
-                if(newData[column].get(i).toString().equals(newData[column].get(j).toString())) {    //TODO: Find better equivilance method
-                    i--;
-                    for(k=0; k<newData.length; k++) {
-                        aggregates[k].add(newData[k].get(j));
-                        newData[k].remove(j);
-                    }
-                }
+        if(firstNewRow != grouped) {
+            groups.clear();
+            group(data, 0);
+        } else {
+            group(data, firstNewRow);
+        }
+        return collect(data);
+    }
+
+    /**
+     * @since 2.2
+     */
+    @Override
+    public boolean isAppendOnly() {
+        return false;
+    }
+
+    /**
+     * Adds the rows starting at <code>from</code> to the groups of their
+     * value. Groups are kept in the order of the last occurrence of their value.
+     */
+    private void group(List<Object>[] data, int from) {
+        List<Object> values = data[column];
+        int size = values.size();
+        for(int i=from; i<size; i++) {
+            String key = values.get(i).toString();    //TODO: Find better equivilance method
+            Group g = groups.get(key);
+            if(g == null) {
+                g = new Group(data.length);
+                groups.put(key, g);
             }
-            for(k=0; k<newData.length; k++) {
-                aggregates[k].add(newData[k].get(i));
-                if(k!=column) {
-                    newData[k].remove(i);
-                    try {
-                        newData[k].add(i, aggregate.aggregate(NumberType.cleanObj2Num(aggregates[k].toArray())));
-                    } catch(NumberFormatException nfe) {
-                        newData[k].add(i, columnMerge(aggregates[k].toArray()));
-                    }
-                }
-                aggregates[k].clear();
+            g.rows.add(i);
+            g.row = null;
+            if(aggregate instanceof IStreamingDataAggregate) {
+                g.accumulate(data, i);
+            }
+        }
+        grouped = size;
+    }
+
+    private List<Object>[] collect(List<Object>[] data) {
+        ArrayList<Object>[] newData = GraphingCorePlugin.createArrayList(data.length);
+        for(int i=0; i<newData.length; i++) {
+            newData[i] = new ArrayList<>(groups.size());
+        }
+
+        for(Group g : groups.values()) {
+            if(g.row == null) {
+                g.row = aggregateRow(data, g);
+            }
+            for(int k=0; k<newData.length; k++) {
+                newData[k].add(g.row[k]);
             }
         }
         return newData;
     }
 
+    /**
+     * Builds the merged row of a group. Numeric columns are read from the
+     * group's accumulators when the aggregate supports it. Otherwise values are
+     * aggregated starting with the earlier occurrences, most recent first,
+     * followed by the last occurrence.
+     */
+    private Object[] aggregateRow(List<Object>[] data, Group g) {
+        IndexVector rows = g.rows;
+        int count = rows.size();
+        int last = rows.get(count-1);
+        Object[] row = new Object[data.length];
+        Object[] values = new Object[count];
+
+        for(int k=0; k<data.length; k++) {
+            List<Object> col = data[k];
+            int size = col.size();
+            if(k == column) {
+                row[k] = last < size ? col.get(last) : null;
+                continue;
+            }
+
+            if(aggregate instanceof IStreamingDataAggregate && !g.merged[k]) {
+                row[k] = ((IStreamingDataAggregate) aggregate).aggregate(g.accumulators[k], g.type(k));
+                continue;
+            }
+
+            int n = 0;
+            for(int i=count-2; i>=0; i--) {
+                if(rows.get(i) < size) {
+                    values[n++] = col.get(rows.get(i));
+                }
+            }
+            if(last < size) {
+                values[n++] = col.get(last);
+            }
+            if(n == 0) {
+                continue;
+            }
+
+            Object[] merged = n == count ? values : Arrays.copyOf(values, n);
+            try {
+                row[k] = aggregate.aggregate(NumberType.cleanObj2Num(merged));
+            } catch(NumberFormatException nfe) {
+                row[k] = columnMerge(merged);
+            }
+        }
+        return row;
+    }
+
     /**
      * Merges two passed columns into a StringBuilder object.
      *
@@ -127,7 +221,56 @@ public class UniqueFilter implements IDataSetFilter {
         return column;
     }
 
+    private class Group {
+        Group(int width) {
+            accumulators = new AggregateAccumulator[width];
+            previous = new Number[width];
+            last = new Number[width];
+            merged = new boolean[width];
+        }
+
+        /**
+         * Adds the values of a row to the accumulators of the numeric columns.
+         * Columns holding a value that is not a number are merged as text instead.
+         */
+        void accumulate(List<Object>[] data, int row) {
+            for(int k=0; k<data.length; k++) {
+                if(k == column || merged[k] || row >= data[k].size()) {
+                    continue;
+                }
+                try {
+                    Number value = NumberType.cleanObj2Num(data[k].get(row));
+                    if(accumulators[k] == null) {
+                        accumulators[k] = new AggregateAccumulator();
+                    }
+                    accumulators[k].add(value);
+                    previous[k] = last[k];
+                    last[k] = value;
+                } catch(NumberFormatException nfe) {
+                    merged[k] = true;
+                }
+            }
+        }
+
+        /**
+         * @return The value giving the type of an aggregated column: the first one
+         * in aggregation order, which is the second most recent value.
+         */
+        Number type(int k) {
+            return previous[k] != null ? previous[k] : last[k];
+        }
+
+        final IndexVector rows = new IndexVector(4);
+        final AggregateAccumulator[] accumulators;
+        final Number[] previous;
+        final Number[] last;
+        final boolean[] merged;
+        Object[] row;
+    }
+
     private int column;
     private IDataAggregate aggregate;
+    private final Map<String, Group> groups = new LinkedHashMap<>(16, 0.75f, true);
+    private int grouped;
     public static final String ID = "org.eclipse.linuxtools.systemtap.graphing.core.filters.UniqueFilter"; //$NON-NLS-1$
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.structures;
+
+/**
+ * The maximum or minimum of a window of values sliding forward over a series.
+ * Values are kept in a monotonic deque, so that adding a value and moving the
+ * start of the window both take amortized constant time.
+ * @since 2.2
+ */
+public class SlidingWindowExtreme {
+    /**
+     * @param max <code>true</code> to track the maximum of the window,
+     * <code>false</code> to track its minimum.
+     */
+    public SlidingWindowExtreme(boolean max) {
+        this.max = max;
+    }
+
+    /**
+     * Adds a value at the end of the window.
+     *
+     * @param index The index of the value in its series. Must be greater than
+     * the index of every value added before it.
+     * @param value The value to add.
+     */
+    public void add(int index, double value) {
+        // Drop values that can no longer be the extreme of any window.
+        while (size > 0) {
+            double tail = values[slot(size - 1)];
+            if (max ? tail > value : tail < value) {
+                break;
+            }
+            size--;
+        }
+        if (size == indices.length) {
+            grow();
+        }
+        int slot = slot(size);
+        indices[slot] = index;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Moves the start of the window, dropping all values before it.
+     *
+     * @param start The index of the first value of the window.
+     */
+    public void removeBefore(int start) {
+        while (size > 0 && indices[head] < start) {
+            head = (head + 1) % indices.length;
+            size--;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the window holds no values.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The maximum or minimum of the window. Only valid if the window
+     * is not empty.
+     */
+    public double get() {
+        return values[head];
+    }
+
+    /**
+     * Removes all values from the window.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int slot(int i) {
+        return (head + i) % indices.length;
+    }
+
+    private void grow() {
+        int[] newIndices = new int[indices.length * 2];
+        double[] newValues = new double[values.length * 2];
+        for (int i = 0; i < size; i++) {
+            newIndices[i] = indices[slot(i)];
+            newValues[i] = values[slot(i)];
+        }
+        indices = newIndices;
+        values = newValues;
+        head = 0;
+    }
+
+    private final boolean max;
+    private int[] indices = new int[16];
+    private double[] values = new double[16];
+    private int head;
+    private int size;
+}
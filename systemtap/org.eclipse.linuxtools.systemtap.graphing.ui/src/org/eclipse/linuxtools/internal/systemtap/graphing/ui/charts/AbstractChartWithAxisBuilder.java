@@ -221,7 +221,7 @@ public abstract class AbstractChartWithAxisBuilder extends AbstractChartBuilder
      */
     @Override
     protected void buildXSeries() {
-        Object data[][] = adapter.getData();
+        Object data[][] = getRecentData();
         if (data == null || data.length == 0) {
             return;
         }
@@ -53,7 +53,7 @@ public class BarChartBuilder extends AbstractChartWithAxisBuilder {
 
     @Override
     protected void buildXSeries() {
-        Object data[][] = adapter.getData();
+        Object data[][] = getRecentData();
         if (data == null || data.length == 0) {
             return;
         }
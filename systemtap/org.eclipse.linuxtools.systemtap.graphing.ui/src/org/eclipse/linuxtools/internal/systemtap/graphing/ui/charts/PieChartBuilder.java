@@ -50,7 +50,7 @@ public class PieChartBuilder extends AbstractChartWithoutAxisBuilder {
 
     @Override
     protected void buildXSeries() {
-        Object data[][] = adapter.getData();
+        Object data[][] = getRecentData();
         if (data == null || data.length == 0) {
             return;
         }
@@ -335,12 +335,12 @@ public abstract class AbstractChartBuilder extends Composite implements IUpdateL
         if (o == null) {
             return null;
         }
-        if (o instanceof Integer) {
-            return ((Integer)o).doubleValue();
-        }
         if (o instanceof Double) {
             return (Double) o;
         }
+        if (o instanceof Number) {
+            return ((Number)o).doubleValue();
+        }
         try {
             return new Double(o.toString());
         } catch (NumberFormatException e) {
@@ -348,6 +348,17 @@ public abstract class AbstractChartBuilder extends Composite implements IUpdateL
         }
     }
 
+    /**
+     * Reads only the most recent records of the adapter that the chart can show,
+     * so that the cost of a refresh does not grow with the length of the data set's history.
+     * @return The data of the last {@link #maxItems} records, as returned by {@link IAdapter#getData(int, int)}.
+     * @since 4.1
+     */
+    protected Object[][] getRecentData() {
+        int count = adapter.getRecordCount();
+        return adapter.getData(Math.max(0, count - maxItems), count);
+    }
+
     @Override
     public void handleUpdateEvent() {
         if (chart != null && !chart.isDisposed()) {
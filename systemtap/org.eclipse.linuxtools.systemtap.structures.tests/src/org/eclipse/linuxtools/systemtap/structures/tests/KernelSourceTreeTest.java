@@ -12,9 +12,19 @@
 package org.eclipse.linuxtools.systemtap.structures.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.linuxtools.systemtap.structures.KernelSourceTree;
 import org.eclipse.linuxtools.systemtap.structures.TreeNode;
@@ -66,6 +76,37 @@ public class KernelSourceTreeTest {
         kst.buildKernelTree(direct, excluded);
     }
 
+    @Test
+    public void testGetChildren() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("kernelSourceTree");
+        try {
+            Files.createDirectories(dir.resolve("sub").resolve("inner"));
+            Files.createFile(dir.resolve("sub").resolve("file.c"));
+            Files.createFile(dir.resolve("top.h"));
+            Files.createFile(dir.resolve("notes.txt"));
+
+            kst.buildKernelTree(dir.toString() + File.separator, null);
+            TreeNode t = kst.getTree();
+            assertEquals("Top level listed", 2, t.getChildCount());
+            TreeNode sub = t.getChildAt(0);
+            assertEquals("Directory name", "sub", sub.toString());
+            assertTrue("Unlisted directory has children", kst.hasChildren(sub));
+            assertFalse("File has no children", kst.hasChildren(t.getChildAt(1)));
+
+            CountDownLatch listed = new CountDownLatch(1);
+            assertNull("Directory not listed yet", kst.getChildren(sub, node -> listed.countDown()));
+            assertTrue("Directory listed", listed.await(10, TimeUnit.SECONDS));
+            TreeNode[] children = kst.getChildren(sub, node -> {});
+            assertEquals("Directory contents", 2, children.length);
+            assertEquals("Sorted contents", "file.c", children[0].toString());
+            assertEquals("Sorted contents", "inner", children[1].toString());
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
     public void testDispose() {
         kst.dispose();
     }
@@ -222,6 +222,71 @@ public class TreeNodeTest {
         assertEquals("Sorted middle correct", child1, t.getChildAt(1));
     }
 
+    @Test
+    public void testSortLevelSortedInput() {
+        TreeNode parent = new TreeNode("parent", false);
+        int count = 100000;
+        for (int i = 0; i < count; i++) {
+            parent.add(new TreeNode(String.format("%06d", i), false));
+        }
+        TreeNode first = parent.getChildAt(0);
+        TreeNode duplicate = new TreeNode(first.toString(), false);
+        parent.add(duplicate);
+
+        parent.sortTree();
+        assertEquals("Same number of children", count + 1, parent.getChildCount());
+        assertEquals("Equal names keep their order", first, parent.getChildAt(0));
+        assertEquals("Equal names keep their order", duplicate, parent.getChildAt(1));
+        assertEquals("Sorted last node correct", String.format("%06d", count - 1),
+                parent.getChildAt(count).toString());
+    }
+
+    @Test
+    public void testGetChildByName() {
+        assertEquals("Find child", child, t.getChildByName(data2));
+        assertEquals("Find first child with name", child2, t.getChildByName(s));
+        assertNull("Missing child", t.getChildByName("Missing"));
+
+        TreeNode parent = new TreeNode("parent", false);
+        for (int i = 0; i < 100; i++) {
+            parent.add(new TreeNode(Integer.toString(i), false));
+        }
+        TreeNode duplicate = new TreeNode("50", false);
+        parent.add(duplicate);
+        assertEquals("Find child in large level", parent.getChildAt(50), parent.getChildByName("50"));
+        assertNull("Missing child in large level", parent.getChildByName("100"));
+
+        TreeNode added = new TreeNode("100", false);
+        parent.add(added);
+        assertEquals("Find added child", added, parent.getChildByName("100"));
+
+        parent.remove(50);
+        assertEquals("Find remaining child with name", duplicate, parent.getChildByName("50"));
+
+        TreeNode inserted = new TreeNode("50", false);
+        parent.addAt(inserted, 0);
+        assertEquals("Find inserted child", inserted, parent.getChildByName("50"));
+
+        parent.removeAll();
+        assertNull("No children", parent.getChildByName("50"));
+    }
+
+    @Test
+    public void testGetChildByNameAfterSort() {
+        TreeNode parent = new TreeNode("parent", false);
+        for (int i = 99; i >= 0; i--) {
+            parent.add(new TreeNode(Integer.toString(i), false));
+        }
+        TreeNode first = parent.getChildAt(0);
+        TreeNode duplicate = new TreeNode("99", false);
+        parent.add(duplicate);
+
+        parent.sortLevel();
+        assertEquals("Sorted", "0", parent.getChildAt(0).toString());
+        assertEquals("Find first child with name", first, parent.getChildByName("99"));
+        assertEquals("Find sorted child", parent.getChildAt(0), parent.getChildByName("0"));
+    }
+
     @Test
     public void testToString() {
         assertEquals("Object to string", data2, child.toString());
@@ -11,12 +11,26 @@
 
 package org.eclipse.linuxtools.systemtap.structures.tests.runnable;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerBatchListener;
 import org.eclipse.linuxtools.systemtap.structures.runnable.StreamGobbler;
 import org.junit.Before;
 import org.junit.Test;
@@ -71,5 +85,144 @@ public class StreamGobblerTest{
         assertFalse(sg.isRunning());
     }
 
+    @Test
+    public void testDecodesLines() {
+        byte[] bytes = "h\u00e9llo w\u00f6rld\nzweite Zeile \u2713\nlast".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+        // Return a few bytes at a time, so that characters are split between reads.
+        InputStream is = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+        List<String> lines = new ArrayList<>();
+        sg = new StreamGobbler(is, StandardCharsets.UTF_8);
+        sg.addDataListener(lines::add);
+        sg.start();
+        sg.stop();
+
+        assertEquals(Arrays.asList("h\u00e9llo w\u00f6rld\n", "zweite Zeile \u2713\n", "last"), lines); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals(2, sg.getLinesRead());
+    }
+
+    @Test
+    public void testHighRateProducer() {
+        final int lineCount = 200000;
+        InputStream is = new InputStream() {
+            private int produced;
+            private byte[] current = new byte[0];
+            private int pos;
+
+            @Override
+            public int read() {
+                if (pos == current.length) {
+                    if (produced == lineCount) {
+                        return -1;
+                    }
+                    current = ("probe " + produced++ + " fired\n").getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$ //$NON-NLS-2$
+                    pos = 0;
+                }
+                return current[pos++];
+            }
+        };
+        final List<String> lines = new ArrayList<>();
+        final int[] batches = new int[1];
+        sg = new StreamGobbler(new BufferedInputStream(is, 1 << 16), StandardCharsets.UTF_8);
+        sg.addDataListener(new IGobblerBatchListener() {
+            @Override
+            public void handleDataEvent(String line) {
+                lines.add(line);
+            }
+
+            @Override
+            public void handleDataEvents(List<String> batch) {
+                batches[0]++;
+                lines.addAll(batch);
+            }
+        });
+        sg.start();
+        sg.stop();
+
+        // The last event delivers the (empty) remainder after the final line.
+        assertEquals(lineCount + 1, lines.size());
+        assertEquals("probe 0 fired\n", lines.get(0)); //$NON-NLS-1$
+        assertEquals("probe " + (lineCount - 1) + " fired\n", lines.get(lineCount - 1)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(lineCount, sg.getLinesRead());
+        assertEquals(sg.getBatchesDispatched() + 1, batches[0]);
+        assertTrue(batches[0] < lineCount / 100);
+    }
+
+    @Test
+    public void testSharedGobblers() {
+        StreamGobbler[] gobblers = new StreamGobbler[20];
+        List<List<String>> lines = new ArrayList<>();
+        for (int i = 0; i < gobblers.length; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < 1000; j++) {
+                text.append(i).append(':').append(j).append('\n');
+            }
+            List<String> received = Collections.synchronizedList(new ArrayList<>());
+            lines.add(received);
+            gobblers[i] = new StreamGobbler(new ByteArrayInputStream(
+                    text.toString().getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+            gobblers[i].addDataListener(received::add);
+            gobblers[i].startShared();
+            assertTrue("Shared gobbler running", gobblers[i].isRunning());
+        }
+        for (int i = 0; i < gobblers.length; i++) {
+            gobblers[i].stop();
+            assertFalse("Shared gobbler stopped", gobblers[i].isRunning());
+            // The last event delivers the (empty) remainder after the final line.
+            assertEquals(1001, lines.get(i).size());
+            assertEquals(i + ":0\n", lines.get(i).get(0)); //$NON-NLS-1$
+            assertEquals(i + ":999\n", lines.get(i).get(999)); //$NON-NLS-1$
+        }
+    }
+
+    @Test
+    public void testSharedGobblerReadsBeforeStop() throws IOException, InterruptedException {
+        PipedOutputStream pipe = new PipedOutputStream();
+        CountDownLatch received = new CountDownLatch(2);
+        sg = new StreamGobbler(new PipedInputStream(pipe), StandardCharsets.UTF_8);
+        sg.addDataListener(line -> received.countDown());
+        sg.startShared();
+
+        pipe.write("first\nsecond\n".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+        pipe.flush();
+        assertTrue("Lines delivered while running", received.await(10, TimeUnit.SECONDS));
+        pipe.close();
+        sg.stop();
+        assertEquals(2, sg.getLinesRead());
+    }
+
+    @Test
+    public void testStoppingSharedGobblersDoesNotBlockOthers() throws IOException, InterruptedException {
+        // Stop gobblers whose streams have not ended yet, on more threads than the pump has
+        PipedOutputStream[] pipes = new PipedOutputStream[8];
+        CountDownLatch stopped = new CountDownLatch(pipes.length);
+        for (int i = 0; i < pipes.length; i++) {
+            pipes[i] = new PipedOutputStream();
+            StreamGobbler stuck = new StreamGobbler(new PipedInputStream(pipes[i]), StandardCharsets.UTF_8);
+            stuck.startShared();
+            new Thread(() -> {
+                stuck.stop();
+                stopped.countDown();
+            }).start();
+        }
+
+        CountDownLatch received = new CountDownLatch(2);
+        sg = new StreamGobbler(new ByteArrayInputStream("first\nsecond\n".getBytes(StandardCharsets.UTF_8)), //$NON-NLS-1$
+                StandardCharsets.UTF_8);
+        sg.addDataListener(line -> received.countDown());
+        sg.startShared();
+        assertTrue("Lines delivered while others stop", received.await(10, TimeUnit.SECONDS));
+        sg.stop();
+
+        for (PipedOutputStream pipe : pipes) {
+            pipe.close();
+        }
+        assertTrue("Stopped gobblers", stopped.await(10, TimeUnit.SECONDS));
+    }
+
     StreamGobbler sg;
 }
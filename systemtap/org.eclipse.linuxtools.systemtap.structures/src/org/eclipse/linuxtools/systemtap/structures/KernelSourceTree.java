@@ -13,18 +13,88 @@ package org.eclipse.linuxtools.systemtap.structures;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.linuxtools.internal.systemtap.structures.Localization;
 import org.eclipse.linuxtools.profiling.launch.IRemoteFileProxy;
 import org.eclipse.linuxtools.profiling.launch.RemoteProxyManager;
 
+/**
+ * A tree of the C sources and headers in a kernel source directory.
+ *
+ * Only the top directory is listed when the tree is built. The contents of
+ * other directories are listed in the background the first time they are
+ * asked for with {@link #getChildren(TreeNode, Consumer)}. Listings are cached
+ * by directory, together with the modification time of the directory, so a
+ * directory is listed again only after files were added to it or removed from it.
+ */
 public class KernelSourceTree {
+    private static final int LISTING_THREADS = 2;
+    private static final TreeNode[] NO_CHILDREN = new TreeNode[0];
+
+    /**
+     * The C sources, headers and directories in a directory.
+     */
+    private static class Listing {
+        private final long lastModified;
+        private final String[] names;
+        private final boolean[] directories;
+
+        private Listing(long lastModified, IFileInfo[] infos) {
+            this.lastModified = lastModified;
+            List<IFileInfo> accepted = new ArrayList<>(infos.length);
+            CCodeFileFilter filter = new CCodeFileFilter();
+            for (IFileInfo info : infos) {
+                if (filter.accept(info.getName(), info.isDirectory())) {
+                    accepted.add(info);
+                }
+            }
+            names = new String[accepted.size()];
+            directories = new boolean[accepted.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = accepted.get(i).getName();
+                directories[i] = accepted.get(i).isDirectory();
+            }
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Map<URI, Listing> listings = new ConcurrentHashMap<>();
+    /**
+     * The modification time of the listing that each listed directory node shows.
+     */
+    private final Map<TreeNode, Long> listed = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Set<TreeNode> pending = ConcurrentHashMap.newKeySet();
+
+    private volatile TreeNode kernelTree;
+    private volatile String[] excluded = new String[0];
+
+    public KernelSourceTree() {
+        executor = new ThreadPoolExecutor(LISTING_THREADS, LISTING_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "KernelSourceTree Listing"); //$NON-NLS-1$
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
     public TreeNode getTree() {
         return kernelTree;
     }
@@ -53,6 +123,7 @@ public class KernelSourceTree {
 
     /**
      * Builds the kernel tree from file parameter direct and stores the excluded string array.
+     * Only the top level of the tree is listed; see {@link #getChildren(TreeNode, Consumer)}.
      *
      * @param locationURI The URI to include into the tree.
      * @param excluded The string array to store as excluded.
@@ -66,65 +137,140 @@ public class KernelSourceTree {
         if (excluded != null){
             this.excluded = Arrays.copyOf(excluded, excluded.length);
         }
+        listed.clear();
         IFileStore fs = proxy.getResource(locationURI.getPath());
         if (fs == null) {
             kernelTree = null;
         } else {
-            kernelTree = new TreeNode(fs, fs.getName(), false);
-            addLevel(kernelTree, monitor);
+            if (monitor != null) {
+                monitor.beginTask(Localization.getString("ReadingKernelSourceTree"), IProgressMonitor.UNKNOWN); //$NON-NLS-1$
+            }
+            TreeNode tree = new TreeNode(fs, fs.getName(), false);
+            update(tree);
+            kernelTree = tree;
         }
     }
 
     /**
-     * Adds a level to the kernel source tree.
+     * Returns the children of a node of the tree. If the node is a directory
+     * that has not been listed yet, it is listed in the background and
+     * <code>null</code> is returned. Otherwise the children are returned
+     * right away, and the directory is checked for changes in the background.
+     *
+     * @param node A node of the tree.
+     * @param listener Called from a background thread with the node after its
+     * children changed.
+     * @return A copy of the children of the node, or <code>null</code> if they
+     * are still being listed.
      *
-     * @param top The top of the tree to add a level to.
-     * @throws CoreException
+     * @since 4.2
      */
-    private void addLevel(TreeNode top, IProgressMonitor monitor) throws CoreException {
-        boolean add;
-        TreeNode current;
-        IFileStore fs = (IFileStore)top.getData();
-        IFileStore[] fsList = null;
-        fsList = fs.childStores(EFS.NONE, new NullProgressMonitor());
-        if (monitor != null) {
-            monitor.beginTask(Localization.getString("ReadingKernelSourceTree"), 100); //$NON-NLS-1$
-        }
-        CCodeFileFilter filter = new CCodeFileFilter();
-        for (IFileStore fsChildren : fsList) {
-            add = true;
-            boolean isDir = fsChildren.fetchInfo().isDirectory();
-            if (!filter.accept(fsChildren.getName(), isDir)) {
-                continue;
+    public TreeNode[] getChildren(TreeNode node, Consumer<TreeNode> listener) {
+        if (node.isClickable()) {
+            return NO_CHILDREN;
+        }
+        boolean isListed = listed.containsKey(node);
+        schedule(node, listener);
+        if (!isListed) {
+            return null;
+        }
+        synchronized (node) {
+            TreeNode[] children = new TreeNode[node.getChildCount()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = node.getChildAt(i);
             }
+            return children;
+        }
+    }
+
+    /**
+     * @param node A node of the tree.
+     * @return <code>false</code> if the node is a file or a listed directory
+     * without C sources, headers or subdirectories.
+     *
+     * @since 4.2
+     */
+    public boolean hasChildren(TreeNode node) {
+        if (node.isClickable()) {
+            return false;
+        }
+        if (!listed.containsKey(node)) {
+            return true;
+        }
+        synchronized (node) {
+            return node.getChildCount() > 0;
+        }
+    }
 
-            for(int j=0; j<excluded.length; j++) {
-                if(fsChildren.getName().equals(excluded[j].substring(0, excluded[j].length()-1)) && isDir) {
-                    add = false;
-                    break;
+    private void schedule(TreeNode node, Consumer<TreeNode> listener) {
+        if (!pending.add(node)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                if (update(node)) {
+                    listener.accept(node);
                 }
+            } catch (CoreException e) {
+                // Leave the directory as it is.
+            } finally {
+                pending.remove(node);
             }
-            if(add) {
-                current = new TreeNode(fsChildren, fsChildren.getName(), !isDir);
-                top.add(current);
-                if(isDir) {
-                    addLevel(top.getChildAt(top.getChildCount()-1), null);
-                    if(0 == current.getChildCount()) {
-                        top.remove(top.getChildCount()-1);
-                    }
-                }
+        });
+    }
+
+    /**
+     * Lists the directory of a node, unless the node already shows the
+     * current contents of the directory.
+     *
+     * @return <code>true</code> if the children of the node were replaced.
+     */
+    private boolean update(TreeNode node) throws CoreException {
+        IFileStore fs = (IFileStore) node.getData();
+        long lastModified = fs.fetchInfo().getLastModified();
+        Long shown = listed.get(node);
+        if (shown != null && shown == lastModified) {
+            return false;
+        }
+
+        URI uri = fs.toURI();
+        Listing listing = listings.get(uri);
+        if (listing == null || listing.lastModified != lastModified) {
+            listing = new Listing(lastModified, fs.childInfos(EFS.NONE, null));
+            listings.put(uri, listing);
+        }
+
+        TreeNode children = new TreeNode(null, false);
+        for (int i = 0; i < listing.names.length; i++) {
+            boolean isDir = listing.directories[i];
+            if (!isDir || !isExcluded(listing.names[i])) {
+                children.add(new TreeNode(fs.getChild(listing.names[i]), listing.names[i], !isDir));
             }
-            if (monitor != null) {
-                monitor.worked(1);
+        }
+        children.sortLevel();
+
+        synchronized (node) {
+            node.removeAll();
+            for (int i = 0; i < children.getChildCount(); i++) {
+                node.add(children.getChildAt(i));
+            }
+        }
+        listed.put(node, lastModified);
+        return true;
+    }
+
+    private boolean isExcluded(String name) {
+        for (String exclusion : excluded) {
+            if (!exclusion.isEmpty() && name.equals(exclusion.substring(0, exclusion.length() - 1))) {
+                return true;
             }
         }
-        top.sortLevel();
+        return false;
     }
 
     public void dispose() {
         kernelTree = null;
+        listed.clear();
+        listings.clear();
     }
-
-    private TreeNode kernelTree;
-    private String[] excluded = new String[0];
 }
@@ -17,15 +17,16 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.linuxtools.internal.systemtap.structures.Localization;
-import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerListener;
+import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerBatchListener;
 
 /**
  * A utility for saving script output to a log file as it runs.
  */
-public class LoggingStreamDaemon implements IGobblerListener {
+public class LoggingStreamDaemon implements IGobblerBatchListener {
     private static final int BUFFER_SIZE = 1024;
     private static final Set<LoggingStreamDaemon> allLogs = new HashSet<>();
 
@@ -75,6 +76,20 @@ public class LoggingStreamDaemon implements IGobblerListener {
         }
     }
 
+    /**
+     * Writes all lines of the batch to the log with a single flush.
+     * @since 4.2
+     */
+    @Override
+    public void handleDataEvents(List<String> lines) {
+        if (isReady()) {
+            for (String line : lines) {
+                output.append(line);
+            }
+            pushData();
+        }
+    }
+
     /**
      * Reads in and returns the output produced.
      * @return The logged data.
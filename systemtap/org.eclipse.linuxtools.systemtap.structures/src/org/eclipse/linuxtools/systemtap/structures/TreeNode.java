@@ -11,11 +11,32 @@
 
 package org.eclipse.linuxtools.systemtap.structures;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+/**
+ * A node of a tree of tapset items, kernel source files and the like.
+ *
+ * Once a node has more than a handful of children, they are indexed by name
+ * so that {@link #getChildByName(String)} takes constant time. The index is
+ * only changed when children are added or removed, so lookups never modify
+ * the node and can be done by several threads at once. Children should not
+ * be renamed while they are indexed.
+ */
 public class TreeNode {
+    private static final int NAME_INDEX_THRESHOLD = 16;
+    private static final Comparator<TreeNode> DISPLAY_ORDER =
+            Comparator.comparing(TreeNode::toString, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private List<TreeNode> children;
+    private Map<String, TreeNode> nameIndex;
     private Object data;
     private String display;
     private boolean clickable;
@@ -41,10 +62,16 @@ public class TreeNode {
 
     public void add(TreeNode item) {
         children.add(item);
+        if (nameIndex != null) {
+            nameIndex.putIfAbsent(item.toString(), item);
+        } else {
+            indexChildren();
+        }
     }
 
     public void addAt(TreeNode item, int location) {
         children.add(Math.min(children.size(), location), item);
+        indexChildren();
     }
 
     public int getChildCount() {
@@ -69,16 +96,17 @@ public class TreeNode {
 
     public boolean remove(int i) {
         if (children.size() > i) {
-            return (null != children.remove(i));
+            boolean removed = null != children.remove(i);
+            indexChildren();
+            return removed;
         } else {
             return false;
         }
     }
 
     public boolean removeAll() {
-        for (int i = children.size() - 1; i >= 0; i--) {
-            remove(i);
-        }
+        children.clear();
+        nameIndex = null;
         return true;
     }
 
@@ -95,23 +123,33 @@ public class TreeNode {
      * are sorted alphabetically.
      */
     public void sortTree() {
-        sortLevel();
-        for (TreeNode temp : children) {
-            temp.sortTree();
+        Deque<TreeNode> nodes = new ArrayDeque<>();
+        nodes.push(this);
+        while (!nodes.isEmpty()) {
+            TreeNode node = nodes.pop();
+            node.sortLevel();
+            for (TreeNode child : node.children) {
+                if (!child.children.isEmpty()) {
+                    nodes.push(child);
+                }
+            }
         }
     }
 
     /**
-     * Performs quicksort on the level.
+     * Sorts the children of this node by their display names. Children
+     * with equal names keep their relative order.
      */
     public void sortLevel() {
-        TreeNode[] children = this.children.toArray(new TreeNode[0]);
-        removeAll();
-        Sort.quicksort(children, 0, children.length - 1);
-
-        for (TreeNode child : children) {
-            add(child);
+        if (children.size() < 2) {
+            return;
+        }
+        TreeNode[] sorted = children.toArray(new TreeNode[children.size()]);
+        Arrays.sort(sorted, DISPLAY_ORDER);
+        for (int i = 0; i < sorted.length; i++) {
+            children.set(i, sorted[i]);
         }
+        // The sort is stable, so the index still holds the first child of each name.
     }
 
     @Override
@@ -120,14 +158,24 @@ public class TreeNode {
     }
 
     public void dispose() {
+        // Detach the children before disposing them, so that disposing
+        // a deep tree does not recurse once per level.
+        Deque<TreeNode> nodes = new ArrayDeque<>();
         if (children != null) {
-            for (TreeNode child : children) {
-                child.dispose();
-            }
+            nodes.addAll(children);
         }
         children = null;
+        nameIndex = null;
         data = null;
         display = null;
+        while (!nodes.isEmpty()) {
+            TreeNode node = nodes.pop();
+            if (node.children != null) {
+                nodes.addAll(node.children);
+                node.children = null;
+            }
+            node.dispose();
+        }
     }
 
     /**
@@ -137,12 +185,33 @@ public class TreeNode {
      * @since 2.0
      */
     public TreeNode getChildByName(String name) {
+        Map<String, TreeNode> index = nameIndex;
+        if (index != null) {
+            return index.get(name);
+        }
+
         for (TreeNode child : children) {
-            if (child.toString().equals(name)) {
+            if (Objects.equals(child.toString(), name)) {
                 return child;
             }
         }
 
         return null;
     }
+
+    /**
+     * Rebuilds the index of the children by name, or drops it if there are
+     * too few children to need one.
+     */
+    private void indexChildren() {
+        if (children.size() < NAME_INDEX_THRESHOLD) {
+            nameIndex = null;
+            return;
+        }
+        Map<String, TreeNode> index = new HashMap<>(children.size() * 2);
+        for (TreeNode child : children) {
+            index.putIfAbsent(child.toString(), child);
+        }
+        nameIndex = index;
+    }
 }
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.structures.listeners;
+
+import java.util.List;
+
+/**
+ * A gobbler listener that receives all lines framed from one read of the
+ * stream at once, instead of one event per line.
+ * @since 4.2
+ */
+public interface IGobblerBatchListener extends IGobblerListener {
+
+    /**
+     * called by streamgobbler when new lines are present
+     * @param lines The textual lines to process, in order.
+     */
+    void handleDataEvents(List<String> lines);
+}
@@ -176,8 +176,8 @@ public class Command implements Runnable {
      */
     @Override
     public void run() {
-        errorGobbler.start();
-        inputGobbler.start();
+        errorGobbler.startShared();
+        inputGobbler.startShared();
         try {
             process.waitFor();
             cleanUpAfterStop();
@@ -13,24 +13,53 @@ package org.eclipse.linuxtools.systemtap.structures.runnable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerBatchListener;
 import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerListener;
 
 /**
- * A separate thread to listen to an InputStream and pull all the data
- * out of it. When data is found a new event is fired share the data with
- * any <code>IDataListener</code> that is listening.
- * @author Ryan Morse
+ * Reads a stream in large blocks, decodes it and splits it into lines. All lines
+ * framed from one block are queued as a batch, and delivered to listeners by a
+ * separate dispatch thread so that slow listeners do not stall the stream. When
+ * the queue is full the reading thread waits for the listeners to catch up.
+ *
+ * A gobbler started with {@link #startShared()} has no threads of its own;
+ * its stream is read and its lines are delivered by threads shared with the
+ * other gobblers started that way.
  */
 public class StreamGobbler implements Runnable {
 
     public StreamGobbler(InputStream is) {
+        this(is, Charset.defaultCharset());
+    }
+
+    /**
+     * @param is The stream to read.
+     * @param charset The charset in which the stream is encoded.
+     * @since 4.2
+     */
+    public StreamGobbler(InputStream is, Charset charset) {
         if(null != is) {
             this.is = is;
             line = new StringBuilder();
-            listeners = new ArrayList<>();
+            listeners = new CopyOnWriteArrayList<>();
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
         }
     }
 
@@ -42,23 +71,51 @@ public class StreamGobbler implements Runnable {
      */
     //Make sure to call this method to start the StreamGobbler
     public void start() {
+        allocateBuffers();
+        dispatcher = new Thread(this::dispatch, "StreamGobbler Dispatcher"); //$NON-NLS-1$
+        dispatcher.start();
         reader = new Thread(this, "StreamGobbler"); //$NON-NLS-1$
+        running = true;
         reader.start();
     }
 
+    /**
+     * Starts the gobbler on the threads shared by all gobblers started this
+     * way, instead of on threads of its own. The stream is only read as far as
+     * {@link InputStream#available()} reports, so it never blocks a shared
+     * thread; once {@link #stop()} is called, the rest of the stream is read
+     * by the thread that called it.
+     * @since 4.2
+     */
+    public void startShared() {
+        allocateBuffers();
+        pump = StreamPump.getDefault();
+        finished = new CountDownLatch(1);
+        released = new CountDownLatch(1);
+        running = true;
+        pump.register(this);
+    }
+
+    private void allocateBuffers() {
+        batches = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        bytes = new byte[BUFFER_SIZE];
+        in = ByteBuffer.wrap(bytes);
+        out = CharBuffer.allocate(BUFFER_SIZE);
+    }
+
     /**
      * Checks to see if the gobbler is still running.
      * @return boolean representing whether or not it is sill running
      */
     public boolean isRunning() {
-        return (null != reader);
+        return running;
     }
 
     /**
-     * The main method of this class. It monitors the provided thread to see
-     * when new data is available and then appends it to its current list of
-     * data.  When a new line is read it will fire a DataEvent for listeners
-     * to get a hold of the data.
+     * The main method of this class. It reads blocks from the provided stream
+     * as they become available, and queues the complete lines of each block
+     * for the listeners. The last, incomplete line is kept until the rest of
+     * it is read.
      */
     @Override
     public void run() {
@@ -66,16 +123,190 @@ public class StreamGobbler implements Runnable {
             return;
 
         try {
-            int val = is.read();
-            while(val != -1) {
-                line.append((char)val);
+            while (read(bytes.length)) {
+                // Keep reading until the end of the stream
+            }
+        } catch (IOException ioe) {
+            // If stream closed before thread shuts down
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Reads what the stream has available without blocking. Called by the
+     * shared threads of {@link StreamPump}.
+     * @return {@link #PUMP_READ} if something was read, {@link #PUMP_IDLE} if
+     * there was nothing to read or the listeners are behind, or
+     * {@link #PUMP_END} at the end of the stream or once the gobbler is stopped.
+     */
+    int pump() {
+        if (stopping) {
+            // Leave the rest of the stream to the thread stopping the gobbler,
+            // as reading it to its end may block.
+            released.countDown();
+            return PUMP_END;
+        }
+        try {
+            if (batches.remainingCapacity() == 0) {
+                // The listeners are falling behind, so wait for them.
+                backpressureWaits.incrementAndGet();
+                return PUMP_IDLE;
+            }
+            int available = is.available();
+            if (available > 0) {
+                read(available);
+                return PUMP_READ;
+            }
+            return PUMP_IDLE;
+        } catch (IOException ioe) {
+            // If stream closed before the gobbler stops
+        }
+        finish();
+        ended = true;
+        released.countDown();
+        return PUMP_END;
+    }
+
+    /**
+     * Reads from the stream once, and queues the complete lines read.
+     * The last, incomplete line is kept until the rest of it is read.
+     * @param max The most bytes to read.
+     * @return <code>false</code> at the end of the stream.
+     */
+    private boolean read(int max) throws IOException {
+        int count = is.read(bytes, in.position(), Math.min(max, bytes.length - in.position()));
+        if (count == -1) {
+            return false;
+        }
+        in.position(in.position() + count);
+        in.flip();
+        while (decoder.decode(in, out, false).isOverflow()) {
+            frameLines(out);
+        }
+        in.compact();
+        frameLines(out);
+        return true;
+    }
+
+    /**
+     * Decodes what is left of the stream and marks its end in the queue.
+     */
+    private void finish() {
+        in.flip();
+        while (decoder.decode(in, out, true).isOverflow()) {
+            frameLines(out);
+        }
+        while (decoder.flush(out).isOverflow()) {
+            frameLines(out);
+        }
+        frameLines(out);
+        enqueue(END_OF_STREAM);
+    }
 
-                if ('\n' == val)
-                    this.fireNewDataEvent();
+    /**
+     * Appends the decoded characters to the current line, and queues every
+     * line completed by them as one batch.
+     */
+    private void frameLines(CharBuffer out) {
+        out.flip();
+        List<String> batch = null;
+        char[] chars = out.array();
+        int start = out.position();
+        int end = out.limit();
+        for (int i = start; i < end; i++) {
+            if ('\n' == chars[i]) {
+                line.append(chars, start, i + 1 - start);
+                start = i + 1;
+                if (batch == null) {
+                    batch = new ArrayList<>();
+                }
+                batch.add(line.toString());
+                line.setLength(0);
+            }
+        }
+        line.append(chars, start, end - start);
+        out.clear();
+        if (batch != null) {
+            linesRead.addAndGet(batch.size());
+            enqueue(batch);
+        }
+    }
 
-                val = is.read();
+    private void enqueue(List<String> batch) {
+        if (!batches.offer(batch)) {
+            // The listeners are falling behind, so wait for them.
+            long waitStart = System.nanoTime();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    batches.put(batch);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            backpressureWaits.incrementAndGet();
+            backpressureNanos.addAndGet(System.nanoTime() - waitStart);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
-        } catch (IOException ioe) {}    // If stream closed before thread shuts down
+        }
+        if (pump != null) {
+            scheduleDispatch();
+        }
+    }
+
+    /**
+     * Delivers queued batches to the listeners until the end of the stream.
+     */
+    private void dispatch() {
+        while (true) {
+            List<String> batch;
+            try {
+                batch = batches.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (batch == END_OF_STREAM) {
+                return;
+            }
+            deliver(batch);
+        }
+    }
+
+    private void scheduleDispatch() {
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            pump.dispatch(this::dispatchQueued);
+        }
+    }
+
+    /**
+     * Delivers the batches queued so far to the listeners, on a shared thread.
+     */
+    private void dispatchQueued() {
+        List<String> batch;
+        while ((batch = batches.poll()) != null) {
+            if (batch == END_OF_STREAM) {
+                finished.countDown();
+            } else {
+                deliver(batch);
+            }
+        }
+        dispatchScheduled.set(false);
+        // Batches queued after the queue was found empty must not be left behind.
+        if (!batches.isEmpty()) {
+            scheduleDispatch();
+        }
+    }
+
+    private void deliver(List<String> batch) {
+        try {
+            fireNewDataEvents(batch);
+        } catch (RuntimeException e) {
+            // A failing listener must not stop the others, nor stall the stream.
+        }
+        batchesDispatched.incrementAndGet();
     }
 
     /**
@@ -86,13 +317,36 @@ public class StreamGobbler implements Runnable {
     public synchronized void stop() {
         if (reader != null){
             try {
-                // Wait for the reader thread to finish.
+                // Wait for the reader thread to finish, then for all of its lines to be delivered.
                 reader.join();
+                dispatcher.join();
             } catch (InterruptedException e) {
                 // The thread was interrupted; nothing to do; finish stopping.
             }
             reader = null;
+            dispatcher = null;
+        } else if (pump != null && running) {
+            stopping = true;
+            try {
+                // Wait for the shared threads to leave the stream, then read
+                // the rest of it here and wait for it to be delivered.
+                released.await();
+                if (!ended) {
+                    try {
+                        while (read(bytes.length)) {
+                            // Keep reading until the end of the stream
+                        }
+                    } catch (IOException ioe) {
+                        // If stream closed before the gobbler stops
+                    }
+                    finish();
+                }
+                finished.await();
+            } catch (InterruptedException e) {
+                // The thread was interrupted; nothing to do; finish stopping.
+            }
         }
+        running = false;
         notify();
         // Fire one last time to ensure listeners have gotten everything.
         this.fireNewDataEvent();
@@ -119,9 +373,23 @@ public class StreamGobbler implements Runnable {
     }
 
     public void fireNewDataEvent(String l) {
-        synchronized (listeners) {
-            for(int i = 0; i < listeners.size(); i++){
-                listeners.get(i).handleDataEvent(l);
+        fireNewDataEvents(Collections.singletonList(l));
+    }
+
+    /**
+     * Fires new events for a batch of lines to everything that is monitoring this stream.
+     * Batch listeners receive all lines at once, other listeners one event per line.
+     * @param lines The lines to deliver, in order.
+     * @since 4.2
+     */
+    protected void fireNewDataEvents(List<String> lines) {
+        for (IGobblerListener listener : listeners) {
+            if (listener instanceof IGobblerBatchListener) {
+                ((IGobblerBatchListener) listener).handleDataEvents(lines);
+            } else {
+                for (String l : lines) {
+                    listener.handleDataEvent(l);
+                }
             }
         }
     }
@@ -131,10 +399,8 @@ public class StreamGobbler implements Runnable {
      * @param l A listener that needs to monitor the stream.
      */
     public void addDataListener(IGobblerListener l) {
-        synchronized (listeners) {
-            if(l != null && !listeners.contains(l)){
-                listeners.add(l);
-            }
+        if(l != null) {
+            listeners.addIfAbsent(l);
         }
     }
 
@@ -143,14 +409,70 @@ public class StreamGobbler implements Runnable {
      * @param l A listener that is monitoring the stream and should be removed
      */
     public void removeDataListener(IGobblerListener l) {
-        synchronized (listeners) {
-            if(listeners.contains(l))
-                listeners.remove(l);
-        }
+        listeners.remove(l);
+    }
+
+    /**
+     * @return The number of complete lines read from the stream so far.
+     * @since 4.2
+     */
+    public long getLinesRead() {
+        return linesRead.get();
     }
 
-    private List<IGobblerListener> listeners;
+    /**
+     * @return The number of batches of lines delivered to the listeners so far.
+     * @since 4.2
+     */
+    public long getBatchesDispatched() {
+        return batchesDispatched.get();
+    }
+
+    /**
+     * @return How many times reading the stream had to wait for the listeners
+     * because the queue of undelivered batches was full.
+     * @since 4.2
+     */
+    public long getBackpressureWaits() {
+        return backpressureWaits.get();
+    }
+
+    /**
+     * @return The total time, in nanoseconds, reading the stream spent waiting
+     * for the listeners.
+     * @since 4.2
+     */
+    public long getBackpressureNanos() {
+        return backpressureNanos.get();
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final List<String> END_OF_STREAM = Collections.emptyList();
+
+    static final int PUMP_READ = 0;
+    static final int PUMP_IDLE = 1;
+    static final int PUMP_END = 2;
+
+    private CopyOnWriteArrayList<IGobblerListener> listeners;
     private StringBuilder line;
     private Thread reader;
+    private Thread dispatcher;
     private InputStream is;
-}
\ No newline at end of file
+    private CharsetDecoder decoder;
+    private BlockingQueue<List<String>> batches;
+    private byte[] bytes;
+    private ByteBuffer in;
+    private CharBuffer out;
+    private StreamPump pump;
+    private CountDownLatch finished;
+    private CountDownLatch released;
+    private boolean ended;
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong batchesDispatched = new AtomicLong();
+    private final AtomicLong backpressureWaits = new AtomicLong();
+    private final AtomicLong backpressureNanos = new AtomicLong();
+}
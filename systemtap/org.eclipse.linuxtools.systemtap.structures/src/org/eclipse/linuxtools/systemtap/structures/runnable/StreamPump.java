@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.structures.runnable;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the streams of all running commands with a small, fixed number of threads.
+ *
+ * Instead of blocking on a stream, a reader thread only reads the bytes the
+ * stream reports as available, then moves on to the next stream. A stream with
+ * nothing to read is polled again after a delay that grows up to
+ * {@link #MAX_IDLE_WAIT} milliseconds while it stays idle. The lines read are
+ * delivered to the listeners of each stream in order, by another fixed number
+ * of threads shared by all streams. Each stream has at most one delivery task
+ * queued or running at a time, so the queue of delivery tasks never holds more
+ * tasks than there are streams.
+ */
+final class StreamPump {
+
+    private static final int READER_THREADS =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int DISPATCHER_THREADS = READER_THREADS;
+    private static final long MAX_IDLE_WAIT = 20;
+    private static final long KEEP_ALIVE = 30;
+
+    private static final StreamPump INSTANCE = new StreamPump();
+
+    private final ScheduledThreadPoolExecutor readers;
+    private final ThreadPoolExecutor dispatchers;
+
+    private StreamPump() {
+        readers = new ScheduledThreadPoolExecutor(READER_THREADS, daemonThreads("StreamPump Reader")); //$NON-NLS-1$
+        readers.setKeepAliveTime(KEEP_ALIVE, TimeUnit.SECONDS);
+        readers.allowCoreThreadTimeOut(true);
+        dispatchers = new ThreadPoolExecutor(DISPATCHER_THREADS, DISPATCHER_THREADS, KEEP_ALIVE, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("StreamPump Dispatcher")); //$NON-NLS-1$
+        dispatchers.allowCoreThreadTimeOut(true);
+    }
+
+    static StreamPump getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts reading the stream of a gobbler until its end, or until the
+     * gobbler is stopped.
+     */
+    void register(StreamGobbler gobbler) {
+        readers.execute(() -> poll(gobbler, 0));
+    }
+
+    /**
+     * Runs a task that delivers lines to listeners.
+     */
+    void dispatch(Runnable task) {
+        dispatchers.execute(task);
+    }
+
+    private void poll(StreamGobbler gobbler, long idleWait) {
+        switch (gobbler.pump()) {
+        case StreamGobbler.PUMP_READ:
+            readers.execute(() -> poll(gobbler, 0));
+            break;
+        case StreamGobbler.PUMP_IDLE:
+            long wait = Math.min(Math.max(1, idleWait * 2), MAX_IDLE_WAIT);
+            readers.schedule(() -> poll(gobbler, wait), wait, TimeUnit.MILLISECONDS);
+            break;
+        default:
+            // End of stream, or the gobbler was stopped
+            break;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + ' ' + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
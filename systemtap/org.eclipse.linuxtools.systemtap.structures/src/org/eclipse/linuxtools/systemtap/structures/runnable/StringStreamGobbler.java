@@ -12,6 +12,7 @@
 package org.eclipse.linuxtools.systemtap.structures.runnable;
 
 import java.io.InputStream;
+import java.util.List;
 
 /**
  * A {@link StreamGobbler} that reads the stream into a {@link StringBuilder}
@@ -31,6 +32,16 @@ public class StringStreamGobbler extends StreamGobbler {
         output.append(line);
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    protected void fireNewDataEvents(List<String> lines) {
+        for (String line : lines) {
+            output.append(line);
+        }
+    }
+
     public StringBuilder getOutput() {
         return output;
     }
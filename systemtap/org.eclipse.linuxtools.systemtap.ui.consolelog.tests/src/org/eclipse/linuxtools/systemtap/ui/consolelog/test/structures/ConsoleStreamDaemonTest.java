@@ -15,6 +15,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.eclipse.linuxtools.systemtap.structures.runnable.StreamGobbler;
 import org.eclipse.linuxtools.systemtap.ui.consolelog.structures.ConsoleStreamDaemon;
 import org.eclipse.linuxtools.systemtap.ui.consolelog.structures.ScriptConsole;
@@ -45,6 +47,16 @@ public class ConsoleStreamDaemonTest {
         assertNotNull(daemon);
     }
     @Test
+    public void testHandleDataEvents() {
+        ConsoleStreamDaemon csd = new ConsoleStreamDaemon(ScriptConsole.getInstance("test"));
+        csd.handleDataEvents(Arrays.asList("a\n", "b\n", "c\n"));
+        csd.flush();
+        csd.dispose();
+        csd.handleDataEvents(Arrays.asList("d\n"));
+        csd.flush();
+        assertTrue(csd.isDisposed());
+    }
+    @Test
     public void testIsDisposed() {
         ConsoleStreamDaemon csd = new ConsoleStreamDaemon(null);
         assertFalse(csd.isDisposed());
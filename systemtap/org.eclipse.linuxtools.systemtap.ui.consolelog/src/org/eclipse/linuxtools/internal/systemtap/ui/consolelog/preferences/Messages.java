@@ -14,7 +14,9 @@ import org.eclipse.osgi.util.NLS;
 public class Messages extends NLS {
     private static final String BUNDLE_NAME = "org.eclipse.linuxtools.internal.systemtap.ui.consolelog.preferences.messages"; //$NON-NLS-1$
     public static String ConsoleLogPreferencePage_AlwaysConnectToHost;
+    public static String ConsoleLogPreferencePage_BufferSize;
     public static String ConsoleLogPreferencePage_Host;
+    public static String ConsoleLogPreferencePage_LimitOutput;
     public static String ConsoleLogPreferencePage_Password;
     public static String ConsoleLogPreferencePage_Port;
     public static String ConsoleLogPreferencePage_PreferencesTitle;
@@ -21,39 +21,20 @@ import org.eclipse.linuxtools.systemtap.ui.consolelog.structures.ScriptConsole;
  * @author Ryan Morse
  */
 public class ErrorStreamDaemon extends ConsoleStreamDaemon {
+    private static final String PASSWORD_PROMPT = Localization.getString("ErrorStreamDaemon.Password"); //$NON-NLS-1$
+
     public ErrorStreamDaemon(ScriptConsole console) {
         super(console);
-
-        outputData = new StringBuilder();
-    }
-
-    /**
-     * Prints out the new output data to the console and parses it and sends it to the
-     * ErrorView.
-     */
-    @Override
-    protected void pushData() {
-        if(output.startsWith(Localization.getString("ErrorStreamDaemon.Password"))) { //$NON-NLS-1$
-            output = output.substring(Localization.getString("ErrorStreamDaemon.Password").length()); //$NON-NLS-1$
-        }
-
-        super.pushData();
-
-        outputData.append(output);
-
     }
 
     /**
-     * Disposes of all internal references in the class. No method should be called after this.
+     * Strips the password prompt from the line.
      */
     @Override
-    public void dispose() {
-        if(!isDisposed()) {
-            super.dispose();
-            outputData.delete(0, outputData.length());
-            outputData = null;
+    protected String processLine(String line) {
+        if(line.startsWith(PASSWORD_PROMPT)) {
+            line = line.substring(PASSWORD_PROMPT.length());
         }
+        return line;
     }
-
-    private StringBuilder outputData;
 }
@@ -67,8 +67,8 @@ public class ScpExec extends Command {
     @Override
     public void run() {
         try {
-            errorGobbler.start();
-            inputGobbler.start();
+            errorGobbler.startShared();
+            inputGobbler.startShared();
 
             synchronized (this) {
                 while (!channel.isClosed()) {
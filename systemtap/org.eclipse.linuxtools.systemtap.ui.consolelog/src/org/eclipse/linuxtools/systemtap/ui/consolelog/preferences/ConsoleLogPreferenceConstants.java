@@ -16,4 +16,12 @@ public interface ConsoleLogPreferenceConstants {
     String PORT_NUMBER = "port"; //$NON-NLS-1$
     String SCP_USER = "scpuser"; //$NON-NLS-1$
     String SCP_PASSWORD = "scppassword"; //$NON-NLS-1$
+    /**
+     * @since 4.1
+     */
+    String LIMIT_OUTPUT = "limitoutput"; //$NON-NLS-1$
+    /**
+     * @since 4.1
+     */
+    String BUFFER_SIZE = "buffersize"; //$NON-NLS-1$
 }
@@ -11,6 +11,7 @@
 
 package org.eclipse.linuxtools.systemtap.ui.consolelog.preferences;
 
+import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.StringFieldEditor;
@@ -43,6 +44,15 @@ public class ConsoleLogPreferencePage extends FieldEditorPreferencePage implemen
                 getFieldEditorParent());
         passwordField.getTextControl(getFieldEditorParent()).setEchoChar('*');
         addField(passwordField);
+
+        addField(new BooleanFieldEditor(ConsoleLogPreferenceConstants.LIMIT_OUTPUT,
+                Messages.ConsoleLogPreferencePage_LimitOutput, getFieldEditorParent()));
+
+        IntegerFieldEditor bufferSizeField = new IntegerFieldEditor(
+                ConsoleLogPreferenceConstants.BUFFER_SIZE, Messages.ConsoleLogPreferencePage_BufferSize,
+                getFieldEditorParent());
+        bufferSizeField.setValidRange(1000, Integer.MAX_VALUE);
+        addField(bufferSizeField);
     }
 
     @Override
@@ -30,6 +30,10 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
         store.setDefault(ConsoleLogPreferenceConstants.SCP_USER, "guest"); //$NON-NLS-1$
         store.setDefault(ConsoleLogPreferenceConstants.SCP_PASSWORD, "welcome"); //$NON-NLS-1$
 
+        //console
+        store.setDefault(ConsoleLogPreferenceConstants.LIMIT_OUTPUT, true);
+        store.setDefault(ConsoleLogPreferenceConstants.BUFFER_SIZE, 1000000);
+
 
     }
 }
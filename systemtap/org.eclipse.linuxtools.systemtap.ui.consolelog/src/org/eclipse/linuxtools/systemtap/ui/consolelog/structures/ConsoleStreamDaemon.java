@@ -13,17 +13,40 @@ package org.eclipse.linuxtools.systemtap.ui.consolelog.structures;
 
 
 import java.io.IOException;
+import java.util.List;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.linuxtools.internal.systemtap.ui.consolelog.structures.Messages;
 import org.eclipse.linuxtools.systemtap.graphing.ui.widgets.ExceptionErrorDialog;
-import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerListener;
+import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerBatchListener;
 import org.eclipse.ui.console.IOConsoleOutputStream;
 
 /**
  * A class push data to a ScriptConsole.
+ *
+ * Incoming lines are coalesced and written to the console at most once every
+ * {@link #FLUSH_INTERVAL} milliseconds, so a script printing at a high rate
+ * causes a few large console updates rather than one per line. If the
+ * console cannot keep up and more than {@link #MAX_PENDING} characters are
+ * waiting, the caller writes them itself, which slows the producer down.
  * @author Ryan Morse
  */
-public class ConsoleStreamDaemon implements IGobblerListener {
+public class ConsoleStreamDaemon implements IGobblerBatchListener {
+    /**
+     * The delay in milliseconds between receiving output and writing it to the console.
+     * @since 4.1
+     */
+    public static final long FLUSH_INTERVAL = 100;
+
+    /**
+     * The number of buffered characters past which output is written immediately.
+     * @since 4.1
+     */
+    public static final int MAX_PENDING = 256 * 1024;
+
     public ConsoleStreamDaemon(ScriptConsole console) {
         if(null != console) {
             ioConsole = console.newOutputStream();
@@ -45,12 +68,85 @@ public class ConsoleStreamDaemon implements IGobblerListener {
     }
 
     /**
-     * Captures data events and pushes the data to the console
+     * Called for every received line before it is queued for the console.
+     * @param line The line of output.
+     * @return The text to print for the line.
+     * @since 4.1
+     */
+    protected String processLine(String line) {
+        return line;
+    }
+
+    /**
+     * Captures data events and queues the data for the console
      */
     @Override
     public void handleDataEvent(String line) {
-        output = line;
-        this.pushData();
+        boolean flushNow;
+        synchronized (pending) {
+            if (disposed) {
+                return;
+            }
+            pending.append(processLine(line));
+            flushNow = scheduleFlush();
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Captures a batch of data events and queues the data for the console
+     * @since 4.1
+     */
+    @Override
+    public void handleDataEvents(List<String> lines) {
+        boolean flushNow;
+        synchronized (pending) {
+            if (disposed) {
+                return;
+            }
+            for (String line : lines) {
+                pending.append(processLine(line));
+            }
+            flushNow = scheduleFlush();
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #pending}.
+     * @return <code>true</code> if the caller should flush the output itself.
+     */
+    private boolean scheduleFlush() {
+        if (pending.length() >= MAX_PENDING) {
+            return true;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flushJob.schedule(FLUSH_INTERVAL);
+        }
+        return false;
+    }
+
+    /**
+     * Writes all queued output to the console.
+     * @since 4.1
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            synchronized (pending) {
+                flushScheduled = false;
+                if (pending.length() == 0) {
+                    return;
+                }
+                output = pending.toString();
+                pending.setLength(0);
+            }
+            pushData();
+        }
     }
 
     /**
@@ -63,16 +159,39 @@ public class ConsoleStreamDaemon implements IGobblerListener {
 
     /**
      * Disposes of all internal references in the class. No method should be called after this.
+     * Output that has not been written yet is flushed to the console first.
      */
     public void dispose() {
         if(!disposed) {
-            disposed = true;
-            output = null;
-            ioConsole = null;
+            flushJob.cancel();
+            flush();
+            synchronized (flushLock) {
+                synchronized (pending) {
+                    disposed = true;
+                    pending.setLength(0);
+                }
+                output = null;
+                ioConsole = null;
+            }
         }
     }
 
+    private final Job flushJob = new Job(ConsoleStreamDaemon.class.getSimpleName()) {
+        {
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            flush();
+            return Status.OK_STATUS;
+        }
+    };
+
     protected String output;
     protected IOConsoleOutputStream ioConsole;
-    private boolean disposed;
+    private volatile boolean disposed;
+    private final StringBuilder pending = new StringBuilder();
+    private final Object flushLock = new Object();
+    private boolean flushScheduled = false;
 }
@@ -19,12 +19,15 @@ import java.util.Set;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.linuxtools.internal.systemtap.ui.consolelog.structures.ErrorStreamDaemon;
 import org.eclipse.linuxtools.systemtap.graphing.ui.widgets.ExceptionErrorDialog;
 import org.eclipse.linuxtools.systemtap.structures.runnable.Command;
 import org.eclipse.linuxtools.systemtap.ui.consolelog.ScpExec;
+import org.eclipse.linuxtools.systemtap.ui.consolelog.internal.ConsoleLogPlugin;
 import org.eclipse.linuxtools.systemtap.ui.consolelog.internal.Localization;
+import org.eclipse.linuxtools.systemtap.ui.consolelog.preferences.ConsoleLogPreferenceConstants;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.console.ConsolePlugin;
@@ -37,6 +40,11 @@ import org.eclipse.ui.console.IOConsole;
  * through ConsoleDaemons, will print all the output the the console.  In order to stop the
  * running Command <code>StopScriptAction</code> should be used to stop this console from
  * running.
+ *
+ * When console output is limited in the preferences, the oldest text is trimmed
+ * from the console once it grows past the configured buffer size. The complete
+ * output is still logged to disk by the command and can be retrieved with
+ * {@link #saveStream(File)}.
  * @author Ryan Morse
  */
 public class ScriptConsole extends IOConsole {
@@ -178,6 +186,23 @@ public class ScriptConsole extends IOConsole {
 
     ScriptConsole(String name, ImageDescriptor imageDescriptor) {
         super(name, STAP_CONSOLE_TYPE, imageDescriptor);
+        updateWaterMarks();
+    }
+
+    /**
+     * Applies the output limit preferences to this console. Once the console holds
+     * more characters than the buffer size, it is trimmed down to three quarters of it.
+     */
+    private void updateWaterMarks() {
+        IPreferenceStore store = ConsoleLogPlugin.getDefault().getPreferenceStore();
+        if (store.getBoolean(ConsoleLogPreferenceConstants.LIMIT_OUTPUT)) {
+            int high = store.getInt(ConsoleLogPreferenceConstants.BUFFER_SIZE);
+            if (high > 0) {
+                setWaterMarks(high - high / 4, high);
+                return;
+            }
+        }
+        setWaterMarks(-1, -1);
     }
 
     /**
@@ -230,6 +255,7 @@ public class ScriptConsole extends IOConsole {
         	errorDaemon = new ErrorStreamDaemon(this);
         }
         createConsoleDaemon();
+        updateWaterMarks();
         notifyConsoleObservers();
         activate();
 
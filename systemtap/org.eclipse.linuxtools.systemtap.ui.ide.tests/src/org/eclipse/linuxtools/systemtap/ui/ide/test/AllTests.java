@@ -15,7 +15,9 @@ import org.eclipse.linuxtools.systemtap.ui.ide.test.editors.stp.STPCompletionPro
 import org.eclipse.linuxtools.systemtap.ui.ide.test.editors.stp.STPFormattingTest;
 import org.eclipse.linuxtools.systemtap.ui.ide.test.editors.stp.STPIndenterTest;
 import org.eclipse.linuxtools.systemtap.ui.ide.test.editors.stp.STPToggleCommentTest;
+import org.eclipse.linuxtools.systemtap.ui.ide.test.structures.ManpageCacherTest;
 import org.eclipse.linuxtools.systemtap.ui.ide.test.structures.StapErrorParserTest;
+import org.eclipse.linuxtools.systemtap.ui.ide.test.structures.TreeCacheFileTest;
 import org.eclipse.linuxtools.systemtap.ui.ide.test.structures.TreeSettingsTest;
 import org.eclipse.linuxtools.systemtap.ui.ide.test.swtbot.TestCreateSystemtapScript;
 import org.junit.runner.RunWith;
@@ -23,7 +25,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ StapErrorParserTest.class, TreeSettingsTest.class,
+@SuiteClasses({ StapErrorParserTest.class, TreeCacheFileTest.class, TreeSettingsTest.class, ManpageCacherTest.class,
         STPCompletionProcessorTest.class, STPToggleCommentTest.class,
         TestCreateSystemtapScript.class, ConditionalExpressionValidatorTest.class,
         DirectoryValidatorTest.class, STPFormattingTest.class, STPIndenterTest.class })
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.ui.ide.test.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.ManpageCacher;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.Messages;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.TapsetItemType;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.TapsetLibrary;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.TreeSettings;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers.FunctionParser;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers.ProbeParser;
+import org.eclipse.linuxtools.systemtap.structures.TreeNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ManpageCacherTest {
+
+    private static final String PAGE = "FTEST(3stap)\n\nNAME\n    function::ftest - test function"; //$NON-NLS-1$
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        TapsetLibrary.init();
+        TreeNode probes = new TreeNode("probes", false); //$NON-NLS-1$
+        probes.add(new TreeNode(Messages.ProbeParser_staticProbes, false));
+        probes.add(new TreeNode(Messages.ProbeParser_aliasProbes, false));
+        TreeSettings.setTrees(new TreeNode("functions", false), probes); //$NON-NLS-1$
+        // A page saved by an earlier session
+        file = ManpageCacher.getPageFile(TapsetItemType.FUNCTION, "ftest"); //$NON-NLS-1$
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), (TapsetItemType.FUNCTION + "::ftest\n" + PAGE) //$NON-NLS-1$
+                .getBytes(StandardCharsets.UTF_8));
+        ManpageCacher.invalidate(TapsetItemType.values());
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testPagesSurviveStoredTreeReload() throws InterruptedException {
+        // The listeners are notified in order, so these ones run after
+        // the one that the tapset library registered on startup.
+        CountDownLatch reloaded = new CountDownLatch(2);
+        IJobChangeListener listener = new JobChangeAdapter() {
+            @Override
+            public void done(IJobChangeEvent event) {
+                reloaded.countDown();
+            }
+        };
+        FunctionParser.getInstance().addJobChangeListener(listener);
+        ProbeParser.getInstance().addJobChangeListener(listener);
+        try {
+            // What a restart does when the stored trees are current
+            TapsetLibrary.readTreeFile();
+            assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+            assertTrue(FunctionParser.getInstance().getResult().isOK());
+            assertTrue(ProbeParser.getInstance().getResult().isOK());
+        } finally {
+            FunctionParser.getInstance().removeJobChangeListener(listener);
+            ProbeParser.getInstance().removeJobChangeListener(listener);
+        }
+
+        assertTrue(file.exists());
+        assertEquals(PAGE, ManpageCacher.getDocumentation(TapsetItemType.FUNCTION, "ftest")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testInvalidateKeepsSavedPages() {
+        assertEquals(PAGE, ManpageCacher.getDocumentation(TapsetItemType.FUNCTION, "ftest")); //$NON-NLS-1$
+        ManpageCacher.invalidate(TapsetItemType.FUNCTION);
+
+        assertTrue(file.exists());
+        assertEquals(PAGE, ManpageCacher.getDocumentation(TapsetItemType.FUNCTION, "ftest")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testClearDeletesSavedPages() {
+        ManpageCacher.clear(TapsetItemType.FUNCTION);
+
+        assertFalse(file.exists());
+    }
+}
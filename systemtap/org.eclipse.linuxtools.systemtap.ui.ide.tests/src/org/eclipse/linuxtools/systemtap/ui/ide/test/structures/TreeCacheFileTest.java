@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.ui.ide.test.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.TreeCacheFile;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.FuncparamNodeData;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.FunctionNodeData;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.ProbeNodeData;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.ProbevarNodeData;
+import org.eclipse.linuxtools.systemtap.structures.TreeDefinitionNode;
+import org.eclipse.linuxtools.systemtap.structures.TreeNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TreeCacheFileTest {
+
+    private static final String KEY = "4.14.0:/usr/share/systemtap/tapset:"; //$NON-NLS-1$
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("TreeSettings", ".bin"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static TreeNode functionTree() {
+        TreeNode functions = new TreeNode("functions", false); //$NON-NLS-1$
+        TreeNode function = new TreeDefinitionNode(new FunctionNodeData("function ftest(x:long)", null), //$NON-NLS-1$
+                "ftest", "/usr/share/systemtap/tapset/test.stp", true); //$NON-NLS-1$ //$NON-NLS-2$
+        function.add(new TreeNode(new FuncparamNodeData("long"), "x", false)); //$NON-NLS-1$ //$NON-NLS-2$
+        functions.add(function);
+        functions.add(new TreeDefinitionNode(null, "fnull", null, false)); //$NON-NLS-1$
+        return functions;
+    }
+
+    private static TreeNode probeTree() {
+        TreeNode probes = new TreeNode("probes", false); //$NON-NLS-1$
+        TreeNode group = new TreeNode("syscall", true); //$NON-NLS-1$
+        for (String name : new String[] {"syscall.open", "syscall.close"}) { //$NON-NLS-1$ //$NON-NLS-2$
+            // Both probes share their definition file
+            TreeNode probe = new TreeDefinitionNode(new ProbeNodeData(name), name,
+                    "/usr/share/systemtap/tapset/syscalls.stp", true); //$NON-NLS-1$
+            probe.add(new TreeNode(new ProbevarNodeData("fd:long"), false)); //$NON-NLS-1$
+            group.add(probe);
+        }
+        probes.add(group);
+        return probes;
+    }
+
+    private static void assertSameTree(TreeNode expected, TreeNode actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.isClickable(), actual.isClickable());
+        assertEquals(expected instanceof TreeDefinitionNode, actual instanceof TreeDefinitionNode);
+        if (expected instanceof TreeDefinitionNode) {
+            assertEquals(((TreeDefinitionNode) expected).getDefinition(),
+                    ((TreeDefinitionNode) actual).getDefinition());
+        }
+        if (expected.getData() == null) {
+            assertNull(actual.getData());
+        } else {
+            assertEquals(expected.getData().getClass(), actual.getData().getClass());
+            assertEquals(expected.getData().toString(), actual.getData().toString());
+        }
+        assertEquals(expected.getChildCount(), actual.getChildCount());
+        for (int i = 0; i < expected.getChildCount(); i++) {
+            assertSameTree(expected.getChildAt(i), actual.getChildAt(i));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        TreeNode functions = functionTree();
+        TreeNode probes = probeTree();
+        TreeCacheFile.write(file, KEY, 1234L, functions, probes);
+
+        assertEquals(1234L, TreeCacheFile.readDate(file, KEY));
+        TreeNode[] trees = TreeCacheFile.read(file, KEY);
+        assertNotNull(trees);
+        assertEquals(2, trees.length);
+        assertSameTree(functions, trees[0]);
+        assertSameTree(probes, trees[1]);
+    }
+
+    @Test
+    public void testOtherKey() throws IOException {
+        TreeCacheFile.write(file, KEY, 1234L, functionTree(), probeTree());
+
+        assertEquals(-1, TreeCacheFile.readDate(file, KEY + "other")); //$NON-NLS-1$
+        assertNull(TreeCacheFile.read(file, KEY + "other")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testMissingFile() {
+        file.delete();
+
+        assertEquals(-1, TreeCacheFile.readDate(file, KEY));
+        assertNull(TreeCacheFile.read(file, KEY));
+    }
+
+    @Test
+    public void testTruncatedFile() throws IOException {
+        TreeCacheFile.write(file, KEY, 1234L, functionTree(), probeTree());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        for (int length : new int[] {0, 4, 12, bytes.length / 2, bytes.length - 1}) {
+            Files.write(file.toPath(), Arrays.copyOf(bytes, length));
+            assertNull("Truncated to " + length, TreeCacheFile.read(file, KEY)); //$NON-NLS-1$
+        }
+    }
+
+    @Test
+    public void testCorruptFile() throws IOException {
+        TreeCacheFile.write(file, KEY, 1234L, functionTree(), probeTree());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        // Flip one bit in turn in each byte after the magic number, version,
+        // key and date, including the length and checksum of the trees
+        int header = 4 + 4 + 2 + KEY.length() + 8;
+        assertTrue(bytes.length > header + 4 + 8);
+        for (int i = header; i < bytes.length; i++) {
+            byte[] corrupt = bytes.clone();
+            corrupt[i] ^= 0x10;
+            Files.write(file.toPath(), corrupt);
+            assertNull("Corrupt byte " + i, TreeCacheFile.read(file, KEY)); //$NON-NLS-1$
+        }
+    }
+
+    @Test
+    public void testTrailingData() throws IOException {
+        TreeCacheFile.write(file, KEY, 1234L, functionTree(), probeTree());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length + 1));
+        assertNull(TreeCacheFile.read(file, KEY));
+    }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.systemtap.ui.ide.editors.stp;
+
+import java.util.Arrays;
+
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.ICompletable;
+import org.eclipse.linuxtools.systemtap.structures.TreeNode;
+
+/**
+ * A snapshot of the children of a {@link TreeNode}, sorted by completion text
+ * so that all children starting with a prefix can be found with a binary
+ * search instead of a scan over every child.
+ */
+final class CompletionIndex {
+
+    private final String[] names;
+    private final int[] positions;
+    private final TreeNode[] children;
+
+    /**
+     * @param node The node whose current children are indexed.
+     */
+    CompletionIndex(TreeNode node) {
+        int count = node.getChildCount();
+        children = new TreeNode[count];
+        Integer[] order = new Integer[count];
+        String[] unsortedNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            children[i] = node.getChildAt(i);
+            unsortedNames[i] = getCompletionText(children[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> unsortedNames[a].compareTo(unsortedNames[b]));
+
+        names = new String[count];
+        positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = unsortedNames[order[i]];
+            positions[i] = order[i];
+        }
+    }
+
+    /**
+     * @param prefix The prefix to match.
+     * @return The children whose completion text starts with the prefix,
+     * in the order they appear in the tree.
+     */
+    TreeNode[] getMatches(String prefix) {
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < names.length && names[to].startsWith(prefix)) {
+            to++;
+        }
+        if (from == to) {
+            return STPMetadataSingleton.NO_MATCHES;
+        }
+
+        int[] matched = Arrays.copyOfRange(positions, from, to);
+        Arrays.sort(matched);
+        TreeNode[] matches = new TreeNode[matched.length];
+        for (int i = 0; i < matched.length; i++) {
+            matches[i] = children[matched[i]];
+        }
+        return matches;
+    }
+
+    /**
+     * @param name The completion text to look for.
+     * @return <code>true</code> if a child has exactly the given completion text.
+     */
+    boolean contains(String name) {
+        int i = lowerBound(name);
+        return i < names.length && names[i].equals(name);
+    }
+
+    /**
+     * @return The index of the first name that is not less than the given one.
+     */
+    private int lowerBound(String name) {
+        int low = 0;
+        int high = names.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (names[mid].compareTo(name) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String getCompletionText(TreeNode node) {
+        String name = node.getData() instanceof ICompletable
+                ? ((ICompletable) node.getData()).getCompletionText()
+                : node.toString();
+        return name != null ? name : ""; //$NON-NLS-1$
+    }
+}
@@ -13,6 +13,10 @@ package org.eclipse.linuxtools.internal.systemtap.ui.ide.editors.stp;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
 import org.eclipse.jface.text.BadLocationException;
@@ -45,6 +49,7 @@ public class STPCompletionProcessor implements IContentAssistProcessor, ITextHov
     private static final String GLOBAL_KEYWORD = "global "; //$NON-NLS-1$
     private static final String PROBE_KEYWORD = "probe "; //$NON-NLS-1$
     private static final String FUNCTION_KEYWORD = "function "; //$NON-NLS-1$
+    private static final long HOVER_TIMEOUT = 2000;
 
     private static final String[][] GLOBAL_KEYWORDS = {
             { GLOBAL_KEYWORD, Messages.STPCompletionProcessor_global },
@@ -404,25 +409,25 @@ public class STPCompletionProcessor implements IContentAssistProcessor, ITextHov
 
     @Override
     public String getHoverInfo(ITextViewer textViewer, IRegion hoverRegion) {
-        String documentation = null;
+        CompletableFuture<String> documentation = null;
         try {
             String keyword = textViewer.getDocument().get(hoverRegion.getOffset(), hoverRegion.getLength());
             int offset = hoverRegion.getOffset();
             IDocument document = textViewer.getDocument();
 
             if (getPrecedingToken(document, offset - 1).tokenString.equals(PROBE_KEYWORD.trim())) {
-                documentation = ManpageCacher.getDocumentation(TapsetItemType.PROBE, keyword);
+                documentation = ManpageCacher.getDocumentationAsync(TapsetItemType.PROBE, keyword);
             } else {
                 ITypedRegion partition =
                         ((IDocumentExtension3)document).getPartition(STPProbeScanner.STP_PROBE_PARTITIONING,
                                 offset, false);
                 if (partition.getType() == STPProbeScanner.STP_PROBE) {
                     if (isFunctionRegion(document, hoverRegion)) {
-                        documentation = ManpageCacher.getDocumentation(TapsetItemType.FUNCTION, keyword);
+                        documentation = ManpageCacher.getDocumentationAsync(TapsetItemType.FUNCTION, keyword);
                     } else {
                         String probe = getProbe(document, offset);
                         if (stpMetadataSingleton.isVariableInProbe(probe, keyword)) {
-                            documentation = ManpageCacher.getDocumentation(TapsetItemType.PROBEVAR, probe, keyword);
+                            documentation = ManpageCacher.getDocumentationAsync(TapsetItemType.PROBEVAR, probe, keyword);
                         }
                     }
                 }
@@ -432,7 +437,19 @@ public class STPCompletionProcessor implements IContentAssistProcessor, ITextHov
             // Bad hover location/scenario; just ignore it.
         }
 
-        return documentation;
+        if (documentation == null) {
+            return null;
+        }
+        // Hover information is computed outside of the UI thread, but a page
+        // that takes too long to load is only shown on the next hover.
+        try {
+            return documentation.get(HOVER_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException|TimeoutException e) {
+            // The page is still being loaded.
+        }
+        return null;
     }
 
     @Override
@@ -15,12 +15,12 @@ package org.eclipse.linuxtools.internal.systemtap.ui.ide.editors.stp;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.TapsetLibrary;
-import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.ICompletable;
-import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.ProbevarNodeData;
 import org.eclipse.linuxtools.systemtap.structures.TreeNode;
 
 
@@ -28,6 +28,9 @@ import org.eclipse.linuxtools.systemtap.structures.TreeNode;
  *
  * Build and hold completion metadata for Systemtap. This originally is generated from stap coverage data
  *
+ * Completions are answered from sorted indexes of the tapset trees, which are
+ * rebuilt whenever the trees are reloaded or updated.
+ *
  */
 public final class STPMetadataSingleton {
 
@@ -35,6 +38,79 @@ public final class STPMetadataSingleton {
 
     private static STPMetadataSingleton instance = null;
 
+    /**
+     * Completion indexes of one probe category node.
+     */
+    private static final class CategoryIndex {
+        private final CompletionIndex groups;
+        private final Map<String, CompletionIndex> members = new HashMap<>();
+
+        private CategoryIndex(TreeNode node) {
+            groups = new CompletionIndex(node);
+            for (int i = 0, n = node.getChildCount(); i < n; i++) {
+                TreeNode groupNode = node.getChildAt(i);
+                members.putIfAbsent(groupNode.toString(), new CompletionIndex(groupNode));
+            }
+        }
+
+        private TreeNode[] getMatches(String groupName, String prefix) {
+            CompletionIndex index = members.get(groupName);
+            return (index != null ? index : groups).getMatches(prefix);
+        }
+    }
+
+    /**
+     * Completion indexes of the tapset trees, built once per tapset load.
+     */
+    private static final class Indexes {
+        private final TreeNode functionTree;
+        private final TreeNode probeTree;
+        private final int generation;
+        private final CompletionIndex functions;
+        private final List<CategoryIndex> categories = new ArrayList<>();
+        private final Map<String, Map<String, TreeNode>> aliases = new HashMap<>();
+        private final Map<TreeNode, CompletionIndex> variables = new ConcurrentHashMap<>();
+
+        private Indexes(TreeNode functionTree, TreeNode probeTree, int generation) {
+            this.functionTree = functionTree;
+            this.probeTree = probeTree;
+            this.generation = generation;
+            functions = new CompletionIndex(functionTree);
+            for (TreeNode node : TapsetLibrary.getProbeCategoryNodes()) {
+                if (node != null) {
+                    categories.add(new CategoryIndex(node));
+                }
+            }
+            TreeNode aliasNode = TapsetLibrary.getProbeAliases();
+            if (aliasNode != null) {
+                for (int i = 0, n = aliasNode.getChildCount(); i < n; i++) {
+                    TreeNode groupNode = aliasNode.getChildAt(i);
+                    Map<String, TreeNode> probes = new HashMap<>();
+                    for (int j = 0, m = groupNode.getChildCount(); j < m; j++) {
+                        TreeNode probeNode = groupNode.getChildAt(j);
+                        probes.putIfAbsent(probeNode.toString(), probeNode);
+                    }
+                    aliases.putIfAbsent(groupNode.toString(), probes);
+                }
+            }
+        }
+
+        private boolean isCurrent(TreeNode functionTree, TreeNode probeTree, int generation) {
+            return this.functionTree == functionTree && this.probeTree == probeTree
+                    && this.generation == generation;
+        }
+
+        /**
+         * Probe variables are indexed on first use, as only a few of the
+         * probes are ever completed in.
+         */
+        private CompletionIndex getVariables(TreeNode probeNode) {
+            return variables.computeIfAbsent(probeNode, CompletionIndex::new);
+        }
+    }
+
+    private volatile Indexes indexes = null;
+
     private STPMetadataSingleton() {}
 
     public static STPMetadataSingleton getInstance() {
@@ -45,21 +121,15 @@ public final class STPMetadataSingleton {
     }
 
     public TreeNode[] getFunctionCompletions(String prefix) {
-        TreeNode node = TapsetLibrary.getFunctions();
-        return getMatchingChildren(node, prefix);
+        return getIndexes().functions.getMatches(prefix);
     }
 
     public TreeNode[] getProbeCompletions(String prefix) {
-        List<TreeNode> matches = new LinkedList<>();
+        List<TreeNode> matches = new ArrayList<>();
         String groupName = extractProbeGroupName(prefix);
 
-        for (TreeNode node : TapsetLibrary.getProbeCategoryNodes()) {
-            TreeNode groupNode = node.getChildByName(groupName);
-            if (groupNode != null) {
-                node = groupNode;
-            }
-
-            matches.addAll(Arrays.asList(getMatchingChildren(node, prefix)));
+        for (CategoryIndex category : getIndexes().categories) {
+            matches.addAll(Arrays.asList(category.getMatches(groupName, prefix)));
         }
 
         return !matches.isEmpty() ? matches.toArray(new TreeNode[matches.size()]) : NO_MATCHES;
@@ -73,56 +143,46 @@ public final class STPMetadataSingleton {
      */
     public TreeNode[] getProbeVariableCompletions(String probe, String prefix) {
         // The only probes that may have avilable variables are non-static ones.
-        TreeNode node = getProbeAlias(probe);
-        return node != null ? getMatchingChildren(node, prefix) : NO_MATCHES;
+        Indexes current = getIndexes();
+        TreeNode node = getProbeAlias(current, probe);
+        return node != null ? current.getVariables(node).getMatches(prefix) : NO_MATCHES;
     }
 
     public boolean isVariableInProbe(String probe, String variable) {
-        TreeNode node = getProbeAlias(probe);
-        if (node == null) {
-            return false;
-        }
-        for (int i = 0, n = node.getChildCount(); i < n; i++) {
-            TreeNode child = node.getChildAt(i);
-            String nodeVar = ((ProbevarNodeData) child.getData()).getCompletionText();
-            if (nodeVar.equals(variable)) {
-                return true;
-            }
-        }
-        return false;
+        Indexes current = getIndexes();
+        TreeNode node = getProbeAlias(current, probe);
+        return node != null && current.getVariables(node).contains(variable);
     }
 
     public TreeNode getProbeAlias(String probe) {
-        TreeNode node = TapsetLibrary.getProbeAliases();
-        if (node == null) {
-            return null;
-        }
-
-        node = node.getChildByName(extractProbeGroupName(probe));
-        if (node == null) {
-            return null;
-        }
-
-        return node.getChildByName(probe);
+        return getProbeAlias(getIndexes(), probe);
     }
 
-    private TreeNode[] getMatchingChildren(TreeNode node, String prefix) {
-        ArrayList<TreeNode> matches = new ArrayList<>();
+    private TreeNode getProbeAlias(Indexes current, String probe) {
+        Map<String, TreeNode> probes = current.aliases.get(extractProbeGroupName(probe));
+        return probes != null ? probes.get(probe) : null;
+    }
 
-        for (int i = 0, n = node.getChildCount(); i < n; i++) {
-            TreeNode childNode = node.getChildAt(i);
-            String childName;
-            if (childNode.getData() instanceof ICompletable) {
-                childName = ((ICompletable) childNode.getData()).getCompletionText();
-            } else {
-                childName = childNode.toString();
-            }
-            if (childName.startsWith(prefix)) {
-                matches.add(childNode);
+    /**
+     * Returns the completion indexes of the current tapset trees, rebuilding
+     * them if the trees were reloaded or updated since they were last built.
+     */
+    private Indexes getIndexes() {
+        TreeNode functionTree = TapsetLibrary.getFunctions();
+        TreeNode probeTree = TapsetLibrary.getProbes();
+        int generation = TapsetLibrary.getTreeGeneration();
+        Indexes current = indexes;
+        if (current != null && current.isCurrent(functionTree, probeTree, generation)) {
+            return current;
+        }
+        synchronized (this) {
+            current = indexes;
+            if (current == null || !current.isCurrent(functionTree, probeTree, generation)) {
+                current = new Indexes(functionTree, probeTree, generation);
+                indexes = current;
             }
+            return current;
         }
-
-        return matches.toArray(new TreeNode[0]);
     }
 
     private String extractProbeGroupName(String probeName) {
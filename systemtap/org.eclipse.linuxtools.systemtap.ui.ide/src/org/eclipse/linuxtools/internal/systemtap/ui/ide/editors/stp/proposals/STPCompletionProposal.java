@@ -13,10 +13,16 @@
 package org.eclipse.linuxtools.internal.systemtap.ui.ide.editors.stp.proposals;
 
 import java.security.InvalidParameterException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalExtension5;
 import org.eclipse.jface.text.contentassist.IContextInformation;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.ManpageCacher;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.TapsetItemType;
@@ -24,14 +30,15 @@ import org.eclipse.linuxtools.systemtap.structures.TreeNode;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 
-public abstract class STPCompletionProposal implements ICompletionProposal {
+public abstract class STPCompletionProposal implements ICompletionProposal, ICompletionProposalExtension5 {
 
     private final int fPrefixLength;
     private final int fReplacementOffset;
     private final String fDisplayString;
 
     protected final TreeNode fCompletionNode;
-    protected String fDocumentation = null;
+    protected volatile String fDocumentation = null;
+    private CompletableFuture<String> fDocumentationLoad = null;
 
     public STPCompletionProposal(TreeNode completionNode, int prefixLength, int replacementOffset) {
         if (completionNode == null) {
@@ -52,15 +59,44 @@ public abstract class STPCompletionProposal implements ICompletionProposal {
         return getReplacementString().length() - fPrefixLength;
     }
 
+    /**
+     * Only returns the documentation if it is already loaded, as this may be
+     * called in the UI thread.
+     */
     @Override
     public String getAdditionalProposalInfo() {
         if (fDocumentation == null) {
-            fDocumentation = ManpageCacher.getDocumentation(
-                    getType(), getDocumentationSearchArgs());
+            fDocumentation = getDocumentationLoad().getNow(null);
+        }
+        return fDocumentation;
+    }
+
+    @Override
+    public Object getAdditionalProposalInfo(IProgressMonitor monitor) {
+        CompletableFuture<String> load = getDocumentationLoad();
+        while (fDocumentation == null && !monitor.isCanceled()) {
+            try {
+                fDocumentation = load.get(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                break;
+            } catch (TimeoutException e) {
+                // Check for cancellation and keep waiting
+            }
         }
         return fDocumentation;
     }
 
+    private synchronized CompletableFuture<String> getDocumentationLoad() {
+        if (fDocumentationLoad == null) {
+            fDocumentationLoad = ManpageCacher.getDocumentationAsync(
+                    getType(), getDocumentationSearchArgs());
+        }
+        return fDocumentationLoad;
+    }
+
     abstract protected TapsetItemType getType();
 
     protected String[] getDocumentationSearchArgs() {
@@ -23,6 +23,7 @@ import java.util.Arrays;
 import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.IDEPerspective;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.DataSetFile;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IFilteredDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.FilteredRowDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowDataSet;
@@ -63,12 +64,25 @@ public class ImportDataSetHandler extends AbstractHandler {
     public void execute(String path) {
         IFilteredDataSet dataset = null;
         File file = new File(path);
-        try (InputStreamReader fr = new InputStreamReader(new FileInputStream(file), Charset.defaultCharset());
-                BufferedReader br = new BufferedReader(fr)) {
-            String id = br.readLine();
-            String[] titles = br.readLine().split(", "); //$NON-NLS-1$
+        try {
+            String id;
+            String[] titles;
+            if (DataSetFile.isDataSetFile(file)) {
+                try (DataSetFile in = new DataSetFile(file)) {
+                    id = in.getID();
+                    titles = in.getTitles();
+                }
+            } else {
+                // A data set saved in the text format of earlier versions
+                try (InputStreamReader fr = new InputStreamReader(new FileInputStream(file), Charset.defaultCharset());
+                        BufferedReader br = new BufferedReader(fr)) {
+                    id = br.readLine();
+                    String titleLine = br.readLine();
+                    titles = titleLine != null ? titleLine.split(", ") : null; //$NON-NLS-1$
+                }
+            }
 
-            if (id == null && titles == null) {
+            if (id == null || titles == null) {
                 throw new IOException();
             } else if (id.equals(RowDataSet.ID)) {
                 dataset = new FilteredRowDataSet(titles);
@@ -11,9 +11,24 @@
 
 package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.IDEPlugin;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.preferences.IDEPreferenceConstants;
@@ -21,10 +36,39 @@ import org.eclipse.linuxtools.man.parser.ManPage;
 import org.eclipse.linuxtools.systemtap.ui.consolelog.internal.ConsoleLogPlugin;
 import org.eclipse.linuxtools.systemtap.ui.consolelog.preferences.ConsoleLogPreferenceConstants;
 
+/**
+ * Caches the rendered man pages of probes, functions and probe variables.
+ *
+ * Pages are kept in a bounded in-memory cache that evicts the least recently
+ * used page, and pages that were found are also saved to disk so they survive
+ * restarts. Pages that
+ * are not cached are loaded in a background job; concurrent requests for the
+ * same page share one load, so hovering over the same name twice never runs
+ * <code>man</code> twice.
+ */
 public class ManpageCacher {
     private static final String SPLITTER = "::"; //$NON-NLS-1$
     private static final String NO_MAN_ENTRY = "No manual entry for "; //$NON-NLS-1$
-    private static HashMap<String, String> pages = new HashMap<>();
+    private static final String DIRECTORY_NAME = "manpages"; //$NON-NLS-1$
+    private static final String FILE_EXTENSION = ".txt"; //$NON-NLS-1$
+    private static final int MAX_PAGES = 1000;
+
+    private static final Map<String, String> pages = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAX_PAGES;
+                }
+            });
+    private static final Map<String, CompletableFuture<String>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented by every {@link #invalidate(TapsetItemType...)}, so loads started
+     * before the cache was invalidated do not put outdated pages back into it.
+     */
+    private static final AtomicInteger generation = new AtomicInteger();
 
     public static boolean isEmptyDocumentation(String documentation) {
         return documentation != null && documentation.startsWith(NO_MAN_ENTRY);
@@ -34,42 +78,145 @@ public class ManpageCacher {
         return NO_MAN_ENTRY + element;
     }
 
-    public static synchronized void clear() {
+    /**
+     * Discards the pages of all types, including the ones saved to disk.
+     */
+    public static void clear() {
         clear(TapsetItemType.values());
     }
 
-    public static synchronized void clear(TapsetItemType ...types) {
-        Iterator<String> keys = pages.keySet().iterator();
-        while (keys.hasNext()) {
-            for (TapsetItemType type : types) {
-                if (keys.next().startsWith(type.toString())) {
-                    keys.remove();
-                    break;
+    /**
+     * Discards the pages of the given types, including the ones saved to disk.
+     * Only for when the pages themselves may have changed, since the saved pages
+     * otherwise survive restarts and reloads of the tapsets.
+     */
+    public static void clear(TapsetItemType ...types) {
+        invalidate(types);
+
+        File[] files = getCacheDirectory().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (hasType(file.getName(), types)) {
+                    file.delete();
                 }
             }
         }
     }
 
+    /**
+     * Discards the pages of the given types that are kept in memory, so that they
+     * are looked up again, from disk first. Pages saved to disk are kept, as they
+     * are saved per kernel and set of tapsets.
+     */
+    public static void invalidate(TapsetItemType ...types) {
+        generation.incrementAndGet();
+        synchronized (pages) {
+            pages.keySet().removeIf(key -> hasType(key, types));
+        }
+        loads.keySet().removeIf(key -> hasType(key, types));
+    }
+
+    private static boolean hasType(String name, TapsetItemType[] types) {
+        for (TapsetItemType type : types) {
+            if (name.startsWith(type.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns the documentation for the given probe, function, or tapset. Will never be <code>null</code>.
+     * Waits for the documentation to be loaded if it is not cached yet.
      */
-    public static synchronized String getDocumentation(TapsetItemType prefix, String ...elements) {
+    public static String getDocumentation(TapsetItemType prefix, String ...elements) {
         String fullElement = createFullElement(prefix, elements);
         String documentation = pages.get(fullElement);
-        if (documentation == null) {
-            // If the requested element is a probe variable,
-            // fetch the documentation for the parent probe then check the map
-            if (prefix == TapsetItemType.PROBEVAR) {
-                getDocumentation(TapsetItemType.PROBE, elements[0]);
-                documentation = pages.get(fullElement);
-                if (documentation == null) {
-                    documentation = makeEmptyDocumentation(fullElement);
-                    pages.put(fullElement, documentation);
+        if (documentation != null) {
+            return documentation;
+        }
+        try {
+            return getDocumentationAsync(prefix, elements).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Fall through
+        }
+        return makeEmptyDocumentation(fullElement);
+    }
+
+    /**
+     * Returns the documentation for the given probe, function, or tapset without waiting
+     * for it to be loaded. The documentation of the returned future will never be <code>null</code>.
+     */
+    public static CompletableFuture<String> getDocumentationAsync(TapsetItemType prefix, String ...elements) {
+        String fullElement = createFullElement(prefix, elements);
+        String documentation = pages.get(fullElement);
+        if (documentation != null) {
+            return CompletableFuture.completedFuture(documentation);
+        }
+
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> pending = loads.putIfAbsent(fullElement, load);
+        if (pending != null) {
+            return pending;
+        }
+        int loadGeneration = generation.get();
+
+        // If the requested element is a probe variable, its documentation
+        // is part of the documentation of the parent probe.
+        CompletableFuture<String> documentationLoad;
+        if (prefix == TapsetItemType.PROBEVAR) {
+            documentationLoad = getDocumentationAsync(TapsetItemType.PROBE, elements[0])
+                    .thenApply(probeDocumentation -> loadProbeVariableDocumentation(
+                            probeDocumentation, elements[0], fullElement, loadGeneration));
+        } else {
+            documentationLoad = new CompletableFuture<>();
+            Job job = new Job(fullElement) {
+                @Override
+                protected IStatus run(IProgressMonitor monitor) {
+                    try {
+                        documentationLoad.complete(loadDocumentation(prefix, elements, fullElement, loadGeneration));
+                    } catch (RuntimeException e) {
+                        documentationLoad.completeExceptionally(e);
+                    }
+                    return Status.OK_STATUS;
                 }
-                return documentation;
+            };
+            job.setSystem(true);
+            job.schedule();
+        }
+
+        documentationLoad.whenComplete((result, e) -> {
+            if (result == null) {
+                result = makeEmptyDocumentation(fullElement);
             }
+            if (generation.get() == loadGeneration) {
+                pages.put(fullElement, result);
+            }
+            loads.remove(fullElement, load);
+            load.complete(result);
+        });
+        return load;
+    }
 
-            // Otherwise, get the documentation for the requested element.
+    private static String loadProbeVariableDocumentation(String probeDocumentation, String probe,
+            String fullElement, int loadGeneration) {
+        Map<String, String> variables = getProbeVariableDocumentation(probeDocumentation, probe);
+        if (generation.get() == loadGeneration) {
+            pages.putAll(variables);
+        }
+        String documentation = variables.get(fullElement);
+        return documentation != null ? documentation : makeEmptyDocumentation(fullElement);
+    }
+
+    private static String loadDocumentation(TapsetItemType prefix, String[] elements,
+            String fullElement, int loadGeneration) {
+        // Get the documentation for the requested element,
+        // preferring the copy saved by an earlier session.
+        File file = getCacheFile(prefix, fullElement);
+        String documentation = readCacheFile(file, fullElement);
+        if (documentation == null) {
             IPreferenceStore p = IDEPlugin.getDefault().getPreferenceStore();
             ManPage manpage = null;
             if (!p.getBoolean(IDEPreferenceConstants.P_REMOTE_PROBES)) {
@@ -82,18 +229,27 @@ public class ManpageCacher {
                 manpage = new ManPage(fullElement, user, host, password);
             }
             documentation = manpage.getStrippedTextPage().toString();
-            pages.put(fullElement, documentation);
-
-            // If the requested element is a probe and a documentation page was
-            // found for it, parse the documentation for the variables if present.
-            if (!isEmptyDocumentation(documentation) && prefix == TapsetItemType.PROBE) {
-                getProbeVariableDocumentation(documentation, elements[0]);
+            // Missing pages are only remembered for this session, as they
+            // may be installed later or be missing due to a failed lookup.
+            if (!isEmptyDocumentation(documentation) && generation.get() == loadGeneration) {
+                writeCacheFile(file, fullElement, documentation);
             }
         }
+
+        // If the requested element is a probe and a documentation page was
+        // found for it, parse the documentation for the variables if present.
+        if (!isEmptyDocumentation(documentation) && prefix == TapsetItemType.PROBE
+                && generation.get() == loadGeneration) {
+            pages.putAll(getProbeVariableDocumentation(documentation, elements[0]));
+        }
         return documentation;
     }
 
-    private static void getProbeVariableDocumentation(String documentation, String probe) {
+    private static Map<String, String> getProbeVariableDocumentation(String documentation, String probe) {
+        Map<String, String> variableDocumentations = new HashMap<>();
+        if (isEmptyDocumentation(documentation)) {
+            return variableDocumentations;
+        }
         // Parse out the variables
         String[] sections = documentation.split("VALUES"); //$NON-NLS-1$
         if (sections.length > 1) {
@@ -112,12 +268,71 @@ public class ManpageCacher {
                         i++;
                     }
 
-                    pages.put(createFullElement(TapsetItemType.PROBEVAR, probe, variableName),
+                    variableDocumentations.put(createFullElement(TapsetItemType.PROBEVAR, probe, variableName),
                             variableDocumentation.toString().trim());
                     i++;
                 }
             }
         }
+        return variableDocumentations;
+    }
+
+    /**
+     * Pages are saved in one directory per kernel and set of tapsets, in files
+     * named after the type and a hash of the element. The first line of each
+     * file holds the full element name, to tell apart elements with equal hashes.
+     */
+    private static File getCacheDirectory() {
+        return TreeSettings.getSettingsPath().append(DIRECTORY_NAME + '-'
+                + Integer.toHexString(TreeSettings.getCacheKey().hashCode())).toFile();
+    }
+
+    /**
+     * Returns the file that the page of the given probe, function, or tapset is
+     * saved to, whether or not it exists.
+     */
+    public static File getPageFile(TapsetItemType prefix, String ...elements) {
+        return getCacheFile(prefix, createFullElement(prefix, elements));
+    }
+
+    private static File getCacheFile(TapsetItemType prefix, String fullElement) {
+        return new File(getCacheDirectory(),
+                prefix.toString() + '-' + Integer.toHexString(fullElement.hashCode()) + FILE_EXTENSION);
+    }
+
+    private static String readCacheFile(File file, String fullElement) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            int end = contents.indexOf('\n');
+            if (end < 0 || !contents.substring(0, end).equals(fullElement)) {
+                return null;
+            }
+            String documentation = contents.substring(end + 1);
+            return isEmptyDocumentation(documentation) ? null : documentation;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeCacheFile(File file, String fullElement, String documentation) {
+        File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        File temp = null;
+        try {
+            temp = File.createTempFile(file.getName(), null, directory);
+            Files.write(temp.toPath(), (fullElement + '\n' + documentation).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The page is still cached in memory.
+            if (temp != null) {
+                temp.delete();
+            }
+        }
     }
 
     private static String createFullElement(TapsetItemType prefix, String ...elements) {
@@ -68,6 +68,14 @@ public final class TapsetLibrary {
         return functionParser.getTree();
     }
 
+    /**
+     * @return A number that changes whenever the function or probe tree is
+     * reloaded or updated.
+     */
+    public static int getTreeGeneration() {
+        return functionParser.getGeneration() + probeParser.getGeneration();
+    }
+
     /**
      * Initialize all listeners associated with loading tapset contents, and perform
      * the first tapset load operation. Note that subsequent calls to this method will have no effect.
@@ -82,10 +90,15 @@ public final class TapsetLibrary {
             functionParser.addJobChangeListener(parseCompletionListener);
             probeParser.addJobChangeListener(parseCompletionListener);
 
-            if (preferenceStore.getBoolean(IDEPreferenceConstants.P_STORED_TREE)
-                    && isTreeFileCurrent()) {
+            boolean storedTree = preferenceStore.getBoolean(IDEPreferenceConstants.P_STORED_TREE);
+            if (storedTree && isTreeFileCurrent()) {
                 readTreeFile();
             } else {
+                if (storedTree && TreeSettings.getTreeFileDate() != -1) {
+                    // The tapsets changed since the trees were stored, so their
+                    // saved man pages may be outdated as well.
+                    ManpageCacher.clear();
+                }
                 runStapParser();
             }
         }
@@ -121,10 +134,11 @@ public final class TapsetLibrary {
                     TreeSettings.setTrees(getFunctions(), getProbes());
                 }
 
+                // Pages saved to disk are kept, since they are saved per set of tapsets.
                 if (event.getJob() instanceof ProbeParser) {
-                    ManpageCacher.clear(TapsetItemType.PROBE, TapsetItemType.PROBEVAR);
+                    ManpageCacher.invalidate(TapsetItemType.PROBE, TapsetItemType.PROBEVAR);
                 } else {
-                    ManpageCacher.clear(TapsetItemType.FUNCTION);
+                    ManpageCacher.invalidate(TapsetItemType.FUNCTION);
                 }
             }
         }
@@ -175,8 +189,8 @@ public final class TapsetLibrary {
 
     /**
      * This method checks to see if the tapsets have changed
-     * at all since the TreeSettings.xml file was created.
-     * @return boolean indicating whether or not the TreeSettings.xml file has the most up-to-date version
+     * at all since the stored trees were saved.
+     * @return boolean indicating whether or not the stored trees are up-to-date
      */
     private static boolean isTreeFileCurrent() {
         long treesDate = TreeSettings.getTreeFileDate();
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.StapTreeDataFactory;
+import org.eclipse.linuxtools.systemtap.structures.TreeDefinitionNode;
+import org.eclipse.linuxtools.systemtap.structures.TreeNode;
+
+/**
+ * Reads and writes the function and probe trees in a compact binary format.
+ *
+ * The file starts with a header holding the format version, the key of the
+ * tapset configuration the trees were generated for and the time they were
+ * saved, followed by the length and the CRC-32 checksum of the trees. The
+ * trees follow in depth-first order. Every string is written once; later
+ * occurrences, such as the definition file shared by many probes, refer back
+ * to it by index.
+ *
+ * The checksum is verified before any node is created, so a truncated or
+ * otherwise corrupt file is rejected as a whole instead of yielding a partial
+ * or wrong tree.
+ */
+public final class TreeCacheFile {
+
+    private static final int MAGIC = 0x53545054;
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int FLAG_CLICKABLE = 1;
+    private static final int FLAG_DEFINITION = 2;
+
+    private static final int STRING_NULL = 0;
+    private static final int STRING_NEW = 1;
+    private static final int STRING_REFERENCE = 2;
+
+    private TreeCacheFile() {}
+
+    /**
+     * Writes the trees to a file. The trees are written to a temporary file
+     * first, so an interrupted write never leaves a corrupt file behind.
+     * @param file The file to write.
+     * @param key The key of the tapset configuration the trees belong to.
+     * @param date The time at which the trees are saved.
+     * @param functions The function tree.
+     * @param probes The probe tree.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(File file, String key, long date, TreeNode functions, TreeNode probes)
+            throws IOException {
+        ByteArrayOutputStream trees = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(trees)) {
+            Map<String, Integer> strings = new HashMap<>();
+            writeTree(out, strings, functions);
+            writeTree(out, strings, probes);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(trees.toByteArray());
+
+        File temp = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(key);
+            out.writeLong(date);
+            out.writeInt(trees.size());
+            out.writeLong(checksum.getValue());
+            trees.writeTo(out);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @param file The file to read.
+     * @param key The key of the current tapset configuration.
+     * @return The time at which the trees in the file were saved, or -1 if the
+     * file is missing, in another format or for another tapset configuration.
+     */
+    public static long readDate(File file, String key) {
+        try (DataInputStream in = open(file)) {
+            return readHeader(in, key);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param file The file to read.
+     * @param key The key of the current tapset configuration.
+     * @return The function tree and the probe tree, or <code>null</code> if
+     * the file is missing, in another format or for another tapset configuration.
+     */
+    public static TreeNode[] read(File file, String key) {
+        byte[] trees;
+        try (DataInputStream in = open(file)) {
+            if (readHeader(in, key) == -1) {
+                return null;
+            }
+            int length = in.readInt();
+            long expected = in.readLong();
+            if (length < 0 || length > file.length()) {
+                return null;
+            }
+            trees = new byte[length];
+            in.readFully(trees);
+            CRC32 checksum = new CRC32();
+            checksum.update(trees);
+            if (checksum.getValue() != expected || in.read() != -1) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(trees))) {
+            List<String> strings = new ArrayList<>();
+            TreeNode functions = readTree(in, strings);
+            TreeNode probes = readTree(in, strings);
+            return new TreeNode[] {functions, probes};
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static DataInputStream open(File file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    private static long readHeader(DataInputStream in, String key) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(key)) {
+            return -1;
+        }
+        return in.readLong();
+    }
+
+    private static void writeTree(DataOutputStream out, Map<String, Integer> strings, TreeNode tree)
+            throws IOException {
+        boolean definition = tree instanceof TreeDefinitionNode;
+        out.writeByte((tree.isClickable() ? FLAG_CLICKABLE : 0) | (definition ? FLAG_DEFINITION : 0));
+        writeString(out, strings, tree.toString());
+        Object data = tree.getData();
+        writeString(out, strings, StapTreeDataFactory.getDataObjectID(data));
+        writeString(out, strings, data != null ? data.toString() : null);
+        if (definition) {
+            writeString(out, strings, ((TreeDefinitionNode) tree).getDefinition());
+        }
+        int count = tree.getChildCount();
+        writeVarInt(out, count);
+        for (int i = 0; i < count; i++) {
+            writeTree(out, strings, tree.getChildAt(i));
+        }
+    }
+
+    private static TreeNode readTree(DataInputStream in, List<String> strings) throws IOException {
+        int flags = in.readByte();
+        String display = readString(in, strings);
+        String dataType = readString(in, strings);
+        Object data = StapTreeDataFactory.createObjectFromString(readString(in, strings), dataType);
+        boolean clickable = (flags & FLAG_CLICKABLE) != 0;
+        TreeNode tree = (flags & FLAG_DEFINITION) != 0
+                ? new TreeDefinitionNode(data, display, readString(in, strings), clickable)
+                : new TreeNode(data, display, clickable);
+        for (int i = 0, count = readVarInt(in); i < count; i++) {
+            tree.add(readTree(in, strings));
+        }
+        return tree;
+    }
+
+    private static void writeString(DataOutputStream out, Map<String, Integer> strings, String s)
+            throws IOException {
+        if (s == null) {
+            writeVarInt(out, STRING_NULL);
+            return;
+        }
+        Integer index = strings.get(s);
+        if (index != null) {
+            writeVarInt(out, STRING_REFERENCE + index);
+            return;
+        }
+        strings.put(s, strings.size());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, STRING_NEW);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in, List<String> strings) throws IOException {
+        int code = readVarInt(in);
+        if (code == STRING_NULL) {
+            return null;
+        }
+        if (code != STRING_NEW) {
+            int index = code - STRING_REFERENCE;
+            if (index >= strings.size()) {
+                throw new IOException();
+            }
+            return strings.get(index);
+        }
+        int length = readVarInt(in);
+        if (length < 0 || length > in.available()) {
+            throw new IOException();
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(s);
+        return s;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException();
+    }
+}
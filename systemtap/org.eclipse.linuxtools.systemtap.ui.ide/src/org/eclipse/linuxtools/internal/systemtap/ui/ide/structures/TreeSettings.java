@@ -13,15 +13,19 @@ package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures;
 
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Calendar;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.IDEPlugin;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.preferences.IDEPreferenceConstants;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.preferences.PreferenceConstants;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.nodedata.StapTreeDataFactory;
 import org.eclipse.linuxtools.systemtap.structures.TreeDefinitionNode;
 import org.eclipse.linuxtools.systemtap.structures.TreeNode;
+import org.eclipse.linuxtools.systemtap.ui.consolelog.internal.ConsoleLogPlugin;
+import org.eclipse.linuxtools.systemtap.ui.consolelog.preferences.ConsoleLogPreferenceConstants;
 import org.eclipse.ui.IMemento;
 import org.eclipse.ui.WorkbenchException;
 import org.eclipse.ui.XMLMemento;
@@ -32,11 +36,16 @@ import org.eclipse.ui.XMLMemento;
  * on startup, writing the cache to disk when the cache is initially generated, checking to make sure
  * that the cache is up-to-date, and providing accessor methods to the rest of the IDE that allow other
  * classes to use the cached tree data.
+ *
+ * Trees are cached in a {@link TreeCacheFile} per kernel release and set of tapset directories, so
+ * switching between configurations does not require the tapsets to be parsed again. A tree file in
+ * the XML format of earlier versions is still read if it is newer than the cache.
  * @author Ryan Morse
  */
 public final class TreeSettings {
     private static final String FILE_NAME = "TreeSettings"; //$NON-NLS-1$
     private static final String FILE_DIRECTORY = ".systemtapgui"; //$NON-NLS-1$
+    private static final String CACHE_EXTENSION = "bin"; //$NON-NLS-1$
 
     private static final String M_DISP = "display"; //$NON-NLS-1$
     private static final String M_DATA = "data"; //$NON-NLS-1$
@@ -44,7 +53,6 @@ public final class TreeSettings {
     private static final String M_DEFINITON = "definition"; //$NON-NLS-1$
     private static final String M_CLICKABLE = "clickable"; //$NON-NLS-1$
     private static final String M_NULL = "<null>"; //$NON-NLS-1$
-    private static final String M_ITEM = "item"; //$NON-NLS-1$
 
     private static final String T_FUNCTIONS = "functionTree"; //$NON-NLS-1$
     private static final String T_PROBES = "probeTree"; //$NON-NLS-1$
@@ -54,19 +62,19 @@ public final class TreeSettings {
 
     private static TreeNode cachedFunctions;
     private static TreeNode cachedProbes;
-    private static File settingsFile = null;
 
     private TreeSettings() {}
 
     /**
      * Deletes the Function and Probe Alias trees that have been saved to the filesystem
-     * as an {@link IMemento}.
+     * for the current tapset configuration.
      * @return <code>true</code> if the delete attempt succeeded, <code>false</code> otherwise.
      */
-    static boolean deleteTrees() {
+    static synchronized boolean deleteTrees() {
         boolean deleted;
         try {
-            deleted = settingsFile.delete();
+            deleted = getCacheFile(getCacheKey()).delete();
+            deleted |= getLegacyFile().delete();
         } catch (SecurityException e) {
             deleted = false;
         }
@@ -77,8 +85,7 @@ public final class TreeSettings {
     }
 
     /**
-     * Saves the provided Function and Probe Alias trees into an {@link IMemento} on
-     * the filesystem. <p>
+     * Saves the provided Function and Probe Alias trees to the filesystem. <p>
      * Note: Both trees must be saved at the same time to better ensure that they
      * are both obtained from the same tapset state.
      * @param functions The Function tree to store in cache.
@@ -87,54 +94,25 @@ public final class TreeSettings {
      */
     public static synchronized boolean setTrees(TreeNode functions, TreeNode probes) {
         if (functions == null || probes == null
-                || functions == cachedFunctions || probes == cachedProbes
-                || !isTreeFileAvailable()) {
+                || functions == cachedFunctions || probes == cachedProbes) {
             return false;
         }
 
-        XMLMemento data = XMLMemento.createWriteRoot(FILE_NAME);
-        writeTree(data, T_FUNCTIONS, functions);
-        writeTree(data, T_PROBES, probes);
-
-        data.createChild(T_DATE)
-            .putTextData((Long.valueOf(Calendar.getInstance().getTimeInMillis())).toString());
-
-        data.createChild(T_VERSION).putTextData(VERSION_NUMBER);
-
-        try (FileWriter writer = new FileWriter(settingsFile)) {
-            data.save(writer);
-        } catch (IOException e) {
+        String key = getCacheKey();
+        File file = getCacheFile(key);
+        try {
+            file.getParentFile().mkdirs();
+            TreeCacheFile.write(file, key, System.currentTimeMillis(), functions, probes);
+        } catch (IOException | SecurityException e) {
             return false;
         }
+        // The new trees supersede any trees saved by earlier versions.
+        getLegacyFile().delete();
 
         clearCachedTrees();
         return true;
     }
 
-    /**
-     * Writes the tree passed in to the {@link IMemento} argument.
-     * @param data The {@link IMemento} to store the tree to.
-     * @param name The name to give to the <code>parent</code> node.
-     * @param tree The {@link TreeNode} to store.
-     */
-    private static void writeTree(IMemento data, String name, TreeNode tree) {
-        IMemento child = data.createChild(name);
-        child.putString(M_DISP, tree.toString());
-        Object treeData = tree.getData();
-        if (treeData != null) {
-            child.putString(M_DATA, treeData.toString());
-            child.putString(M_DATATYPE, StapTreeDataFactory.getDataObjectID(treeData));
-        }
-        if (tree instanceof TreeDefinitionNode) {
-            child.putString(M_DEFINITON,
-                    getStringFromValue(((TreeDefinitionNode) tree).getDefinition()));
-        }
-        child.putBoolean(M_CLICKABLE, tree.isClickable());
-        for (int i = 0, n = tree.getChildCount(); i < n; i++) {
-            writeTree(child, M_ITEM, tree.getChildAt(i));
-        }
-    }
-
     private static void clearCachedTrees() {
         cachedFunctions = null;
         cachedProbes = null;
@@ -148,7 +126,7 @@ public final class TreeSettings {
      */
     public static synchronized TreeNode getFunctionTree() {
         if (cachedFunctions == null) {
-            cachedFunctions = readData(T_FUNCTIONS);
+            readTrees();
         }
         return cachedFunctions;
     }
@@ -161,25 +139,34 @@ public final class TreeSettings {
      */
     public synchronized static TreeNode getProbeTree() {
         if (cachedProbes == null) {
-            cachedProbes = readData(T_PROBES);
+            readTrees();
         }
         return cachedProbes;
     }
 
     /**
-     * Reads the contents of the cached memento to recreate the stored trees.
-     * @return True if the read is successful.
+     * Reads both stored trees at once, from the cache or from a newer legacy tree file.
      */
-    private static TreeNode readData(String section) {
-        IMemento data = getTreeFileMemento();
-        if (data == null) {
-            return null;
+    private static void readTrees() {
+        String key = getCacheKey();
+        File file = getCacheFile(key);
+        if (isLegacyFileNewer(file)) {
+            IMemento data = getLegacyMemento();
+            if (data != null) {
+                cachedFunctions = readTree(data.getChild(T_FUNCTIONS));
+                cachedProbes = readTree(data.getChild(T_PROBES));
+            }
+            return;
+        }
+        TreeNode[] trees = TreeCacheFile.read(file, key);
+        if (trees != null) {
+            cachedFunctions = trees[0];
+            cachedProbes = trees[1];
         }
-        return readTree(data.getChild(section));
     }
 
     /**
-     * Opposite action as writeTree. Reconstruct a tree from a previously-saved {@link IMemento}.
+     * Reconstruct a tree from an {@link IMemento} saved by an earlier version.
      * @param data The {@link IMemento} to read the tree out of.
      * @return The reconstructed {@link TreeNode}.
      */
@@ -207,7 +194,12 @@ public final class TreeSettings {
      * @return The datestamp for the Tree file.
      */
     public synchronized static long getTreeFileDate() {
-        IMemento data = getTreeFileMemento();
+        String key = getCacheKey();
+        File file = getCacheFile(key);
+        if (!isLegacyFileNewer(file)) {
+            return TreeCacheFile.readDate(file, key);
+        }
+        IMemento data = getLegacyMemento();
         if (data != null) {
             IMemento child = data.getChild(T_DATE);
             try {
@@ -217,12 +209,45 @@ public final class TreeSettings {
         return -1;
     }
 
-    private static IMemento getTreeFileMemento() {
-        if (!isTreeFileAvailable()) {
-            return null;
+    /**
+     * Returns a key identifying the kernel and tapsets that trees are generated from.
+     */
+    static String getCacheKey() {
+        IPreferenceStore p = IDEPlugin.getDefault().getPreferenceStore();
+        String target;
+        if (p.getBoolean(IDEPreferenceConstants.P_REMOTE_PROBES)) {
+            IPreferenceStore c = ConsoleLogPlugin.getDefault().getPreferenceStore();
+            target = c.getString(ConsoleLogPreferenceConstants.SCP_USER) + '@'
+                    + c.getString(ConsoleLogPreferenceConstants.HOST_NAME);
+        } else {
+            // The kernel release, as printed by uname -r
+            target = System.getProperty("os.version"); //$NON-NLS-1$
         }
+        return target + File.pathSeparator
+                + p.getString(PreferenceConstants.P_ENV.SYSTEMTAP_TAPSET.toPrefKey())
+                + File.pathSeparator + p.getString(IDEPreferenceConstants.P_TAPSETS);
+    }
 
-        try (FileReader reader = new FileReader(settingsFile)) {
+    private static File getCacheFile(String key) {
+        return getSettingsPath().append(FILE_NAME + '-' + Integer.toHexString(key.hashCode()))
+                .addFileExtension(CACHE_EXTENSION).toFile();
+    }
+
+    private static File getLegacyFile() {
+        return getSettingsPath().append(FILE_NAME).addFileExtension("xml").toFile(); //$NON-NLS-1$
+    }
+
+    static IPath getSettingsPath() {
+        return new Path(System.getenv("HOME")).append(FILE_DIRECTORY); //$NON-NLS-1$
+    }
+
+    private static boolean isLegacyFileNewer(File cacheFile) {
+        File legacyFile = getLegacyFile();
+        return legacyFile.length() > 0 && legacyFile.lastModified() >= cacheFile.lastModified();
+    }
+
+    private static IMemento getLegacyMemento() {
+        try (FileReader reader = new FileReader(getLegacyFile())) {
             IMemento data = XMLMemento.createReadRoot(reader, FILE_NAME);
             IMemento versionChild = data.getChild(T_VERSION);
             if (versionChild != null && versionChild.getTextData().equals(VERSION_NUMBER)) {
@@ -234,34 +259,6 @@ public final class TreeSettings {
         }
     }
 
-    private static boolean isTreeFileAvailable() {
-        if (settingsFile != null) {
-            return true;
-        }
-
-        IPath path = new Path(System.getenv("HOME")). //$NON-NLS-1$
-                append(FILE_DIRECTORY).append(FILE_NAME).
-                addFileExtension("xml"); //$NON-NLS-1$
-        settingsFile = path.toFile();
-
-        try {
-            if (!settingsFile.exists()){
-                // Create a new settings file-and its parent
-                // directories- if one does not exist.
-                settingsFile.getParentFile().mkdirs();
-                settingsFile.createNewFile();
-            }
-        } catch (IOException ioe) {
-            return false;
-        }
-
-        return true;
-    }
-
-    private static String getStringFromValue(String val) {
-        return val == null ? M_NULL : val;
-    }
-
     private static String getValueFromString(String string) {
         return M_NULL.equals(string) ? null : string;
     }
@@ -12,7 +12,6 @@
 package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers;
 
 import java.text.MessageFormat;
-import java.util.Scanner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -80,15 +79,20 @@ public final class FunctionParser extends TreeTapsetParser {
         }
 
         boolean canceled = false;
-        try (Scanner scanner = new Scanner(tapsetContents)) {
-            scanner.useDelimiter("(?=" + SharedParser.TAG_FILE + ")"); //$NON-NLS-1$ //$NON-NLS-2$
-            while (scanner.hasNext()) {
-                if (monitor.isCanceled()) {
-                    canceled = true;
-                    break;
-                }
-                addFunctionsFromFileContents(scanner.next());
+        // Split the contents at each file tag.
+        int start = 0;
+        int length = tapsetContents.length();
+        while (start < length) {
+            if (monitor.isCanceled()) {
+                canceled = true;
+                break;
+            }
+            int next = tapsetContents.indexOf(SharedParser.TAG_FILE, start + 1);
+            if (next == -1) {
+                next = length;
             }
+            addFunctionsFromFileContents(tapsetContents.substring(start, next));
+            start = next;
         }
         tree.sortLevel();
         return !canceled ? IStatus.OK : IStatus.CANCEL;
@@ -100,10 +104,7 @@ public final class FunctionParser extends TreeTapsetParser {
      * @param fileContents The tapset contents of a single file.
      */
     private void addFunctionsFromFileContents(String fileContents) {
-        String filename;
-        try (Scanner st = new Scanner(fileContents)) {
-            filename = SharedParser.findFileNameInTag(st.nextLine());
-        }
+        String filename = SharedParser.findFileNameInTag(SharedParser.getFirstLine(fileContents));
 
         Matcher matcher = P_FUNCTION.matcher(fileContents);
         String scriptText = null;
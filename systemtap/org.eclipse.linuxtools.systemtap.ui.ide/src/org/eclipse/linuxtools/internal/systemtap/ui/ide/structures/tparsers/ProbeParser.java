@@ -11,12 +11,16 @@
 
 package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -74,11 +78,27 @@ public final class ProbeParser extends TreeTapsetParser {
      */
     @Override
     protected int runAction(IProgressMonitor monitor) {
-        int result = addStaticProbes(monitor);
-        if (result == IStatus.OK) {
-            result = addProbeAliases(monitor);
+        // Listing the probe aliases takes the longest and doesn't depend on
+        // the static probes, so start it while the static probes are listed.
+        FutureTask<String> aliasDump = new FutureTask<>(
+                () -> runStap(new String[]{"-L"}, "**", false)); //$NON-NLS-1$ //$NON-NLS-2$
+        Thread aliasThread = new Thread(aliasDump, Messages.ProbeParser_name);
+        aliasThread.setDaemon(true);
+        aliasThread.start();
+        try {
+            int result = addStaticProbes(monitor);
+            if (result == IStatus.OK) {
+                result = addProbeAliases(aliasDump.get(), monitor);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            return IStatus.CANCEL;
+        } catch (ExecutionException e) {
+            return IStatus.ERROR;
+        } finally {
+            // Stops the alias listing if it is still running.
+            aliasDump.cancel(true);
         }
-        return result;
     }
 
     /**
@@ -101,18 +121,22 @@ public final class ProbeParser extends TreeTapsetParser {
             return IStatus.ERROR;
         }
 
+        // runStap returns the whole output of stap, so the dump is already
+        // in memory; it is only split into lines here.
         boolean canceled = false;
-        try (Scanner st = new Scanner(probeDump)) {
+        try (BufferedReader reader = new BufferedReader(new StringReader(probeDump))) {
             TreeNode groupNode = null;
-            while (st.hasNextLine()) {
+            String tokenString;
+            while ((tokenString = reader.readLine()) != null) {
                 if (monitor.isCanceled()) {
                     canceled = true;
                     break;
                 }
-                String tokenString = st.nextLine();
                 groupNode = addOrFindProbeGroup(extractProbeGroupName(tokenString), groupNode, statics);
                 groupNode.add(makeStaticProbeNode(tokenString));
             }
+        } catch (IOException e) {
+            // Reading from a string does not fail
         }
         statics.sortTree();
         return !canceled ? IStatus.OK : IStatus.CANCEL;
@@ -121,9 +145,10 @@ public final class ProbeParser extends TreeTapsetParser {
     /**
      * Runs stap to obtain a log of all probe aliases & their variables,
      * and populate the probe tree with them.
+     * @param probeDump The output of "stap -L **".
      * @return An {@link IStatus} severity level for the result of the operation.
      */
-    private int addProbeAliases(IProgressMonitor monitor) {
+    private int addProbeAliases(String probeDump, IProgressMonitor monitor) {
         TreeNode statics = tree.getChildByName(Messages.ProbeParser_staticProbes);
         if (statics == null) {
             return IStatus.ERROR;
@@ -134,7 +159,6 @@ public final class ProbeParser extends TreeTapsetParser {
             return IStatus.CANCEL;
         }
 
-        String probeDump = runStap(new String[]{"-L"}, "**", false); //$NON-NLS-1$ //$NON-NLS-2$
         int result = verifyRunResult(probeDump);
         if (result != IStatus.OK) {
             return result;
@@ -144,14 +168,14 @@ public final class ProbeParser extends TreeTapsetParser {
         }
 
         boolean canceled = false;
-        try (Scanner st = new Scanner(probeDump)) {
+        try (BufferedReader reader = new BufferedReader(new StringReader(probeDump))) {
             TreeNode groupNode = null;
-            while (st.hasNextLine()) {
+            String tokenString;
+            while ((tokenString = reader.readLine()) != null) {
                 if (monitor.isCanceled()) {
                     canceled = true;
                     break;
                 }
-                String tokenString = st.nextLine();
                 // If the token starts with '_' or '__' it is a private probe so
                 // skip it.
                 if (tokenString.startsWith("_")) { //$NON-NLS-1$
@@ -164,6 +188,8 @@ public final class ProbeParser extends TreeTapsetParser {
                 }
                 groupNode = addSingleProbeAlias(tokenString, aliases, groupNode, groupName, null);
             }
+        } catch (IOException e) {
+            // Reading from a string does not fail
         }
         aliases.sortTree();
         return !canceled ? IStatus.OK : IStatus.CANCEL;
@@ -179,9 +205,7 @@ public final class ProbeParser extends TreeTapsetParser {
             return false;
         }
         // Check just the first probe printed
-        try (Scanner scanner = new Scanner(probeDump)) {
-            return Pattern.matches(PROBE_FORM_CHECK_REGEX, scanner.nextLine());
-        }
+        return Pattern.matches(PROBE_FORM_CHECK_REGEX, SharedParser.getFirstLine(probeDump));
     }
 
     /**
@@ -260,20 +284,7 @@ public final class ProbeParser extends TreeTapsetParser {
      * file can't be found (which is the case for static probes).
      */
     private String findDefinitionOf(String probeName) {
-        String tapsetContents = SharedParser.getInstance().getTapsetContents();
-        if (tapsetContents == null) {
-            return null;
-        }
-        Matcher probeMatcher = Pattern.compile(MessageFormat.format(
-                TAPSET_PROBE_REGEX, Pattern.quote(probeName))).matcher(tapsetContents);
-        if (!probeMatcher.find()) {
-            return null;
-        }
-        int fileLocIndex = tapsetContents.substring(0, probeMatcher.start())
-                .lastIndexOf(SharedParser.TAG_FILE);
-        try (Scanner scanner = new Scanner(tapsetContents.substring(fileLocIndex))) {
-            return SharedParser.findFileNameInTag(scanner.nextLine());
-        }
+        return SharedParser.getInstance().getProbeDefinition(probeName);
     }
 
     /**
@@ -360,10 +371,7 @@ public final class ProbeParser extends TreeTapsetParser {
                         ? tapsetContents.substring(firstTagIndex, nextTagIndex)
                                 : tapsetContents.substring(firstTagIndex);
 
-                String filename;
-                try (Scanner st = new Scanner(fileContents)) {
-                    filename = SharedParser.findFileNameInTag(st.nextLine());
-                }
+                String filename = SharedParser.findFileNameInTag(SharedParser.getFirstLine(fileContents));
 
                 // Search file contents for the probes the file provides.
                 ArrayList<String> newItems = new ArrayList<>();
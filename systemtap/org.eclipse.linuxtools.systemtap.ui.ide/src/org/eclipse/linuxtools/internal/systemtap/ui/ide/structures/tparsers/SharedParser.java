@@ -11,6 +11,8 @@
 
 package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,6 +43,7 @@ public final class SharedParser extends TapsetParser {
      */
     static final String TAG_FILE = "# file "; //$NON-NLS-1$
     private static final Pattern FILE_PATTERN = Pattern.compile(TAG_FILE.concat("(/.*\\.stp)")); //$NON-NLS-1$
+    private static final Pattern PROBE_DEFINITION_PATTERN = Pattern.compile("probe (\\S+) \\+?="); //$NON-NLS-1$
 
     /**
      * Returns the entire tag that is printed immediately before a given file's contents in
@@ -64,7 +67,17 @@ public final class SharedParser extends TapsetParser {
         return matcher.find() ? matcher.group(1) : null;
     }
 
+    /**
+     * @param contents A block of text.
+     * @return The first line of the text, without its line terminator.
+     */
+    static String getFirstLine(String contents) {
+        int lineEnd = contents.indexOf('\n');
+        return lineEnd != -1 ? contents.substring(0, lineEnd) : contents;
+    }
+
     private String tapsetContents = null;
+    private Map<String, String> probeDefinitions = null;
 
     private static SharedParser parser = null;
     public static SharedParser getInstance(){
@@ -85,6 +98,7 @@ public final class SharedParser extends TapsetParser {
      */
     public synchronized void clearTapsetContents() {
         tapsetContents = null;
+        probeDefinitions = null;
     }
 
     /**
@@ -99,6 +113,48 @@ public final class SharedParser extends TapsetParser {
         return tapsetContents != null ? tapsetContents : runAction();
     }
 
+    /**
+     * Finds the file that defines a probe alias. The first time this is called
+     * for a set of tapset contents, all probe alias definitions in the contents
+     * are indexed in a single pass, so later lookups take constant time.
+     * @param probeName The name of the probe alias.
+     * @return The path of the file that defines the probe alias, or <code>null</code>
+     * if it can't be found or the tapset contents are unavailable.
+     */
+    synchronized String getProbeDefinition(String probeName) {
+        if (probeDefinitions == null) {
+            String contents = getTapsetContents();
+            if (verifyRunResult(contents) != IStatus.OK) {
+                return null;
+            }
+            probeDefinitions = indexProbeDefinitions(contents);
+        }
+        return probeDefinitions.get(probeName);
+    }
+
+    /**
+     * Maps the name of every probe alias defined in a tapset content dump to
+     * the first file that defines it.
+     */
+    private static Map<String, String> indexProbeDefinitions(String contents) {
+        Map<String, String> definitions = new HashMap<>();
+        Matcher matcher = PROBE_DEFINITION_PATTERN.matcher(contents);
+        int start = contents.indexOf(TAG_FILE);
+        while (start != -1) {
+            int next = contents.indexOf(TAG_FILE, start + 1);
+            int end = next != -1 ? next : contents.length();
+            int lineEnd = contents.indexOf('\n', start);
+            String fileName = findFileNameInTag(
+                    contents.substring(start, lineEnd != -1 && lineEnd < end ? lineEnd : end));
+            matcher.region(start, end);
+            while (matcher.find()) {
+                definitions.putIfAbsent(matcher.group(1), fileName);
+            }
+            start = next;
+        }
+        return definitions;
+    }
+
     @Override
     protected IStatus run(IProgressMonitor monitor) {
         return createStatus(verifyRunResult(runAction()));
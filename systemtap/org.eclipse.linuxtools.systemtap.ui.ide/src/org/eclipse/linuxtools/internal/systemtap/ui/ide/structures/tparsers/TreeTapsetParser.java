@@ -40,6 +40,7 @@ public abstract class TreeTapsetParser extends TapsetParser {
     protected TreeNode tree = new TreeNode(null, false);
     private TreeNode forcedTree = null;
     private TapsetChanges tapsetChanges = null;
+    private volatile int generation = 0;
 
     protected TreeTapsetParser(String jobTitle) {
         super(jobTitle);
@@ -97,6 +98,7 @@ public abstract class TreeTapsetParser extends TapsetParser {
             tree = new TreeNode(null, false);
             result = createStatus(runAction(monitor));
         }
+        generation++;
         synchronized (lock) {
             return result;
         }
@@ -172,6 +174,15 @@ public abstract class TreeTapsetParser extends TapsetParser {
         return tree;
     }
 
+    /**
+     * @return A number that changes every time this parser finishes a run,
+     * whether the run replaced its tree or updated it in place. Clients that
+     * derive data from the tree can compare it to know when to recompute.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
     /**
      * Forcefully set this parser's tree, and subsequently fire update events
      * that normally get called when a parse operation completes.
@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.IDEPlugin;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.Localization;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.actions.KernelSourceAction;
@@ -65,7 +66,6 @@ public class KernelBrowserView extends BrowserView {
         @Override
         public IStatus run(IProgressMonitor monitor) {
             IPreferenceStore p = IDEPlugin.getDefault().getPreferenceStore();
-            KernelSourceTree kst = new KernelSourceTree();
             String excluded[] = p.getString(IDEPreferenceConstants.P_EXCLUDED_KERNEL_SOURCE).split(File.pathSeparator);
             if (remote) {
                 try {
@@ -86,12 +86,54 @@ public class KernelBrowserView extends BrowserView {
         }
     }
 
+    /**
+     * Asks the kernel source tree for the contents of directories, so that
+     * directories are listed only when they are expanded.
+     */
+    private class KernelContentProvider extends ViewContentProvider {
+        @Override
+        public Object[] getChildren(Object par) {
+            TreeNode parent = (TreeNode) par;
+            if (!(parent.getData() instanceof IFileStore)) {
+                return super.getChildren(par);
+            }
+            TreeNode[] children = kst.getChildren(parent, this::childrenChanged);
+            if (children == null) {
+                return new Object[] {new TreeNode(Localization.getString("BrowserView.Loading"), false)}; //$NON-NLS-1$
+            }
+            return children;
+        }
+
+        @Override
+        public boolean hasChildren(Object par) {
+            TreeNode parent = (TreeNode) par;
+            if (!(parent.getData() instanceof IFileStore)) {
+                return super.hasChildren(par);
+            }
+            return kst.hasChildren(parent);
+        }
+
+        private void childrenChanged(TreeNode node) {
+            TreeViewer treeViewer = viewer;
+            if (treeViewer != null) {
+                treeViewer.getControl().getDisplay().asyncExec(() -> {
+                    if (!treeViewer.getControl().isDisposed()) {
+                        treeViewer.refresh(node);
+                    }
+                });
+            }
+        }
+    }
+
+    private final KernelSourceTree kst = new KernelSourceTree();
+
     /**
      * Creates the UI on the given <code>Composite</code>
      */
     @Override
     public void createPartControl(Composite parent) {
         super.createPartControl(parent);
+        viewer.setContentProvider(new KernelContentProvider());
         refresh();
         makeActions();
     }
@@ -200,6 +242,7 @@ public class KernelBrowserView extends BrowserView {
     @Override
     public void dispose() {
         IDEPlugin.getDefault().getPreferenceStore().removePropertyChangeListener(propertyChangeListener);
+        kst.dispose();
         super.dispose();
     }
 }
@@ -16,6 +16,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.Localization;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.ManpageCacher;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.TapsetLibrary;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers.TapsetParser;
 import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers.TreeTapsetParser;
@@ -111,10 +112,12 @@ public abstract class TapsetBrowserView extends BrowserView {
     }
 
     /**
-     * Reruns the tapset parser to refresh the list of both probes and functions.
+     * Reruns the tapset parser to refresh the list of both probes and functions,
+     * and discards the man pages saved for them.
      */
     @Override
     protected void refresh() {
+        ManpageCacher.clear();
         TapsetLibrary.runStapParser();
     }
 